@@ -116,6 +116,12 @@ public interface PaxWebConfig {
 	 */
 	String PID_CFG_SERVER_THREAD_NAME_PREFIX = "org.ops4j.pax.web.server.threadNamePrefix";
 
+	/**
+	 * Boolean property to run request handling on virtual threads (requires Java 21, defaults to {@code false}).
+	 * Jetty: {@code org.eclipse.jetty.util.thread.QueuedThreadPool#setVirtualThreadsExecutor(java.util.concurrent.Executor)}
+	 */
+	String PID_CFG_SERVER_VIRTUAL_THREADS = "org.ops4j.pax.web.server.virtualThreads";
+
 	/**
 	 * Jetty: adds {@code org.eclipse.jetty.server.ForwardedRequestCustomizer} to {@code HttpConfiguration}
 	 */
@@ -161,6 +167,14 @@ public interface PaxWebConfig {
 	 */
 	String BUNDLE_CONTEXT_PROPERTY_WAR_EXTENDER_JARS_TO_SCAN = "org.ops4j.pax.web.extender.war.jarsToScan";
 
+	/**
+	 * Context property ({@code true}/{@code false}, defaults to {@code false}) enabling persistent cache of WAB
+	 * metadata. When enabled, the results of scanning WAB classes for annotated servlets, filters, listeners and for
+	 * the types declared in {@code @HandlesTypes} are stored in the data area of pax-web-extender-war bundle and
+	 * reused after restart, as long as the WAB and the bundles in its class space didn't change.
+	 */
+	String BUNDLE_CONTEXT_PROPERTY_WAR_EXTENDER_METADATA_CACHE = "org.ops4j.pax.web.extender.war.metadataCache";
+
 	/**
 	 * <p>Defines the type of TCCL that should be set for service methods (like {@link javax.servlet.Servlet#service}).
 	 * It can take two values:<ul>
@@ -181,6 +195,57 @@ public interface PaxWebConfig {
 	 */
 	String PID_CFG_TCCL_TYPE = "org.ops4j.pax.web.tccl.type";
 
+	/**
+	 * <p>Integer property (milliseconds) specifying the <em>coalescing window</em> for registration batches. When
+	 * greater than {@code 0}, batches of web element (un)registrations arriving within the window are not sent
+	 * to the target server runtime one by one, but merged into single batch, where each affected context
+	 * is (re)started at most once.</p>
+	 * <p>Defaults to {@code 0}, which means that each registration is passed to the runtime immediately.</p>
+	 */
+	String PID_CFG_REGISTRATION_COALESCE_WINDOW = "org.ops4j.pax.web.registration.coalesce.window";
+
+	/**
+	 * Integer property specifying maximum number of operations collected within single coalescing window. When
+	 * this number is reached, collected operations are sent to the runtime even if the window didn't pass yet.
+	 * Defaults to {@code 1000}.
+	 */
+	String PID_CFG_REGISTRATION_COALESCE_MAX_OPERATIONS = "org.ops4j.pax.web.registration.coalesce.maxOperations";
+
+	/**
+	 * <p>Integer property (milliseconds) specifying the <em>quiet period</em> after which a context, stopped because
+	 * of registration of {@link javax.servlet.ServletContextListener} or
+	 * {@link javax.servlet.ServletContainerInitializer}, is started again. Each subsequent registration for the same
+	 * context within this period postpones the start, so the context is restarted once instead of after each
+	 * registration.</p>
+	 * <p>Defaults to {@code 0}, which means that the context is started immediately after the registration.</p>
+	 */
+	String PID_CFG_CONTEXT_RESTART_QUIET_PERIOD = "org.ops4j.pax.web.context.restart.quietPeriod";
+
+	/**
+	 * <p>Integer property specifying the number of threads used to start the contexts (call SCIs, listeners and
+	 * initialize servlets) in parallel. Global model is still altered by single configuration thread and the order
+	 * of operations related to single context path is preserved, but independent contexts may be started
+	 * concurrently.</p>
+	 * <p>Defaults to {@code 0}, which means that the contexts are started in the configuration thread.</p>
+	 */
+	String PID_CFG_CONTEXT_START_THREADS = "org.ops4j.pax.web.context.start.threads";
+
+	/**
+	 * <p>Integer property specifying the minimal interval (in milliseconds) between updates of
+	 * {@code service.changecount} property of {@link org.osgi.service.http.runtime.HttpServiceRuntime}
+	 * registration. Each update is a {@code MODIFIED} service event delivered to all interested listeners, so
+	 * during bulk deployment it's better to propagate only the latest value of the counter.</p>
+	 * <p>Defaults to {@code 0}, which means the registration is updated on every change.</p>
+	 */
+	String PID_CFG_CHANGECOUNT_UPDATE_INTERVAL = "org.ops4j.pax.web.changecount.updateInterval";
+
+	/**
+	 * <p>Boolean property to enable recording of request counts and latency histograms per OSGi context and
+	 * per servlet. The metrics are available through JMX and can also be switched there at runtime.</p>
+	 * <p>Defaults to {@code false}.</p>
+	 */
+	String PID_CFG_METRICS_ENABLED = "org.ops4j.pax.web.metrics.enabled";
+
 	// --- security configuration properties
 
 	/**
@@ -295,6 +360,13 @@ public interface PaxWebConfig {
 	String PID_CFG_DIGESTAUTH_MAX_NONCE_COUNT = "org.ops4j.pax.web.digestAuth.maxNonceCount";
 	/** Returns whether to forward (false, default) to form-login error page or use redirect (true) */
 	String PID_CFG_FORMAUTH_REDIRECT = "org.ops4j.pax.web.formAuth.errorRedirect";
+	/**
+	 * Time (in ms) for which successful verification of user credentials (JAAS login in particular) is cached.
+	 * Defaults to {@code 0}, which means no caching.
+	 */
+	String PID_CFG_CREDENTIAL_CACHE_TTL = "org.ops4j.pax.web.credentialCache.ttl";
+	/** Max number of cached credential verifications, defaults to 1024 */
+	String PID_CFG_CREDENTIAL_CACHE_MAX_SIZE = "org.ops4j.pax.web.credentialCache.maxSize";
 
 	// --- logging configuration properties
 
@@ -414,6 +486,75 @@ public interface PaxWebConfig {
 	 */
 	String PID_CFG_DEFAULT_SERVLET_CACHE_TTL = "org.ops4j.pax.web.resource.cache.ttl";
 
+	/**
+	 * <p>Integer property to specify maximum total size (kB) of single, off-heap cache shared by all
+	 * <em>resource servlets</em> of the server. When specified, it's used instead of per-servlet caches and
+	 * {@link #PID_CFG_DEFAULT_SERVLET_CACHE_MAX_ENTRY_SIZE} limits the size of cached files. Defaults to {@code 0},
+	 * which means each resource servlet uses own, native cache.</p>
+	 */
+	String PID_CFG_DEFAULT_SERVLET_SHARED_CACHE_MAX_SIZE = "org.ops4j.pax.web.resource.sharedCache.maxSize";
+
+	/**
+	 * <p>Boolean property to specify whether <em>resource servlets</em> should serve precompressed variants
+	 * ({@code .br} and {@code .gz} siblings of the resource, also inside bundles) to clients accepting given
+	 * encoding. Defaults to {@code false}.</p>
+	 * <p><ul>
+	 *     <li>Jetty: {@code precompressed} init parameter</li>
+	 *     <li>Tomcat: {@code precompressed} init parameter</li>
+	 *     <li>Undertow: {@code io.undertow.servlet.api.DeploymentInfo#getPreCompressedResources()}</li>
+	 * </ul></p>
+	 */
+	String PID_CFG_DEFAULT_SERVLET_PRECOMPRESSED = "org.ops4j.pax.web.resource.precompressed";
+
+	/**
+	 * <p>Boolean property to specify whether <em>resource servlets</em> should gzip resources of compressible
+	 * MIME types (when there's no precompressed variant). Compressed content is cached per bundle revision,
+	 * so each resource is compressed only once. Defaults to {@code false}.</p>
+	 */
+	String PID_CFG_DEFAULT_SERVLET_COMPRESSION = "org.ops4j.pax.web.resource.compression";
+
+	/**
+	 * <p>Comma-separated list of MIME types compressed when {@link #PID_CFG_DEFAULT_SERVLET_COMPRESSION} is
+	 * enabled. Wildcards like {@code text/*} are supported. Defaults to text, JavaScript, JSON, XML and SVG
+	 * types.</p>
+	 */
+	String PID_CFG_DEFAULT_SERVLET_COMPRESSION_MIME_TYPES = "org.ops4j.pax.web.resource.compression.mimeTypes";
+
+	/**
+	 * <p>Integer property to specify maximum total size (kB) of compressed content cached when
+	 * {@link #PID_CFG_DEFAULT_SERVLET_COMPRESSION} is enabled. Defaults to 10MB.</p>
+	 */
+	String PID_CFG_DEFAULT_SERVLET_COMPRESSION_CACHE_MAX_SIZE = "org.ops4j.pax.web.resource.compression.cache.maxSize";
+
+	/**
+	 * <p>Boolean property to specify whether <em>resource servlets</em> should use strong entity tags computed
+	 * from the content of bundle resources (once per bundle revision) instead of weak tags based on length
+	 * and last modification time, which is not reliable for bundle entries. Defaults to {@code false}.</p>
+	 */
+	String PID_CFG_DEFAULT_SERVLET_CONTENT_ETAGS = "org.ops4j.pax.web.resource.etag.content";
+
+	/**
+	 * <p>Comma-separated list of regular expressions searched in the paths of resources served by
+	 * <em>resource servlets</em>. Matching (fingerprinted) resources are served with
+	 * {@code Cache-Control: public, max-age=<maxAge>, immutable}. Commas inside <code>{n,m}</code> quantifiers
+	 * don't separate the patterns. Not set by default.</p>
+	 */
+	String PID_CFG_DEFAULT_SERVLET_IMMUTABLE_PATTERNS = "org.ops4j.pax.web.resource.immutable.patterns";
+
+	/**
+	 * <p>Integer property to specify {@code max-age} (seconds) of resources matching
+	 * {@link #PID_CFG_DEFAULT_SERVLET_IMMUTABLE_PATTERNS}. Defaults to one year.</p>
+	 */
+	String PID_CFG_DEFAULT_SERVLET_IMMUTABLE_MAX_AGE = "org.ops4j.pax.web.resource.immutable.maxAge";
+
+	/**
+	 * <p>Boolean property to specify whether default contexts ({@code HttpContext} and {@code ServletContextHelper}
+	 * implementations provided by Pax Web) should look up bundle resources and resource paths using an index of
+	 * bundle entries, built once per bundle revision, instead of asking the framework on each call.
+	 * Defaults to {@code false}.</p>
+	 */
+	String PID_CFG_BUNDLE_ENTRY_INDEX = "org.ops4j.pax.web.resource.bundleEntryIndex";
+
 	/** Boolean property to configure the container to show or hide stack traces in <em>error handler</em>. */
 	String PID_CFG_SHOW_STACKS = "org.ops4j.pax.web.server.showStacks";
 
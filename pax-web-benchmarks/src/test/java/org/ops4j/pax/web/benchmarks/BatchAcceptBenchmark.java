@@ -0,0 +1,116 @@
+/*
+ * Copyright 2026 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.web.benchmarks;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.ops4j.pax.web.service.spi.ServerController;
+import org.ops4j.pax.web.service.spi.context.DefaultHttpContext;
+import org.ops4j.pax.web.service.spi.model.OsgiContextModel;
+import org.ops4j.pax.web.service.spi.model.ServletContextModel;
+import org.ops4j.pax.web.service.spi.model.elements.ServletModel;
+import org.ops4j.pax.web.service.spi.task.Batch;
+import org.osgi.framework.Bundle;
+
+/**
+ * <p>Measures how fast each {@link ServerController} (embedded Jetty, Tomcat and Undertow, without OSGi)
+ * processes explicit {@link Batch batches} - one adding N servlets to a started context and then N batches
+ * removing them.</p>
+ *
+ * <p>{@link org.ops4j.pax.web.service.spi.model.ServerModel} is not involved, so only
+ * {@link Batch#accept} and the server wrappers are measured.</p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BatchAcceptBenchmark {
+
+	@Param({ BenchmarkSupport.JETTY, BenchmarkSupport.TOMCAT, BenchmarkSupport.UNDERTOW })
+	public String runtime;
+
+	/** Number of servlets added/removed with single batch */
+	@Param({ "10", "100" })
+	public int count;
+
+	private ServerController controller;
+	private ServletModel[] servletModels;
+
+	@Setup(Level.Trial)
+	public void setup() throws Exception {
+		controller = BenchmarkSupport.createServerController(runtime);
+		controller.configure();
+		controller.start();
+
+		Bundle bundle = BenchmarkSupport.mockBundle("benchmark", 1L);
+
+		Batch batch = new Batch("Create context");
+		ServletContextModel scm = new ServletContextModel("/c");
+		batch.addServletContextModel(scm);
+		OsgiContextModel ocm = new OsgiContextModel(new DefaultHttpContext(bundle), bundle, "/c", false);
+		batch.addOsgiContextModel(ocm, scm);
+		controller.sendBatch(batch);
+
+		servletModels = new ServletModel[count];
+		for (int i = 0; i < count; i++) {
+			servletModels[i] = new ServletModel.Builder()
+					.withServletName("s" + i)
+					.withUrlPatterns(new String[] { "/s" + i + "/*" })
+					.withServlet(new BenchmarkSupport.NoopServlet())
+					.withOsgiContextModel(ocm)
+					.withRegisteringBundle(bundle)
+					.build();
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws Exception {
+		controller.stop();
+	}
+
+	@Benchmark
+	public void addAndRemoveServlets() {
+		Batch add = new Batch("Add servlets");
+		for (ServletModel model : servletModels) {
+			add.addServletModel(model);
+		}
+		controller.sendBatch(add);
+
+		// servlets are removed one by one, as with HttpService.unregister()
+		for (ServletModel model : servletModels) {
+			Batch remove = new Batch("Remove servlet");
+			remove.removeServletModels(Collections.singletonMap(model, Boolean.TRUE));
+			controller.sendBatch(remove);
+		}
+	}
+
+}
@@ -0,0 +1,204 @@
+/*
+ * Copyright 2026 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.web.benchmarks;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.ServerSocket;
+import java.util.Collections;
+import java.util.Dictionary;
+import java.util.Hashtable;
+import java.util.LinkedList;
+import java.util.concurrent.Executor;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletContext;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpFilter;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.ops4j.pax.web.service.PaxWebConfig;
+import org.ops4j.pax.web.service.internal.ConfigurationBuilder;
+import org.ops4j.pax.web.service.internal.MetaTypePropertyResolver;
+import org.ops4j.pax.web.service.jetty.internal.JettyServerControllerFactory;
+import org.ops4j.pax.web.service.spi.ServerController;
+import org.ops4j.pax.web.service.spi.ServerControllerFactory;
+import org.ops4j.pax.web.service.spi.config.Configuration;
+import org.ops4j.pax.web.service.spi.util.Utils;
+import org.ops4j.pax.web.service.tomcat.internal.TomcatServerControllerFactory;
+import org.ops4j.pax.web.service.undertow.internal.UndertowServerControllerFactory;
+import org.ops4j.util.property.DictionaryPropertyResolver;
+import org.osgi.framework.Bundle;
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.ServiceRegistration;
+import org.osgi.framework.Version;
+import org.osgi.framework.namespace.HostNamespace;
+import org.osgi.framework.wiring.BundleRevision;
+import org.osgi.framework.wiring.BundleWiring;
+import org.xnio.nio.NioXnioProvider;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Helper methods to run Pax Web configuration path without OSGi framework - similar to what
+ * {@code pax-web-itest-server} tests do.
+ */
+final class BenchmarkSupport {
+
+	/** Names of the runtimes used as JMH {@code @Param} values */
+	static final String JETTY = "jetty";
+	static final String TOMCAT = "tomcat";
+	static final String UNDERTOW = "undertow";
+
+	/** Executor for {@link org.ops4j.pax.web.service.spi.model.ServerModel} which runs the tasks immediately */
+	static final Executor SAME_THREAD = Runnable::run;
+
+	private BenchmarkSupport() {
+	}
+
+	/**
+	 * Creates (but doesn't configure or start) embedded {@link ServerController} for given runtime.
+	 *
+	 * @param runtime one of {@link #JETTY}, {@link #TOMCAT} or {@link #UNDERTOW}
+	 * @return
+	 */
+	static ServerController createServerController(String runtime) {
+		Hashtable<Object, Object> properties = new Hashtable<>(System.getProperties());
+		properties.put(PaxWebConfig.PID_CFG_TEMP_DIR, "target/tmp");
+		properties.put(PaxWebConfig.PID_CFG_HTTP_PORT, Integer.toString(freePort()));
+
+		DictionaryPropertyResolver resolver = new DictionaryPropertyResolver(properties, new MetaTypePropertyResolver());
+		Configuration config = ConfigurationBuilder.getConfiguration(resolver, Utils.toMap(properties));
+
+		ClassLoader classLoader = BenchmarkSupport.class.getClassLoader();
+		ServerControllerFactory factory;
+		switch (runtime) {
+			case JETTY:
+				factory = new JettyServerControllerFactory(null, classLoader);
+				break;
+			case TOMCAT:
+				factory = new TomcatServerControllerFactory(null, classLoader);
+				break;
+			case UNDERTOW:
+				factory = new UndertowServerControllerFactory(null, classLoader, new NioXnioProvider());
+				break;
+			default:
+				throw new IllegalArgumentException("Not supported: " + runtime);
+		}
+		return factory.createServerController(config);
+	}
+
+	/**
+	 * Creates a {@link ServerController} which ignores all the batches, so only the cost of
+	 * {@link org.ops4j.pax.web.service.spi.model.ServerModel} operations is measured.
+	 *
+	 * @return
+	 */
+	static ServerController createNoopServerController() {
+		return mock(ServerController.class);
+	}
+
+	/**
+	 * Creates a {@link Configuration} without any server-specific files.
+	 *
+	 * @return
+	 */
+	static Configuration createConfiguration() {
+		Hashtable<Object, Object> properties = new Hashtable<>();
+		properties.put(PaxWebConfig.PID_CFG_TEMP_DIR, "target/tmp");
+		DictionaryPropertyResolver resolver = new DictionaryPropertyResolver(properties, new MetaTypePropertyResolver());
+		return ConfigurationBuilder.getConfiguration(resolver, Utils.toMap(properties));
+	}
+
+	/**
+	 * Creates mock {@link Bundle} with associated mock {@link BundleContext} - just enough to be used as
+	 * <em>registering bundle</em> of web elements.
+	 *
+	 * @param symbolicName
+	 * @param id
+	 * @return
+	 */
+	@SuppressWarnings("unchecked")
+	static Bundle mockBundle(String symbolicName, long id) {
+		Bundle bundle = mock(Bundle.class);
+		BundleContext bundleContext = mock(BundleContext.class);
+		when(bundle.getSymbolicName()).thenReturn(symbolicName);
+		when(bundle.getBundleId()).thenReturn(id);
+		when(bundle.getVersion()).thenReturn(Version.parseVersion("1.0.0"));
+		when(bundle.toString()).thenReturn("Bundle \"" + symbolicName + "\"");
+		when(bundle.getBundleContext()).thenReturn(bundleContext);
+		when(bundleContext.getBundle()).thenReturn(bundle);
+
+		BundleWiring wiring = mock(BundleWiring.class);
+		when(bundle.adapt(BundleWiring.class)).thenReturn(wiring);
+		when(wiring.getClassLoader()).thenReturn(BenchmarkSupport.class.getClassLoader());
+		when(wiring.getProvidedWires(HostNamespace.HOST_NAMESPACE)).thenReturn(new LinkedList<>());
+		when(wiring.getRequiredWires(null)).thenReturn(new LinkedList<>());
+		when(wiring.getBundle()).thenReturn(bundle);
+
+		BundleRevision revision = mock(BundleRevision.class);
+		when(bundle.adapt(BundleRevision.class)).thenReturn(revision);
+		when(revision.getWiring()).thenReturn(wiring);
+		when(revision.getBundle()).thenReturn(bundle);
+
+		try {
+			when(bundle.getResources(anyString())).thenReturn(Collections.emptyEnumeration());
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		when(bundleContext.registerService(eq(ServletContext.class), any(ServletContext.class), any(Dictionary.class)))
+				.thenReturn(mock(ServiceRegistration.class));
+
+		return bundle;
+	}
+
+	private static int freePort() {
+		try (ServerSocket socket = new ServerSocket(0)) {
+			return socket.getLocalPort();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Trivial servlet - the benchmarks never send any requests.
+	 */
+	static class NoopServlet extends HttpServlet {
+
+		@Override
+		protected void doGet(HttpServletRequest req, HttpServletResponse resp) {
+			resp.setStatus(HttpServletResponse.SC_NO_CONTENT);
+		}
+	}
+
+	/**
+	 * Trivial filter - the benchmarks never send any requests.
+	 */
+	static class NoopFilter extends HttpFilter {
+
+		@Override
+		protected void doFilter(HttpServletRequest req, HttpServletResponse res, FilterChain chain)
+				throws IOException, ServletException {
+			chain.doFilter(req, res);
+		}
+	}
+
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2026 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.web.benchmarks;
+
+import java.lang.reflect.Proxy;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.ops4j.pax.web.service.spi.servlet.OsgiServletContextClassLoader;
+import org.osgi.framework.Bundle;
+import org.osgi.framework.wiring.BundleWiring;
+
+/**
+ * <p>Measures class lookups through {@link OsgiServletContextClassLoader} backed by several bundles - both
+ * for existing classes and for classes which are probed for, but are not available (as JSF or Jasper do).</p>
+ *
+ * <p>The bundles and wirings are {@link Proxy proxies} and not mocks, because mock invocations would be more
+ * expensive than the lookups themselves.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ClassLoaderLookupBenchmark {
+
+	/** Number of bundles backing the classloader */
+	@Param({ "3" })
+	public int bundles;
+
+	private OsgiServletContextClassLoader loader;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		loader = new OsgiServletContextClassLoader();
+		ClassLoader cl = ClassLoaderLookupBenchmark.class.getClassLoader();
+		for (int i = 0; i < bundles; i++) {
+			BundleWiring wiring = (BundleWiring) Proxy.newProxyInstance(cl, new Class<?>[] { BundleWiring.class },
+					(proxy, method, args) -> {
+						switch (method.getName()) {
+							case "getClassLoader":
+								return cl;
+							case "isCurrent":
+								return true;
+							default:
+								return null;
+						}
+					});
+			Bundle bundle = (Bundle) Proxy.newProxyInstance(cl, new Class<?>[] { Bundle.class },
+					(proxy, method, args) -> {
+						switch (method.getName()) {
+							case "adapt":
+								return args[0] == BundleWiring.class ? wiring : null;
+							case "hashCode":
+								return System.identityHashCode(proxy);
+							case "equals":
+								return proxy == args[0];
+							default:
+								return null;
+						}
+					});
+			loader.addBundle(bundle);
+		}
+		loader.makeImmutable();
+	}
+
+	@Benchmark
+	public Class<?> existingClass() throws ClassNotFoundException {
+		return loader.loadClass(ClassLoaderLookupBenchmark.class.getName());
+	}
+
+	@Benchmark
+	public Object missingClass() {
+		try {
+			return loader.loadClass("javax.faces.Missing");
+		} catch (ClassNotFoundException e) {
+			return e;
+		}
+	}
+
+}
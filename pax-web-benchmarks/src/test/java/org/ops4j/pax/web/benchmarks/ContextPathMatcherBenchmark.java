@@ -0,0 +1,95 @@
+/*
+ * Copyright 2026 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.web.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.ops4j.pax.web.service.undertow.internal.PathMatcher;
+
+/**
+ * <p>Compares finding a context for request path using Undertow's {@link io.undertow.util.PathMatcher} (used by
+ * {@link io.undertow.server.handlers.PathHandler}) and Pax Web's {@link PathMatcher} (used by
+ * {@link org.ops4j.pax.web.service.undertow.internal.ContextAwarePathHandler}).</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ContextPathMatcherBenchmark {
+
+	/** Number of registered contexts, with different lengths of context paths */
+	@Param({ "10", "300" })
+	public int contexts;
+
+	private final PathMatcher<Object> trie = new PathMatcher<>();
+	private final io.undertow.util.PathMatcher<Object> undertow = new io.undertow.util.PathMatcher<>();
+
+	private String[] paths;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		trie.addPrefixPath("/", "root");
+		undertow.addPrefixPath("/", "root");
+		for (int i = 0; i < contexts; i++) {
+			String context = contextPath(i);
+			trie.addPrefixPath(context, context);
+			undertow.addPrefixPath(context, context);
+		}
+		// requests for the shortest context path, for the last context and for the default context
+		paths = new String[] {
+				contextPath(0) + "/app/servlet",
+				contextPath(contexts - 1) + "/index.html",
+				"/static/css/main.css"
+		};
+	}
+
+	private static String contextPath(int i) {
+		return "/c" + "x".repeat(i % 20) + i;
+	}
+
+	@Benchmark
+	public int undertowPathMatcher() {
+		int result = 0;
+		for (String path : paths) {
+			result += undertow.match(path).getRemaining().length();
+		}
+		return result;
+	}
+
+	@Benchmark
+	public int triePathMatcher() {
+		int result = 0;
+		for (String path : paths) {
+			result += trie.match(path).getRemaining().length();
+		}
+		return result;
+	}
+
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright 2026 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.web.benchmarks;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import javax.servlet.DispatcherType;
+import javax.servlet.FilterChain;
+import javax.servlet.FilterConfig;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.ops4j.pax.web.service.WebContainerContext;
+import org.ops4j.pax.web.service.spi.context.DefaultServletContextHelper;
+import org.ops4j.pax.web.service.spi.context.WebContainerContextWrapper;
+import org.ops4j.pax.web.service.spi.model.OsgiContextModel;
+import org.ops4j.pax.web.service.spi.model.elements.FilterModel;
+import org.ops4j.pax.web.service.spi.model.elements.ServletModel;
+import org.ops4j.pax.web.service.spi.servlet.OsgiFilterChain;
+import org.ops4j.pax.web.service.spi.servlet.PreprocessorFilterConfig;
+import org.ops4j.pax.web.service.spi.servlet.RequestMetricsRegistry;
+import org.osgi.framework.Bundle;
+import org.osgi.service.http.whiteboard.Preprocessor;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * <p>Measures the per-request cost of {@link OsgiFilterChain} - creation of the chain and invocation of
+ * {@link Preprocessor preprocessors} and {@link WebContainerContext#handleSecurity} before the target chain,
+ * as done by all the runtimes for each request - with and without recording of request metrics.</p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OsgiFilterChainBenchmark {
+
+	/** Number of registered preprocessors */
+	@Param({ "0", "2" })
+	public int count;
+
+	/** Whether {@link RequestMetricsRegistry} records the requests */
+	@Param({ "false", "true" })
+	public boolean metrics;
+
+	private List<PreprocessorFilterConfig> preprocessors;
+	private WebContainerContext context;
+	private HttpServletRequest request;
+	private HttpServletResponse response;
+	private OsgiContextModel contextModel;
+	private ServletModel servletModel;
+
+	/** Side effect of the target chain, so the invocation can't be eliminated */
+	private int invocations;
+	private final FilterChain target = (req, res) -> invocations++;
+	private final Consumer<HttpServletRequest> authListener = req -> { };
+
+	@Setup(Level.Trial)
+	public void setup() {
+		Bundle bundle = BenchmarkSupport.mockBundle("benchmark", 1L);
+		context = new WebContainerContextWrapper(bundle, new DefaultServletContextHelper(bundle), "default");
+
+		List<PreprocessorFilterConfig> configs = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			FilterModel model = new FilterModel.Builder()
+					.withFilterName("p" + i)
+					.withFilterSupplier(NoopPreprocessor::new)
+					.isPreprocessor(true)
+					.withRegisteringBundle(bundle)
+					.build();
+			PreprocessorFilterConfig config = new PreprocessorFilterConfig(model, null);
+			config.getInstance();
+			configs.add(config);
+		}
+		preprocessors = Collections.unmodifiableList(configs);
+
+		// not mocks, so Mockito doesn't record the invocations
+		request = new HttpServletRequestWrapper(mock(HttpServletRequest.class)) {
+			@Override
+			public DispatcherType getDispatcherType() {
+				return DispatcherType.REQUEST;
+			}
+
+			@Override
+			public boolean isAsyncStarted() {
+				return false;
+			}
+		};
+		response = new HttpServletResponseWrapper(mock(HttpServletResponse.class)) {
+			@Override
+			public int getStatus() {
+				return 200;
+			}
+		};
+
+		contextModel = new OsgiContextModel(bundle, 0, 0L, true);
+		servletModel = new ServletModel.Builder().withServletName("s1").build();
+		RequestMetricsRegistry.add(contextModel);
+		RequestMetricsRegistry.add(servletModel);
+		RequestMetricsRegistry.setEnabled(metrics);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		RequestMetricsRegistry.setEnabled(false);
+		RequestMetricsRegistry.remove(contextModel);
+		RequestMetricsRegistry.remove(servletModel);
+	}
+
+	@Benchmark
+	public void doFilter() throws Exception {
+		new OsgiFilterChain(preprocessors, null, context, target, null, authListener, contextModel, servletModel)
+				.doFilter(request, response);
+	}
+
+	public static class NoopPreprocessor implements Preprocessor {
+
+		@Override
+		public void init(FilterConfig filterConfig) {
+		}
+
+		@Override
+		public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+				throws IOException, ServletException {
+			chain.doFilter(request, response);
+		}
+
+		@Override
+		public void destroy() {
+		}
+	}
+
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2026 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.web.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import javax.servlet.DispatcherType;
+import javax.servlet.FilterChain;
+import javax.servlet.FilterConfig;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import javax.servlet.http.HttpServletResponse;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.ops4j.pax.web.service.spi.context.DefaultHttpContext;
+import org.ops4j.pax.web.service.spi.model.OsgiContextModel;
+import org.ops4j.pax.web.service.spi.model.elements.FilterModel;
+import org.ops4j.pax.web.service.spi.servlet.OsgiInitializedFilter;
+import org.ops4j.pax.web.service.spi.servlet.OsgiServletContext;
+import org.osgi.framework.Bundle;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * <p>Measures a request passing through a number of Whiteboard filters mapped with
+ * {@code osgi.http.whiteboard.filter.regex}, where only the last one matches.</p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RegexFilterBenchmark {
+
+	/** Number of regex-mapped filters in the context */
+	@Param({ "20" })
+	public int filters;
+
+	private OsgiInitializedFilter[] chain;
+	private HttpServletRequest request;
+	private HttpServletResponse response;
+
+	/** Side effect of the filters, so the invocation can't be eliminated */
+	private int invocations;
+	private final FilterChain next = (req, res) -> invocations++;
+
+	@Setup(Level.Trial)
+	public void setup() throws ServletException {
+		Bundle bundle = BenchmarkSupport.mockBundle("benchmark", 1L);
+		// the filters of one context share the matcher
+		OsgiServletContext context = new OsgiServletContext(null,
+				new OsgiContextModel(new DefaultHttpContext(bundle), bundle, "/", true), null, null, null);
+		chain = new OsgiInitializedFilter[filters];
+		for (int i = 0; i < filters; i++) {
+			String[] regex = i == filters - 1
+					? new String[] { "/app/api/v\\d+/.*", "/app/.*\\.json" }
+					: new String[] { "/other" + i + "/.*", ".*\\.x" + i };
+			FilterModel model = new FilterModel.Builder()
+					.withFilterName("f" + i)
+					.withFilter(new BenchmarkSupport.NoopFilter())
+					.withRegexMapping(regex)
+					.withDispatcherTypes(new String[] { DispatcherType.REQUEST.name() })
+					.withRegisteringBundle(bundle)
+					.build();
+			chain[i] = new OsgiInitializedFilter(model.getFilter(), model, context, false);
+			chain[i].init(mock(FilterConfig.class));
+		}
+
+		// not a mock, so Mockito doesn't record the invocations
+		request = new HttpServletRequestWrapper(mock(HttpServletRequest.class)) {
+			@Override
+			public String getRequestURI() {
+				return "/app/api/v2/orders";
+			}
+
+			@Override
+			public String getQueryString() {
+				return null;
+			}
+		};
+		response = mock(HttpServletResponse.class);
+	}
+
+	@Benchmark
+	public int doFilter() throws Exception {
+		for (OsgiInitializedFilter filter : chain) {
+			filter.doFilter(request, response, next);
+		}
+		return invocations;
+	}
+
+}
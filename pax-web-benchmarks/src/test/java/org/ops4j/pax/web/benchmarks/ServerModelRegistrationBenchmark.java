@@ -0,0 +1,99 @@
+/*
+ * Copyright 2026 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.web.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import javax.servlet.Filter;
+import javax.servlet.Servlet;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.ops4j.pax.web.service.WebContainer;
+import org.ops4j.pax.web.service.internal.HttpServiceEnabled;
+import org.ops4j.pax.web.service.spi.model.ServerModel;
+import org.osgi.framework.Bundle;
+import org.osgi.service.http.HttpContext;
+
+/**
+ * <p>Measures the cost of {@link ServerModel} operations (validation, conflict detection, filter state
+ * calculation) when N servlets and N filters are registered in single context through {@link WebContainer}
+ * and then unregistered.</p>
+ *
+ * <p>The batches are sent to a {@link org.ops4j.pax.web.service.spi.ServerController} that ignores them, so
+ * actual server runtime is not involved - see {@link BatchAcceptBenchmark} for that.</p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ServerModelRegistrationBenchmark {
+
+	/** Number of servlets and filters registered in single context */
+	@Param({ "10", "100" })
+	public int count;
+
+	private HttpServiceEnabled container;
+	private HttpContext context;
+	private Servlet[] servlets;
+	private Filter[] filters;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		Bundle bundle = BenchmarkSupport.mockBundle("benchmark", 1L);
+		ServerModel serverModel = new ServerModel(BenchmarkSupport.SAME_THREAD);
+		container = new HttpServiceEnabled(bundle, BenchmarkSupport.createNoopServerController(), serverModel,
+				null, BenchmarkSupport.createConfiguration());
+		context = container.createDefaultHttpContext();
+
+		servlets = new Servlet[count];
+		filters = new Filter[count];
+		for (int i = 0; i < count; i++) {
+			servlets[i] = new BenchmarkSupport.NoopServlet();
+			filters[i] = new BenchmarkSupport.NoopFilter();
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		container.stop();
+	}
+
+	@Benchmark
+	public void registerAndUnregister() throws Exception {
+		for (int i = 0; i < count; i++) {
+			container.registerServlet(servlets[i], "s" + i, new String[] { "/s" + i + "/*" }, null, context);
+			container.registerFilter(filters[i], "f" + i, new String[] { "/s" + i + "/*" }, null, null, null, context);
+		}
+		for (int i = 0; i < count; i++) {
+			container.unregisterFilter(filters[i]);
+			container.unregisterServlet(servlets[i]);
+		}
+	}
+
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2026 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.web.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import javax.servlet.http.HttpSession;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.ops4j.pax.web.service.spi.servlet.OsgiHttpServletRequestWrapper;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * <p>Measures a request that accesses its session many times (like JSP pages do) through
+ * {@link OsgiHttpServletRequestWrapper}. Run with {@code -prof gc} to see the allocation per request.</p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SessionAccessBenchmark {
+
+	/** Number of {@link HttpServletRequest#getSession()} calls per request */
+	@Param({ "1", "20" })
+	public int calls;
+
+	private HttpServletRequest containerRequest;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		HttpSession containerSession = mock(HttpSession.class);
+		// not a mock, so Mockito doesn't record the invocations
+		containerRequest = new HttpServletRequestWrapper(mock(HttpServletRequest.class)) {
+			@Override
+			public HttpSession getSession(boolean create) {
+				return containerSession;
+			}
+		};
+	}
+
+	@Benchmark
+	public void request(Blackhole bh) {
+		OsgiHttpServletRequestWrapper request = new OsgiHttpServletRequestWrapper(containerRequest, null, null);
+		for (int i = 0; i < calls; i++) {
+			bh.consume(request.getSession());
+		}
+	}
+
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2026 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.web.benchmarks;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.catalina.connector.Connector;
+import org.apache.tomcat.util.buf.MessageBytes;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.ops4j.pax.web.service.spi.servlet.Default404Servlet;
+import org.ops4j.pax.web.service.tomcat.internal.PaxWebHttp11Nio2Protocol;
+import org.ops4j.pax.web.service.tomcat.internal.PaxWebStandardContext;
+import org.ops4j.pax.web.service.tomcat.internal.PaxWebStandardContextValve;
+
+/**
+ * <p>Measures the checks done by {@link PaxWebStandardContextValve} for each request (protected paths and virtual
+ * hosts) for a context with many virtual hosts. {@link #perRequestChecks()} shows the checks done before
+ * virtual host decisions were cached.</p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TomcatVirtualHostBenchmark {
+
+	/** Number of virtual hosts of the context */
+	@Param({ "1", "50" })
+	public int virtualHosts;
+
+	private PaxWebStandardContext context;
+	private Connector connector;
+	private MessageBytes requestPath;
+	private String serverName;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		connector = new Connector(PaxWebHttp11Nio2Protocol.class.getName());
+		((PaxWebHttp11Nio2Protocol) connector.getProtocolHandler()).setPaxWebConnectorName("default");
+
+		context = new PaxWebStandardContext(new Default404Servlet(), null);
+		String[] hosts = new String[virtualHosts];
+		for (int i = 0; i < virtualHosts; i++) {
+			hosts[i] = "host" + i + ".example.com@default";
+		}
+		context.setVirtualHosts(hosts);
+		serverName = "host" + (virtualHosts - 1) + ".example.com";
+
+		byte[] path = "/app/orders/42".getBytes(StandardCharsets.ISO_8859_1);
+		requestPath = MessageBytes.newInstance();
+		requestPath.setBytes(path, 0, path.length);
+	}
+
+	@Benchmark
+	public boolean perRequestChecks() {
+		MessageBytes mb = requestPath;
+		if ((mb.startsWithIgnoreCase("/META-INF/", 0)) || (mb.equalsIgnoreCase("/META-INF"))
+				|| (mb.startsWithIgnoreCase("/WEB-INF/", 0)) || (mb.equalsIgnoreCase("/WEB-INF"))
+				|| (mb.startsWithIgnoreCase("/OSGI-INF/", 0)) || (mb.equalsIgnoreCase("/OSGI-INF"))
+				|| (mb.startsWithIgnoreCase("/OSGI-OPT/", 0)) || (mb.equalsIgnoreCase("/OSGI-OPT"))) {
+			return false;
+		}
+		return context.matches(serverName, (String) connector.getProperty("PaxWebConnectorName"));
+	}
+
+	@Benchmark
+	public boolean cachedChecks() {
+		if (PaxWebStandardContextValve.isProtectedPath(requestPath)) {
+			return false;
+		}
+		return context.matches(connector, serverName);
+	}
+
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2026 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.web.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.ops4j.pax.web.service.internal.HttpServiceEnabled;
+import org.ops4j.pax.web.service.spi.ServerController;
+import org.ops4j.pax.web.service.spi.context.DefaultServletContextHelper;
+import org.ops4j.pax.web.service.spi.context.WebContainerContextWrapper;
+import org.ops4j.pax.web.service.spi.model.OsgiContextModel;
+import org.ops4j.pax.web.service.spi.model.ServerModel;
+import org.ops4j.pax.web.service.spi.model.elements.FilterModel;
+import org.ops4j.pax.web.service.spi.model.elements.ServletModel;
+import org.ops4j.pax.web.service.spi.whiteboard.WhiteboardWebContainerView;
+import org.osgi.framework.Bundle;
+
+/**
+ * <p>Measures Whiteboard-style churn - servlets and filters (with service ranking and id, targeting
+ * a Whiteboard {@link OsgiContextModel}) registered and unregistered one by one, as
+ * {@code pax-web-extender-whiteboard} does when services come and go.</p>
+ *
+ * <p>Each operation goes through {@link ServerModel} and a started embedded server, so this benchmark
+ * shows the cost of entire configuration path.</p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WhiteboardChurnBenchmark {
+
+	@Param({ BenchmarkSupport.JETTY, BenchmarkSupport.TOMCAT, BenchmarkSupport.UNDERTOW })
+	public String runtime;
+
+	/** Number of servlets and filters registered before they're unregistered */
+	@Param({ "10" })
+	public int count;
+
+	private ServerController controller;
+	private HttpServiceEnabled container;
+	private WhiteboardWebContainerView view;
+	private ServletModel[] servletModels;
+	private FilterModel[] filterModels;
+
+	@Setup(Level.Trial)
+	public void setup() throws Exception {
+		controller = BenchmarkSupport.createServerController(runtime);
+		controller.configure();
+		controller.start();
+
+		Bundle whiteboardBundle = BenchmarkSupport.mockBundle("org.ops4j.pax.web.pax-web-extender-whiteboard", 1L);
+		Bundle bundle = BenchmarkSupport.mockBundle("benchmark", 2L);
+
+		ServerModel serverModel = new ServerModel(BenchmarkSupport.SAME_THREAD);
+		container = new HttpServiceEnabled(whiteboardBundle, controller, serverModel, null,
+				controller.getConfiguration());
+		view = container.adapt(WhiteboardWebContainerView.class);
+
+		OsgiContextModel ocm = new OsgiContextModel(whiteboardBundle, 0, 42L, true);
+		ocm.setName("benchmark");
+		ocm.setContextPath("/wb");
+		ocm.setContextSupplier((context, contextName) -> {
+			Bundle b = context == null ? null : context.getBundle();
+			return new WebContainerContextWrapper(b, new DefaultServletContextHelper(b), contextName);
+		});
+		view.addWhiteboardOsgiContextModel(ocm);
+
+		servletModels = new ServletModel[count];
+		filterModels = new FilterModel[count];
+		long serviceId = 100L;
+		for (int i = 0; i < count; i++) {
+			servletModels[i] = new ServletModel.Builder()
+					.withServiceRankAndId(0, serviceId++)
+					.withServletName("s" + i)
+					.withUrlPatterns(new String[] { "/s" + i + "/*" })
+					.withServlet(new BenchmarkSupport.NoopServlet())
+					.withRegisteringBundle(bundle)
+					.build();
+			servletModels[i].addContextModel(ocm);
+			filterModels[i] = new FilterModel.Builder()
+					.withServiceRankAndId(0, serviceId++)
+					.withFilterName("f" + i)
+					.withUrlPatterns(new String[] { "/s" + i + "/*" })
+					.withFilter(new BenchmarkSupport.NoopFilter())
+					.withRegisteringBundle(bundle)
+					.build();
+			filterModels[i].addContextModel(ocm);
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws Exception {
+		container.stop();
+		controller.stop();
+	}
+
+	@Benchmark
+	public void registerAndUnregister() {
+		for (int i = 0; i < count; i++) {
+			view.registerServlet(servletModels[i]);
+			view.registerFilter(filterModels[i]);
+		}
+		for (int i = count - 1; i >= 0; i--) {
+			view.unregisterFilter(filterModels[i]);
+			view.unregisterServlet(servletModels[i]);
+		}
+	}
+
+}
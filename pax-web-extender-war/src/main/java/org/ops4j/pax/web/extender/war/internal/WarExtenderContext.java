@@ -15,6 +15,7 @@
  */
 package org.ops4j.pax.web.extender.war.internal;
 
+import java.io.File;
 import java.io.IOException;
 import java.net.URL;
 import java.util.ArrayList;
@@ -34,6 +35,7 @@ import java.util.concurrent.ExecutorService;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
 
 import org.apache.felix.utils.extender.Extension;
 import org.apache.tomcat.util.descriptor.web.ServletDef;
@@ -41,6 +43,7 @@ import org.apache.tomcat.util.descriptor.web.WebXml;
 import org.apache.tomcat.util.descriptor.web.WebXmlParser;
 import org.apache.tomcat.util.file.Matcher;
 import org.ops4j.pax.web.extender.war.internal.model.BundleWebApplication;
+import org.ops4j.pax.web.extender.war.internal.model.WabMetadataCache;
 import org.ops4j.pax.web.service.PaxWebConfig;
 import org.ops4j.pax.web.service.PaxWebConstants;
 import org.ops4j.pax.web.service.WebContainer;
@@ -55,6 +58,8 @@ import org.ops4j.pax.web.service.spi.util.WebContainerListener;
 import org.ops4j.pax.web.service.spi.util.WebContainerManager;
 import org.osgi.framework.Bundle;
 import org.osgi.framework.BundleContext;
+import org.osgi.framework.BundleEvent;
+import org.osgi.framework.BundleListener;
 import org.osgi.framework.ServiceReference;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -124,6 +129,12 @@ public class WarExtenderContext implements WebContainerListener, ReportViewPlugi
 	private final List<String> jarsToSkip = new CopyOnWriteArrayList<>();
 	private final List<String> jarsToScan = new CopyOnWriteArrayList<>();
 
+	/** Persistent cache of WAB metadata - {@code null} if not enabled */
+	private final WabMetadataCache metadataCache;
+
+	/** Removes cached WAB metadata of uninstalled bundles - {@code null} if the cache is not enabled */
+	private final BundleListener metadataCacheCleaner;
+
 	static {
 		// this list is used by default or if "org.ops4j.pax.web.extender.war.jarsToSkip" PID property
 		// is equal to "default" (no quotes). "default" can be used in custom configuration as well
@@ -252,6 +263,26 @@ public class WarExtenderContext implements WebContainerListener, ReportViewPlugi
 			scannedJarsList = Collections.emptyList();
 		}
 
+		if (Boolean.parseBoolean(bundleContext.getProperty(PaxWebConfig.BUNDLE_CONTEXT_PROPERTY_WAR_EXTENDER_METADATA_CACHE))) {
+			File dir = bundleContext.getDataFile("wab-metadata");
+			metadataCache = dir == null ? null : new WabMetadataCache(dir, bundle.getVersion() + "/" + bundle.getLastModified());
+		} else {
+			metadataCache = null;
+		}
+		if (metadataCache != null) {
+			metadataCacheCleaner = event -> {
+				if (event.getType() == BundleEvent.UNINSTALLED) {
+					metadataCache.invalidate(event.getBundle());
+				}
+			};
+			bundleContext.addBundleListener(metadataCacheCleaner);
+			// bundles might have been uninstalled while the extender wasn't running
+			metadataCache.retain(Arrays.stream(bundleContext.getBundles())
+					.map(Bundle::getBundleId).collect(Collectors.toSet()));
+		} else {
+			metadataCacheCleaner = null;
+		}
+
 		// dispatcher of events related to WAB lifecycle (128.5 Events)
 		webApplicationEventDispatcher = new WebApplicationEventDispatcher(bundleContext);
 
@@ -274,6 +305,10 @@ public class WarExtenderContext implements WebContainerListener, ReportViewPlugi
 	 * Cleans up everything related to pax-web-extender-war
 	 */
 	public void shutdown() {
+		if (metadataCacheCleaner != null) {
+			bundleContext.removeBundleListener(metadataCacheCleaner);
+		}
+
 		if (webApplicationEventDispatcher != null) {
 			webApplicationEventDispatcher.getListeners().remove(wabConflictListener);
 			webApplicationEventDispatcher.destroy();
@@ -309,6 +344,14 @@ public class WarExtenderContext implements WebContainerListener, ReportViewPlugi
 		return jarsToScan;
 	}
 
+	/**
+	 * Returns persistent cache of WAB metadata (if enabled).
+	 * @return
+	 */
+	public WabMetadataCache getMetadataCache() {
+		return metadataCache;
+	}
+
 	/**
 	 * Send a {@link BundleWebApplication} related event.
 	 * @param event
@@ -21,6 +21,8 @@ import java.util.Enumeration;
 import java.util.List;
 import java.util.Map;
 
+import org.ops4j.pax.web.service.spi.context.BundleEntryIndex;
+import org.ops4j.pax.web.service.spi.context.BundleEntryIndexRegistry;
 import org.ops4j.pax.web.service.spi.context.DefaultServletContextHelper;
 import org.ops4j.pax.web.service.spi.util.Path;
 import org.ops4j.pax.web.utils.ClassPathUtil;
@@ -48,8 +50,6 @@ public class WebApplicationHelper extends DefaultServletContextHelper {
 		this.metainfResourceRoots = metainfResourceRoots;
 	}
 
-	// TODO: even if resources may be cached at Jetty/Tomcat/UndertowResourceServlet, we should cache URLs here
-
 	@Override
 	public URL getResource(String name) {
 		if ("/".equals(name)) {
@@ -57,6 +57,8 @@ public class WebApplicationHelper extends DefaultServletContextHelper {
 		} else {
 			Enumeration<URL> e = null;
 			String normalizedPath = Path.normalizeResourcePath(name);
+			BundleEntryIndex index = BundleEntryIndexRegistry.forBundle(bundle);
+			String indexedPath = normalizedPath;
 			// 128.6.3 Resource Lookup: Since the getResource and getResourceAsStream methods do not support wildcards
 			// while the findEntries method does it is necessary to escape the wildcard asterisk ('*' \u002A) with
 			// prefixing it with a reverse solidus ('\' \u005C). This implies that a reverse solidus must be escaped
@@ -87,9 +89,17 @@ public class WebApplicationHelper extends DefaultServletContextHelper {
 				}
 			}
 
-			e = bundle.findEntries(root, path, false);
-			if (e != null) {
-				return e.nextElement();
+			if (index != null && index.resolvesEntries(indexedPath)) {
+				// the same lookup as findEntries(root, path, false) - fragments included - without asking the framework
+				URL url = index.findEntry(indexedPath);
+				if (url != null) {
+					return url;
+				}
+			} else {
+				e = bundle.findEntries(root, path, false);
+				if (e != null) {
+					return e.nextElement();
+				}
 			}
 
 			// in Pax Web 7 the WebAppHttpContext for WABs falled back to org.osgi.framework.Bundle.getResource() call
@@ -16,6 +16,7 @@
 package org.ops4j.pax.web.extender.war.internal.model;
 
 import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
@@ -25,6 +26,7 @@ import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -34,6 +36,7 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.stream.Collectors;
 import javax.servlet.ServletContainerInitializer;
 import javax.servlet.ServletContext;
 import javax.servlet.annotation.MultipartConfig;
@@ -154,6 +157,12 @@ public class BundleWebApplicationClassSpace {
 	 */
 	private List<String> orderedLibs = null;
 
+	/**
+	 * All the bundles from which the web fragments, SCIs and classes may be taken - used to determine whether
+	 * {@link WabMetadataCache cached metadata} can be used.
+	 */
+	private final Set<Bundle> classSpaceBundles = new LinkedHashSet<>();
+
 	// similar to org.apache.catalina.startup.ContextConfig.ok
 	private boolean fragmentParsingOK = true;
 
@@ -312,6 +321,7 @@ public class BundleWebApplicationClassSpace {
 			if (hostWires != null) {
 				for (BundleWire wire : hostWires) {
 					Bundle b = wire.getRequirerWiring().getBundle();
+					classSpaceBundles.add(b);
 					LOG.trace("  Checking bundle fragment {}", b);
 					try {
 						// take bundle.getEntry("/") as the URL of the web fragment
@@ -420,6 +430,8 @@ public class BundleWebApplicationClassSpace {
 			}
 		}
 
+		classSpaceBundles.addAll(processedBundles);
+
 		// ServletContext, when passed is used to set important "javax.servlet.context.orderedLibs"
 		// attribute, but at this stage, there's no real ServletContext yet. We should provide a mocked one
 		AttributeCollectingServletContext context = new AttributeCollectingServletContext();
@@ -908,12 +920,25 @@ public class BundleWebApplicationClassSpace {
 			Map<ServletContainerInitializer, Set<Class<?>>> sciToHt,
 			boolean thereAreHTClasses, boolean thereAreHTAnnotations) throws IOException {
 
-		Map<String, ClassCacheEntry> javaClassCache = new HashMap<>();
-		ClassCacheEntry root = new ClassCacheEntry();
-		root.scis = NO_SCIS;
-		root.superClassName = Object.class.getName();
-		root.interfaceNames = new String[0];
-		javaClassCache.put(root.superClassName, root);
+		Map<String, ClassCacheEntry> javaClassCache = newJavaClassCache();
+
+		boolean htOnly = mainWebXml.isMetadataComplete();
+
+		// 0. when the WAB and its class space didn't change, process only the classes that contributed
+		//    to the metadata during previous scanning
+		WabMetadataCache cache = extenderContext.getMetadataCache();
+		String cacheKey = null;
+		List<WabMetadataCache.Entry> relevant = null;
+		if (cache != null) {
+			cacheKey = cache.key(classSpaceKey(htToSci));
+			List<WabMetadataCache.Entry> entries = cache.load(wabBundle, cacheKey);
+			if (entries != null && replay(entries, htOnly, htToSci, sciToHt, javaClassCache,
+					thereAreHTClasses, thereAreHTAnnotations)) {
+				LOG.debug("Processed {} classes using cached metadata of {}", entries.size(), wabBundle);
+				return;
+			}
+			relevant = new ArrayList<>();
+		}
 
 		// 1. scan classes in non-JAR entries from WAB's Bundle-ClassPath
 		//     - always for types from @HandlesTypes
@@ -921,7 +946,6 @@ public class BundleWebApplicationClassSpace {
 		LOG.trace("Scanning classes in WAB directory entries");
 
 		URL[] urls = ClassPathUtil.getClassPathNonJars(wabBundle);
-		boolean htOnly = mainWebXml.isMetadataComplete();
 		Set<String> processedRoots = new HashSet<>();
 
 		for (URL url : urls) {
@@ -935,8 +959,10 @@ public class BundleWebApplicationClassSpace {
 					continue;
 				}
 				LOG.trace("    Scanning {}", u);
-				processClass(u, mainWebXml, wabBundle, htOnly, htToSci, sciToHt, javaClassCache,
-						thereAreHTClasses, thereAreHTAnnotations);
+				if (processClass(u, mainWebXml, wabBundle, htOnly, htToSci, sciToHt, javaClassCache,
+						thereAreHTClasses, thereAreHTAnnotations) && relevant != null) {
+					relevant = addCacheEntry(relevant, WabMetadataCache.Entry.of("", wabBundle, u), u);
+				}
 			}
 		}
 
@@ -968,8 +994,7 @@ public class BundleWebApplicationClassSpace {
 						jarName, fragmentBundle, processed.get(fragmentBundle));
 				continue;
 			}
-			Boolean skipJar = wabClassPathSkipped.get(jarName);
-			if (skipJar != null && skipJar) {
+			if (isSkipped(jarName)) {
 				LOG.trace("  Skipping ordered fragment {} (by configuration)", jarName);
 				continue;
 			}
@@ -981,7 +1006,7 @@ public class BundleWebApplicationClassSpace {
 
 			List<URL> classes = ClassPathUtil.findEntries(fragmentBundle,
 					new URL[] { fragment.getURL() }, "/", "*.class", true);
-			boolean fragmentHtOnly = htOnly || fragment.isMetadataComplete() || !fragment.getWebappJar();
+			boolean fragmentHtOnly = isHtOnly(htOnly, fragment);
 			for (URL u : classes) {
 				if (fragmentBundle == wabBundle && bundleFragment) {
 					// when a bundle fragment is scanned through WABs bundle, *.class resources found using
@@ -1007,12 +1032,150 @@ public class BundleWebApplicationClassSpace {
 					continue;
 				}
 				LOG.trace("    Scanning {}", u);
-				processClass(u, fragment, fragmentBundle, fragmentHtOnly, htToSci, sciToHt, javaClassCache,
-						thereAreHTClasses, thereAreHTAnnotations);
+				if (processClass(u, fragment, fragmentBundle, fragmentHtOnly, htToSci, sciToHt, javaClassCache,
+						thereAreHTClasses, thereAreHTAnnotations) && relevant != null) {
+					relevant = addCacheEntry(relevant, WabMetadataCache.Entry.of(jarName, fragmentBundle, u), u);
+				}
+			}
+		}
+
+		javaClassCache.clear();
+
+		if (relevant != null) {
+			cache.store(wabBundle, cacheKey, relevant);
+		} else if (cache != null) {
+			cache.invalidate(wabBundle);
+		}
+	}
+
+	/**
+	 * Adds an entry for {@link WabMetadataCache}, disabling the caching for this scanning if the class can't
+	 * be found again using the entry.
+	 *
+	 * @param relevant
+	 * @param entry
+	 * @param url
+	 * @return
+	 */
+	private List<WabMetadataCache.Entry> addCacheEntry(List<WabMetadataCache.Entry> relevant,
+			WabMetadataCache.Entry entry, URL url) {
+		if (entry == null) {
+			LOG.debug("Can't cache metadata of {}, because {} can't be resolved later", wabBundle, url);
+			return null;
+		}
+		relevant.add(entry);
+		return relevant;
+	}
+
+	/**
+	 * Processes only the classes which were found relevant during previous scanning of the same class space.
+	 * All the {@code *.class} resources are read first, so if anything is missing, nothing is altered and
+	 * {@code false} is returned to perform full scanning.
+	 *
+	 * @param entries
+	 * @param htOnly
+	 * @param htToSci
+	 * @param sciToHt
+	 * @param javaClassCache
+	 * @param thereAreHTClasses
+	 * @param thereAreHTAnnotations
+	 * @return
+	 */
+	private boolean replay(List<WabMetadataCache.Entry> entries, boolean htOnly,
+			Map<Class<?>, Set<ServletContainerInitializer>> htToSci,
+			Map<ServletContainerInitializer, Set<Class<?>>> sciToHt, Map<String, ClassCacheEntry> javaClassCache,
+			boolean thereAreHTClasses, boolean thereAreHTAnnotations) {
+		Map<String, Bundle> allFragmentBundles = new LinkedHashMap<>(containerFragmentBundles);
+		allFragmentBundles.putAll(applicationFragmentBundles);
+
+		List<byte[]> classes = new ArrayList<>(entries.size());
+		for (WabMetadataCache.Entry entry : entries) {
+			if (!"".equals(entry.getFragment()) && (!orderedFragments.containsKey(entry.getFragment())
+					|| isSkipped(entry.getFragment()))) {
+				LOG.debug("Cached metadata of {} refers to unknown fragment {}", wabBundle, entry.getFragment());
+				return false;
+			}
+			Bundle bundle = "".equals(entry.getFragment()) ? wabBundle
+					: allFragmentBundles.getOrDefault(entry.getFragment(), wabBundle);
+			URL url = entry.resolve(bundle);
+			if (url == null) {
+				LOG.debug("Cached class {} can't be found in {}", entry, bundle);
+				return false;
+			}
+			try (InputStream is = url.openStream()) {
+				classes.add(is.readAllBytes());
+			} catch (IOException e) {
+				LOG.debug("Can't read cached class {}: {}", url, e.getMessage());
+				return false;
 			}
 		}
 
+		for (int i = 0; i < entries.size(); i++) {
+			String jarName = entries.get(i).getFragment();
+			WebXml fragment = mainWebXml;
+			Bundle bundle = wabBundle;
+			boolean fragmentHtOnly = htOnly;
+			if (!"".equals(jarName)) {
+				fragment = orderedFragments.get(jarName);
+				bundle = allFragmentBundles.getOrDefault(jarName, wabBundle);
+				fragmentHtOnly = isHtOnly(htOnly, fragment);
+			}
+			try (InputStream is = new ByteArrayInputStream(classes.get(i))) {
+				processClass(is, fragment, bundle, fragmentHtOnly, htToSci, sciToHt, javaClassCache,
+						thereAreHTClasses, thereAreHTAnnotations);
+			} catch (IOException e) {
+				LOG.warn("Can't read {}: {}", entries.get(i), e.getMessage(), e);
+			}
+		}
 		javaClassCache.clear();
+
+		return true;
+	}
+
+	/**
+	 * Builds a description of this class space, used to check whether {@link WabMetadataCache cached metadata}
+	 * can be used.
+	 *
+	 * @param htToSci
+	 * @return
+	 */
+	private String classSpaceKey(Map<Class<?>, Set<ServletContainerInitializer>> htToSci) {
+		StringBuilder sb = new StringBuilder();
+		sb.append("wab=").append(wabBundle.getBundleId()).append(":").append(wabBundle.getVersion())
+				.append(":").append(wabBundle.getLastModified());
+		sb.append("|bundles=");
+		classSpaceBundles.stream().sorted(Comparator.comparingLong(Bundle::getBundleId))
+				.forEach(b -> sb.append(b.getBundleId()).append(":").append(b.getVersion())
+						.append(":").append(b.getLastModified()).append(","));
+		sb.append("|fragments=");
+		orderedFragments.keySet().forEach(n -> sb.append(n).append(isSkipped(n) ? "(skipped)" : "").append(","));
+		sb.append("|metadataComplete=").append(mainWebXml.isMetadataComplete());
+		sb.append("|ht=");
+		htToSci.entrySet().stream()
+				.map(e -> e.getKey().getName() + "->" + e.getValue().stream().map(sci -> sci.getClass().getName())
+						.sorted().collect(Collectors.joining("+")))
+				.sorted()
+				.forEach(ht -> sb.append(ht).append(","));
+		return sb.toString();
+	}
+
+	private boolean isSkipped(String jarName) {
+		Boolean skipJar = wabClassPathSkipped.get(jarName);
+		return skipJar != null && skipJar;
+	}
+
+	private boolean isHtOnly(boolean htOnly, WebXml fragment) {
+		return htOnly || fragment.isMetadataComplete() || !fragment.getWebappJar();
+	}
+
+	private Map<String, ClassCacheEntry> newJavaClassCache() {
+		Map<String, ClassCacheEntry> javaClassCache = new HashMap<>();
+		ClassCacheEntry root = new ClassCacheEntry();
+		root.scis = NO_SCIS;
+		root.superClassName = Object.class.getName();
+		root.interfaceNames = new String[0];
+		javaClassCache.put(root.superClassName, root);
+		return javaClassCache;
 	}
 
 	/**
@@ -1030,32 +1193,46 @@ public class BundleWebApplicationClassSpace {
 	 *        {@link javax.servlet.annotation.HandlesTypes}
 	 * @param thereAreHTAnnotations {@code true} if any of the SCIs has any annotation types among values of
 	 *        {@link javax.servlet.annotation.HandlesTypes}
+	 * @return {@code true} if the class contributed to the fragment or to the SCI &rarr; types mapping
 	 */
-	private void processClass(URL url, WebXml fragment, Bundle bundle, boolean fragmentHtOnly,
+	private boolean processClass(URL url, WebXml fragment, Bundle bundle, boolean fragmentHtOnly,
 			Map<Class<?>, Set<ServletContainerInitializer>> htToSci,
 			Map<ServletContainerInitializer, Set<Class<?>>> sciToHt, Map<String, ClassCacheEntry> javaClassCache,
 			boolean thereAreHTClasses, boolean thereAreHTAnnotations) {
 		try (InputStream is = url.openStream()) {
-			ClassParser parser = new ClassParser(is);
-			JavaClass clazz = parser.parse();
-			if (thereAreHTClasses || thereAreHTAnnotations) {
-				if ((clazz.getAccessFlags() & org.apache.tomcat.util.bcel.Const.ACC_ANNOTATION) == 0) {
-					// check only a non-annotation *.class, whether it:
-					// - is annotated with any annotation from @HandlesTypes
-					// - implements an interface from @HandlesTypes
-					// - extends a class from from @HandlesTypes
-					checkHandlesTypes(clazz, bundle, htToSci, sciToHt, javaClassCache,
-							thereAreHTClasses, thereAreHTAnnotations);
-				}
-			}
-
-			if (!fragmentHtOnly) {
-				// do not check if the class should be scanned for annotations like @WebServlet, @WebFilter, ...
-				checkClass(fragment, bundle, htToSci, clazz, javaClassCache);
-			}
+			return processClass(is, fragment, bundle, fragmentHtOnly, htToSci, sciToHt, javaClassCache,
+					thereAreHTClasses, thereAreHTAnnotations);
 		} catch (IOException e) {
 			LOG.warn("Can't read {}: {}", url, e.getMessage(), e);
+			return false;
+		}
+	}
+
+	private boolean processClass(InputStream is, WebXml fragment, Bundle bundle, boolean fragmentHtOnly,
+			Map<Class<?>, Set<ServletContainerInitializer>> htToSci,
+			Map<ServletContainerInitializer, Set<Class<?>>> sciToHt, Map<String, ClassCacheEntry> javaClassCache,
+			boolean thereAreHTClasses, boolean thereAreHTAnnotations) throws IOException {
+		ClassParser parser = new ClassParser(is);
+		JavaClass clazz = parser.parse();
+		boolean relevant = false;
+		if (thereAreHTClasses || thereAreHTAnnotations) {
+			if ((clazz.getAccessFlags() & org.apache.tomcat.util.bcel.Const.ACC_ANNOTATION) == 0) {
+				// check only a non-annotation *.class, whether it:
+				// - is annotated with any annotation from @HandlesTypes
+				// - implements an interface from @HandlesTypes
+				// - extends a class from from @HandlesTypes
+				int before = sciToHt.values().stream().mapToInt(Set::size).sum();
+				checkHandlesTypes(clazz, bundle, htToSci, sciToHt, javaClassCache,
+						thereAreHTClasses, thereAreHTAnnotations);
+				relevant = before != sciToHt.values().stream().mapToInt(Set::size).sum();
+			}
 		}
+
+		if (!fragmentHtOnly) {
+			// do not check if the class should be scanned for annotations like @WebServlet, @WebFilter, ...
+			relevant |= checkClass(fragment, bundle, htToSci, clazz, javaClassCache);
+		}
+		return relevant;
 	}
 
 	/**
@@ -1186,11 +1363,12 @@ public class BundleWebApplicationClassSpace {
 	 * @param htToSci
 	 * @param clazz
 	 * @param javaClassCache
+	 * @return {@code true} if the class is an annotated servlet, filter or listener
 	 */
-	private void checkClass(WebXml fragment, Bundle bundle, Map<Class<?>, Set<ServletContainerInitializer>> htToSci, JavaClass clazz, Map<String, ClassCacheEntry> javaClassCache) {
+	private boolean checkClass(WebXml fragment, Bundle bundle, Map<Class<?>, Set<ServletContainerInitializer>> htToSci, JavaClass clazz, Map<String, ClassCacheEntry> javaClassCache) {
 		AnnotationEntry[] ae = clazz.getAnnotationEntries();
 		if (ae == null) {
-			return;
+			return false;
 		}
 
 		String webElementClassName = clazz.getClassName();
@@ -1201,18 +1379,19 @@ public class BundleWebApplicationClassSpace {
 				case "javax.servlet.annotation.WebServlet":
 					LOG.trace("      Processing annotated servlet {}", webElementClassName);
 					processAnnotatedServletClass(webElementClassName, fragment, bundle, ann, clazz, javaClassCache);
-					return;
+					return true;
 				case "javax.servlet.annotation.WebFilter":
 					LOG.trace("      Processing annotated filter {}", webElementClassName);
 					processAnnotatedFilterClass(webElementClassName, fragment, bundle, ann, clazz);
-					return;
+					return true;
 				case "javax.servlet.annotation.WebListener":
 					LOG.trace("      Processing annotated listener {}", webElementClassName);
 					fragment.addListener(webElementClassName);
-					return;
+					return true;
 				default:
 			}
 		}
+		return false;
 	}
 
 	private void processAnnotatedServletClass(String className, WebXml fragment, Bundle bundle, AnnotationEntry ann, JavaClass clazz, Map<String, ClassCacheEntry> javaClassCache) {
@@ -0,0 +1,345 @@
+/*
+ * Copyright 2026 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.web.extender.war.internal.model;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+
+import org.osgi.framework.Bundle;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * <p>Persistent (surviving restarts of the framework) cache of the results of the most expensive part of WAB
+ * metadata processing - scanning of all the classes of the WAB and its web fragments for annotated servlets,
+ * filters, listeners and for the types declared in {@link javax.servlet.annotation.HandlesTypes}.</p>
+ *
+ * <p>For each WAB we store only the classes that contributed anything to the web fragments or to the
+ * SCI &rarr; types mapping. When the WAB (and all the bundles in its class space) didn't change, only these
+ * classes are processed again, so the merged {@link org.apache.tomcat.util.descriptor.web.WebXml} and the SCI
+ * mapping are exactly the same as after full scanning.</p>
+ *
+ * <p>Each entry is stored together with a <em>key</em> describing the class space of the WAB (bundle ids,
+ * revisions, last modification times, SCIs and their {@code @HandlesTypes}, scanning configuration). Entry with
+ * different key is simply ignored (and later overwritten).</p>
+ *
+ * <p>Classes are stored as bundle id and entry path (and path of embedded jar), never as URLs - URLs of bundle
+ * entries are specific to the framework instance and bundle revision. Cached data of uninstalled bundles should
+ * be removed using {@link #invalidate(Bundle)} or {@link #retain(Set)}.</p>
+ */
+public class WabMetadataCache {
+
+	public static final Logger LOG = LoggerFactory.getLogger(WabMetadataCache.class);
+
+	/** Version of the format of the cache files - part of each key */
+	private static final String FORMAT = "2";
+
+	private static final String FILE_PREFIX = "wab-";
+	private static final String FILE_SUFFIX = ".properties";
+
+	private static final String KEY = "key";
+	private static final String COUNT = "count";
+	private static final String FRAGMENT = "fragment.";
+	private static final String BUNDLE = "bundle.";
+	private static final String JAR = "jar.";
+	private static final String PATH = "path.";
+
+	private final File directory;
+	private final String extenderVersion;
+
+	/**
+	 * Creates a cache storing the data in given directory.
+	 *
+	 * @param directory usually a data file of pax-web-extender-war bundle
+	 * @param extenderVersion version of the extender - the cache is not reused after pax-web upgrade
+	 */
+	public WabMetadataCache(File directory, String extenderVersion) {
+		this.directory = directory;
+		this.extenderVersion = extenderVersion;
+	}
+
+	/**
+	 * Returns a full key for given description of WAB's class space.
+	 *
+	 * @param classSpaceKey
+	 * @return
+	 */
+	public String key(String classSpaceKey) {
+		return FORMAT + "|" + extenderVersion + "|" + classSpaceKey;
+	}
+
+	/**
+	 * Loads cached entries for given WAB.
+	 *
+	 * @param wab
+	 * @param key full key (see {@link #key(String)})
+	 * @return {@code null} if there's nothing cached for given WAB or the cached data doesn't match the key
+	 */
+	public List<Entry> load(Bundle wab, String key) {
+		File file = file(wab);
+		if (!file.isFile()) {
+			return null;
+		}
+		Properties props = new Properties();
+		try (InputStream is = Files.newInputStream(file.toPath())) {
+			props.load(is);
+		} catch (IOException e) {
+			LOG.warn("Can't read cached metadata of {} from {}: {}", wab, file, e.getMessage());
+			return null;
+		}
+		if (!key.equals(props.getProperty(KEY))) {
+			LOG.debug("Cached metadata of {} is stale", wab);
+			return null;
+		}
+		try {
+			int count = Integer.parseInt(props.getProperty(COUNT, "-1"));
+			if (count < 0) {
+				return null;
+			}
+			List<Entry> entries = new ArrayList<>(count);
+			for (int i = 0; i < count; i++) {
+				String fragment = props.getProperty(FRAGMENT + i);
+				String bundleId = props.getProperty(BUNDLE + i);
+				String jar = props.getProperty(JAR + i);
+				String path = props.getProperty(PATH + i);
+				if (fragment == null || bundleId == null || jar == null || path == null) {
+					return null;
+				}
+				entries.add(new Entry(fragment, Long.parseLong(bundleId), jar, path));
+			}
+			return entries;
+		} catch (NumberFormatException e) {
+			LOG.warn("Invalid cached metadata of {} in {}: {}", wab, file, e.getMessage());
+			return null;
+		}
+	}
+
+	/**
+	 * Stores the entries for given WAB, replacing previous content.
+	 *
+	 * @param wab
+	 * @param key full key (see {@link #key(String)})
+	 * @param entries
+	 */
+	public void store(Bundle wab, String key, List<Entry> entries) {
+		Properties props = new Properties();
+		props.setProperty(KEY, key);
+		props.setProperty(COUNT, Integer.toString(entries.size()));
+		for (int i = 0; i < entries.size(); i++) {
+			Entry entry = entries.get(i);
+			props.setProperty(FRAGMENT + i, entry.getFragment());
+			props.setProperty(BUNDLE + i, Long.toString(entry.getBundleId()));
+			props.setProperty(JAR + i, entry.getJar());
+			props.setProperty(PATH + i, entry.getPath());
+		}
+
+		File file = file(wab);
+		File tmp = new File(directory, file.getName() + ".tmp");
+		try {
+			if (!directory.isDirectory() && !directory.mkdirs()) {
+				LOG.warn("Can't create directory {} for cached WAB metadata", directory);
+				return;
+			}
+			try (OutputStream os = Files.newOutputStream(tmp.toPath())) {
+				props.store(os, "Pax Web metadata of " + wab.getSymbolicName() + "/" + wab.getVersion());
+			}
+			try {
+				Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			}
+			LOG.debug("Stored {} cached metadata entries of {}", entries.size(), wab);
+		} catch (IOException e) {
+			LOG.warn("Can't store cached metadata of {} in {}: {}", wab, file, e.getMessage());
+			invalidate(wab);
+		}
+	}
+
+	/**
+	 * Removes cached data of given WAB.
+	 *
+	 * @param wab
+	 */
+	public void invalidate(Bundle wab) {
+		try {
+			Files.deleteIfExists(file(wab).toPath());
+		} catch (IOException e) {
+			LOG.warn("Can't remove cached metadata of {}: {}", wab, e.getMessage());
+		}
+	}
+
+	/**
+	 * Removes cached data of all the bundles except given ones - to clean up after bundles uninstalled while
+	 * the extender wasn't running.
+	 *
+	 * @param bundleIds ids of installed bundles
+	 */
+	public void retain(Set<Long> bundleIds) {
+		File[] files = directory.listFiles();
+		if (files == null) {
+			return;
+		}
+		for (File file : files) {
+			String name = file.getName();
+			if (!name.startsWith(FILE_PREFIX) || !name.endsWith(FILE_SUFFIX)) {
+				continue;
+			}
+			try {
+				long id = Long.parseLong(name.substring(FILE_PREFIX.length(), name.length() - FILE_SUFFIX.length()));
+				if (bundleIds.contains(id)) {
+					continue;
+				}
+			} catch (NumberFormatException ignored) {
+			}
+			try {
+				Files.deleteIfExists(file.toPath());
+				LOG.debug("Removed cached metadata {} of uninstalled bundle", file);
+			} catch (IOException e) {
+				LOG.warn("Can't remove cached metadata {}: {}", file, e.getMessage());
+			}
+		}
+	}
+
+	private File file(Bundle wab) {
+		return new File(directory, FILE_PREFIX + wab.getBundleId() + FILE_SUFFIX);
+	}
+
+	/**
+	 * Single class that contributed to the metadata of a WAB.
+	 */
+	public static final class Entry {
+
+		/** Jar name of the web fragment (or empty string for WAB's own, non-jar class path entries) */
+		private final String fragment;
+		/** Id of the bundle (WAB or a bundle fragment) in which the class was found */
+		private final long bundleId;
+		/** Entry path of embedded jar containing the class or empty string */
+		private final String jar;
+		/** Entry path of the {@code *.class} resource - in the bundle or in the embedded jar */
+		private final String path;
+
+		public Entry(String fragment, long bundleId, String jar, String path) {
+			this.fragment = fragment;
+			this.bundleId = bundleId;
+			this.jar = jar;
+			this.path = path;
+		}
+
+		/**
+		 * Creates an entry for a {@code *.class} resource found in given bundle.
+		 *
+		 * @param fragment
+		 * @param bundle
+		 * @param url URL of bundle entry or a {@code jar:} URL of an entry in embedded jar
+		 * @return {@code null} if the URL can't be described as (embedded) bundle entry
+		 */
+		public static Entry of(String fragment, Bundle bundle, URL url) {
+			if (!"jar".equals(url.getProtocol())) {
+				String path = url.getPath();
+				return path == null || !path.startsWith("/") ? null
+						: new Entry(fragment, bundle.getBundleId(), "", path);
+			}
+			// jar:bundle://42.0:0/WEB-INF/lib/a.jar!/org/example/Servlet1.class
+			String spec = url.getPath();
+			int sep = spec.indexOf("!/");
+			if (sep < 0 || spec.indexOf("!/", sep + 2) >= 0) {
+				// nested jars are not supported
+				return null;
+			}
+			int scheme = spec.indexOf("://");
+			int slash = scheme < 0 ? -1 : spec.indexOf('/', scheme + 3);
+			if (slash < 0 || slash > sep) {
+				return null;
+			}
+			return new Entry(fragment, bundle.getBundleId(), spec.substring(slash, sep), spec.substring(sep + 1));
+		}
+
+		/**
+		 * Finds the {@code *.class} resource in current revision of given bundle.
+		 *
+		 * @param bundle
+		 * @return {@code null} if it's not the bundle for which the entry was created or the entry is missing
+		 */
+		public URL resolve(Bundle bundle) {
+			if (bundle.getBundleId() != bundleId) {
+				return null;
+			}
+			if ("".equals(jar)) {
+				return entry(bundle, path);
+			}
+			URL jarUrl = entry(bundle, jar);
+			if (jarUrl == null) {
+				return null;
+			}
+			try {
+				return new URL("jar", null, -1, jarUrl.toExternalForm() + "!" + path);
+			} catch (MalformedURLException e) {
+				return null;
+			}
+		}
+
+		private static URL entry(Bundle bundle, String path) {
+			URL url = bundle.getEntry(path);
+			if (url == null) {
+				// the entry may come from attached bundle fragment
+				int slash = path.lastIndexOf('/');
+				Enumeration<URL> e = bundle.findEntries(slash <= 0 ? "/" : path.substring(0, slash),
+						path.substring(slash + 1), false);
+				url = e != null && e.hasMoreElements() ? e.nextElement() : null;
+			}
+			return url;
+		}
+
+		public String getFragment() {
+			return fragment;
+		}
+
+		public long getBundleId() {
+			return bundleId;
+		}
+
+		public String getJar() {
+			return jar;
+		}
+
+		public String getPath() {
+			return path;
+		}
+
+		@Override
+		public String toString() {
+			return bundleId + ":" + ("".equals(jar) ? "" : jar + "!") + path;
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "WabMetadataCache{directory=" + directory + "}";
+	}
+
+}
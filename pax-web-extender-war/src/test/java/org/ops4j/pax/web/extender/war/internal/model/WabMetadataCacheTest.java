@@ -0,0 +1,137 @@
+/*
+ * Copyright 2026 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.web.extender.war.internal.model;
+
+import java.io.File;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.net.URLStreamHandler;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+import org.junit.Test;
+import org.osgi.framework.Bundle;
+import org.osgi.framework.Version;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class WabMetadataCacheTest {
+
+	/** Bundle entry URLs can't be opened in tests */
+	private static final URLStreamHandler HANDLER = new URLStreamHandler() {
+		@Override
+		protected URLConnection openConnection(URL u) {
+			throw new UnsupportedOperationException();
+		}
+	};
+
+	@Test
+	public void storeAndLoad() throws Exception {
+		File dir = Files.createTempDirectory("wab-metadata").toFile();
+		Bundle wab = bundle(42L);
+
+		WabMetadataCache cache = new WabMetadataCache(dir, "1.0.0");
+		String key = cache.key("wab=42:0.0.0:1");
+		assertNull(cache.load(wab, key));
+
+		cache.store(wab, key, Arrays.asList(
+				WabMetadataCache.Entry.of("", wab, url("bundle://42.0:0/WEB-INF/classes/org/example/Servlet1.class")),
+				WabMetadataCache.Entry.of("lib.jar", wab, url("jar:bundle://42.0:0/WEB-INF/lib/lib.jar!/org/example/Filter1.class"))));
+
+		// only framework independent information is stored
+		String content = new String(Files.readAllBytes(new File(dir, "wab-42.properties").toPath()));
+		assertFalse(content.contains("bundle\\://"));
+
+		List<WabMetadataCache.Entry> entries = cache.load(wab, key);
+		assertEquals(2, entries.size());
+		assertEquals("", entries.get(0).getFragment());
+		assertEquals(42L, entries.get(0).getBundleId());
+		assertEquals("", entries.get(0).getJar());
+		assertEquals("/WEB-INF/classes/org/example/Servlet1.class", entries.get(0).getPath());
+		assertEquals("lib.jar", entries.get(1).getFragment());
+		assertEquals("/WEB-INF/lib/lib.jar", entries.get(1).getJar());
+		assertEquals("/org/example/Filter1.class", entries.get(1).getPath());
+
+		assertNull("Different class space", cache.load(wab, cache.key("wab=42:0.0.0:2")));
+		assertNull("Different extender", cache.load(wab, new WabMetadataCache(dir, "1.0.1").key("wab=42:0.0.0:1")));
+
+		cache.invalidate(wab);
+		assertNull(cache.load(wab, key));
+	}
+
+	@Test
+	public void entriesAreResolvedInCurrentFramework() throws Exception {
+		Bundle wab = bundle(42L);
+		// after restart of the framework, URLs of the same entries may be different
+		when(wab.getEntry("/WEB-INF/classes/org/example/Servlet1.class"))
+				.thenReturn(url("bundle://42.7:0/WEB-INF/classes/org/example/Servlet1.class"));
+		when(wab.getEntry("/WEB-INF/lib/lib.jar")).thenReturn(url("bundle://42.7:0/WEB-INF/lib/lib.jar"));
+		when(wab.findEntries("/org/example", "Fragment1.class", false)).thenReturn(Collections.enumeration(
+				Collections.singletonList(url("bundle://42.7:1/org/example/Fragment1.class"))));
+
+		WabMetadataCache.Entry e1 = new WabMetadataCache.Entry("", 42L, "", "/WEB-INF/classes/org/example/Servlet1.class");
+		WabMetadataCache.Entry e2 = new WabMetadataCache.Entry("lib.jar", 42L, "/WEB-INF/lib/lib.jar", "/org/example/Filter1.class");
+		WabMetadataCache.Entry e3 = new WabMetadataCache.Entry("", 42L, "", "/org/example/Fragment1.class");
+		WabMetadataCache.Entry e4 = new WabMetadataCache.Entry("", 42L, "", "/org/example/Missing.class");
+
+		assertEquals("bundle://42.7:0/WEB-INF/classes/org/example/Servlet1.class", e1.resolve(wab).toExternalForm());
+		assertEquals("jar:bundle://42.7:0/WEB-INF/lib/lib.jar!/org/example/Filter1.class", e2.resolve(wab).toExternalForm());
+		assertEquals("bundle://42.7:1/org/example/Fragment1.class", e3.resolve(wab).toExternalForm());
+		assertNull(e4.resolve(wab));
+		assertNull("Other bundle", e1.resolve(bundle(43L)));
+
+		assertNull("Nested jars", WabMetadataCache.Entry.of("", wab,
+				url("jar:jar:bundle://42.0:0/WEB-INF/lib/lib.jar!/nested.jar!/org/example/Filter1.class")));
+	}
+
+	@Test
+	public void metadataOfUninstalledBundlesIsRemoved() throws Exception {
+		File dir = Files.createTempDirectory("wab-metadata").toFile();
+		WabMetadataCache cache = new WabMetadataCache(dir, "1.0.0");
+		String key = cache.key("wab");
+		cache.store(bundle(42L), key, Collections.singletonList(new WabMetadataCache.Entry("", 42L, "", "/A.class")));
+		cache.store(bundle(43L), key, Collections.singletonList(new WabMetadataCache.Entry("", 43L, "", "/A.class")));
+		assertTrue(new File(dir, "unrelated.txt").createNewFile());
+
+		cache.retain(new HashSet<>(Arrays.asList(0L, 43L)));
+		assertNull(cache.load(bundle(42L), key));
+		assertNotNull(cache.load(bundle(43L), key));
+		assertTrue(new File(dir, "unrelated.txt").isFile());
+	}
+
+	private static Bundle bundle(long id) {
+		Bundle bundle = mock(Bundle.class);
+		when(bundle.getBundleId()).thenReturn(id);
+		when(bundle.getSymbolicName()).thenReturn("wab");
+		when(bundle.getVersion()).thenReturn(Version.emptyVersion);
+		return bundle;
+	}
+
+	private static URL url(String spec) throws MalformedURLException {
+		return new URL(null, spec, HANDLER);
+	}
+
+}
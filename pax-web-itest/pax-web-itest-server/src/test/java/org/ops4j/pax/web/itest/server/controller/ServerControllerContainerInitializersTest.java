@@ -16,6 +16,9 @@
 package org.ops4j.pax.web.itest.server.controller;
 
 import java.io.IOException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
 import javax.servlet.ServletException;
 import javax.servlet.ServletRegistration;
 import javax.servlet.http.HttpServlet;
@@ -27,6 +30,7 @@ import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
 import org.ops4j.pax.web.itest.server.MultiContainerTestSupport;
 import org.ops4j.pax.web.itest.server.support.Utils;
+import org.ops4j.pax.web.service.PaxWebConfig;
 import org.ops4j.pax.web.service.WebContainer;
 import org.ops4j.pax.web.service.internal.HttpServiceEnabled;
 import org.ops4j.pax.web.service.internal.StoppableHttpService;
@@ -37,6 +41,7 @@ import org.osgi.framework.BundleContext;
 import org.osgi.framework.Constants;
 import org.osgi.framework.ServiceReference;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -95,4 +100,62 @@ public class ServerControllerContainerInitializersTest extends MultiContainerTes
 		assertTrue(serviceModelInternals.isEmpty());
 	}
 
+	@Test
+	public void restartsCausedByInitializersAreDebounced() throws Exception {
+		ServerController controller = Utils.createServerController(props -> {
+			props.put(PaxWebConfig.PID_CFG_CONTEXT_RESTART_QUIET_PERIOD, "1000");
+		}, port, runtime, getClass().getClassLoader());
+		controller.configure();
+		controller.start();
+
+		Bundle bundle = mockBundle("App Bundle", false);
+		BundleContext bc = bundle.getBundleContext();
+
+		// delayed batch completed actions are scheduled only with ScheduledExecutorService
+		ScheduledExecutorService pool = Executors.newSingleThreadScheduledExecutor();
+		ServerModel server = new ServerModel(pool);
+
+		WebContainer wc = new HttpServiceEnabled(bundle, controller, server, null, controller.getConfiguration());
+		@SuppressWarnings("unchecked")
+		ServiceReference<WebContainer> wcRef = mock(ServiceReference.class);
+		when(wcRef.getProperty(Constants.SERVICE_ID)).thenReturn(42L);
+		when(bc.getServiceReference(WebContainer.class)).thenReturn(wcRef);
+		when(bc.getService(wcRef)).thenReturn(wc);
+
+		// counts the actual starts of the context
+		AtomicInteger starts = new AtomicInteger();
+		wc.registerServletContainerInitializer((c, ctx) -> starts.incrementAndGet(), null, null);
+		wc.registerServlet("/s0", new Utils.MyHttpServlet("s0"), null, null);
+		assertTrue(httpGET(port, "/s0").startsWith("HTTP/1.1 200"));
+		assertEquals(1, starts.get());
+
+		// each SCI stops the context and each servlet would start it again without debouncing
+		for (int i = 1; i <= 3; i++) {
+			wc.registerServletContainerInitializer((c, ctx) -> { }, null, null);
+			wc.registerServlet("/s" + i, new Utils.MyHttpServlet("s" + i), null, null);
+		}
+		assertEquals("The context should wait for the quiet period", 1, starts.get());
+
+		String response = "";
+		for (int i = 0; i < 100 && !response.startsWith("HTTP/1.1 200"); i++) {
+			Thread.sleep(100L);
+			response = httpGET(port, "/s3");
+		}
+		assertTrue(response.startsWith("HTTP/1.1 200"));
+		assertEquals(2, starts.get());
+		assertEquals(3L, controller.getContextRestartScheduler().getRequestedRestarts());
+		assertEquals(1L, controller.getContextRestartScheduler().getPerformedRestarts());
+		assertEquals(2L, controller.getContextRestartScheduler().getSavedRestarts());
+
+		((StoppableHttpService) wc).stop();
+		controller.stop();
+		pool.shutdownNow();
+
+		ServerModelInternals serverModelInternals = serverModelInternals(server);
+		ServiceModelInternals serviceModelInternals = serviceModelInternals(wc);
+
+		assertTrue(serverModelInternals.isClean(bundle));
+		assertTrue(serviceModelInternals.isEmpty());
+	}
+
 }
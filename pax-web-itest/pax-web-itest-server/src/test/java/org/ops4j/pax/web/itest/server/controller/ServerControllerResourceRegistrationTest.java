@@ -31,6 +31,7 @@ import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
 import org.ops4j.pax.web.itest.server.MultiContainerTestSupport;
 import org.ops4j.pax.web.itest.server.support.Utils;
+import org.ops4j.pax.web.service.PaxWebConfig;
 import org.ops4j.pax.web.service.WebContainer;
 import org.ops4j.pax.web.service.internal.HttpServiceEnabled;
 import org.ops4j.pax.web.service.internal.StoppableHttpService;
@@ -147,6 +148,90 @@ public class ServerControllerResourceRegistrationTest extends MultiContainerTest
 		assertTrue(serviceModelInternals.isEmpty());
 	}
 
+	@Test
+	public void registerResourcesWithContentETagsAndImmutableResources() throws Exception {
+		ServerController controller = Utils.createServerController(properties -> {
+			properties.put(PaxWebConfig.PID_CFG_DEFAULT_SERVLET_CONTENT_ETAGS, "true");
+			properties.put(PaxWebConfig.PID_CFG_DEFAULT_SERVLET_IMMUTABLE_PATTERNS, ".*\\.[0-9a-f]{8}\\.js");
+		}, port, runtime, getClass().getClassLoader());
+		controller.configure();
+		controller.start();
+
+		Bundle bundle = mockBundle("App Bundle", false);
+
+		ServerModel server = new ServerModel(new Utils.SameThreadExecutor());
+		WebContainer wc = new HttpServiceEnabled(bundle, controller, server, null, controller.getConfiguration());
+
+		File base = new File("target/www-etags");
+		FileUtils.deleteDirectory(base);
+		base.mkdirs();
+		try (FileWriter fw = new FileWriter(new File(base, "file.txt"))) {
+			IOUtils.write("hello1", fw);
+		}
+		try (FileWriter fw = new FileWriter(new File(base, "app.0123abcd.js"))) {
+			IOUtils.write("hello2", fw);
+		}
+
+		// file: URLs returned for the bundle are treated as bundle resources
+		HttpContext context = new HttpContext() {
+			@Override
+			public URL getResource(String name) {
+				try {
+					File file = new File("target", name);
+					return file.exists() ? file.toURI().toURL() : null;
+				} catch (MalformedURLException ignored) {
+					return null;
+				}
+			}
+
+			@Override
+			public boolean handleSecurity(HttpServletRequest request, HttpServletResponse response) throws IOException {
+				return true;
+			}
+
+			@Override
+			public String getMimeType(String name) {
+				return null;
+			}
+		};
+
+		wc.registerResources("/r", "www-etags", context);
+
+		// strong, content based entity tag
+		String response = httpGET(port, "/r/file.txt");
+		assertTrue(response.endsWith("hello1"));
+		Map<String, String> headers = extractHeaders(response);
+		String etag = headers.get("ETag");
+		assertTrue(etag != null && etag.startsWith("\""));
+		assertFalse(response.contains("immutable"));
+
+		response = httpGET(port, "/r/file.txt", "If-None-Match: " + etag);
+		assertTrue(response.contains("HTTP/1.1 304"));
+		assertFalse(response.endsWith("hello1"));
+		response = httpGET(port, "/r/file.txt", "If-None-Match: \"other\"");
+		assertTrue(response.contains("HTTP/1.1 200"));
+		assertTrue(response.endsWith("hello1"));
+
+		// fingerprinted resources can be cached forever, but only if they exist
+		response = httpGET(port, "/r/app.0123abcd.js");
+		assertTrue(response.endsWith("hello2"));
+		headers = extractHeaders(response);
+		assertTrue(headers.get("Cache-Control").contains("immutable"));
+		assertTrue(headers.get("ETag").startsWith("\""));
+		response = httpGET(port, "/r/app.89abcdef.js");
+		assertTrue(response.contains("HTTP/1.1 404"));
+		assertFalse(response.contains("immutable"));
+
+		((StoppableHttpService) wc).stop();
+		controller.stop();
+
+		ServerModelInternals serverModelInternals = serverModelInternals(server);
+		ServiceModelInternals serviceModelInternals = serviceModelInternals(wc);
+
+		assertTrue(serverModelInternals.isClean(bundle));
+		assertTrue(serviceModelInternals.isEmpty());
+	}
+
 	@Test
 	public void registerResourcesWithCustomContextAndWelcomeFiles() throws Exception {
 		ServerController controller = Utils.createServerController(null, port, runtime, getClass().getClassLoader());
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2026 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.web.service.jetty.internal;
+
+import java.security.Principal;
+import javax.security.auth.Subject;
+import javax.servlet.ServletRequest;
+
+import org.eclipse.jetty.security.IdentityService;
+import org.eclipse.jetty.security.LoginService;
+import org.eclipse.jetty.server.UserIdentity;
+import org.ops4j.pax.web.service.spi.util.CredentialCache;
+
+/**
+ * <p>{@link LoginService} that remembers successful logins of a delegate (usually
+ * {@link org.eclipse.jetty.jaas.JAASLoginService} configured in {@code jetty.xml}) in a {@link CredentialCache},
+ * so full JAAS login isn't performed for every request with BASIC credentials.</p>
+ *
+ * <p>The cache holds only the result of the verification. Each login gets its own {@link UserIdentity} with
+ * its own copy of the {@link Subject}, and its logout is not passed to the delegate - JAAS logout clears the
+ * principals of the subject shared by all the sessions of the user. The cached login simply expires.</p>
+ */
+class CachingLoginService implements LoginService {
+
+	private final LoginService delegate;
+	private final CredentialCache<UserIdentity> cache;
+
+	CachingLoginService(LoginService delegate, CredentialCache<UserIdentity> cache) {
+		this.delegate = delegate;
+		this.cache = cache;
+	}
+
+	@Override
+	public String getName() {
+		return delegate.getName();
+	}
+
+	@Override
+	public UserIdentity login(String username, Object credentials, ServletRequest request) {
+		UserIdentity identity = cache.get(getName(), username, credentials);
+		if (identity == null) {
+			identity = delegate.login(username, credentials, request);
+			if (identity == null) {
+				return null;
+			}
+			cache.put(getName(), username, credentials, identity);
+		}
+		return new CachedUserIdentity(identity);
+	}
+
+	@Override
+	public boolean validate(UserIdentity user) {
+		return delegate.validate(user instanceof CachedUserIdentity ? ((CachedUserIdentity) user).verified : user);
+	}
+
+	@Override
+	public IdentityService getIdentityService() {
+		return delegate.getIdentityService();
+	}
+
+	@Override
+	public void setIdentityService(IdentityService service) {
+		delegate.setIdentityService(service);
+	}
+
+	@Override
+	public void logout(UserIdentity user) {
+		if (!(user instanceof CachedUserIdentity)) {
+			delegate.logout(user);
+		}
+	}
+
+	/**
+	 * Clears the cache, for example when the server is stopped.
+	 */
+	public void invalidate() {
+		cache.invalidate();
+	}
+
+	/**
+	 * {@link UserIdentity} of single login, backed by the cached result of the verification.
+	 */
+	private static final class CachedUserIdentity implements UserIdentity {
+
+		private final UserIdentity verified;
+		private final Subject subject;
+
+		CachedUserIdentity(UserIdentity verified) {
+			this.verified = verified;
+			Subject s = verified.getSubject();
+			this.subject = s == null ? null
+					: new Subject(false, s.getPrincipals(), s.getPublicCredentials(), s.getPrivateCredentials());
+		}
+
+		@Override
+		public Subject getSubject() {
+			return subject;
+		}
+
+		@Override
+		public Principal getUserPrincipal() {
+			return verified.getUserPrincipal();
+		}
+
+		@Override
+		public boolean isUserInRole(String role, Scope scope) {
+			return verified.isUserInRole(role, scope);
+		}
+
+		@Override
+		public String toString() {
+			return verified.toString();
+		}
+	}
+
+}
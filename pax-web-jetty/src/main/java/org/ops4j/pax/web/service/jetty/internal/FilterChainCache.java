@@ -0,0 +1,194 @@
+/*
+ * Copyright 2026 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.web.service.jetty.internal;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import javax.servlet.DispatcherType;
+import javax.servlet.FilterChain;
+
+import org.eclipse.jetty.servlet.ServletHolder;
+import org.ops4j.pax.web.service.WebContainerContext;
+
+/**
+ * <p>Cache of {@link FilterChain filter chains} used by {@link PaxWebServletHandler} instead of Jetty's
+ * {@code _chainCache}, which is flushed entirely when it's full and which would require a {@link String} key
+ * that includes OSGi context for every request.</p>
+ *
+ * <p>Chains for named dispatches are cached by {@link ServletHolder} identity (there's limited number of
+ * holders). Chains for paths are kept in LRU segments of limited size, so paths with IDs or path parameters
+ * don't cause unbounded growth and don't push out all the frequently used chains.</p>
+ */
+class FilterChainCache {
+
+	private static final int SEGMENTS = 16;
+
+	private final Map<ServletHolder, FilterChain>[] byName;
+	private final Segment[] byPath;
+
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder evictions = new LongAdder();
+
+	@SuppressWarnings("unchecked")
+	FilterChainCache(int maxSize) {
+		byName = new Map[DispatcherType.values().length];
+		for (int i = 0; i < byName.length; i++) {
+			byName[i] = new ConcurrentHashMap<>();
+		}
+		byPath = new Segment[SEGMENTS];
+		int segmentSize = Math.max(1, maxSize / SEGMENTS);
+		for (int i = 0; i < SEGMENTS; i++) {
+			byPath[i] = new Segment(segmentSize);
+		}
+	}
+
+	/**
+	 * Gets a chain for named dispatch to given {@link ServletHolder}.
+	 * @param holder
+	 * @param dispatcherType
+	 * @return
+	 */
+	FilterChain get(ServletHolder holder, DispatcherType dispatcherType) {
+		return count(byName[dispatcherType.ordinal()].get(holder));
+	}
+
+	void put(ServletHolder holder, DispatcherType dispatcherType, FilterChain chain) {
+		byName[dispatcherType.ordinal()].put(holder, chain);
+	}
+
+	/**
+	 * Gets a chain for a path within given OSGi context.
+	 * @param key
+	 * @return
+	 */
+	FilterChain get(Key key) {
+		Segment segment = byPath[(key.hash ^ (key.hash >>> 16)) & (SEGMENTS - 1)];
+		synchronized (segment) {
+			return count(segment.get(key));
+		}
+	}
+
+	void put(Key key, FilterChain chain) {
+		Segment segment = byPath[(key.hash ^ (key.hash >>> 16)) & (SEGMENTS - 1)];
+		synchronized (segment) {
+			segment.put(key, chain);
+		}
+	}
+
+	/**
+	 * Clears the cache when the mappings change.
+	 */
+	void clear() {
+		for (Map<ServletHolder, FilterChain> map : byName) {
+			map.clear();
+		}
+		for (Segment segment : byPath) {
+			synchronized (segment) {
+				segment.clear();
+			}
+		}
+	}
+
+	long getHits() {
+		return hits.sum();
+	}
+
+	long getMisses() {
+		return misses.sum();
+	}
+
+	long getEvictions() {
+		return evictions.sum();
+	}
+
+	private FilterChain count(FilterChain chain) {
+		if (chain != null) {
+			hits.increment();
+		} else {
+			misses.increment();
+		}
+		return chain;
+	}
+
+	/**
+	 * Access-ordered {@link LinkedHashMap} which removes least recently used chain when full.
+	 */
+	private class Segment extends LinkedHashMap<Key, FilterChain> {
+
+		private final int maxSize;
+
+		Segment(int maxSize) {
+			super(16, 0.75f, true);
+			this.maxSize = maxSize;
+		}
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Key, FilterChain> eldest) {
+			if (size() > maxSize) {
+				evictions.increment();
+				return true;
+			}
+			return false;
+		}
+	}
+
+	/**
+	 * Key of a chain for a path. Chains depend on the id of {@link WebContainerContext} (and whether it's
+	 * shared), path and {@link DispatcherType}.
+	 */
+	static final class Key {
+
+		private final String contextId;
+		private final boolean shared;
+		private final String path;
+		private final DispatcherType dispatcherType;
+		private final int hash;
+
+		Key(WebContainerContext context, String path, DispatcherType dispatcherType) {
+			this.contextId = context == null ? null : context.getContextId();
+			this.shared = context != null && context.isShared();
+			this.path = path;
+			this.dispatcherType = dispatcherType;
+			int h = path.hashCode();
+			h = 31 * h + (contextId == null ? 0 : contextId.hashCode());
+			h = 31 * h + (shared ? 1 : 0);
+			this.hash = 31 * h + dispatcherType.ordinal();
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (!(o instanceof Key)) {
+				return false;
+			}
+			Key other = (Key) o;
+			return hash == other.hash && shared == other.shared && dispatcherType == other.dispatcherType
+					&& path.equals(other.path)
+					&& (contextId == null ? other.contextId == null : contextId.equals(other.contextId));
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+	}
+
+}
@@ -19,6 +19,7 @@ package org.ops4j.pax.web.service.jetty.internal;
 import java.lang.management.ManagementFactory;
 import java.security.NoSuchAlgorithmException;
 import java.util.Map;
+import java.util.concurrent.Executor;
 import javax.net.ssl.SSLContext;
 import javax.net.ssl.SSLParameters;
 
@@ -44,6 +45,7 @@ import org.ops4j.pax.web.service.spi.config.Configuration;
 import org.ops4j.pax.web.service.spi.config.SecurityConfiguration;
 import org.ops4j.pax.web.service.spi.config.ServerConfiguration;
 import org.ops4j.pax.web.service.spi.servlet.OsgiServletContextClassLoader;
+import org.ops4j.pax.web.service.spi.util.VirtualThreadSupport;
 import org.osgi.framework.Bundle;
 import org.osgi.framework.FrameworkUtil;
 import org.osgi.framework.wiring.BundleWiring;
@@ -125,6 +127,17 @@ class JettyFactory {
 			qtp.setName(prefix);
 		}
 
+		if (sc.isServerVirtualThreads() != null && sc.isServerVirtualThreads()) {
+			// blocking tasks (request handling) will be executed by Jetty on virtual threads, while selectors,
+			// acceptors and non-blocking tasks still use platform threads of the pool
+			Executor virtualThreadsExecutor = VirtualThreadSupport.createExecutor(qtp.getName() + "-virt-",
+					JettyFactory.class.getClassLoader());
+			if (virtualThreadsExecutor != null) {
+				LOG.info("Using virtual threads for request handling");
+				qtp.setVirtualThreadsExecutor(virtualThreadsExecutor);
+			}
+		}
+
 		// PAXWEB-1127: load org.eclipse.jetty.util.FutureCallback class, so it's there when we shutdown connectors
 		// to avoid NPE in org.apache.felix.framework.BundleWiringImpl.searchImports()
 		try {
@@ -27,12 +27,19 @@ import org.eclipse.jetty.server.Handler;
 import org.eclipse.jetty.server.HttpConfiguration;
 import org.eclipse.jetty.util.resource.PathResource;
 import org.ops4j.pax.web.service.jetty.internal.web.JettyResourceServlet;
+import org.ops4j.pax.web.service.spi.ContextStarter;
 import org.ops4j.pax.web.service.spi.ServerController;
 import org.ops4j.pax.web.service.spi.ServerState;
 import org.ops4j.pax.web.service.spi.config.Configuration;
 import org.ops4j.pax.web.service.spi.model.events.ServerEvent;
 import org.ops4j.pax.web.service.spi.model.events.ServerListener;
+import org.ops4j.pax.web.service.spi.model.info.CacheStatisticsInfo;
 import org.ops4j.pax.web.service.spi.task.Batch;
+import org.ops4j.pax.web.service.spi.task.ContextRestartScheduler;
+import org.ops4j.pax.web.service.spi.util.CompressedContentCache;
+import org.ops4j.pax.web.service.spi.util.ContentETagCache;
+import org.ops4j.pax.web.service.spi.util.ImmutableResources;
+import org.ops4j.pax.web.service.spi.util.SharedResourceCache;
 import org.osgi.framework.Bundle;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -63,6 +70,18 @@ class JettyServerController implements ServerController {
 	 */
 	private JettyServerWrapper jettyServerWrapper;
 
+	/** Optional server-wide cache of static content used by all resource servlets */
+	private final SharedResourceCache sharedResourceCache;
+
+	/** Optional server-wide cache of content compressed on the fly by all resource servlets */
+	private final CompressedContentCache compressedContentCache;
+
+	/** Optional server-wide cache of content based entity tags of bundle resources */
+	private final ContentETagCache contentETagCache;
+
+	/** Optional policy of serving fingerprinted resources with {@code Cache-Control: immutable} */
+	private final ImmutableResources immutableResources;
+
 	JettyServerController(Bundle paxWebJettyBundle, ClassLoader classLoader,
 			JettyFactory jettyFactory, Configuration configuration) {
 		this.paxWebJettyBundle = paxWebJettyBundle;
@@ -74,6 +93,10 @@ class JettyServerController implements ServerController {
 		this.listeners = Collections.synchronizedSet(new LinkedHashSet<>());
 
 		jettyServerWrapper = new JettyServerWrapper(configuration, jettyFactory, paxWebJettyBundle, classLoader);
+		sharedResourceCache = SharedResourceCache.create(configuration.resources());
+		compressedContentCache = CompressedContentCache.create(configuration.resources());
+		contentETagCache = ContentETagCache.create(configuration.resources());
+		immutableResources = ImmutableResources.create(configuration.resources());
 	}
 
 	// --- lifecycle methods
@@ -121,6 +144,15 @@ class JettyServerController implements ServerController {
 		}
 
 		jettyServerWrapper.stop();
+		if (sharedResourceCache != null) {
+			sharedResourceCache.clear();
+		}
+		if (compressedContentCache != null) {
+			compressedContentCache.clear();
+		}
+		if (contentETagCache != null) {
+			contentETagCache.clear();
+		}
 
 		state = ServerState.STOPPED;
 		notifyListeners(new ServerEvent(ServerEvent.State.STOPPED, null));
@@ -165,7 +197,14 @@ class JettyServerController implements ServerController {
 			throw new IllegalStateException("Can't process batch in Jetty server controller in state " + state);
 		}
 
-		batch.accept(jettyServerWrapper);
+		// operations which are redundant for the runtime (like adding and removing the same element) are skipped
+		Batch compacted = batch.compact();
+		if (compacted != batch) {
+			LOG.debug("Skipping {} redundant operations of {}",
+					batch.getOperations().size() - compacted.getOperations().size(), batch);
+		}
+
+		compacted.accept(jettyServerWrapper);
 	}
 
 	@Override
@@ -178,7 +217,41 @@ class JettyServerController implements ServerController {
 		}
 		String chroot = baseUrlResource == null ? base : null;
 
-		return new JettyResourceServlet(baseUrlResource, chroot);
+		JettyResourceServlet servlet = new JettyResourceServlet(baseUrlResource, chroot, sharedResourceCache);
+		servlet.setCompressedContentCache(compressedContentCache);
+		servlet.setContentETagCache(contentETagCache);
+		servlet.setImmutableResources(immutableResources);
+		return servlet;
+	}
+
+	@Override
+	public SharedResourceCache getSharedResourceCache() {
+		return sharedResourceCache;
+	}
+
+	@Override
+	public CompressedContentCache getCompressedContentCache() {
+		return compressedContentCache;
+	}
+
+	@Override
+	public ContentETagCache getContentETagCache() {
+		return contentETagCache;
+	}
+
+	@Override
+	public void collectCacheStatistics(Set<CacheStatisticsInfo> statistics) {
+		jettyServerWrapper.collectCacheStatistics(statistics);
+	}
+
+	@Override
+	public ContextRestartScheduler getContextRestartScheduler() {
+		return jettyServerWrapper.getContextRestartScheduler();
+	}
+
+	@Override
+	public void setContextStarter(ContextStarter contextStarter) {
+		jettyServerWrapper.setContextStarter(contextStarter);
 	}
 
 	@Override
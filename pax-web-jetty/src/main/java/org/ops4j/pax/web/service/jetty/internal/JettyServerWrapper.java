@@ -26,6 +26,7 @@ import java.util.Collections;
 import java.util.EventListener;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
@@ -36,6 +37,7 @@ import java.util.ServiceLoader;
 import java.util.Set;
 import java.util.TreeMap;
 import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Supplier;
 import javax.servlet.Servlet;
 import javax.servlet.ServletContainerInitializer;
@@ -50,11 +52,13 @@ import javax.servlet.http.HttpSessionAttributeListener;
 import org.eclipse.jetty.http.HttpCookie;
 import org.eclipse.jetty.http.MimeTypes;
 import org.eclipse.jetty.http.PreEncodedHttpField;
+import org.eclipse.jetty.jaas.JAASLoginService;
 import org.eclipse.jetty.jmx.MBeanContainer;
 import org.eclipse.jetty.security.Authenticator;
 import org.eclipse.jetty.security.ConstraintAware;
 import org.eclipse.jetty.security.ConstraintMapping;
 import org.eclipse.jetty.security.ConstraintSecurityHandler;
+import org.eclipse.jetty.security.LoginService;
 import org.eclipse.jetty.security.authentication.BasicAuthenticator;
 import org.eclipse.jetty.security.authentication.ClientCertAuthenticator;
 import org.eclipse.jetty.security.authentication.ConfigurableSpnegoAuthenticator;
@@ -71,6 +75,7 @@ import org.eclipse.jetty.server.Server;
 import org.eclipse.jetty.server.ServerConnector;
 import org.eclipse.jetty.server.SessionIdManager;
 import org.eclipse.jetty.server.SslConnectionFactory;
+import org.eclipse.jetty.server.UserIdentity;
 import org.eclipse.jetty.server.handler.ContextHandlerCollection;
 import org.eclipse.jetty.server.handler.ErrorHandler;
 import org.eclipse.jetty.server.session.DefaultSessionIdManager;
@@ -91,6 +96,7 @@ import org.eclipse.jetty.util.thread.QueuedThreadPool;
 import org.eclipse.jetty.xml.XmlConfiguration;
 import org.ops4j.pax.web.service.AuthenticatorService;
 import org.ops4j.pax.web.service.jetty.internal.web.JettyResourceServlet;
+import org.ops4j.pax.web.service.spi.ContextStarter;
 import org.ops4j.pax.web.service.spi.config.Configuration;
 import org.ops4j.pax.web.service.spi.config.LogConfiguration;
 import org.ops4j.pax.web.service.spi.config.SessionConfiguration;
@@ -110,6 +116,7 @@ import org.ops4j.pax.web.service.spi.model.elements.SessionConfigurationModel;
 import org.ops4j.pax.web.service.spi.model.elements.WebSocketModel;
 import org.ops4j.pax.web.service.spi.model.elements.WelcomeFileModel;
 import org.ops4j.pax.web.service.spi.model.events.ServerEvent;
+import org.ops4j.pax.web.service.spi.model.info.CacheStatisticsInfo;
 import org.ops4j.pax.web.service.spi.servlet.Default404Servlet;
 import org.ops4j.pax.web.service.spi.servlet.DynamicRegistrations;
 import org.ops4j.pax.web.service.spi.servlet.OsgiDynamicServletContext;
@@ -125,6 +132,7 @@ import org.ops4j.pax.web.service.spi.task.ClearDynamicRegistrationsChange;
 import org.ops4j.pax.web.service.spi.task.ContainerInitializerModelChange;
 import org.ops4j.pax.web.service.spi.task.ContextMetadataModelChange;
 import org.ops4j.pax.web.service.spi.task.ContextParamsChange;
+import org.ops4j.pax.web.service.spi.task.ContextRestartScheduler;
 import org.ops4j.pax.web.service.spi.task.ContextStartChange;
 import org.ops4j.pax.web.service.spi.task.ContextStopChange;
 import org.ops4j.pax.web.service.spi.task.ErrorPageModelChange;
@@ -141,6 +149,7 @@ import org.ops4j.pax.web.service.spi.task.ServletModelChange;
 import org.ops4j.pax.web.service.spi.task.TransactionStateChange;
 import org.ops4j.pax.web.service.spi.task.WebSocketModelChange;
 import org.ops4j.pax.web.service.spi.task.WelcomeFileModelChange;
+import org.ops4j.pax.web.service.spi.util.CredentialCache;
 import org.ops4j.pax.web.service.spi.util.Utils;
 import org.osgi.framework.Bundle;
 import org.osgi.framework.FrameworkUtil;
@@ -197,6 +206,15 @@ class JettyServerWrapper implements BatchVisitor {
 	 */
 	private final Map<String, List<ElementModel<?, ?>>> delayedRemovals = new HashMap<>();
 
+	/**
+	 * Debounces restarts of contexts caused by registration of {@link ServletContextListener listeners} and
+	 * {@link ServletContainerInitializer SCIs}.
+	 */
+	private final ContextRestartScheduler restartScheduler;
+
+	/** Strategy to perform the actual start of configured {@link PaxWebServletContextHandler} */
+	private ContextStarter contextStarter = ContextStarter.SYNCHRONOUS;
+
 	/** Single map of context path to {@link ServletContextHandler} for fast access */
 	private final Map<String, PaxWebServletContextHandler> contextHandlers = new HashMap<>();
 
@@ -206,6 +224,18 @@ class JettyServerWrapper implements BatchVisitor {
 	 */
 	private final Map<OsgiContextModel, OsgiServletContext> osgiServletContexts = new HashMap<>();
 
+	/**
+	 * {@link OsgiServletContextClassLoader class loaders} of {@link #osgiServletContexts}, kept in a concurrent map,
+	 * because their statistics are read outside of the configuration thread.
+	 */
+	private final Map<OsgiContextModel, OsgiServletContextClassLoader> classLoaders = new ConcurrentHashMap<>();
+
+	/**
+	 * {@link PaxWebServletHandler servlet handlers} of {@link #contextHandlers}, kept in a concurrent map,
+	 * because the statistics of their filter chain caches are read outside of the configuration thread.
+	 */
+	private final Map<String, PaxWebServletHandler> servletHandlers = new ConcurrentHashMap<>();
+
 	/**
 	 * 1:N mapping between context path and sorted (by ranking rules) set of {@link OsgiContextModel}. This helps
 	 * finding proper {@link org.osgi.service.http.context.ServletContextHelper} (1:1 with {@link OsgiContextModel})
@@ -247,6 +277,12 @@ class JettyServerWrapper implements BatchVisitor {
 
 	private final Map<String, TreeMap<OsgiContextModel, SecurityConfigurationModel>> contextSecurityConstraints = new HashMap<>();
 
+	/**
+	 * {@link JAASLoginService JAAS login services} from {@code jetty.xml} wrapped to cache successful logins,
+	 * shared by all the contexts using given realm.
+	 */
+	private final Map<LoginService, CachingLoginService> cachingLoginServices = new IdentityHashMap<>();
+
 	JettyServerWrapper(Configuration config, JettyFactory jettyFactory,
 			Bundle paxWebJettyBundle, ClassLoader classLoader) {
 		this.configuration = config;
@@ -255,6 +291,9 @@ class JettyServerWrapper implements BatchVisitor {
 		this.classLoader = classLoader;
 
 		this.mainHandler = new PrioritizedHandlerCollection();
+
+		Integer quietPeriod = config.server().getContextRestartQuietPeriod();
+		this.restartScheduler = new ContextRestartScheduler(quietPeriod == null ? 0L : quietPeriod);
 	}
 
 	// --- lifecycle and configuration methods
@@ -657,6 +696,9 @@ class JettyServerWrapper implements BatchVisitor {
 		LOG.info("Destroying Jetty server {}", server);
 		server.destroy();
 
+		cachingLoginServices.values().forEach(CachingLoginService::invalidate);
+		cachingLoginServices.clear();
+
 		dynamicRegistrations.clear();
 		initializers.clear();
 		osgiContextModels.clear();
@@ -664,6 +706,7 @@ class JettyServerWrapper implements BatchVisitor {
 			mainHandler.removeHandler(sch);
 		});
 		contextHandlers.clear();
+		servletHandlers.clear();
 		mainHandler.mapContexts();
 
 		// I found this necessary, when pax-web-jetty is restarted/refreshed without affecting
@@ -671,6 +714,49 @@ class JettyServerWrapper implements BatchVisitor {
 		osgiServletContexts.values().forEach(OsgiServletContext::unregister);
 	}
 
+	/**
+	 * Returns a {@link CachingLoginService} wrapping {@link JAASLoginService} with given name configured
+	 * in {@code jetty.xml} - only if credential cache is enabled in {@link Configuration#security()}.
+	 * @param realmName
+	 * @return
+	 */
+	private LoginService getCachingLoginService(String realmName) {
+		for (JAASLoginService loginService : server.getBeans(JAASLoginService.class)) {
+			if (realmName.equals(loginService.getName())) {
+				return cachingLoginServices.computeIfAbsent(loginService, ls -> {
+					CredentialCache<UserIdentity> cache = CredentialCache.create(configuration.security());
+					return cache == null ? null : new CachingLoginService(ls, cache);
+				});
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Returns the {@link ContextRestartScheduler} with statistics of debounced context restarts.
+	 * @return
+	 */
+	public ContextRestartScheduler getContextRestartScheduler() {
+		return restartScheduler;
+	}
+
+	/**
+	 * Collects statistics of the lookup caches of {@link OsgiServletContextClassLoader class loaders} of all
+	 * the OSGi contexts and of the filter chain caches of all the {@link PaxWebServletHandler servlet handlers}.
+	 * May be called from any thread.
+	 * @param statistics
+	 */
+	public void collectCacheStatistics(Set<CacheStatisticsInfo> statistics) {
+		classLoaders.forEach((model, loader) -> statistics.add(new CacheStatisticsInfo(model, loader)));
+		servletHandlers.forEach((path, handler) -> statistics.add(new CacheStatisticsInfo(CacheStatisticsInfo.FILTER_CHAIN,
+				path, null, handler.getFilterChainCacheHits(), handler.getFilterChainCacheMisses(),
+				handler.getFilterChainCacheEvictions(), 0L)));
+	}
+
+	public void setContextStarter(ContextStarter contextStarter) {
+		this.contextStarter = contextStarter == null ? ContextStarter.SYNCHRONOUS : contextStarter;
+	}
+
 	/**
 	 * If state allows, this methods returns currently configured/started addresses of the listeners.
 	 * @param useLocalPort
@@ -795,6 +881,14 @@ class JettyServerWrapper implements BatchVisitor {
 			sch.setInitParameter(DefaultServlet.CONTEXT_INIT + "maxCachedFiles",
 					maxEntries != null ? Integer.toString(maxEntries) : "2048");
 
+			// precompressed variants (br and gzip) and/or gzip variants compressed on the fly by
+			// JettyResourceServlet are negotiated by org.eclipse.jetty.server.ResourceService
+			if (configuration.resources().precompressed()) {
+				sch.setInitParameter(DefaultServlet.CONTEXT_INIT + "precompressed", "true");
+			} else if (configuration.resources().compression()) {
+				sch.setInitParameter(DefaultServlet.CONTEXT_INIT + "precompressed", "gzip=.gz");
+			}
+
 			mainHandler.addHandler(sch);
 			mainHandler.mapContexts();
 
@@ -840,6 +934,7 @@ class JettyServerWrapper implements BatchVisitor {
 
 			// explicit no check for existing mapping under given physical context path
 			contextHandlers.put(contextPath, sch);
+			servletHandlers.put(contextPath, (PaxWebServletHandler) sch.getServletHandler());
 			osgiContextModels.put(contextPath, new TreeSet<>());
 
 			// configure ordered map of initializers - Jetty doesn't let us configure it in a "context"...
@@ -858,7 +953,9 @@ class JettyServerWrapper implements BatchVisitor {
 			dynamicRegistrations.remove(contextPath);
 			initializers.remove(contextPath);
 			osgiContextModels.remove(contextPath);
+			restartScheduler.removed(contextPath);
 			PaxWebServletContextHandler sch = contextHandlers.remove(contextPath);
+			servletHandlers.remove(contextPath);
 
 			// Note: for WAB deployments, this is the last operation of the undeployment batch and all web element
 			// removals are delayed until this step.
@@ -949,6 +1046,9 @@ class JettyServerWrapper implements BatchVisitor {
 			osgiContext.setAttribute(ServletContext.TEMPDIR, tmpLocation);
 
 			osgiServletContexts.put(osgiModel, osgiContext);
+			if (osgiContext.getClassLoader() instanceof OsgiServletContextClassLoader) {
+				classLoaders.put(osgiModel, (OsgiServletContextClassLoader) osgiContext.getClassLoader());
+			}
 
 			// a physical context just got a new OSGi context
 			osgiContextModels.get(contextPath).add(osgiModel);
@@ -960,6 +1060,7 @@ class JettyServerWrapper implements BatchVisitor {
 			LOG.info("Removing {} from {}", osgiModel, sch);
 
 			OsgiServletContext removedOsgiServletContext = osgiServletContexts.remove(osgiModel);
+			classLoaders.remove(osgiModel);
 			TreeSet<OsgiContextModel> models = osgiContextModels.get(contextPath);
 			if (models != null) {
 				models.remove(osgiModel);
@@ -1409,8 +1510,8 @@ class JettyServerWrapper implements BatchVisitor {
 			// in PaxWebFilterHolders
 			List<PreprocessorFilterConfig> toInit = new LinkedList<>();
 
-			// clear to keep the order of all available preprocessors
-			((PaxWebServletHandler) sch.getServletHandler()).getPreprocessors().clear();
+			// new list to keep the order of all available preprocessors
+			List<PreprocessorFilterConfig> preprocessors = new ArrayList<>();
 
 			for (Iterator<FilterModel> iterator = filters.iterator(); iterator.hasNext(); ) {
 				FilterModel model = iterator.next();
@@ -1431,10 +1532,11 @@ class JettyServerWrapper implements BatchVisitor {
 							return match;
 						});
 					}
-					((PaxWebServletHandler) sch.getServletHandler()).getPreprocessors().add(filterConfig);
+					preprocessors.add(filterConfig);
 					iterator.remove();
 				}
 			}
+			((PaxWebServletHandler) sch.getServletHandler()).setPreprocessors(preprocessors);
 
 			if (sch.isStarted()) {
 				for (PreprocessorFilterConfig fc : toInit) {
@@ -1665,9 +1767,13 @@ class JettyServerWrapper implements BatchVisitor {
 						LOG.info("Stopping Jetty context \"{}\" before registering a ServletContextListener", contextPath);
 						servletContextHandler.stop();
 						stopped = true;
+						restartScheduler.markDirty(contextPath);
 					} catch (Exception e) {
 						LOG.warn("Problem stopping {}: {}", servletContextHandler, e.getMessage());
 					}
+				} else if (restartScheduler.isDirty(contextPath) && ServletContextListener.class.isAssignableFrom(eventListener.getClass())) {
+					// the context is already waiting for a restart - just postpone it
+					restartScheduler.markDirty(contextPath);
 				}
 
 				// add the listener to real context - even ServletContextAttributeListener (but only once - even
@@ -1679,7 +1785,7 @@ class JettyServerWrapper implements BatchVisitor {
 					// register a "callback batch operation", which will be submitted within a new batch
 					// as new task in single paxweb-config thread pool's thread
 					LOG.info("Scheduling start of the {} context after listener registration for already started context", contextPath);
-					change.registerBatchCompletedAction(new ContextStartChange(OpCode.MODIFY, contextPath));
+					change.registerBatchCompletedAction(restartScheduler.restart(contextPath));
 				}
 			});
 		}
@@ -1864,9 +1970,17 @@ class JettyServerWrapper implements BatchVisitor {
 					LOG.info("Stopping Jetty context \"{}\" before registering a ServletContextInitializer", path);
 					try {
 						sch.stop();
+						if (restartScheduler.markDirty(path) && restartScheduler.getQuietPeriod() > 0L) {
+							// the start caused by following registration of active web element is deferred
+							// until the quiet period passes, so we have to schedule it
+							change.registerBatchCompletedAction(restartScheduler.restart(path));
+						}
 					} catch (Exception e) {
 						LOG.warn("Error stopping Jetty context \"{}\": {}", path, e.getMessage(), e);
 					}
+				} else if (restartScheduler.isDirty(path)) {
+					// the context is already waiting for a restart - just postpone it
+					restartScheduler.markDirty(path);
 				}
 
 				// no need to check whether there are more OsgiContextModels associated with
@@ -2079,6 +2193,12 @@ class JettyServerWrapper implements BatchVisitor {
 		String contextPath = change.getContextPath();
 		PaxWebServletContextHandler servletContextHandler = contextHandlers.get(contextPath);
 		if (servletContextHandler != null) {
+			ContextStartChange postponed = restartScheduler.postpone(change);
+			if (postponed != null) {
+				// there were more listener registrations in the meantime - wait until they stop coming
+				change.registerBatchCompletedAction(postponed);
+				return;
+			}
 			ensureServletContextStarted(servletContextHandler);
 		} else {
 			LOG.debug("Not starting unknown context {}.", contextPath);
@@ -2177,7 +2297,8 @@ class JettyServerWrapper implements BatchVisitor {
 	 */
 	private void ensureServletContextStarted(PaxWebServletContextHandler sch) {
 		String contextPath = sch.getContextPath().equals("") ? "/" : sch.getContextPath();
-		if (sch.isStarted() || pendingTransaction(contextPath)) {
+		if (sch.isStarted() || pendingTransaction(contextPath) || contextStarter.isStarting(contextPath)
+				|| restartScheduler.isStartDeferred(contextPath)) {
 			return;
 		}
 		try {
@@ -2293,6 +2414,11 @@ class JettyServerWrapper implements BatchVisitor {
 					securityHandler.setRealmName("default");
 				}
 
+				LoginService cachingLoginService = getCachingLoginService(securityHandler.getRealmName());
+				if (cachingLoginService != null) {
+					securityHandler.setLoginService(cachingLoginService);
+				}
+
 				switch (loginConfig.getAuthMethod().toUpperCase()) {
 					case Constraint.__BASIC_AUTH:
 						securityHandler.setAuthenticator(new BasicAuthenticator());
@@ -2438,13 +2564,23 @@ class JettyServerWrapper implements BatchVisitor {
 			} finally {
 				Thread.currentThread().setContextClassLoader(tccl);
 			}
-			sch.start();
 
-			dynamicContext.rememberAttributesFromSCIs();
+			// the actual start (SCIs, listeners, servlet initialization) may be performed in another thread
+			contextStarter.start(contextPath, () -> {
+				try {
+					sch.start();
+					restartScheduler.started(contextPath);
+
+					dynamicContext.rememberAttributesFromSCIs();
 
-			// only now, according to https://docs.osgi.org/specification/osgi.cmpn/7.0.0/service.war.html#d0e100694
-			// register the servlet context
-			highestRankedContext.register();
+					// only now, according to https://docs.osgi.org/specification/osgi.cmpn/7.0.0/service.war.html#d0e100694
+					// register the servlet context
+					highestRankedContext.register();
+				} catch (Exception e) {
+					// reported by the ContextStarter - logged in synchronous case
+					throw new IllegalStateException("Can't start Jetty context \"" + contextPath + "\": " + e.getMessage(), e);
+				}
+			});
 		} catch (Exception e) {
 			LOG.error(e.getMessage(), e);
 		}
@@ -21,10 +21,8 @@ import java.security.Principal;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.EnumSet;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.function.Consumer;
-import java.util.stream.Collectors;
 import javax.security.auth.Subject;
 import javax.servlet.DispatcherType;
 import javax.servlet.FilterChain;
@@ -80,8 +78,10 @@ public class PaxWebServletHandler extends ServletHandler {
 	 * {@link Preprocessor} instances are always registered to all contexts and are always mapped to all servlet
 	 * chains, so handling them is easy. We keep only the configs, because we have to manage the lifecycle
 	 * of OSGi services for {@link Preprocessor} instances.
+	 * The list is immutable and replaced when preprocessors change, so it can be passed to every
+	 * {@link OsgiFilterChain} without copying.
 	 */
-	private final List<PreprocessorFilterConfig> preprocessors = new LinkedList<>();
+	private volatile List<PreprocessorFilterConfig> preprocessors = Collections.emptyList();
 
 	/** Default {@link ServletContext} to use for chains without target servlet (e.g., filters only) */
 	private OsgiServletContext defaultServletContext;
@@ -100,6 +100,31 @@ public class PaxWebServletHandler extends ServletHandler {
 
 	private final ThreadLocal<PaxWebServletHolder> currentServletHolder = new ThreadLocal<>();
 
+	/** Our own cache of filter chains, where key includes proper OSGi context */
+	private final FilterChainCache chainCache;
+
+	/**
+	 * Listener called when {@link org.osgi.service.http.HttpContext#handleSecurity} returns true. It's not
+	 * created for each request - Jetty's {@link Request} is taken from the (possibly wrapped) request.
+	 */
+	private final Consumer<HttpServletRequest> authListener = (req) -> {
+		final Object user = req.getAttribute(ServletContextHelper.REMOTE_USER);
+		final Object authType = req.getAttribute(ServletContextHelper.AUTHENTICATION_TYPE);
+
+		if (user != null || authType != null) {
+			// translate it into Jetty specific authentication
+			Request baseRequest = Request.getBaseRequest(req);
+			if (baseRequest != null && (baseRequest.getAuthentication() == null
+					|| baseRequest.getAuthentication() == Authentication.UNAUTHENTICATED)) {
+				String userName = user != null ? user.toString() : null;
+				String authMethod = authType != null ? authType.toString() : null;
+				Principal p = new UserPrincipal(userName, null);
+				Subject s = new Subject(true, Collections.singleton(p), Collections.emptySet(), Collections.emptySet());
+				baseRequest.setAuthentication(new UserAuthentication(authMethod, new DefaultUserIdentity(s, p, new String[0])));
+			}
+		}
+	};
+
 	/**
 	 * Create new {@link ServletHandler} for given {@link org.eclipse.jetty.servlet.ServletContextHandler}
 	 * @param default404Servlet this servlet will be used when there's no mapped servlet
@@ -114,11 +139,10 @@ public class PaxWebServletHandler extends ServletHandler {
 		//    say anything about it)
 		setEnsureDefaultServlet(true);
 
-		// that's important, we will use the cache but on OSGi-specific terms (different key)
+		// that's important, we will use the cache but on OSGi-specific terms (different key) and in
+		// separate, bounded structure. Jetty's _chainCache is only used temporarily by super.getFilterChain()
 		setFilterChainsCached(true);
-		// a bit more than default, because we're also caching by context-specific cache key
-		int cacheSize = getMaxFilterChainsCacheSize();
-		setMaxFilterChainsCacheSize(2 * cacheSize);
+		chainCache = new FilterChainCache(getMaxFilterChainsCacheSize());
 
 		setFilters(new PaxWebFilterHolder[0]);
 
@@ -408,30 +432,14 @@ public class PaxWebServletHandler extends ServletHandler {
 			chain = (request, response) -> holder.handle(baseRequest, request, response);
 		}
 
-		// listener called when org.osgi.service.http.HttpContext.handleSecurity() returns true
-		Consumer<HttpServletRequest> authListener = (req) -> {
-			final Object user = req.getAttribute(ServletContextHelper.REMOTE_USER);
-			final Object authType = req.getAttribute(ServletContextHelper.AUTHENTICATION_TYPE);
-
-			if (user != null || authType != null) {
-				// translate it into Jetty specific authentication
-				if (baseRequest.getAuthentication() == null || baseRequest.getAuthentication() == Authentication.UNAUTHENTICATED) {
-					String userName = user != null ? user.toString() : null;
-					String authMethod = authType != null ? authType.toString() : null;
-					Principal p = new UserPrincipal(userName, null);
-					Subject s = new Subject(true, Collections.singleton(p), Collections.emptySet(), Collections.emptySet());
-					baseRequest.setAuthentication(new UserAuthentication(authMethod, new DefaultUserIdentity(s, p, new String[0])));
-				}
-			}
-		};
-
-		List<Preprocessor> preprocessorInstances = preprocessors.stream().map(PreprocessorFilterConfig::getInstance).collect(Collectors.toList());
 		if (!holder.is404()) {
-			return new OsgiFilterChain(new ArrayList<>(preprocessorInstances), holder.getOsgiServletContext(),
-					holder.getWebContainerContext(), chain, osgiSessionsBridge, authListener);
+			return new OsgiFilterChain(preprocessors, holder.getOsgiServletContext(),
+					holder.getWebContainerContext(), chain, osgiSessionsBridge, authListener,
+					holder.getOsgiContextModel(), holder.getServletModel());
 		} else {
-			return new OsgiFilterChain(new ArrayList<>(preprocessorInstances), defaultServletContext,
-					defaultWebContainerContext, chain, osgiSessionsBridge, authListener);
+			return new OsgiFilterChain(preprocessors, defaultServletContext,
+					defaultWebContainerContext, chain, osgiSessionsBridge, authListener,
+					defaultOsgiContextModel, null);
 		}
 	}
 
@@ -446,23 +454,19 @@ public class PaxWebServletHandler extends ServletHandler {
 	protected FilterChain getFilterChain(Request baseRequest, String pathInContext, ServletHolder servletHolder) {
 		PaxWebServletHolder holder = (PaxWebServletHolder) servletHolder;
 
-		// calculate caching key for filter chain
-		WebContainerContext wcc = holder.getWebContainerContext();
-		String prefix = wcc == null ? "" : wcc.getContextId() + "|";
-		if (wcc != null && wcc.isShared()) {
-			prefix = "~|" + prefix;
-		}
-		String contextlessKey = pathInContext == null ? holder.getName() : pathInContext;
-		String key = prefix + contextlessKey;
-
-		int dispatch = FilterMapping.dispatch(baseRequest.getDispatcherType());
+		// named dispatch - chain depends only on the holder
+		DispatcherType dispatcherType = baseRequest.getDispatcherType();
+		FilterChainCache.Key key = pathInContext == null ? null
+				: new FilterChainCache.Key(holder.getWebContainerContext(), pathInContext, dispatcherType);
 
-		FilterChain chain = _chainCache[dispatch].get(key);
+		FilterChain chain = key == null ? chainCache.get(holder, dispatcherType) : chainCache.get(key);
 		if (chain != null) {
 			return chain;
 		}
 
 		// always clear contextlessKey in parent cache, so super.getFilterChain will create new filter chain
+		String contextlessKey = pathInContext == null ? holder.getName() : pathInContext;
+		int dispatch = FilterMapping.dispatch(dispatcherType);
 		_chainCache[dispatch].remove(contextlessKey);
 
 		// After an update to Jetty 9.4.34, we have to use different way of rejecting filters from the chain if
@@ -472,21 +476,57 @@ public class PaxWebServletHandler extends ServletHandler {
 			chain = super.getFilterChain(baseRequest, pathInContext, servletHolder);
 		} finally {
 			currentServletHolder.remove();
+			// the entry created by Jetty is not OSGi context aware - we don't need it
+			_chainCache[dispatch].remove(contextlessKey);
 		}
 
 		// the above chain:
 		// 1) may be null if there are no filters at all
 		// 2) may be not null, but all the filters may have to be removed because they could not match target servlet
-		// 3) created new cache entry which we don't want directly, but it can be useful when accessing
-		//    a servlet through different OSGi context
 
 		if (chain != null) {
-			_chainCache[dispatch].put(key, chain);
+			if (key == null) {
+				chainCache.put(holder, dispatcherType, chain);
+			} else {
+				chainCache.put(key, chain);
+			}
 		}
 
 		return chain;
 	}
 
+	@Override
+	protected void invalidateChainsCache() {
+		super.invalidateChainsCache();
+		if (chainCache != null) {
+			chainCache.clear();
+		}
+	}
+
+	/**
+	 * Number of requests for which the filter chain was found in the cache.
+	 * @return
+	 */
+	public long getFilterChainCacheHits() {
+		return chainCache.getHits();
+	}
+
+	/**
+	 * Number of requests for which the filter chain had to be created.
+	 * @return
+	 */
+	public long getFilterChainCacheMisses() {
+		return chainCache.getMisses();
+	}
+
+	/**
+	 * Number of filter chains removed from the cache, because it was full.
+	 * @return
+	 */
+	public long getFilterChainCacheEvictions() {
+		return chainCache.getEvictions();
+	}
+
 	@Override
 	protected FilterChain newFilterChain(FilterHolder filterHolder, FilterChain chain) {
 		// This is where we can narrow the list of filters, which Jetty decided to map to given servlet
@@ -512,4 +552,12 @@ public class PaxWebServletHandler extends ServletHandler {
 		return preprocessors;
 	}
 
+	/**
+	 * Replaces the preprocessors of this handler (and the context).
+	 * @param preprocessors
+	 */
+	public void setPreprocessors(List<PreprocessorFilterConfig> preprocessors) {
+		this.preprocessors = Collections.unmodifiableList(new ArrayList<>(preprocessors));
+	}
+
 }
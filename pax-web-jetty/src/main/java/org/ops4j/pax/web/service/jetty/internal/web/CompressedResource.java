@@ -0,0 +1,126 @@
+/*
+ * Copyright 2026 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.web.service.jetty.internal.web;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.InputStream;
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+
+import org.eclipse.jetty.util.resource.Resource;
+import org.ops4j.pax.web.service.spi.util.CompressedContentCache;
+
+/**
+ * Virtual {@code .gz} sibling of a {@link Resource} with the content compressed on the fly and kept in
+ * {@link CompressedContentCache}. It's only used as precompressed variant of the original resource - never
+ * for direct requests.
+ */
+class CompressedResource extends Resource {
+
+	private final Resource original;
+	private final byte[] compressed;
+
+	CompressedResource(Resource original, byte[] compressed) {
+		this.original = original;
+		this.compressed = compressed;
+	}
+
+	@Override
+	public boolean isContainedIn(Resource r) throws MalformedURLException {
+		return false;
+	}
+
+	@Override
+	public void close() {
+		original.close();
+	}
+
+	@Override
+	public boolean exists() {
+		return true;
+	}
+
+	@Override
+	public boolean isDirectory() {
+		return false;
+	}
+
+	@Override
+	public long lastModified() {
+		return original.lastModified();
+	}
+
+	@Override
+	public long length() {
+		return compressed.length;
+	}
+
+	@Override
+	public URI getURI() {
+		// own identity - the URI may be used as a cache key
+		URI uri = original.getURI();
+		return uri == null ? null : URI.create(uri.toString() + CompressedContentCache.EXTENSION);
+	}
+
+	@Override
+	public File getFile() {
+		return null;
+	}
+
+	@Override
+	public String getName() {
+		return original.getName() + CompressedContentCache.EXTENSION;
+	}
+
+	@Override
+	public InputStream getInputStream() {
+		return new ByteArrayInputStream(compressed);
+	}
+
+	@Override
+	public ReadableByteChannel getReadableByteChannel() {
+		return Channels.newChannel(getInputStream());
+	}
+
+	@Override
+	public boolean delete() throws SecurityException {
+		return false;
+	}
+
+	@Override
+	public boolean renameTo(Resource dest) throws SecurityException {
+		return false;
+	}
+
+	@Override
+	public String[] list() {
+		return null;
+	}
+
+	@Override
+	public Resource addPath(String path) {
+		return null;
+	}
+
+	@Override
+	public String toString() {
+		return original + CompressedContentCache.EXTENSION;
+	}
+
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright 2026 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.web.service.jetty.internal.web;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.nio.channels.ReadableByteChannel;
+
+import org.eclipse.jetty.util.resource.Resource;
+import org.ops4j.pax.web.service.spi.util.ContentETagCache;
+import org.osgi.framework.Bundle;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Bundle {@link Resource} with strong entity tag taken from {@link ContentETagCache}. Jetty asks the resource
+ * for {@link Resource#getWeakETag(String)} both for original content and (with format specific suffix) for
+ * its precompressed variants, so overriding it is enough for all {@link org.eclipse.jetty.http.HttpContent}
+ * implementations.
+ */
+class ContentETagResource extends Resource {
+
+	private static final Logger LOG = LoggerFactory.getLogger(ContentETagResource.class);
+
+	private final Resource delegate;
+	private final ContentETagCache cache;
+	private final Bundle bundle;
+
+	ContentETagResource(Resource delegate, ContentETagCache cache, Bundle bundle) {
+		this.delegate = delegate;
+		this.cache = cache;
+		this.bundle = bundle;
+	}
+
+	@Override
+	public String getWeakETag() {
+		return getWeakETag("");
+	}
+
+	@Override
+	public String getWeakETag(String suffix) {
+		URI uri = delegate.getURI();
+		if (uri != null) {
+			try {
+				String tag = cache.getETag(bundle, uri.toString(), delegate::getInputStream);
+				if (tag != null) {
+					return "\"" + tag + suffix + "\"";
+				}
+			} catch (IOException e) {
+				LOG.warn("Problem calculating entity tag of {}: {}", uri, e.getMessage(), e);
+			}
+		}
+		return delegate.getWeakETag(suffix);
+	}
+
+	@Override
+	public boolean isContainedIn(Resource r) throws MalformedURLException {
+		return delegate.isContainedIn(r);
+	}
+
+	@Override
+	public void close() {
+		delegate.close();
+	}
+
+	@Override
+	public boolean exists() {
+		return delegate.exists();
+	}
+
+	@Override
+	public boolean isDirectory() {
+		return delegate.isDirectory();
+	}
+
+	@Override
+	public long lastModified() {
+		return delegate.lastModified();
+	}
+
+	@Override
+	public long length() {
+		return delegate.length();
+	}
+
+	@Override
+	public URI getURI() {
+		return delegate.getURI();
+	}
+
+	@Override
+	public File getFile() throws IOException {
+		return delegate.getFile();
+	}
+
+	@Override
+	public String getName() {
+		return delegate.getName();
+	}
+
+	@Override
+	public InputStream getInputStream() throws IOException {
+		return delegate.getInputStream();
+	}
+
+	@Override
+	public ReadableByteChannel getReadableByteChannel() throws IOException {
+		return delegate.getReadableByteChannel();
+	}
+
+	@Override
+	public boolean delete() throws SecurityException {
+		return false;
+	}
+
+	@Override
+	public boolean renameTo(Resource dest) throws SecurityException {
+		return false;
+	}
+
+	@Override
+	public String[] list() {
+		return delegate.list();
+	}
+
+	@Override
+	public Resource addPath(String path) throws IOException {
+		return delegate.addPath(path);
+	}
+
+	@Override
+	public String toString() {
+		return delegate.toString();
+	}
+
+}
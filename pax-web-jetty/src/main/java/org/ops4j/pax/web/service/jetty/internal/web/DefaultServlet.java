@@ -269,9 +269,12 @@ public class DefaultServlet extends HttpServlet implements ResourceFactory, Welc
             _cache = (CachedContentFactory)_servletContext.getAttribute(resourceCache);
         }
 
+        // Pax Web: subclass may provide own content factory instead of per-servlet CachedContentFactory
+        HttpContent.ContentFactory contentFactory = createContentFactory(_mimeTypes, _resourceService.getPrecompressedFormats());
+
         try
         {
-            if (_cache == null && (maxCachedFiles != -2 || maxCacheSize != -2 || maxCachedFileSize != -2))
+            if (contentFactory == null && _cache == null && (maxCachedFiles != -2 || maxCacheSize != -2 || maxCachedFileSize != -2))
             {
                 _cache = new CachedContentFactory(null, this, _mimeTypes, _useFileMappedBuffer, _resourceService.isEtags(), _resourceService.getPrecompressedFormats());
                 if (maxCacheSize >= 0)
@@ -289,7 +292,8 @@ public class DefaultServlet extends HttpServlet implements ResourceFactory, Welc
             throw new UnavailableException(e.toString());
         }
 
-        HttpContent.ContentFactory contentFactory = _cache;
+        if (contentFactory == null)
+            contentFactory = _cache;
         if (contentFactory == null)
         {
             contentFactory = new ResourceContentFactory(this, _mimeTypes, _resourceService.getPrecompressedFormats());
@@ -502,6 +506,18 @@ public class DefaultServlet extends HttpServlet implements ResourceFactory, Welc
         response.setHeader("Allow", "GET,HEAD,POST,OPTIONS");
     }
 
+    /**
+     * Pax Web: hook to provide a content factory used instead of default {@link CachedContentFactory}.
+     *
+     * @param mimeTypes the mime types of the context
+     * @param precompressedFormats the configured precompressed formats
+     * @return the content factory or null to use the default one
+     */
+    protected HttpContent.ContentFactory createContentFactory(MimeTypes mimeTypes, CompressedContentFormat[] precompressedFormats)
+    {
+        return null;
+    }
+
     @Override
     public void destroy()
     {
@@ -15,17 +15,34 @@
  */
 package org.ops4j.pax.web.service.jetty.internal.web;
 
+import java.io.File;
 import java.io.IOException;
 import java.net.URL;
+import javax.servlet.DispatcherType;
+import javax.servlet.RequestDispatcher;
 import javax.servlet.ServletContext;
+import javax.servlet.ServletException;
 import javax.servlet.UnavailableException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 
+import org.eclipse.jetty.http.CompressedContentFormat;
+import org.eclipse.jetty.http.HttpContent;
+import org.eclipse.jetty.http.MimeTypes;
+import org.eclipse.jetty.server.ResourceContentFactory;
 import org.eclipse.jetty.server.handler.ContextHandler;
+import org.eclipse.jetty.util.URIUtil;
 import org.eclipse.jetty.util.resource.PathResource;
 import org.eclipse.jetty.util.resource.Resource;
 import org.ops4j.pax.web.service.jetty.internal.PaxWebServletContextHandler;
 import org.ops4j.pax.web.service.spi.servlet.OsgiScopedServletContext;
+import org.ops4j.pax.web.service.spi.util.BundleFileResolver;
+import org.ops4j.pax.web.service.spi.util.CompressedContentCache;
+import org.ops4j.pax.web.service.spi.util.ContentETagCache;
+import org.ops4j.pax.web.service.spi.util.ImmutableResources;
 import org.ops4j.pax.web.service.spi.util.Path;
+import org.ops4j.pax.web.service.spi.util.SharedResourceCache;
+import org.osgi.framework.Bundle;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -46,18 +63,45 @@ public class JettyResourceServlet extends DefaultServlet {
 	 */
 	private final String chroot;
 
+	/** Server-wide cache used instead of per-servlet {@link org.eclipse.jetty.server.CachedContentFactory} */
+	private final SharedResourceCache sharedResourceCache;
+
+	/** Server-wide cache of content compressed on the fly, exposed as virtual {@code .gz} resources */
+	private CompressedContentCache compressedContentCache;
+
+	/** Server-wide cache of strong entity tags of bundle resources */
+	private ContentETagCache contentETagCache;
+
+	/** Fingerprinted resources served with {@code Cache-Control: immutable} */
+	private ImmutableResources immutableResources;
+
+	/** Not {@code null} for bundles installed from a directory - their entries are served as files */
+	private BundleFileResolver bundleFileResolver;
+
 	// super._welcomes can be cleared after super.init()...
 	private String[] welcomeFiles;
 
 	public JettyResourceServlet(PathResource baseUrlResource, String chroot) {
+		this(baseUrlResource, chroot, null);
+	}
+
+	public JettyResourceServlet(PathResource baseUrlResource, String chroot, SharedResourceCache sharedResourceCache) {
 		this.baseUrlResource = baseUrlResource;
 		this.chroot = chroot;
+		this.sharedResourceCache = sharedResourceCache;
 	}
 
 	@Override
 	public void init() throws UnavailableException {
 		super.init();
 		_welcomes = welcomeFiles;
+		bundleFileResolver = BundleFileResolver.create(getBundle());
+
+		if (sharedResourceCache != null) {
+			LOG.info("Initialized Jetty Resource Servlet for base=\"{}\" with shared cache {}",
+					baseUrlResource != null ? baseUrlResource.getPath() : chroot, sharedResourceCache);
+			return;
+		}
 
 		String maxCacheSize = getInitParameter("maxCacheSize");
 		String maxCachedFileSize = getInitParameter("maxCachedFileSize");
@@ -79,6 +123,18 @@ public class JettyResourceServlet extends DefaultServlet {
 				maxCachedFiles);
 	}
 
+	public void setCompressedContentCache(CompressedContentCache compressedContentCache) {
+		this.compressedContentCache = compressedContentCache;
+	}
+
+	public void setContentETagCache(ContentETagCache contentETagCache) {
+		this.contentETagCache = contentETagCache;
+	}
+
+	public void setImmutableResources(ImmutableResources immutableResources) {
+		this.immutableResources = immutableResources;
+	}
+
 	/**
 	 * By making {@link DefaultServlet#_welcomes} protected, we can set those files without reinitializing the
 	 * servlet
@@ -92,6 +148,27 @@ public class JettyResourceServlet extends DefaultServlet {
 		}
 	}
 
+	@Override
+	protected HttpContent.ContentFactory createContentFactory(MimeTypes mimeTypes, CompressedContentFormat[] precompressedFormats) {
+		if (sharedResourceCache == null) {
+			return null;
+		}
+		return new SharedCacheContentFactory(new ResourceContentFactory(this, mimeTypes, precompressedFormats),
+				sharedResourceCache, getBundle());
+	}
+
+	/**
+	 * Returns the bundle used to version cached content.
+	 * @return the bundle for which this servlet is registered or {@code null} for resources from configured
+	 *         directory, which are versioned by their own last modification time
+	 */
+	private Bundle getBundle() {
+		if (baseUrlResource == null && getServletContext() instanceof OsgiScopedServletContext) {
+			return ((OsgiScopedServletContext) getServletContext()).getBundle();
+		}
+		return null;
+	}
+
 	public void setWelcomeFilesRedirect(boolean welcomeFilesRedirect) {
 		_resourceService.setRedirectWelcome(welcomeFilesRedirect);
 	}
@@ -105,8 +182,89 @@ public class JettyResourceServlet extends DefaultServlet {
 		return ((ContextHandler.Context)((OsgiScopedServletContext)servletContext).getContainerServletContext()).getContextHandler();
 	}
 
+	@Override
+	protected void doGet(HttpServletRequest request, HttpServletResponse response) throws ServletException, IOException {
+		if (compressedContentCache != null) {
+			String pathInContext = getPathInContext(request);
+			if (pathInContext.endsWith(CompressedContentCache.EXTENSION)) {
+				// virtual .gz resources are only precompressed variants of the original resources
+				Resource resource = findResource(pathInContext);
+				if (resource == null || !resource.exists()) {
+					response.sendError(HttpServletResponse.SC_NOT_FOUND);
+					return;
+				}
+			}
+		}
+		if (immutableResources != null && request.getDispatcherType() != DispatcherType.INCLUDE) {
+			String pathInContext = getPathInContext(request);
+			if (immutableResources.isImmutable(pathInContext)) {
+				// only for existing files - error responses should never be cached that long
+				Resource resource = getResource(pathInContext);
+				if (resource != null && resource.exists() && !resource.isDirectory()) {
+					response.setHeader(ImmutableResources.CACHE_CONTROL, immutableResources.getCacheControl());
+				}
+			}
+		}
+		super.doGet(request, response);
+	}
+
+	/**
+	 * Returns the path of requested resource - the same path as calculated in
+	 * {@code org.eclipse.jetty.server.ResourceService.doGet()}.
+	 * @param request
+	 * @return
+	 */
+	private String getPathInContext(HttpServletRequest request) {
+		String servletPath;
+		String pathInfo;
+		if (request.getDispatcherType() == DispatcherType.INCLUDE
+				&& request.getAttribute(RequestDispatcher.INCLUDE_REQUEST_URI) != null) {
+			servletPath = _resourceService.isPathInfoOnly() ? "/" : (String) request.getAttribute(RequestDispatcher.INCLUDE_SERVLET_PATH);
+			pathInfo = (String) request.getAttribute(RequestDispatcher.INCLUDE_PATH_INFO);
+			if (servletPath == null) {
+				servletPath = request.getServletPath();
+				pathInfo = request.getPathInfo();
+			}
+		} else {
+			servletPath = _resourceService.isPathInfoOnly() ? "/" : request.getServletPath();
+			pathInfo = request.getPathInfo();
+		}
+		return URIUtil.addPaths(servletPath, pathInfo);
+	}
+
 	@Override
 	public Resource getResource(String pathInContext) {
+		Resource resource = findResource(pathInContext);
+		if (compressedContentCache != null && (resource == null || !resource.exists())
+				&& pathInContext.endsWith(CompressedContentCache.EXTENSION)) {
+			// no precompressed variant - ResourceContentFactory will use the content compressed on the fly
+			return getCompressedResource(pathInContext.substring(0, pathInContext.length() - CompressedContentCache.EXTENSION.length()));
+		}
+		if (contentETagCache != null && resource != null && baseUrlResource == null
+				&& resource.exists() && !resource.isDirectory()) {
+			// bundle resource - strong, content based entity tag
+			return new ContentETagResource(resource, contentETagCache, getBundle());
+		}
+		return resource;
+	}
+
+	private Resource getCompressedResource(String pathInContext) {
+		Resource resource = findResource(pathInContext);
+		if (resource == null || !resource.exists() || resource.isDirectory() || resource.getURI() == null
+				|| !compressedContentCache.isCompressible(getServletContext().getMimeType(pathInContext))) {
+			return null;
+		}
+		try {
+			byte[] compressed = compressedContentCache.getCompressed(getBundle(), resource.lastModified(),
+					resource.getURI().toString(), resource.length(), resource::getInputStream);
+			return compressed == null ? null : new CompressedResource(resource, compressed);
+		} catch (IOException e) {
+			LOG.warn("Problem compressing {}: {}", resource, e.getMessage(), e);
+			return null;
+		}
+	}
+
+	private Resource findResource(String pathInContext) {
 		// our (commons-io) normalized path
 		String childPath = Path.securePath(pathInContext);
 		if (childPath == null) {
@@ -133,6 +291,13 @@ public class JettyResourceServlet extends DefaultServlet {
 				// under Osgi(Scoped)ServletContext
 				URL url = getServletContext().getResource(chroot + "/" + childPath);
 
+				File bundleFile = bundleFileResolver == null ? null : bundleFileResolver.resolve(url);
+				if (bundleFile != null) {
+					// entry of a bundle installed from a directory - PathResource content is sent using
+					// FileChannel (also for ranges) and can be memory mapped
+					return new PathResource(bundleFile);
+				}
+
 				// See: https://github.com/ops4j/org.ops4j.pax.web/issues/2014
 				// Everything is fine with Felix - it doesn't even seem to support directory-based bundles.
 				// However under Equinox and bundles available from directory (with META-INF/MANIFEST.MF
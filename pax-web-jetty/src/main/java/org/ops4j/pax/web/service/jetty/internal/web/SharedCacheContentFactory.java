@@ -0,0 +1,187 @@
+/*
+ * Copyright 2026 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.web.service.jetty.internal.web;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.util.Map;
+
+import org.eclipse.jetty.http.CompressedContentFormat;
+import org.eclipse.jetty.http.HttpContent;
+import org.eclipse.jetty.http.HttpField;
+import org.eclipse.jetty.http.MimeTypes;
+import org.eclipse.jetty.util.resource.Resource;
+import org.ops4j.pax.web.service.spi.util.SharedResourceCache;
+import org.osgi.framework.Bundle;
+
+/**
+ * {@link HttpContent.ContentFactory} used instead of per-servlet {@link org.eclipse.jetty.server.CachedContentFactory}
+ * when server-wide {@link SharedResourceCache} is configured. Metadata of the content is still provided by
+ * the delegate factory, but the content itself is taken from the shared cache.
+ */
+class SharedCacheContentFactory implements HttpContent.ContentFactory {
+
+	private final HttpContent.ContentFactory delegate;
+	private final SharedResourceCache cache;
+	private final Bundle bundle;
+
+	/**
+	 * @param delegate
+	 * @param cache
+	 * @param bundle the bundle for which the resource servlet is registered or {@code null} if the resources
+	 *        are served from a directory (so resource last modification time is used as a version)
+	 */
+	SharedCacheContentFactory(HttpContent.ContentFactory delegate, SharedResourceCache cache, Bundle bundle) {
+		this.delegate = delegate;
+		this.cache = cache;
+		this.bundle = bundle;
+	}
+
+	@Override
+	public HttpContent getContent(String path, int maxBuffer) throws IOException {
+		HttpContent content = delegate.getContent(path, maxBuffer);
+		if (content == null) {
+			return null;
+		}
+		Resource resource = content.getResource();
+		if (resource == null || resource.isDirectory() || resource.getURI() == null
+				|| resource instanceof CompressedResource) {
+			// content compressed on the fly is already kept in memory
+			return content;
+		}
+		ByteBuffer buffer = cache.getContent(bundle, resource.lastModified(), resource.getURI().toString(),
+				resource.length(), resource::getInputStream);
+		return buffer == null ? content : new SharedCacheHttpContent(content, buffer);
+	}
+
+	@Override
+	public String toString() {
+		return "SharedCacheContentFactory{" + cache + "}";
+	}
+
+	/**
+	 * {@link HttpContent} with the buffers backed by the shared cache.
+	 */
+	private static final class SharedCacheHttpContent implements HttpContent {
+
+		private final HttpContent delegate;
+		private final ByteBuffer buffer;
+
+		SharedCacheHttpContent(HttpContent delegate, ByteBuffer buffer) {
+			this.delegate = delegate;
+			this.buffer = buffer;
+		}
+
+		@Override
+		public HttpField getContentType() {
+			return delegate.getContentType();
+		}
+
+		@Override
+		public String getContentTypeValue() {
+			return delegate.getContentTypeValue();
+		}
+
+		@Override
+		public String getCharacterEncoding() {
+			return delegate.getCharacterEncoding();
+		}
+
+		@Override
+		public MimeTypes.Type getMimeType() {
+			return delegate.getMimeType();
+		}
+
+		@Override
+		public HttpField getContentEncoding() {
+			return delegate.getContentEncoding();
+		}
+
+		@Override
+		public String getContentEncodingValue() {
+			return delegate.getContentEncodingValue();
+		}
+
+		@Override
+		public HttpField getContentLength() {
+			return delegate.getContentLength();
+		}
+
+		@Override
+		public long getContentLengthValue() {
+			return delegate.getContentLengthValue();
+		}
+
+		@Override
+		public HttpField getLastModified() {
+			return delegate.getLastModified();
+		}
+
+		@Override
+		public String getLastModifiedValue() {
+			return delegate.getLastModifiedValue();
+		}
+
+		@Override
+		public HttpField getETag() {
+			return delegate.getETag();
+		}
+
+		@Override
+		public String getETagValue() {
+			return delegate.getETagValue();
+		}
+
+		@Override
+		public ByteBuffer getIndirectBuffer() {
+			// the content is kept only in direct buffer, but it can be written the same way
+			return buffer.duplicate();
+		}
+
+		@Override
+		public ByteBuffer getDirectBuffer() {
+			return buffer.duplicate();
+		}
+
+		@Override
+		public Resource getResource() {
+			return delegate.getResource();
+		}
+
+		@Override
+		public InputStream getInputStream() throws IOException {
+			return delegate.getInputStream();
+		}
+
+		@Override
+		public ReadableByteChannel getReadableByteChannel() throws IOException {
+			return delegate.getReadableByteChannel();
+		}
+
+		@Override
+		public void release() {
+			delegate.release();
+		}
+
+		@Override
+		public Map<CompressedContentFormat, ? extends HttpContent> getPrecompressedContents() {
+			return delegate.getPrecompressedContents();
+		}
+	}
+
+}
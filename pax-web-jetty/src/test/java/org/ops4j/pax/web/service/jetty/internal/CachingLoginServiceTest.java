@@ -0,0 +1,77 @@
+/*
+ * Copyright 2026 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.web.service.jetty.internal;
+
+import java.security.Principal;
+import java.util.Collections;
+import javax.security.auth.Subject;
+
+import org.eclipse.jetty.security.LoginService;
+import org.eclipse.jetty.server.UserIdentity;
+import org.junit.Test;
+import org.ops4j.pax.web.service.spi.util.CredentialCache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class CachingLoginServiceTest {
+
+	@Test
+	public void logoutOfOneSessionDoesntAffectOthers() {
+		Principal user = () -> "admin";
+		Subject subject = new Subject(false, Collections.singleton(user), Collections.emptySet(), Collections.emptySet());
+		UserIdentity identity = mock(UserIdentity.class);
+		when(identity.getSubject()).thenReturn(subject);
+		when(identity.getUserPrincipal()).thenReturn(user);
+		when(identity.isUserInRole("admin", null)).thenAnswer(i -> !subject.getPrincipals().isEmpty());
+
+		LoginService delegate = mock(LoginService.class);
+		when(delegate.getName()).thenReturn("realm");
+		when(delegate.login("admin", "secret", null)).thenReturn(identity);
+		// just as JAASLoginService, which calls LoginContext.logout()
+		doAnswer(i -> {
+			((UserIdentity) i.getArgument(0)).getSubject().getPrincipals().clear();
+			return null;
+		}).when(delegate).logout(any());
+
+		CachingLoginService service = new CachingLoginService(delegate, new CredentialCache<>(60_000L, 16));
+		UserIdentity session1 = service.login("admin", "secret", null);
+		UserIdentity session2 = service.login("admin", "secret", null);
+		assertNotSame(session1, session2);
+		assertNotSame(session1.getSubject(), session2.getSubject());
+		verify(delegate, times(1)).login(anyString(), any(), any());
+
+		service.logout(session1);
+		verify(delegate, never()).logout(any());
+		assertEquals(Collections.singleton(user), session2.getSubject().getPrincipals());
+		assertTrue(session2.isUserInRole("admin", null));
+		assertEquals("admin", session2.getUserPrincipal().getName());
+
+		// the verification is still cached
+		assertTrue(service.login("admin", "secret", null).isUserInRole("admin", null));
+		verify(delegate, times(1)).login(anyString(), any(), any());
+	}
+
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2026 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.web.service.jetty.internal;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.FilterChain;
+
+import org.junit.Test;
+import org.ops4j.pax.web.service.WebContainerContext;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class FilterChainCacheTest {
+
+	@Test
+	public void boundedCacheKeepsRecentlyUsedChains() {
+		WebContainerContext wcc = mock(WebContainerContext.class);
+		when(wcc.getContextId()).thenReturn("default");
+		FilterChainCache cache = new FilterChainCache(16 * 4);
+
+		FilterChain hot = (req, res) -> { };
+		cache.put(new FilterChainCache.Key(wcc, "/hot", DispatcherType.REQUEST), hot);
+		for (int i = 0; i < 10_000; i++) {
+			// e.g., paths with IDs
+			cache.put(new FilterChainCache.Key(wcc, "/orders/" + i, DispatcherType.REQUEST), (req, res) -> { });
+			assertThat(cache.get(new FilterChainCache.Key(wcc, "/hot", DispatcherType.REQUEST)), sameInstance(hot));
+		}
+
+		assertThat(cache.getHits(), equalTo(10_000L));
+		assertThat(cache.getEvictions() >= 10_000L - 16 * 4, equalTo(true));
+		assertThat(cache.get(new FilterChainCache.Key(wcc, "/orders/0", DispatcherType.REQUEST)), nullValue());
+		assertThat(cache.get(new FilterChainCache.Key(wcc, "/hot", DispatcherType.FORWARD)), nullValue());
+		assertThat(cache.get(new FilterChainCache.Key(null, "/hot", DispatcherType.REQUEST)), nullValue());
+		assertThat(cache.getMisses(), equalTo(3L));
+
+		cache.clear();
+		assertThat(cache.get(new FilterChainCache.Key(wcc, "/hot", DispatcherType.REQUEST)), nullValue());
+	}
+
+}
@@ -38,8 +38,10 @@ import org.ops4j.pax.web.service.PaxWebConfig;
 import org.ops4j.pax.web.service.PaxWebConstants;
 import org.ops4j.pax.web.service.WebContainer;
 import org.ops4j.pax.web.service.internal.security.SecurePropertyResolver;
+import org.ops4j.pax.web.service.spi.CoalescingServerController;
 import org.ops4j.pax.web.service.spi.ServerController;
 import org.ops4j.pax.web.service.spi.ServerControllerFactory;
+import org.ops4j.pax.web.service.spi.StripedServerController;
 import org.ops4j.pax.web.service.spi.config.Configuration;
 import org.ops4j.pax.web.service.spi.config.JspConfiguration;
 import org.ops4j.pax.web.service.spi.config.LogConfiguration;
@@ -47,18 +49,25 @@ import org.ops4j.pax.web.service.spi.config.ResourceConfiguration;
 import org.ops4j.pax.web.service.spi.config.SecurityConfiguration;
 import org.ops4j.pax.web.service.spi.config.ServerConfiguration;
 import org.ops4j.pax.web.service.spi.config.SessionConfiguration;
+import org.ops4j.pax.web.service.spi.context.BundleEntryIndexRegistry;
 import org.ops4j.pax.web.service.spi.model.ServerModel;
 import org.ops4j.pax.web.service.spi.model.events.ServerEvent;
 import org.ops4j.pax.web.service.spi.model.events.ServerListener;
 import org.ops4j.pax.web.service.spi.model.events.WebApplicationEventListener;
 import org.ops4j.pax.web.service.spi.model.events.WebElementEventListener;
+import org.ops4j.pax.web.service.spi.servlet.RequestMetricsRegistry;
+import org.ops4j.pax.web.service.spi.util.CompressedContentCache;
+import org.ops4j.pax.web.service.spi.util.ContentETagCache;
 import org.ops4j.pax.web.service.spi.util.NamedThreadFactory;
+import org.ops4j.pax.web.service.spi.util.SharedResourceCache;
 import org.ops4j.pax.web.service.spi.util.Utils;
 import org.ops4j.util.property.DictionaryPropertyResolver;
 import org.ops4j.util.property.PropertyResolver;
 import org.osgi.framework.Bundle;
 import org.osgi.framework.BundleActivator;
 import org.osgi.framework.BundleContext;
+import org.osgi.framework.BundleEvent;
+import org.osgi.framework.BundleListener;
 import org.osgi.framework.Constants;
 import org.osgi.framework.Filter;
 import org.osgi.framework.ServiceFactory;
@@ -106,6 +115,18 @@ public class Activator implements BundleActivator, PaxWebManagedService.Configur
 	/** Current {@link ServerController} created using {@link #serverControllerFactory} */
 	private ServerController serverController;
 
+	/**
+	 * If registration batches are merged within configured window, this is the decorator of
+	 * {@link #serverController} used to send the batches.
+	 */
+	private CoalescingServerController coalescingServerController;
+
+	/**
+	 * If contexts are started in parallel, this is the decorator of {@link #serverController} which manages
+	 * the threads starting the contexts.
+	 */
+	private StripedServerController stripedServerController;
+
 	/**
 	 * {@link WebElementEventDispatcher} bound to lifecycle of this pax-web-runtime bundle, not to configuration
 	 * or {@link ServerControllerFactory}.
@@ -132,6 +153,18 @@ public class Activator implements BundleActivator, PaxWebManagedService.Configur
 	 */
 	private ServiceRegistration<HttpServiceRuntime> httpServiceRuntimeReg;
 
+	/** JMX access to request metrics, registered together with {@link HttpServiceRuntime} */
+	private RequestMetricsManagement requestMetrics;
+
+	/** JMX access to resource cache statistics, registered only if shared or compressed content cache is enabled */
+	private ResourceCacheManagement resourceCache;
+
+	/** Drops the indexes of {@link BundleEntryIndexRegistry} when bundles are refreshed or uninstalled */
+	private BundleListener bundleEntryIndexListener;
+
+	/** Drops cached content of bundles which are updated or uninstalled */
+	private BundleListener resourceCacheListener;
+
 	/** Registration of {@code org.osgi.service.cm.ManagedService} for {@code org.ops4j.pax.web} PID. */
 	private ServiceRegistration<?> managedServiceReg;
 
@@ -420,13 +453,24 @@ public class Activator implements BundleActivator, PaxWebManagedService.Configur
 //			managedServiceFactoryReg.unregister();
 //			managedServiceFactoryReg = null;
 //		}
+		if (coalescingServerController != null) {
+			// the runtime is going to be stopped, so there's no point sending pending operations
+			coalescingServerController.discard();
+			coalescingServerController = null;
+		}
 		if (serverController != null) {
 			LOG.info("Stopping current server controller {}", serverController);
 			try {
-				serverController.stop();
+				if (stripedServerController != null) {
+					// waits for pending context starts and stops the actual controller
+					stripedServerController.stop();
+				} else {
+					serverController.stop();
+				}
 			} catch (Exception e) {
 				LOG.error("Problem stopping server controller: " + e.getMessage(), e);
 			}
+			stripedServerController = null;
 			if (previousServerControllerFactory != null) {
 				previousServerControllerFactory.releaseServerController(serverController, serverController.getConfiguration());
 			}
@@ -541,6 +585,7 @@ public class Activator implements BundleActivator, PaxWebManagedService.Configur
 			//  - in all bundle-scoped instances of HttpServiceEnabled
 			//  - also to reflect Whiteboard registrations (through pax-web-extender-whiteboard)
 			serverModel = new ServerModel(runtimeExecutor, registrationThreadId);
+			serverModel.setChangeCountUpdateInterval(configuration.server().getChangeCountUpdateInterval());
 
 			// create a controller object to operate on any supported web server
 			serverController = serverControllerFactory.createServerController(configuration);
@@ -554,10 +599,28 @@ public class Activator implements BundleActivator, PaxWebManagedService.Configur
 			LOG.info("Starting server controller {}", serverController.getClass().getName());
 			serverController.start();
 
+			// controller used to send registration batches - either the actual one or the decorators which
+			// start contexts in parallel and/or merge batches arriving within configured window
+			ServerController controller = serverController;
+			Integer startThreads = configuration.server().getContextStartThreads();
+			if (startThreads != null && startThreads > 0) {
+				LOG.info("Contexts will be started using {} threads", startThreads);
+				stripedServerController = new StripedServerController(controller, runtimeExecutor, startThreads);
+				controller = stripedServerController;
+			}
+			Integer coalesceWindow = configuration.server().getRegistrationCoalesceWindow();
+			if (coalesceWindow != null && coalesceWindow > 0) {
+				LOG.info("Registration batches will be coalesced within {}ms window", coalesceWindow);
+				coalescingServerController = new CoalescingServerController(controller, runtimeExecutor,
+						coalesceWindow, configuration.server().getRegistrationCoalesceMaxOperations());
+				controller = coalescingServerController;
+			}
+			final ServerController batchController = controller;
+
 			// this is where org.osgi.service.http.HttpService bundle-scoped service is registered in OSGi
 			// this is the most fundamental operation related to Http Service specification
 			Dictionary<String, Object> props = determineServiceProperties(configuration);
-			ServiceFactory<StoppableHttpService> factory = new StoppableHttpServiceFactory(serverController, serverModel,
+			ServiceFactory<StoppableHttpService> factory = new StoppableHttpServiceFactory(batchController, serverModel,
 					webElementEventDispatcher) {
 				@Override
 				StoppableHttpService createService(Bundle bundle, ServerController serverController,
@@ -606,13 +669,56 @@ public class Activator implements BundleActivator, PaxWebManagedService.Configur
 			// we'll set the template into ServerModel, so it's available from there, when creating full RuntimeDTO
 			serverModel.setHttpServiceRuntimeInformation(httpServiceRuntimeReg, httpServiceRuntimeDTO);
 
+			// request metrics are recorded by OsgiFilterChain in the runtime and can be switched later through JMX
+			RequestMetricsRegistry.setEnabled(configuration.server().isMetricsEnabled());
+			requestMetrics = new RequestMetricsManagement(serverModel, serverController);
+			requestMetrics.register();
+			if (serverController.getSharedResourceCache() != null || serverController.getCompressedContentCache() != null) {
+				resourceCache = new ResourceCacheManagement(serverController.getSharedResourceCache(),
+						serverController.getCompressedContentCache());
+				resourceCache.register();
+			}
+			SharedResourceCache sharedResourceCache = serverController.getSharedResourceCache();
+			CompressedContentCache compressedContentCache = serverController.getCompressedContentCache();
+			ContentETagCache contentETagCache = serverController.getContentETagCache();
+			if (sharedResourceCache != null || compressedContentCache != null || contentETagCache != null) {
+				// the content of previous bundle version can't be served (the version is part of the key), but
+				// it'd occupy the cache until evicted
+				resourceCacheListener = event -> {
+					if (event.getType() == BundleEvent.UPDATED || event.getType() == BundleEvent.UNINSTALLED) {
+						long owner = event.getBundle().getBundleId();
+						if (sharedResourceCache != null) {
+							sharedResourceCache.invalidate(owner);
+						}
+						if (compressedContentCache != null) {
+							compressedContentCache.invalidate(owner);
+						}
+						if (contentETagCache != null) {
+							contentETagCache.invalidate(owner);
+						}
+					}
+				};
+				bundleContext.addBundleListener(resourceCacheListener);
+			}
+			// default contexts may look up bundle entries using indexes instead of asking the framework each time
+			BundleEntryIndexRegistry.setEnabled(configuration.resources().bundleEntryIndex());
+			if (BundleEntryIndexRegistry.isEnabled()) {
+				bundleEntryIndexListener = event -> {
+					if (event.getType() == BundleEvent.UNRESOLVED || event.getType() == BundleEvent.UPDATED
+							|| event.getType() == BundleEvent.UNINSTALLED) {
+						BundleEntryIndexRegistry.invalidate(event.getBundle());
+					}
+				};
+				bundleContext.addBundleListener(bundleEntryIndexListener);
+			}
+
 			// added listener is immediately called with the current state
 			serverController.addListener(new AddressConfiguration());
 
 			if (Utils.isConfigurationAdminAvailable(this.getClass())) {
 				// ManagedServiceFactory for org.ops4j.pax.web.context factory PID
 				// we need registered WebContainer for this MSF to work
-				createManagedServiceFactory(bundleContext, serverController);
+				createManagedServiceFactory(bundleContext, batchController);
 			}
 		} catch (Throwable t) {
 			try {
@@ -627,6 +733,31 @@ public class Activator implements BundleActivator, PaxWebManagedService.Configur
 	}
 
 	private void cleanUpHttpServiceRegistrations() {
+		if (requestMetrics != null) {
+			requestMetrics.unregister();
+			requestMetrics = null;
+		}
+		if (resourceCache != null) {
+			resourceCache.unregister();
+			resourceCache = null;
+		}
+		if (resourceCacheListener != null) {
+			try {
+				bundleContext.removeBundleListener(resourceCacheListener);
+			} catch (IllegalStateException ignored) {
+				// the listener is removed by the framework when our bundle is stopped
+			}
+			resourceCacheListener = null;
+		}
+		if (bundleEntryIndexListener != null) {
+			try {
+				bundleContext.removeBundleListener(bundleEntryIndexListener);
+			} catch (IllegalStateException ignored) {
+				// the listener is removed by the framework when our bundle is stopped
+			}
+			bundleEntryIndexListener = null;
+		}
+		BundleEntryIndexRegistry.setEnabled(false);
 		if (httpServiceRuntimeReg != null) {
 			LOG.info("Unregistering current HttpServiceRuntime");
 			httpServiceRuntimeReg.unregister();
@@ -676,6 +807,7 @@ public class Activator implements BundleActivator, PaxWebManagedService.Configur
 		setProperty(properties, PaxWebConfig.PID_CFG_SERVER_MAX_THREADS, sc.getServerMaxThreads());
 		setProperty(properties, PaxWebConfig.PID_CFG_SERVER_MIN_THREADS, sc.getServerMinThreads());
 		setProperty(properties, PaxWebConfig.PID_CFG_SERVER_THREAD_NAME_PREFIX, sc.getServerThreadNamePrefix());
+		setProperty(properties, PaxWebConfig.PID_CFG_SERVER_VIRTUAL_THREADS, sc.isServerVirtualThreads());
 		setProperty(properties, PaxWebConfig.PID_CFG_SHOW_STACKS, sc.isShowStacks());
 		setProperty(properties, PaxWebConfig.PID_CFG_EVENT_DISPATCHER_THREAD_COUNT, sc.getEventDispatcherThreadCount());
 		setProperty(properties, PaxWebConfig.PID_CFG_HTTP_CHECK_FORWARDED_HEADERS, sc.checkForwardedHeaders());
@@ -757,6 +889,8 @@ public class Activator implements BundleActivator, PaxWebManagedService.Configur
 		setProperty(properties, PaxWebConfig.PID_CFG_DIGESTAUTH_MAX_NONCE_AGE, sec.getDigestAuthMaxNonceAge());
 		setProperty(properties, PaxWebConfig.PID_CFG_DIGESTAUTH_MAX_NONCE_COUNT, sec.getDigestAuthMaxNonceCount());
 		setProperty(properties, PaxWebConfig.PID_CFG_FORMAUTH_REDIRECT, sec.getFormAuthRedirect());
+		setProperty(properties, PaxWebConfig.PID_CFG_CREDENTIAL_CACHE_TTL, sec.getCredentialCacheTtl());
+		setProperty(properties, PaxWebConfig.PID_CFG_CREDENTIAL_CACHE_MAX_SIZE, sec.getCredentialCacheMaxSize());
 
 		setProperty(properties, PaxWebConfig.PID_CFG_ENC_ENABLED, sec.isEncEnabled());
 		setProperty(properties, PaxWebConfig.PID_CFG_ENC_MASTERPASSWORD, "********"/*sec.getEncMasterPassword()*/);
@@ -249,6 +249,15 @@ public class ConfigurationImpl extends PropertyStore implements Configuration {
 
 		private final String tcclType;
 
+		private final int registrationCoalesceWindow;
+		private final int registrationCoalesceMaxOperations;
+
+		private final int contextRestartQuietPeriod;
+		private final int contextStartThreads;
+
+		private final int changeCountUpdateInterval;
+		private final boolean metricsEnabled;
+
 		private ServerConfigurationImpl() {
 			// eager resolution of some important properties
 			resolveIntegerProperty(PaxWebConfig.PID_CFG_HTTP_PORT);
@@ -343,6 +352,23 @@ public class ConfigurationImpl extends PropertyStore implements Configuration {
 				LOG.warn("Unknown value of {} property. Falling back to \"servlet\".", PaxWebConfig.PID_CFG_TCCL_TYPE);
 			}
 			tcclType = tcclTypeValue;
+
+			Integer coalesceWindow = resolveIntegerProperty(PaxWebConfig.PID_CFG_REGISTRATION_COALESCE_WINDOW);
+			registrationCoalesceWindow = coalesceWindow == null || coalesceWindow < 0 ? 0 : coalesceWindow;
+			Integer coalesceMaxOperations = resolveIntegerProperty(PaxWebConfig.PID_CFG_REGISTRATION_COALESCE_MAX_OPERATIONS);
+			registrationCoalesceMaxOperations = coalesceMaxOperations == null || coalesceMaxOperations <= 0
+					? 1000 : coalesceMaxOperations;
+
+			Integer quietPeriod = resolveIntegerProperty(PaxWebConfig.PID_CFG_CONTEXT_RESTART_QUIET_PERIOD);
+			contextRestartQuietPeriod = quietPeriod == null || quietPeriod < 0 ? 0 : quietPeriod;
+			Integer startThreads = resolveIntegerProperty(PaxWebConfig.PID_CFG_CONTEXT_START_THREADS);
+			contextStartThreads = startThreads == null || startThreads < 0 ? 0 : startThreads;
+
+			Integer updateInterval = resolveIntegerProperty(PaxWebConfig.PID_CFG_CHANGECOUNT_UPDATE_INTERVAL);
+			changeCountUpdateInterval = updateInterval == null || updateInterval < 0 ? 0 : updateInterval;
+
+			Boolean metrics = resolveBooleanProperty(PaxWebConfig.PID_CFG_METRICS_ENABLED);
+			metricsEnabled = metrics != null && metrics;
 		}
 
 		@Override
@@ -420,6 +446,12 @@ public class ConfigurationImpl extends PropertyStore implements Configuration {
 			return resolveStringProperty(PaxWebConfig.PID_CFG_SERVER_THREAD_NAME_PREFIX);
 		}
 
+		@Override
+		public Boolean isServerVirtualThreads() {
+			Boolean virtualThreads = resolveBooleanProperty(PaxWebConfig.PID_CFG_SERVER_VIRTUAL_THREADS);
+			return virtualThreads != null && virtualThreads;
+		}
+
 		@Override
 		public Boolean checkForwardedHeaders() {
 			return resolveBooleanProperty(PaxWebConfig.PID_CFG_HTTP_CHECK_FORWARDED_HEADERS);
@@ -449,6 +481,36 @@ public class ConfigurationImpl extends PropertyStore implements Configuration {
 		public String getTCCLType() {
 			return tcclType;
 		}
+
+		@Override
+		public Integer getRegistrationCoalesceWindow() {
+			return registrationCoalesceWindow;
+		}
+
+		@Override
+		public Integer getRegistrationCoalesceMaxOperations() {
+			return registrationCoalesceMaxOperations;
+		}
+
+		@Override
+		public Integer getContextRestartQuietPeriod() {
+			return contextRestartQuietPeriod;
+		}
+
+		@Override
+		public Integer getContextStartThreads() {
+			return contextStartThreads;
+		}
+
+		@Override
+		public Integer getChangeCountUpdateInterval() {
+			return changeCountUpdateInterval;
+		}
+
+		@Override
+		public Boolean isMetricsEnabled() {
+			return metricsEnabled;
+		}
 	}
 
 	private class SecurityConfigurationImpl implements SecurityConfiguration {
@@ -658,6 +720,18 @@ public class ConfigurationImpl extends PropertyStore implements Configuration {
 			return resolveBooleanProperty(PaxWebConfig.PID_CFG_FORMAUTH_REDIRECT);
 		}
 
+		@Override
+		public Long getCredentialCacheTtl() {
+			Long ttl = resolveLongProperty(PaxWebConfig.PID_CFG_CREDENTIAL_CACHE_TTL);
+			return ttl == null || ttl < 0L ? 0L : ttl;
+		}
+
+		@Override
+		public Integer getCredentialCacheMaxSize() {
+			Integer size = resolveIntegerProperty(PaxWebConfig.PID_CFG_CREDENTIAL_CACHE_MAX_SIZE);
+			return size == null || size <= 0 ? 1024 : size;
+		}
+
 		@Override
 		public Boolean isEncEnabled() {
 			Boolean enabled = resolveBooleanProperty(PaxWebConfig.PID_CFG_ENC_ENABLED);
@@ -751,6 +825,68 @@ public class ConfigurationImpl extends PropertyStore implements Configuration {
 		public Integer maxCacheTTL() {
 			return resolveIntegerProperty(PaxWebConfig.PID_CFG_DEFAULT_SERVLET_CACHE_TTL);
 		}
+
+		@Override
+		public Integer maxSharedCacheSize() {
+			return resolveIntegerProperty(PaxWebConfig.PID_CFG_DEFAULT_SERVLET_SHARED_CACHE_MAX_SIZE);
+		}
+
+		@Override
+		public boolean precompressed() {
+			Boolean precompressed = resolveBooleanProperty(PaxWebConfig.PID_CFG_DEFAULT_SERVLET_PRECOMPRESSED);
+			return precompressed != null && precompressed;
+		}
+
+		@Override
+		public boolean compression() {
+			Boolean compression = resolveBooleanProperty(PaxWebConfig.PID_CFG_DEFAULT_SERVLET_COMPRESSION);
+			return compression != null && compression;
+		}
+
+		@Override
+		public String[] compressibleMimeTypes() {
+			String mimeTypes = resolveStringProperty(PaxWebConfig.PID_CFG_DEFAULT_SERVLET_COMPRESSION_MIME_TYPES);
+			if (mimeTypes == null || "".equals(mimeTypes.trim())) {
+				return new String[] {
+						"text/*", "application/javascript", "application/json", "application/xml",
+						"application/xhtml+xml", "image/svg+xml"
+				};
+			}
+			return mimeTypes.trim().split("\\s*,\\s*");
+		}
+
+		@Override
+		public Integer maxCompressedCacheSize() {
+			Integer size = resolveIntegerProperty(PaxWebConfig.PID_CFG_DEFAULT_SERVLET_COMPRESSION_CACHE_MAX_SIZE);
+			return size == null || size <= 0 ? 10 * 1024 : size;
+		}
+
+		@Override
+		public boolean contentETags() {
+			Boolean contentETags = resolveBooleanProperty(PaxWebConfig.PID_CFG_DEFAULT_SERVLET_CONTENT_ETAGS);
+			return contentETags != null && contentETags;
+		}
+
+		@Override
+		public String[] immutablePatterns() {
+			String patterns = resolveStringProperty(PaxWebConfig.PID_CFG_DEFAULT_SERVLET_IMMUTABLE_PATTERNS);
+			if (patterns == null || "".equals(patterns.trim())) {
+				return new String[0];
+			}
+			// commas not followed by "}" without "{" in between, so "{8,}" quantifiers are kept
+			return patterns.trim().split("\\s*,\\s*(?![^{]*})");
+		}
+
+		@Override
+		public Integer immutableMaxAge() {
+			return resolveIntegerProperty(PaxWebConfig.PID_CFG_DEFAULT_SERVLET_IMMUTABLE_MAX_AGE);
+		}
+
+		@Override
+		public boolean bundleEntryIndex() {
+			Boolean index = resolveBooleanProperty(PaxWebConfig.PID_CFG_BUNDLE_ENTRY_INDEX);
+			return index != null && index;
+		}
 	}
 
 	private class SessionConfigurationImpl implements SessionConfiguration {
@@ -33,6 +33,8 @@ import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
 import java.util.UUID;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import javax.servlet.Filter;
@@ -65,6 +67,9 @@ import org.ops4j.pax.web.service.spi.model.ServletContextModel;
 import org.ops4j.pax.web.service.spi.model.elements.LoginConfigModel;
 import org.ops4j.pax.web.service.spi.model.elements.SecurityConfigurationModel;
 import org.ops4j.pax.web.service.spi.model.elements.SecurityConstraintModel;
+import org.ops4j.pax.web.service.spi.model.info.CacheStatisticsInfo;
+import org.ops4j.pax.web.service.spi.model.info.ContextRestartInfo;
+import org.ops4j.pax.web.service.spi.model.info.RequestMetricsInfo;
 import org.ops4j.pax.web.service.spi.model.info.ServletInfo;
 import org.ops4j.pax.web.service.spi.model.info.WebApplicationInfo;
 import org.ops4j.pax.web.service.spi.model.elements.ContainerInitializerModel;
@@ -80,12 +85,14 @@ import org.ops4j.pax.web.service.spi.model.elements.WelcomeFileModel;
 import org.ops4j.pax.web.service.spi.model.events.WebContextEventListener;
 import org.ops4j.pax.web.service.spi.model.events.WebElementEvent;
 import org.ops4j.pax.web.service.spi.model.events.WebElementEventListener;
+import org.ops4j.pax.web.service.spi.model.views.MetricsWebContainerView;
 import org.ops4j.pax.web.service.spi.model.views.ReportViewPlugin;
 import org.ops4j.pax.web.service.spi.model.views.ReportWebContainerView;
 import org.ops4j.pax.web.service.spi.model.views.WebAppWebContainerView;
 import org.ops4j.pax.web.service.spi.servlet.DefaultJspPropertyGroupDescriptor;
 import org.ops4j.pax.web.service.spi.servlet.DefaultSessionCookieConfig;
 import org.ops4j.pax.web.service.spi.servlet.DefaultTaglibDescriptor;
+import org.ops4j.pax.web.service.spi.servlet.RequestMetricsRegistry;
 import org.ops4j.pax.web.service.spi.model.views.DynamicJEEWebContainerView;
 import org.ops4j.pax.web.service.spi.task.Batch;
 import org.ops4j.pax.web.service.spi.task.Change;
@@ -142,6 +149,7 @@ public class HttpServiceEnabled implements WebContainer, StoppableHttpService {
 	private final ProcessingWebContainerView processingWebContainer = new ProcessingWebContainer();
 	private final WebAppWebContainerView webAppWebContainer = new WebAppWebContainer();
 	private final ReportWebContainer reportWebContainer = new ReportWebContainer();
+	private final MetricsWebContainer metricsWebContainer = new MetricsWebContainer();
 
 	private final Configuration configuration;
 
@@ -307,6 +315,10 @@ public class HttpServiceEnabled implements WebContainer, StoppableHttpService {
 			// (WAB, Whiteboard or HttpService/WebContainer)
 			return type.cast(reportWebContainer);
 		}
+		if (type == MetricsWebContainerView.class) {
+			// view used to read (and switch) request metrics of contexts and servlets
+			return type.cast(metricsWebContainer);
+		}
 		if (type == ProcessingWebContainerView.class) {
 			// view used to alter existing contexts using "HTTP Context Processing"
 			return type.cast(processingWebContainer);
@@ -1078,19 +1090,7 @@ public class HttpServiceEnabled implements WebContainer, StoppableHttpService {
 					// in this special case (registration of event listener), we expect that the eventListener
 					// registration change may contain a "callback change" that has to be scheduled in another tick
 					// of the event (config) thread
-					Batch toSchedule = new Batch("After registration of " + model);
-					for (Change c : batch.getOperations()) {
-						if (c.getBatchCompletedAction() != null) {
-							toSchedule.getOperations().add(c.getBatchCompletedAction());
-						}
-					}
-					if (!toSchedule.getOperations().isEmpty()) {
-						LOG.info("Scheduling {}", toSchedule);
-						serverModel.runAsync(() -> {
-							serverController.sendBatch(toSchedule);
-							return null;
-						});
-					}
+					scheduleBatchCompletedActions(batch, "After registration of " + model);
 
 					event(WebElementEvent.State.DEPLOYED, model);
 					return null;
@@ -1107,6 +1107,34 @@ public class HttpServiceEnabled implements WebContainer, StoppableHttpService {
 		}
 	}
 
+	/**
+	 * Schedules <em>callback changes</em> registered by the server runtime while processing given {@link Batch}.
+	 * Such changes are sent in another tick of the configuration thread - possibly delayed, when context restarts
+	 * are debounced. Callback changes may register further callback changes (a postponed context start), so
+	 * the scheduling is repeated.
+	 *
+	 * @param batch
+	 * @param description
+	 */
+	private void scheduleBatchCompletedActions(Batch batch, String description) {
+		Batch toSchedule = batch.batchCompletedActions(description);
+		if (toSchedule.getOperations().isEmpty()) {
+			return;
+		}
+		LOG.info("Scheduling {}", toSchedule);
+		Runnable action = () -> serverModel.runAsync(() -> {
+			serverController.sendBatch(toSchedule);
+			scheduleBatchCompletedActions(toSchedule, description);
+			return null;
+		});
+		long delay = toSchedule.getDelay();
+		if (delay > 0L && serverModel.getExecutor() instanceof ScheduledExecutorService) {
+			((ScheduledExecutorService) serverModel.getExecutor()).schedule(action, delay, TimeUnit.MILLISECONDS);
+		} else {
+			action.run();
+		}
+	}
+
 	// --- methods used to unregister an EventListener
 
 	@Override
@@ -2830,6 +2858,64 @@ public class HttpServiceEnabled implements WebContainer, StoppableHttpService {
 		}
 	}
 
+	/**
+	 * Private view class to access request metrics recorded in all the runtimes.
+	 */
+	private class MetricsWebContainer implements MetricsWebContainerView {
+
+		@Override
+		public boolean isMetricsEnabled() {
+			return RequestMetricsRegistry.isEnabled();
+		}
+
+		@Override
+		public void setMetricsEnabled(boolean enabled) {
+			RequestMetricsRegistry.setEnabled(enabled);
+		}
+
+		@Override
+		public Set<RequestMetricsInfo> listContextMetrics() {
+			Set<RequestMetricsInfo> metrics = new TreeSet<>();
+
+			serverModel.collectContextMetrics(metrics);
+
+			return metrics;
+		}
+
+		@Override
+		public Set<RequestMetricsInfo> listServletMetrics() {
+			Set<RequestMetricsInfo> metrics = new TreeSet<>();
+
+			serverModel.collectServletMetrics(metrics);
+
+			return metrics;
+		}
+
+		@Override
+		public Set<CacheStatisticsInfo> listCacheStatistics() {
+			Set<CacheStatisticsInfo> statistics = new TreeSet<>();
+
+			serverController.collectCacheStatistics(statistics);
+
+			return statistics;
+		}
+
+		@Override
+		public long getChangeCountUpdates() {
+			return serverModel.getChangeCountUpdates();
+		}
+
+		@Override
+		public ContextRestartInfo getContextRestarts() {
+			return new ContextRestartInfo(serverController.getContextRestartScheduler());
+		}
+
+		@Override
+		public void resetMetrics() {
+			RequestMetricsRegistry.reset();
+		}
+	}
+
 	private static class ResourceServlet {
 		public final Supplier<Servlet> supplier;
 		public final URL urlBase;
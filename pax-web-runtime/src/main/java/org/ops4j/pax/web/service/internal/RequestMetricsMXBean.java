@@ -0,0 +1,50 @@
+/*
+ * Copyright 2026 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.web.service.internal;
+
+import java.util.List;
+
+import org.ops4j.pax.web.service.spi.model.info.CacheStatisticsInfo;
+import org.ops4j.pax.web.service.spi.model.info.ContextRestartInfo;
+import org.ops4j.pax.web.service.spi.model.info.RequestMetricsInfo;
+
+/**
+ * JMX interface to request metrics recorded per OSGi context and per servlet. Latencies are given in
+ * microseconds. Statistics of internal caches of the runtime, of context restarts and the number of updates of
+ * {@link org.osgi.service.http.runtime.HttpServiceRuntime} registration are available too - these are always
+ * recorded.
+ */
+public interface RequestMetricsMXBean {
+
+	String OBJECT_NAME = "org.ops4j.pax.web:type=RequestMetrics";
+
+	boolean isEnabled();
+
+	void setEnabled(boolean enabled);
+
+	List<RequestMetricsInfo> getContextMetrics();
+
+	List<RequestMetricsInfo> getServletMetrics();
+
+	List<CacheStatisticsInfo> getCacheStatistics();
+
+	long getChangeCountUpdates();
+
+	ContextRestartInfo getContextRestarts();
+
+	void reset();
+
+}
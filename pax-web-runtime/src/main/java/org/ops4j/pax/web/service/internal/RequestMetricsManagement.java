@@ -0,0 +1,130 @@
+/*
+ * Copyright 2026 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.web.service.internal;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.ops4j.pax.web.service.spi.ServerController;
+import org.ops4j.pax.web.service.spi.model.ServerModel;
+import org.ops4j.pax.web.service.spi.model.info.CacheStatisticsInfo;
+import org.ops4j.pax.web.service.spi.model.info.ContextRestartInfo;
+import org.ops4j.pax.web.service.spi.model.info.RequestMetricsInfo;
+import org.ops4j.pax.web.service.spi.servlet.RequestMetricsRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * {@link RequestMetricsMXBean} registered in platform {@link MBeanServer} together with
+ * {@link org.osgi.service.http.runtime.HttpServiceRuntime}.
+ */
+class RequestMetricsManagement implements RequestMetricsMXBean {
+
+	private static final Logger LOG = LoggerFactory.getLogger(RequestMetricsManagement.class);
+
+	private final ServerModel serverModel;
+	private final ServerController serverController;
+	private ObjectName objectName;
+
+	RequestMetricsManagement(ServerModel serverModel, ServerController serverController) {
+		this.serverModel = serverModel;
+		this.serverController = serverController;
+	}
+
+	/**
+	 * Registers this MBean. Failures are only logged - the metrics are still available through
+	 * {@link org.ops4j.pax.web.service.spi.model.views.MetricsWebContainerView}.
+	 */
+	void register() {
+		try {
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			ObjectName name = new ObjectName(OBJECT_NAME);
+			if (server.isRegistered(name)) {
+				server.unregisterMBean(name);
+			}
+			server.registerMBean(this, name);
+			objectName = name;
+		} catch (JMException | RuntimeException e) {
+			LOG.warn("Can't register request metrics MBean: {}", e.getMessage(), e);
+		}
+	}
+
+	void unregister() {
+		if (objectName == null) {
+			return;
+		}
+		try {
+			ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+		} catch (JMException | RuntimeException e) {
+			LOG.debug("Can't unregister request metrics MBean: {}", e.getMessage());
+		}
+		objectName = null;
+	}
+
+	@Override
+	public boolean isEnabled() {
+		return RequestMetricsRegistry.isEnabled();
+	}
+
+	@Override
+	public void setEnabled(boolean enabled) {
+		LOG.info("{} request metrics", enabled ? "Enabling" : "Disabling");
+		RequestMetricsRegistry.setEnabled(enabled);
+	}
+
+	@Override
+	public List<RequestMetricsInfo> getContextMetrics() {
+		Set<RequestMetricsInfo> metrics = new TreeSet<>();
+		serverModel.collectContextMetrics(metrics);
+		return new ArrayList<>(metrics);
+	}
+
+	@Override
+	public List<RequestMetricsInfo> getServletMetrics() {
+		Set<RequestMetricsInfo> metrics = new TreeSet<>();
+		serverModel.collectServletMetrics(metrics);
+		return new ArrayList<>(metrics);
+	}
+
+	@Override
+	public List<CacheStatisticsInfo> getCacheStatistics() {
+		Set<CacheStatisticsInfo> statistics = new TreeSet<>();
+		serverController.collectCacheStatistics(statistics);
+		return new ArrayList<>(statistics);
+	}
+
+	@Override
+	public long getChangeCountUpdates() {
+		return serverModel.getChangeCountUpdates();
+	}
+
+	@Override
+	public ContextRestartInfo getContextRestarts() {
+		return new ContextRestartInfo(serverController.getContextRestartScheduler());
+	}
+
+	@Override
+	public void reset() {
+		RequestMetricsRegistry.reset();
+	}
+
+}
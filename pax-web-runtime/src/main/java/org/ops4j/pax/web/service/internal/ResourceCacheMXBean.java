@@ -0,0 +1,55 @@
+/*
+ * Copyright 2026 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.web.service.internal;
+
+/**
+ * JMX interface to the statistics of server-wide
+ * {@link org.ops4j.pax.web.service.spi.util.SharedResourceCache shared resource cache} and
+ * {@link org.ops4j.pax.web.service.spi.util.CompressedContentCache compressed content cache}. Sizes are given
+ * in bytes, statistics of disabled cache are always {@code 0}.
+ */
+public interface ResourceCacheMXBean {
+
+	String OBJECT_NAME = "org.ops4j.pax.web:type=ResourceCache";
+
+	long getHits();
+
+	long getMisses();
+
+	long getEvictions();
+
+	int getEntryCount();
+
+	long getSize();
+
+	long getMaxSize();
+
+	/** Number of lookups of compressed content which didn't require compression */
+	long getCompressedHits();
+
+	long getCompressions();
+
+	/** CPU time spent compressing the content in milliseconds */
+	long getCompressionTime();
+
+	/** Bandwidth saved by sending compressed content instead of the original content */
+	long getCompressionSavedBytes();
+
+	long getCompressedSize();
+
+	void clear();
+
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright 2026 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.web.service.internal;
+
+import java.lang.management.ManagementFactory;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.ops4j.pax.web.service.spi.util.CompressedContentCache;
+import org.ops4j.pax.web.service.spi.util.SharedResourceCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * {@link ResourceCacheMXBean} registered in platform {@link MBeanServer} when the runtime uses
+ * {@link SharedResourceCache} or {@link CompressedContentCache}.
+ */
+class ResourceCacheManagement implements ResourceCacheMXBean {
+
+	private static final Logger LOG = LoggerFactory.getLogger(ResourceCacheManagement.class);
+
+	private final SharedResourceCache cache;
+	private final CompressedContentCache compressedCache;
+	private ObjectName objectName;
+
+	/**
+	 * @param cache may be {@code null}
+	 * @param compressedCache may be {@code null}
+	 */
+	ResourceCacheManagement(SharedResourceCache cache, CompressedContentCache compressedCache) {
+		this.cache = cache;
+		this.compressedCache = compressedCache;
+	}
+
+	/**
+	 * Registers this MBean. Failures are only logged.
+	 */
+	void register() {
+		try {
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			ObjectName name = new ObjectName(OBJECT_NAME);
+			if (server.isRegistered(name)) {
+				server.unregisterMBean(name);
+			}
+			server.registerMBean(this, name);
+			objectName = name;
+		} catch (JMException | RuntimeException e) {
+			LOG.warn("Can't register resource cache MBean: {}", e.getMessage(), e);
+		}
+	}
+
+	void unregister() {
+		if (objectName == null) {
+			return;
+		}
+		try {
+			ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+		} catch (JMException | RuntimeException e) {
+			LOG.debug("Can't unregister resource cache MBean: {}", e.getMessage());
+		}
+		objectName = null;
+	}
+
+	@Override
+	public long getHits() {
+		return cache == null ? 0 : cache.getHits();
+	}
+
+	@Override
+	public long getMisses() {
+		return cache == null ? 0 : cache.getMisses();
+	}
+
+	@Override
+	public long getEvictions() {
+		return cache == null ? 0 : cache.getEvictions();
+	}
+
+	@Override
+	public int getEntryCount() {
+		return cache == null ? 0 : cache.getEntryCount();
+	}
+
+	@Override
+	public long getSize() {
+		return cache == null ? 0 : cache.getSize();
+	}
+
+	@Override
+	public long getMaxSize() {
+		return cache == null ? 0 : cache.getMaxSize();
+	}
+
+	@Override
+	public long getCompressedHits() {
+		return compressedCache == null ? 0L : compressedCache.getHits();
+	}
+
+	@Override
+	public long getCompressions() {
+		return compressedCache == null ? 0L : compressedCache.getCompressions();
+	}
+
+	@Override
+	public long getCompressionTime() {
+		return compressedCache == null ? 0L : compressedCache.getCompressionTime() / 1_000_000L;
+	}
+
+	@Override
+	public long getCompressionSavedBytes() {
+		return compressedCache == null ? 0L
+				: compressedCache.getOriginalBytes() - compressedCache.getCompressedBytes();
+	}
+
+	@Override
+	public long getCompressedSize() {
+		return compressedCache == null ? 0L : compressedCache.getSize();
+	}
+
+	@Override
+	public void clear() {
+		if (cache != null) {
+			LOG.info("Clearing {}", cache);
+			cache.clear();
+		}
+		if (compressedCache != null) {
+			LOG.info("Clearing {}", compressedCache);
+			compressedCache.clear();
+		}
+	}
+
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright 2026 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.web.service.internal;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Set;
+import javax.management.Attribute;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+import javax.servlet.DispatcherType;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.junit.Test;
+import org.ops4j.pax.web.service.spi.ServerController;
+import org.ops4j.pax.web.service.spi.model.OsgiContextModel;
+import org.ops4j.pax.web.service.spi.model.ServerModel;
+import org.ops4j.pax.web.service.spi.model.info.CacheStatisticsInfo;
+import org.ops4j.pax.web.service.spi.servlet.OsgiFilterChain;
+import org.ops4j.pax.web.service.spi.servlet.RequestMetricsRegistry;
+import org.ops4j.pax.web.service.spi.task.ContextRestartScheduler;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class RequestMetricsManagementTest {
+
+	@Test
+	public void metricsAvailableThroughJmx() throws Exception {
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		ObjectName name = new ObjectName(RequestMetricsMXBean.OBJECT_NAME);
+		RequestMetricsManagement management = new RequestMetricsManagement(new ServerModel(null, 0L),
+				mock(ServerController.class));
+		OsgiContextModel context = new OsgiContextModel(null, 0, 0L, true);
+		context.setName("ctx");
+		context.setContextPath("/c");
+		RequestMetricsRegistry.add(context);
+		try {
+			management.register();
+			server.setAttribute(name, new Attribute("Enabled", true));
+			assertTrue(RequestMetricsRegistry.isEnabled());
+
+			HttpServletRequest request = mock(HttpServletRequest.class);
+			when(request.getDispatcherType()).thenReturn(DispatcherType.REQUEST);
+			OsgiFilterChain chain = new OsgiFilterChain(Collections.emptyList(), null, null, (req, res) -> { },
+					null, null, context, null);
+			chain.doFilter(request, mock(HttpServletResponse.class));
+
+			// other tests may leave registered models behind
+			CompositeData[] metrics = Arrays.stream((CompositeData[]) server.getAttribute(name, "ContextMetrics"))
+					.filter(m -> "ctx".equals(m.get("name"))).toArray(CompositeData[]::new);
+			assertEquals(1, metrics.length);
+			assertArrayEquals(new String[] { "/c" }, (String[]) metrics[0].get("contexts"));
+			assertEquals(1L, metrics[0].get("requestCount"));
+			assertEquals(0L, server.getAttribute(name, "ChangeCountUpdates"));
+		} finally {
+			RequestMetricsRegistry.setEnabled(false);
+			RequestMetricsRegistry.remove(context);
+			management.unregister();
+		}
+		assertFalse(server.isRegistered(name));
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void cacheStatisticsAvailableThroughJmx() throws Exception {
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		ObjectName name = new ObjectName(RequestMetricsMXBean.OBJECT_NAME);
+		OsgiContextModel context = new OsgiContextModel(null, 0, 0L, true);
+		context.setName("ctx");
+		context.setContextPath("/c");
+		ServerController controller = mock(ServerController.class);
+		doAnswer(invocation -> {
+			((Set<CacheStatisticsInfo>) invocation.getArgument(0))
+					.add(new CacheStatisticsInfo(CacheStatisticsInfo.CLASS_LOADER, "/c", context, 3L, 1L, 0L, 10L));
+			return null;
+		}).when(controller).collectCacheStatistics(any());
+		RequestMetricsManagement management = new RequestMetricsManagement(new ServerModel(null, 0L), controller);
+		try {
+			management.register();
+			CompositeData[] statistics = (CompositeData[]) server.getAttribute(name, "CacheStatistics");
+			assertEquals(1, statistics.length);
+			assertEquals("ClassLoader", statistics[0].get("cache"));
+			assertEquals("/c", statistics[0].get("contextPath"));
+			assertEquals("ctx", statistics[0].get("contextName"));
+			assertEquals(3L, statistics[0].get("hits"));
+			assertEquals(0.75d, (Double) statistics[0].get("hitRatio"), 0.0001d);
+		} finally {
+			management.unregister();
+		}
+	}
+
+	@Test
+	public void contextRestartsAvailableThroughJmx() throws Exception {
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		ObjectName name = new ObjectName(RequestMetricsMXBean.OBJECT_NAME);
+		ContextRestartScheduler scheduler = new ContextRestartScheduler(500L);
+		scheduler.markDirty("/c");
+		scheduler.markDirty("/c");
+		scheduler.markDirty("/c");
+		scheduler.started("/c");
+		ServerController controller = mock(ServerController.class);
+		when(controller.getContextRestartScheduler()).thenReturn(scheduler);
+		RequestMetricsManagement management = new RequestMetricsManagement(new ServerModel(null, 0L), controller);
+		try {
+			management.register();
+			CompositeData restarts = (CompositeData) server.getAttribute(name, "ContextRestarts");
+			assertEquals(500L, restarts.get("quietPeriod"));
+			assertEquals(3L, restarts.get("requestedRestarts"));
+			assertEquals(1L, restarts.get("performedRestarts"));
+			assertEquals(2L, restarts.get("savedRestarts"));
+
+			when(controller.getContextRestartScheduler()).thenReturn(null);
+			restarts = (CompositeData) server.getAttribute(name, "ContextRestarts");
+			assertEquals(0L, restarts.get("requestedRestarts"));
+		} finally {
+			management.unregister();
+		}
+	}
+
+}
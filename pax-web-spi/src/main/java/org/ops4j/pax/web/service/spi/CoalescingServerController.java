@@ -0,0 +1,375 @@
+/*
+ * Copyright 2026 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.web.service.spi;
+
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import javax.servlet.Servlet;
+
+import org.ops4j.pax.web.service.spi.config.Configuration;
+import org.ops4j.pax.web.service.spi.model.OsgiContextModel;
+import org.ops4j.pax.web.service.spi.model.elements.ServletModel;
+import org.ops4j.pax.web.service.spi.model.elements.WebSocketModel;
+import org.ops4j.pax.web.service.spi.model.events.ServerListener;
+import org.ops4j.pax.web.service.spi.model.info.CacheStatisticsInfo;
+import org.ops4j.pax.web.service.spi.task.Batch;
+import org.ops4j.pax.web.service.spi.task.Change;
+import org.ops4j.pax.web.service.spi.task.ContextRestartScheduler;
+import org.ops4j.pax.web.service.spi.task.EventListenerModelChange;
+import org.ops4j.pax.web.service.spi.task.FilterModelChange;
+import org.ops4j.pax.web.service.spi.task.FilterStateChange;
+import org.ops4j.pax.web.service.spi.task.OpCode;
+import org.ops4j.pax.web.service.spi.task.ServletModelChange;
+import org.ops4j.pax.web.service.spi.task.TransactionStateChange;
+import org.ops4j.pax.web.service.spi.task.WebSocketModelChange;
+import org.ops4j.pax.web.service.spi.util.CompressedContentCache;
+import org.ops4j.pax.web.service.spi.util.ContentETagCache;
+import org.ops4j.pax.web.service.spi.util.SharedResourceCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * <p>{@link ServerController} decorator that doesn't pass each {@link Batch} to the actual runtime immediately.
+ * Batches arriving within configured <em>window</em> (or until configured number of operations is collected) are
+ * merged into single {@link Batch}, so the target runtime visits the operations once and each affected context
+ * is started only once - at the end of the <em>transaction</em> associated with its context path.</p>
+ *
+ * <p>This is useful when hundreds of Whiteboard elements are registered one by one (for example during cold
+ * boot of a Karaf instance), where each registration is a separate call to {@link #sendBatch(Batch)}.</p>
+ *
+ * <p>The global {@link org.ops4j.pax.web.service.spi.model.ServerModel} is still altered immediately (by the
+ * caller), so conflict resolution of subsequent registrations is not affected. Only the runtime side is delayed.
+ * This means however that the runtime problems, when processing merged batch, are only logged and can't be
+ * reported back to the registering party.</p>
+ *
+ * <p>Collected operations are sent using the same {@link ScheduledExecutorService} which is used to run
+ * configuration tasks (the {@code paxweb-config} single thread), so no additional synchronization is needed
+ * in the actual {@link ServerController}.</p>
+ */
+public class CoalescingServerController implements ServerController {
+
+	private static final Logger LOG = LoggerFactory.getLogger(CoalescingServerController.class);
+
+	private final ServerController delegate;
+	private final ScheduledExecutorService executor;
+	private final long window;
+	private final int maxOperations;
+
+	/** Operations collected from all the batches received within current window */
+	private final List<Change> pendingOperations = new ArrayList<>();
+	/** Number of batches received within current window */
+	private int pendingBatches = 0;
+	/** Context paths which will be (re)started only at the end of merged batch */
+	private final Set<String> pendingContexts = new LinkedHashSet<>();
+
+	private ScheduledFuture<?> scheduledFlush;
+
+	/**
+	 * Number of batches being processed by the delegate - batches sent in the meantime (for example dynamic
+	 * registrations from {@link javax.servlet.ServletContainerInitializer SCIs} or listeners called when
+	 * a context starts) have to reach the runtime before the processing ends.
+	 */
+	private int processing = 0;
+
+	/**
+	 * Creates coalescing decorator for given {@link ServerController}
+	 *
+	 * @param delegate actual {@link ServerController}
+	 * @param executor configuration executor used to send merged batches after the window passes
+	 * @param window coalescing window in milliseconds
+	 * @param maxOperations number of collected operations which triggers immediate flush
+	 */
+	public CoalescingServerController(ServerController delegate, ScheduledExecutorService executor,
+			long window, int maxOperations) {
+		this.delegate = delegate;
+		this.executor = executor;
+		this.window = window;
+		this.maxOperations = maxOperations;
+	}
+
+	public ServerController getDelegate() {
+		return delegate;
+	}
+
+	@Override
+	public ServerState getState() {
+		return delegate.getState();
+	}
+
+	@Override
+	public void configure() throws Exception {
+		delegate.configure();
+	}
+
+	@Override
+	public void start() throws Exception {
+		delegate.start();
+	}
+
+	@Override
+	public void stop() throws Exception {
+		discard();
+		delegate.stop();
+	}
+
+	@Override
+	public Configuration getConfiguration() {
+		return delegate.getConfiguration();
+	}
+
+	@Override
+	public void addListener(ServerListener listener) {
+		delegate.addListener(listener);
+	}
+
+	@Override
+	public void removeListener(ServerListener listener) {
+		delegate.removeListener(listener);
+	}
+
+	@Override
+	public Servlet createResourceServlet(URL urlBase, String base) {
+		return delegate.createResourceServlet(urlBase, base);
+	}
+
+	@Override
+	public ContextRestartScheduler getContextRestartScheduler() {
+		return delegate.getContextRestartScheduler();
+	}
+
+	@Override
+	public SharedResourceCache getSharedResourceCache() {
+		return delegate.getSharedResourceCache();
+	}
+
+	@Override
+	public CompressedContentCache getCompressedContentCache() {
+		return delegate.getCompressedContentCache();
+	}
+
+	@Override
+	public ContentETagCache getContentETagCache() {
+		return delegate.getContentETagCache();
+	}
+
+	@Override
+	public void collectCacheStatistics(Set<CacheStatisticsInfo> statistics) {
+		delegate.collectCacheStatistics(statistics);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * <p>Batches which already manage their own <em>transactions</em> (WAB deployments, stopping of bundle-scoped
+	 * {@link org.osgi.service.http.HttpService}) are not merged - pending operations are flushed first and
+	 * such batch is passed directly to the delegate. The same applies to batches with dynamic registrations
+	 * and to any batch sent while the delegate is processing another batch.</p>
+	 *
+	 * @param batch
+	 */
+	@Override
+	public synchronized void sendBatch(Batch batch) {
+		if (window <= 0L || processing > 0 || !isCoalescable(batch)) {
+			flush();
+			sendToDelegate(batch);
+			return;
+		}
+
+		LOG.debug("Coalescing {}", batch);
+
+		for (Change change : batch.getOperations()) {
+			pendingOperations.add(change);
+			collectStartedContexts(change, pendingContexts);
+		}
+		pendingBatches++;
+
+		if (pendingOperations.size() >= maxOperations) {
+			flush();
+		} else if (scheduledFlush == null) {
+			scheduledFlush = executor.schedule(this::flush, window, TimeUnit.MILLISECONDS);
+		}
+	}
+
+	/**
+	 * Sends all pending operations to the actual {@link ServerController} as single {@link Batch}.
+	 */
+	public synchronized void flush() {
+		if (scheduledFlush != null) {
+			scheduledFlush.cancel(false);
+			scheduledFlush = null;
+		}
+		if (pendingOperations.isEmpty()) {
+			return;
+		}
+
+		Batch merged = new Batch("Coalesced registration of " + pendingBatches + " batches");
+		for (String contextPath : pendingContexts) {
+			merged.beginTransaction(contextPath);
+		}
+		merged.getOperations().addAll(pendingOperations);
+		for (String contextPath : pendingContexts) {
+			merged.commitTransaction(contextPath);
+		}
+		int batches = pendingBatches;
+		pendingOperations.clear();
+		pendingContexts.clear();
+		pendingBatches = 0;
+
+		if (delegate.getState() == ServerState.UNCONFIGURED) {
+			LOG.warn("Can't send {} to unconfigured {}", merged, delegate);
+			return;
+		}
+
+		try {
+			LOG.info("Sending {} merged from {} batches", merged, batches);
+			sendToDelegate(merged);
+		} catch (Exception e) {
+			// the registering party has already received positive confirmation
+			LOG.error("Problem processing {}: {}", merged, e.getMessage(), e);
+			return;
+		}
+
+		// the same way as in HttpServiceEnabled - "callback changes" are scheduled in next tick of the
+		// configuration thread
+		scheduleBatchCompletedActions(merged, "After " + merged);
+	}
+
+	private void sendToDelegate(Batch batch) {
+		processing++;
+		try {
+			delegate.sendBatch(batch);
+		} finally {
+			processing--;
+		}
+	}
+
+	/**
+	 * Sends <em>callback changes</em> registered during processing of a batch in next tick of the configuration
+	 * thread (possibly delayed - when context restarts are debounced).
+	 *
+	 * @param batch
+	 * @param description
+	 */
+	private void scheduleBatchCompletedActions(Batch batch, String description) {
+		Batch toSchedule = batch.batchCompletedActions(description);
+		if (toSchedule.getOperations().isEmpty()) {
+			return;
+		}
+		LOG.info("Scheduling {}", toSchedule);
+		Runnable action = () -> {
+			try {
+				synchronized (this) {
+					sendToDelegate(toSchedule);
+				}
+				scheduleBatchCompletedActions(toSchedule, description);
+			} catch (Exception e) {
+				LOG.error("Problem processing {}: {}", toSchedule, e.getMessage(), e);
+			}
+		};
+		long delay = toSchedule.getDelay();
+		if (delay > 0L) {
+			executor.schedule(action, delay, TimeUnit.MILLISECONDS);
+		} else {
+			executor.execute(action);
+		}
+	}
+
+	/**
+	 * Drops pending operations without sending them to the runtime - used when the runtime is stopped anyway.
+	 */
+	public synchronized void discard() {
+		if (scheduledFlush != null) {
+			scheduledFlush.cancel(false);
+			scheduledFlush = null;
+		}
+		if (!pendingOperations.isEmpty()) {
+			LOG.debug("Discarding {} pending operations", pendingOperations.size());
+		}
+		pendingOperations.clear();
+		pendingContexts.clear();
+		pendingBatches = 0;
+	}
+
+	/**
+	 * Only batches that don't manage <em>config transactions</em> on their own and don't contain dynamic
+	 * registrations (which are sent while a context is being started) can be merged.
+	 *
+	 * @param batch
+	 * @return
+	 */
+	private boolean isCoalescable(Batch batch) {
+		for (Change change : batch.getOperations()) {
+			if (change instanceof TransactionStateChange) {
+				return false;
+			}
+			if ((change instanceof ServletModelChange && ((ServletModelChange) change).isDynamic())
+					|| (change instanceof FilterModelChange && ((FilterModelChange) change).isDynamic())
+					|| (change instanceof FilterStateChange && ((FilterStateChange) change).isDynamic())
+					|| (change instanceof EventListenerModelChange && ((EventListenerModelChange) change).isDynamic())) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Collects context paths to which <em>active</em> web elements (servlets and web sockets) are added. Such
+	 * contexts would be started anyway after the change, so we can safely wrap merged operations in
+	 * a transaction for such context paths. Contexts receiving only passive elements (filters, listeners, ...)
+	 * are not started by this decorator.
+	 *
+	 * @param change
+	 * @param contextPaths
+	 */
+	private void collectStartedContexts(Change change, Set<String> contextPaths) {
+		boolean activation = change.getKind() == OpCode.ADD || change.getKind() == OpCode.ENABLE;
+		if (!activation) {
+			return;
+		}
+		if (change instanceof ServletModelChange) {
+			ServletModelChange smc = (ServletModelChange) change;
+			ServletModel model = smc.getServletModel();
+			if (model == null || smc.isDisabled() || smc.isDynamic()) {
+				return;
+			}
+			for (OsgiContextModel ocm : smc.getContextModels()) {
+				contextPaths.add(ocm.getContextPath());
+			}
+		} else if (change instanceof WebSocketModelChange) {
+			WebSocketModelChange wsmc = (WebSocketModelChange) change;
+			for (Map.Entry<WebSocketModel, Boolean> e : wsmc.getWebSocketModels().entrySet()) {
+				if (e.getValue()) {
+					for (OsgiContextModel ocm : wsmc.getContextModels()) {
+						contextPaths.add(ocm.getContextPath());
+					}
+				}
+			}
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "CoalescingServerController{delegate=" + delegate + ",window=" + window + "ms}";
+	}
+
+}
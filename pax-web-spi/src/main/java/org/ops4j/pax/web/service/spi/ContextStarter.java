@@ -0,0 +1,52 @@
+/*
+ * Copyright 2026 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.web.service.spi;
+
+/**
+ * <p>Strategy used by server wrappers to perform the actual start of already configured context (Jetty's
+ * {@code ServletContextHandler}, Tomcat's {@code StandardContext}, Undertow's {@code DeploymentManager}). This is
+ * the moment where {@link javax.servlet.ServletContainerInitializer SCIs} and
+ * {@link javax.servlet.ServletContextListener listeners} are called and servlets are initialized - usually the
+ * most time-consuming part of deployment.</p>
+ *
+ * <p>By default ({@link #SYNCHRONOUS}) the context is started immediately in calling (configuration) thread.</p>
+ */
+public interface ContextStarter {
+
+	/** Starts the contexts immediately in current thread. */
+	ContextStarter SYNCHRONOUS = (contextPath, startAction) -> startAction.run();
+
+	/**
+	 * Starts a context using passed action - either immediately or later, but the order of operations related
+	 * to given context path has to be preserved.
+	 *
+	 * @param contextPath
+	 * @param startAction
+	 */
+	void start(String contextPath, Runnable startAction);
+
+	/**
+	 * Checks whether the start of the context was requested, but not yet finished - in such case, the
+	 * context should not be started again.
+	 *
+	 * @param contextPath
+	 * @return
+	 */
+	default boolean isStarting(String contextPath) {
+		return false;
+	}
+
+}
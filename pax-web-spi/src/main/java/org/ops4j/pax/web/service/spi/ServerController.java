@@ -17,11 +17,18 @@
 package org.ops4j.pax.web.service.spi;
 
 import java.net.URL;
+import java.util.Set;
 import javax.servlet.Servlet;
 
 import org.ops4j.pax.web.service.spi.config.Configuration;
 import org.ops4j.pax.web.service.spi.model.events.ServerListener;
+import org.ops4j.pax.web.service.spi.model.info.CacheStatisticsInfo;
+import org.ops4j.pax.web.service.spi.servlet.OsgiServletContextClassLoader;
 import org.ops4j.pax.web.service.spi.task.Batch;
+import org.ops4j.pax.web.service.spi.task.ContextRestartScheduler;
+import org.ops4j.pax.web.service.spi.util.CompressedContentCache;
+import org.ops4j.pax.web.service.spi.util.ContentETagCache;
+import org.ops4j.pax.web.service.spi.util.SharedResourceCache;
 
 /**
  * <p>Interface used by pax-web-runtime to interact with actual server runtime. There are three groups of tasks
@@ -118,4 +125,56 @@ public interface ServerController {
 	 */
 	Servlet createResourceServlet(URL urlBase, String base);
 
+	/**
+	 * Returns the {@link ContextRestartScheduler} used by the server runtime to debounce context restarts. May
+	 * be used to access statistics about restarts saved thanks to debouncing.
+	 * @return
+	 */
+	default ContextRestartScheduler getContextRestartScheduler() {
+		return null;
+	}
+
+	/**
+	 * Returns the {@link SharedResourceCache} used by all the resource servlets
+	 * {@link #createResourceServlet(URL, String) created} by this controller, if it's enabled.
+	 * @return
+	 */
+	default SharedResourceCache getSharedResourceCache() {
+		return null;
+	}
+
+	/**
+	 * Returns the {@link CompressedContentCache} used by all the resource servlets
+	 * {@link #createResourceServlet(URL, String) created} by this controller, if on-the-fly compression is enabled.
+	 * @return
+	 */
+	default CompressedContentCache getCompressedContentCache() {
+		return null;
+	}
+
+	/**
+	 * Returns the {@link ContentETagCache} used by all the resource servlets
+	 * {@link #createResourceServlet(URL, String) created} by this controller, if content based tags are enabled.
+	 * @return
+	 */
+	default ContentETagCache getContentETagCache() {
+		return null;
+	}
+
+	/**
+	 * Collects the statistics of internal caches (like {@link OsgiServletContextClassLoader class loader} lookup
+	 * caches) used by the contexts of the server runtime. May be called from any thread.
+	 * @param statistics
+	 */
+	default void collectCacheStatistics(Set<CacheStatisticsInfo> statistics) {
+	}
+
+	/**
+	 * Sets the {@link ContextStarter} used to actually start configured contexts. By default contexts are
+	 * started synchronously in the configuration thread.
+	 * @param contextStarter
+	 */
+	default void setContextStarter(ContextStarter contextStarter) {
+	}
+
 }
@@ -0,0 +1,404 @@
+/*
+ * Copyright 2026 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.web.service.spi;
+
+import java.net.URL;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import javax.servlet.Servlet;
+
+import org.ops4j.pax.web.service.spi.config.Configuration;
+import org.ops4j.pax.web.service.spi.model.events.ServerListener;
+import org.ops4j.pax.web.service.spi.model.info.CacheStatisticsInfo;
+import org.ops4j.pax.web.service.spi.task.Batch;
+import org.ops4j.pax.web.service.spi.task.ContextRestartScheduler;
+import org.ops4j.pax.web.service.spi.util.CompressedContentCache;
+import org.ops4j.pax.web.service.spi.util.ContentETagCache;
+import org.ops4j.pax.web.service.spi.util.NamedThreadFactory;
+import org.ops4j.pax.web.service.spi.util.SharedResourceCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * <p>{@link ServerController} decorator that starts the contexts in a bounded pool of threads instead of the single
+ * {@code paxweb-config} thread. The global {@link org.ops4j.pax.web.service.spi.model.ServerModel} is still
+ * altered only in the configuration thread and each {@link Batch} is still processed in the runtime by one thread
+ * at a time, but the (usually slow) invocation of {@link javax.servlet.ServletContainerInitializer SCIs},
+ * listeners and initialization of servlets happens in parallel for independent context paths.</p>
+ *
+ * <p>Operations are <em>striped</em> by context path. When a context has pending work (it's being started),
+ * any further {@link Batch} related to this context is not sent to the runtime immediately, but is queued after
+ * the pending work, so the order of operations for given context path is preserved. The starts share the runtime
+ * with each other, but not with batches, so while any work is pending, batches for other contexts are queued as
+ * well - the configuration thread never waits for a context start. Batches for which the affected contexts can't
+ * be determined wait for all pending work.</p>
+ *
+ * <p>Dynamic registrations performed by SCIs during context start are sent from the configuration thread, while
+ * the starting thread waits for them. Such batches are recognized (see {@link #currentContextPath()}) and passed
+ * to the runtime immediately on behalf of the starting thread - exactly like in synchronous case.</p>
+ *
+ * <p>Problems of deferred operations (including context start) are only logged, because the registering party
+ * has already received a confirmation. Problems of batches processed immediately are thrown to their sender.</p>
+ */
+public class StripedServerController implements ServerController, ContextStarter {
+
+	private static final Logger LOG = LoggerFactory.getLogger(StripedServerController.class);
+
+	/** Key used for the work which can't be associated with particular context path */
+	private static final String ALL_CONTEXTS = "*";
+
+	/** Context path for which current thread is performing the work */
+	private static final ThreadLocal<String> CURRENT_CONTEXT = new ThreadLocal<>();
+
+	private final ServerController delegate;
+	private final ScheduledExecutorService configExecutor;
+	private final ExecutorService pool;
+	private final int threads;
+
+	/**
+	 * Lock that ensures that only one thread at a time is processing a {@link Batch} in the runtime. Context
+	 * starts hold the read lock, so they may run in parallel.
+	 */
+	private final ReentrantReadWriteLock runtimeLock = new ReentrantReadWriteLock();
+
+	/** Last scheduled work for each context path with pending work. Guarded by {@code this}. */
+	private final Map<String, CompletableFuture<Void>> tails = new HashMap<>();
+
+	/** Context paths for which start was requested, but not yet finished */
+	private final Set<String> starting = ConcurrentHashMap.newKeySet();
+
+	/** Context paths which are being started by threads holding the read {@link #runtimeLock} */
+	private final Set<String> startsInProgress = ConcurrentHashMap.newKeySet();
+
+	/**
+	 * Creates striping decorator for given {@link ServerController}
+	 *
+	 * @param delegate actual {@link ServerController}
+	 * @param configExecutor configuration executor used to schedule <em>batch completed actions</em> of deferred
+	 *        batches
+	 * @param threads number of threads used to start the contexts
+	 */
+	public StripedServerController(ServerController delegate, ScheduledExecutorService configExecutor, int threads) {
+		this.delegate = delegate;
+		this.configExecutor = configExecutor;
+		this.threads = threads;
+		this.pool = Executors.newFixedThreadPool(threads, new NamedThreadFactory("paxweb-context"));
+		this.delegate.setContextStarter(this);
+	}
+
+	/**
+	 * Returns the context path for which current thread is performing (or waiting for) the work.
+	 * @return
+	 */
+	public static String currentContextPath() {
+		return CURRENT_CONTEXT.get();
+	}
+
+	/**
+	 * Marks current thread as performing the work on behalf of given context path. Used to propagate the
+	 * information to configuration thread, when context start (in another thread) leads to dynamic registration
+	 * of web elements.
+	 *
+	 * @param contextPath
+	 * @return previous context path to pass to {@link #restoreContextPath(String)}
+	 */
+	public static String enterContextPath(String contextPath) {
+		String previous = CURRENT_CONTEXT.get();
+		restoreContextPath(contextPath);
+		return previous;
+	}
+
+	/**
+	 * Restores the information about context path for which current thread is performing the work.
+	 * @param contextPath
+	 */
+	public static void restoreContextPath(String contextPath) {
+		if (contextPath == null) {
+			CURRENT_CONTEXT.remove();
+		} else {
+			CURRENT_CONTEXT.set(contextPath);
+		}
+	}
+
+	public ServerController getDelegate() {
+		return delegate;
+	}
+
+	@Override
+	public ServerState getState() {
+		return delegate.getState();
+	}
+
+	@Override
+	public void configure() throws Exception {
+		delegate.configure();
+	}
+
+	@Override
+	public void start() throws Exception {
+		delegate.start();
+	}
+
+	@Override
+	public void stop() throws Exception {
+		CompletableFuture<Void> pending;
+		synchronized (this) {
+			pending = CompletableFuture.allOf(tails.values().toArray(new CompletableFuture[0]));
+		}
+		try {
+			pending.get(30, TimeUnit.SECONDS);
+		} catch (TimeoutException e) {
+			LOG.warn("Timeout waiting for pending context operations, stopping {} anyway", delegate);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (ExecutionException ignored) {
+			// already logged
+		}
+		pool.shutdown();
+		delegate.setContextStarter(ContextStarter.SYNCHRONOUS);
+		delegate.stop();
+	}
+
+	@Override
+	public Configuration getConfiguration() {
+		return delegate.getConfiguration();
+	}
+
+	@Override
+	public void addListener(ServerListener listener) {
+		delegate.addListener(listener);
+	}
+
+	@Override
+	public void removeListener(ServerListener listener) {
+		delegate.removeListener(listener);
+	}
+
+	@Override
+	public Servlet createResourceServlet(URL urlBase, String base) {
+		return delegate.createResourceServlet(urlBase, base);
+	}
+
+	@Override
+	public ContextRestartScheduler getContextRestartScheduler() {
+		return delegate.getContextRestartScheduler();
+	}
+
+	@Override
+	public SharedResourceCache getSharedResourceCache() {
+		return delegate.getSharedResourceCache();
+	}
+
+	@Override
+	public CompressedContentCache getCompressedContentCache() {
+		return delegate.getCompressedContentCache();
+	}
+
+	@Override
+	public ContentETagCache getContentETagCache() {
+		return delegate.getContentETagCache();
+	}
+
+	@Override
+	public void collectCacheStatistics(Set<CacheStatisticsInfo> statistics) {
+		delegate.collectCacheStatistics(statistics);
+	}
+
+	@Override
+	public void sendBatch(Batch batch) {
+		send(batch, false);
+	}
+
+	/**
+	 * Sends the batch to the runtime immediately or after pending work for related contexts.
+	 *
+	 * @param batch
+	 * @param handleCompletedActions whether <em>batch completed actions</em> should be scheduled also when
+	 *        the batch is processed immediately. Deferred batches always have these actions scheduled here.
+	 */
+	private void send(Batch batch, boolean handleCompletedActions) {
+		String origin = CURRENT_CONTEXT.get();
+		if (origin != null && startsInProgress.contains(origin) && !runtimeLock.isWriteLockedByCurrentThread()) {
+			// dynamic registration performed when the context is being started. We can't wait for the start,
+			// but the starting thread holds the runtime lock and waits for this batch, so it can be applied here.
+			// Other contexts may be started at the same time, but the starts don't access the wrapper's state
+			LOG.debug("Processing {} on behalf of context \"{}\" being started", batch, origin);
+			delegate.sendBatch(batch);
+			if (handleCompletedActions) {
+				scheduleBatchCompletedActions(batch, "After " + batch);
+			}
+			return;
+		}
+
+		Set<String> paths = batch.getContextPaths();
+		synchronized (this) {
+			// while any work is pending, a start may be in progress (or may be scheduled by the pending work) and
+			// the start may wait for this (configuration) thread, which must not wait for the runtime lock then
+			if (!tails.isEmpty()) {
+				Set<String> busy = new LinkedHashSet<>(tails.keySet());
+				if (paths != null) {
+					busy.retainAll(paths);
+					if (tails.containsKey(ALL_CONTEXTS)) {
+						busy.add(ALL_CONTEXTS);
+					}
+				}
+				LOG.debug("Deferring {} after pending operations for {}", batch, busy);
+				Set<String> keys = new LinkedHashSet<>(busy);
+				if (paths == null) {
+					keys.add(ALL_CONTEXTS);
+				} else {
+					keys.addAll(paths);
+				}
+				enqueue(busy, keys, paths == null || paths.size() != 1 ? null : paths.iterator().next(), () -> {
+					process(batch);
+					scheduleBatchCompletedActions(batch, "After " + batch);
+				});
+				return;
+			}
+		}
+
+		process(batch);
+		if (handleCompletedActions) {
+			scheduleBatchCompletedActions(batch, "After " + batch);
+		}
+	}
+
+	@Override
+	public void start(String contextPath, Runnable startAction) {
+		starting.add(contextPath);
+		synchronized (this) {
+			Set<String> busy = new LinkedHashSet<>();
+			if (tails.containsKey(contextPath)) {
+				busy.add(contextPath);
+			}
+			if (tails.containsKey(ALL_CONTEXTS)) {
+				busy.add(ALL_CONTEXTS);
+			}
+			LOG.debug("Scheduling start of the context \"{}\"", contextPath);
+			// starts of other contexts are not awaited - they share the runtime lock
+			enqueue(busy, Collections.singleton(contextPath), contextPath, () -> {
+				runtimeLock.readLock().lock();
+				startsInProgress.add(contextPath);
+				try {
+					startAction.run();
+				} finally {
+					startsInProgress.remove(contextPath);
+					runtimeLock.readLock().unlock();
+					starting.remove(contextPath);
+				}
+			});
+		}
+	}
+
+	@Override
+	public boolean isStarting(String contextPath) {
+		return starting.contains(contextPath);
+	}
+
+	/**
+	 * Sends the batch to the actual runtime - only one thread at a time may do it.
+	 *
+	 * @param batch
+	 */
+	private void process(Batch batch) {
+		runtimeLock.writeLock().lock();
+		try {
+			delegate.sendBatch(batch);
+		} finally {
+			runtimeLock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Schedules the work in the pool after the work pending for given keys.
+	 *
+	 * @param waitFor keys (context paths) of the work which has to be finished first
+	 * @param keys keys (context paths) for which the new work will become the last scheduled one
+	 * @param contextPath context path to associate with the worker thread
+	 * @param work
+	 */
+	private void enqueue(Set<String> waitFor, Set<String> keys, String contextPath, Runnable work) {
+		CompletableFuture<?>[] previous = waitFor.stream().map(tails::get).toArray(CompletableFuture[]::new);
+		CompletableFuture<Void> next = CompletableFuture.allOf(previous)
+				.handle((v, t) -> null)
+				.thenRunAsync(() -> {
+					String previousContext = enterContextPath(contextPath);
+					try {
+						work.run();
+					} catch (RuntimeException e) {
+						LOG.error("Problem processing operations for context \"{}\": {}", contextPath, e.getMessage(), e);
+					} finally {
+						restoreContextPath(previousContext);
+					}
+				}, pool);
+		for (String key : keys) {
+			tails.put(key, next);
+		}
+		next.whenComplete((v, t) -> {
+			synchronized (StripedServerController.this) {
+				for (String key : keys) {
+					tails.remove(key, next);
+				}
+			}
+		});
+	}
+
+	/**
+	 * Sends <em>callback changes</em> registered during processing of deferred batch - the original sender
+	 * couldn't do it.
+	 *
+	 * @param batch
+	 * @param description
+	 */
+	private void scheduleBatchCompletedActions(Batch batch, String description) {
+		Batch toSchedule = batch.batchCompletedActions(description);
+		if (toSchedule.getOperations().isEmpty()) {
+			return;
+		}
+		LOG.info("Scheduling {}", toSchedule);
+		Runnable action = () -> {
+			try {
+				send(toSchedule, true);
+			} catch (Exception e) {
+				LOG.error("Problem processing {}: {}", toSchedule, e.getMessage(), e);
+			}
+		};
+		long delay = toSchedule.getDelay();
+		if (delay > 0L) {
+			configExecutor.schedule(action, delay, TimeUnit.MILLISECONDS);
+		} else {
+			configExecutor.execute(action);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "StripedServerController{delegate=" + delegate + ",threads=" + threads + "}";
+	}
+
+}
@@ -58,4 +58,59 @@ public interface ResourceConfiguration {
 	 */
 	Integer maxCacheTTL();
 
+	/**
+	 * Integer property to specify maximum total size of the cache shared by all resource servlets in kB.
+	 * @return
+	 */
+	Integer maxSharedCacheSize();
+
+	/**
+	 * Boolean property to specify whether {@code .br}/{@code .gz} variants of the resources should be served
+	 * to clients accepting such encodings.
+	 * @return
+	 */
+	boolean precompressed();
+
+	/**
+	 * Boolean property to specify whether resources of compressible MIME types should be gzipped on the fly.
+	 * @return
+	 */
+	boolean compression();
+
+	/**
+	 * MIME types (possibly with {@code type/*} wildcards) compressed on the fly.
+	 * @return
+	 */
+	String[] compressibleMimeTypes();
+
+	/**
+	 * Integer property to specify maximum total size of cached compressed content in kB.
+	 * @return
+	 */
+	Integer maxCompressedCacheSize();
+
+	/**
+	 * Boolean property to specify whether strong, content based entity tags should be used for bundle resources.
+	 * @return
+	 */
+	boolean contentETags();
+
+	/**
+	 * Regular expressions of fingerprinted resource paths served with {@code Cache-Control: immutable}.
+	 * @return patterns or empty array
+	 */
+	String[] immutablePatterns();
+
+	/**
+	 * Integer property to specify {@code max-age} (in seconds) of fingerprinted resources.
+	 * @return
+	 */
+	Integer immutableMaxAge();
+
+	/**
+	 * Boolean property to specify whether default contexts should use indexes of bundle entries.
+	 * @return
+	 */
+	boolean bundleEntryIndex();
+
 }
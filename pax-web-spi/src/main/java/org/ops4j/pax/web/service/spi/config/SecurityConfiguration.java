@@ -246,6 +246,19 @@ public interface SecurityConfiguration {
 	 */
 	Boolean getFormAuthRedirect();
 
+	/**
+	 * Returns time (in ms) for which successful credential verifications are cached. {@code 0} disables the
+	 * cache.
+	 * @return
+	 */
+	Long getCredentialCacheTtl();
+
+	/**
+	 * Returns max number of cached credential verifications, defaults to 1024
+	 * @return
+	 */
+	Integer getCredentialCacheMaxSize();
+
 	/**
 	 * Checks if configuration values are expected to be encrypted - this triggers a configuration (or tracking)
 	 * of Jasypt StringEncryptor (optional dependency)
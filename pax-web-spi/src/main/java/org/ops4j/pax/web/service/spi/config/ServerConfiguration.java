@@ -144,6 +144,17 @@ public interface ServerConfiguration {
 	 */
 	String getServerThreadNamePrefix();
 
+	/**
+	 * <p>Should request handling be performed on virtual threads? Used only when running on Java 21+, otherwise
+	 * platform threads are used and a warning is logged.<ul>
+	 *     <li>Jetty: {@code org.eclipse.jetty.util.thread.QueuedThreadPool#setVirtualThreadsExecutor(java.util.concurrent.Executor)}</li>
+	 *     <li>Tomcat: {@code org.apache.tomcat.util.net.AbstractEndpoint#setUseVirtualThreads(boolean)}</li>
+	 *     <li>Undertow: {@code io.undertow.servlet.api.DeploymentInfo#setExecutor(java.util.concurrent.Executor)}</li>
+	 * </ul></p>
+	 * @return
+	 */
+	Boolean isServerVirtualThreads();
+
 	/**
 	 * Should the connector handle {@code X-Forwarded-*} / {@code X-Proxied-*} headers?<ul>
 	 *     <li>Jetty: {@code org.eclipse.jetty.server.ForwardedRequestCustomizer}</li>
@@ -187,4 +198,48 @@ public interface ServerConfiguration {
 	 */
 	String getTCCLType();
 
+	/**
+	 * Returns the time window (in milliseconds) within which registration batches are merged before being sent
+	 * to the server runtime. {@code 0} means no coalescing. Uses
+	 * {@link PaxWebConfig#PID_CFG_REGISTRATION_COALESCE_WINDOW}.
+	 * @return
+	 */
+	Integer getRegistrationCoalesceWindow();
+
+	/**
+	 * Returns the maximum number of operations that may be collected within single coalescing window. Uses
+	 * {@link PaxWebConfig#PID_CFG_REGISTRATION_COALESCE_MAX_OPERATIONS}.
+	 * @return
+	 */
+	Integer getRegistrationCoalesceMaxOperations();
+
+	/**
+	 * Returns the quiet period (in milliseconds) after which a context stopped because of listener/initializer
+	 * registration is started again. Uses {@link PaxWebConfig#PID_CFG_CONTEXT_RESTART_QUIET_PERIOD}.
+	 * @return
+	 */
+	Integer getContextRestartQuietPeriod();
+
+	/**
+	 * Returns the number of threads used to start independent contexts in parallel. {@code 0} means that the
+	 * contexts are started in configuration thread. Uses {@link PaxWebConfig#PID_CFG_CONTEXT_START_THREADS}.
+	 * @return
+	 */
+	Integer getContextStartThreads();
+
+	/**
+	 * Returns the minimal interval (in milliseconds) between updates of {@code service.changecount} property
+	 * of {@link org.osgi.service.http.runtime.HttpServiceRuntime} registration. {@code 0} means that every
+	 * change is propagated immediately. Uses {@link PaxWebConfig#PID_CFG_CHANGECOUNT_UPDATE_INTERVAL}.
+	 * @return
+	 */
+	Integer getChangeCountUpdateInterval();
+
+	/**
+	 * Flag that specifies whether request metrics should be recorded initially. Uses
+	 * {@link PaxWebConfig#PID_CFG_METRICS_ENABLED}.
+	 * @return
+	 */
+	Boolean isMetricsEnabled();
+
 }
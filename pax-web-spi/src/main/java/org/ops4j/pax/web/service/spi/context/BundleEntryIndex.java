@@ -0,0 +1,339 @@
+/*
+ * Copyright 2026 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.web.service.spi.context;
+
+import java.net.URL;
+import java.util.Collections;
+import java.util.Dictionary;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.osgi.framework.Bundle;
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.Constants;
+import org.osgi.framework.FrameworkUtil;
+import org.osgi.framework.namespace.BundleNamespace;
+import org.osgi.framework.namespace.HostNamespace;
+import org.osgi.framework.namespace.PackageNamespace;
+import org.osgi.framework.wiring.BundleWire;
+import org.osgi.framework.wiring.BundleWiring;
+
+/**
+ * <p>Immutable index of the entries of one {@link BundleWiring bundle revision} (including attached fragments),
+ * built with single recursive {@link Bundle#findEntries} call. It's used by the default contexts instead of
+ * {@link Bundle#getResource}, {@link Bundle#getEntry} and {@link Bundle#findEntries} calls, which (especially
+ * the class loader based ones) are expensive and are repeated for each static resource request.</p>
+ *
+ * <p>The index answers only the questions it can answer exactly as the framework would. Each lookup method has
+ * a {@code resolvesXXX()} counterpart and when it returns {@code false}, the caller should ask the bundle.
+ * This is the case for example for directories without trailing slash, paths with wildcards or {@code ..}
+ * segments, {@link Bundle#getEntry} when there are fragments attached and {@link Bundle#getResource} for
+ * packages that are imported or boot delegated or when the bundle class path is not just the bundle itself.</p>
+ */
+public final class BundleEntryIndex {
+
+	/** The wiring for which the index was built - it's no longer current after bundle update or refresh */
+	private final BundleWiring wiring;
+
+	/** Entry URLs by path without leading slash - directories with trailing slash */
+	private final Map<String, URL> entries;
+
+	/** Paths (as returned by {@link Bundle#findEntries}) of direct children by directory path without slashes */
+	private final Map<String, Set<String>> children;
+
+	/** Whether there are fragments attached, which are visible only to {@link Bundle#findEntries} */
+	private final boolean fragments;
+
+	/** Whether the entries are also what the bundle class loader finds (unless the package is imported) */
+	private final boolean classLoaderEntries;
+
+	/** Imported packages as paths (like {@code org/example}) */
+	private final Set<String> importedPackages;
+
+	/**
+	 * Packages from {@code org.osgi.framework.bootdelegation} as paths - exact ({@code com/example}) or
+	 * prefixes of {@code .*} wildcards ({@code com/example/})
+	 */
+	private final Set<String> bootDelegatedPackages;
+
+	BundleEntryIndex(BundleWiring wiring, Map<String, URL> entries, Map<String, Set<String>> children,
+			boolean fragments, boolean classLoaderEntries, Set<String> importedPackages,
+			Set<String> bootDelegatedPackages) {
+		this.wiring = wiring;
+		this.entries = entries;
+		this.children = children;
+		this.fragments = fragments;
+		this.classLoaderEntries = classLoaderEntries;
+		this.importedPackages = importedPackages;
+		this.bootDelegatedPackages = bootDelegatedPackages;
+	}
+
+	/**
+	 * Builds an index for current revision of the bundle.
+	 * @param bundle
+	 * @return the index or {@code null} if the bundle is not resolved
+	 */
+	public static BundleEntryIndex build(Bundle bundle) {
+		BundleWiring wiring = bundle.adapt(BundleWiring.class);
+		if (wiring == null || !wiring.isInUse()) {
+			return null;
+		}
+
+		Map<String, URL> entries = new HashMap<>();
+		Map<String, Set<String>> children = new HashMap<>();
+		children.put("", new LinkedHashSet<>());
+		Enumeration<URL> e = bundle.findEntries("/", null, true);
+		while (e != null && e.hasMoreElements()) {
+			URL url = e.nextElement();
+			String path = url.getPath();
+			while (path.startsWith("/")) {
+				path = path.substring(1);
+			}
+			if ("".equals(path)) {
+				continue;
+			}
+			// host entries are returned first, so they win over the same entries from fragments
+			entries.putIfAbsent(path, url);
+			// parent directories may not have own entries, but findEntries() lists them anyway
+			String child = path;
+			while (!"".equals(child)) {
+				String dir = child.endsWith("/") ? child.substring(0, child.length() - 1) : child;
+				int slash = dir.lastIndexOf('/');
+				String parent = slash < 0 ? "" : dir.substring(0, slash);
+				if (child.endsWith("/")) {
+					children.computeIfAbsent(dir, d -> new LinkedHashSet<>());
+				}
+				Set<String> siblings = children.computeIfAbsent(parent, d -> new LinkedHashSet<>());
+				if (!siblings.add("/" + child)) {
+					break;
+				}
+				child = "".equals(parent) ? "" : parent + "/";
+			}
+		}
+		for (Map.Entry<String, Set<String>> entry : children.entrySet()) {
+			entry.setValue(Collections.unmodifiableSet(entry.getValue()));
+		}
+
+		List<BundleWire> hosted = wiring.getProvidedWires(HostNamespace.HOST_NAMESPACE);
+		boolean fragments = hosted == null || !hosted.isEmpty();
+
+		Set<String> importedPackages = new HashSet<>();
+		List<BundleWire> imports = wiring.getRequiredWires(PackageNamespace.PACKAGE_NAMESPACE);
+		List<BundleWire> requiredBundles = wiring.getRequiredWires(BundleNamespace.BUNDLE_NAMESPACE);
+		if (imports != null) {
+			for (BundleWire wire : imports) {
+				Object pkg = wire.getCapability().getAttributes().get(PackageNamespace.PACKAGE_NAMESPACE);
+				if (pkg instanceof String) {
+					importedPackages.add(((String) pkg).replace('.', '/'));
+				}
+			}
+		}
+		Dictionary<String, String> headers = bundle.getHeaders();
+		String classPath = headers == null ? null : headers.get(Constants.BUNDLE_CLASSPATH);
+		boolean dynamicImports = headers != null && headers.get(Constants.DYNAMICIMPORT_PACKAGE) != null;
+		Set<String> bootDelegatedPackages = new HashSet<>();
+		boolean bootDelegateAll = false;
+		String bootDelegation = getBootDelegation(bundle);
+		if (bootDelegation != null) {
+			for (String entry : bootDelegation.split(",")) {
+				String pkg = entry.trim();
+				if ("*".equals(pkg)) {
+					bootDelegateAll = true;
+				} else if (pkg.endsWith(".*")) {
+					bootDelegatedPackages.add(pkg.substring(0, pkg.length() - 1).replace('.', '/'));
+				} else if (!"".equals(pkg)) {
+					bootDelegatedPackages.add(pkg.replace('.', '/'));
+				}
+			}
+		}
+		boolean classLoaderEntries = !fragments && imports != null && requiredBundles != null
+				&& requiredBundles.isEmpty() && !dynamicImports && !bootDelegateAll
+				&& (classPath == null || ".".equals(classPath.trim()));
+
+		return new BundleEntryIndex(wiring, entries, children, fragments, classLoaderEntries,
+				Collections.unmodifiableSet(importedPackages), Collections.unmodifiableSet(bootDelegatedPackages));
+	}
+
+	/**
+	 * Returns the value of {@code org.osgi.framework.bootdelegation} framework property (in Karaf it's for
+	 * example {@code sun.*,com.sun.*}), so resources of these packages are left to the bundle class loader,
+	 * which takes them from the parent class loader first.
+	 * @param bundle
+	 * @return
+	 */
+	private static String getBootDelegation(Bundle bundle) {
+		BundleContext context = bundle.getBundleContext();
+		if (context == null) {
+			// not active bundle - any bundle context gives the same framework properties
+			Bundle paxWebSpi = FrameworkUtil.getBundle(BundleEntryIndex.class);
+			context = paxWebSpi == null ? null : paxWebSpi.getBundleContext();
+		}
+		if (context != null) {
+			return context.getProperty(Constants.FRAMEWORK_BOOTDELEGATION);
+		}
+		// BundleContext.getProperty() falls back to system properties too
+		return System.getProperty(Constants.FRAMEWORK_BOOTDELEGATION);
+	}
+
+	/**
+	 * Checks whether the index was built for current wiring of the bundle.
+	 * @return
+	 */
+	public boolean isCurrent() {
+		return wiring.isCurrent();
+	}
+
+	/**
+	 * Checks whether {@link #findEntry(String)} and {@link #findEntryPaths(String)} can be used for given name.
+	 * @param name
+	 * @return
+	 */
+	public boolean resolvesEntries(String name) {
+		return key(name) != null;
+	}
+
+	/**
+	 * Checks whether {@link #getEntry(String)} gives the same result as {@link Bundle#getEntry}.
+	 * @param name
+	 * @return
+	 */
+	public boolean resolvesEntry(String name) {
+		if (fragments) {
+			return false;
+		}
+		String key = key(name);
+		if (key == null || "".equals(key)) {
+			return false;
+		}
+		// frameworks may return the entry of a directory when asked without trailing slash
+		return name.endsWith("/") || !children.containsKey(key);
+	}
+
+	/**
+	 * Checks whether {@link #getEntry(String)} gives the same result as {@link Bundle#getResource}.
+	 * @param name
+	 * @return
+	 */
+	public boolean resolvesResource(String name) {
+		if (!classLoaderEntries || !resolvesEntry(name)) {
+			return false;
+		}
+		String path = strip(name);
+		// java.* and boot delegated packages are delegated to parent and other packages may be imported
+		int slash = path.lastIndexOf('/');
+		String pkg = slash < 0 ? "" : path.substring(0, slash);
+		return !pkg.equals("java") && !pkg.startsWith("java/") && !importedPackages.contains(pkg)
+				&& !isBootDelegated(pkg);
+	}
+
+	private boolean isBootDelegated(String pkg) {
+		if (bootDelegatedPackages.isEmpty()) {
+			return false;
+		}
+		if (bootDelegatedPackages.contains(pkg)) {
+			return true;
+		}
+		// "com.example.*" matches subpackages of com.example, but not com.example itself
+		for (int slash = pkg.lastIndexOf('/'); slash > 0; slash = pkg.lastIndexOf('/', slash - 1)) {
+			if (bootDelegatedPackages.contains(pkg.substring(0, slash + 1))) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Returns an entry of the bundle (not considering fragments), just as {@link Bundle#getEntry} does.
+	 * @param name
+	 * @return
+	 */
+	public URL getEntry(String name) {
+		return entries.get(strip(name));
+	}
+
+	/**
+	 * Returns first entry of the bundle or its fragments for given name (with or without trailing slash),
+	 * just as {@code bundle.findEntries(dir, name, false).nextElement()} does.
+	 * @param name
+	 * @return
+	 */
+	public URL findEntry(String name) {
+		String key = key(name);
+		if (key == null || "".equals(key)) {
+			return null;
+		}
+		URL url = entries.get(key);
+		return url != null ? url : entries.get(key + "/");
+	}
+
+	/**
+	 * Returns paths of direct children of given directory, just as collecting {@link URL#getPath()} of
+	 * {@code bundle.findEntries(name, null, false)} does.
+	 * @param name
+	 * @return paths of the entries or {@code null} if the directory doesn't exist or is empty
+	 */
+	public Set<String> findEntryPaths(String name) {
+		String key = key(name);
+		Set<String> paths = key == null ? null : children.get(key);
+		return paths == null || paths.isEmpty() ? null : new LinkedHashSet<>(paths);
+	}
+
+	/**
+	 * Number of indexed entries
+	 * @return
+	 */
+	public int size() {
+		return entries.size();
+	}
+
+	/**
+	 * Turns the name into index key - path without leading and trailing slash or {@code null} if the name
+	 * can't be looked up in the index.
+	 * @param name
+	 * @return
+	 */
+	private static String key(String name) {
+		if (name == null || name.indexOf('*') >= 0 || name.indexOf('\\') >= 0 || name.contains("//")) {
+			return null;
+		}
+		String key = strip(name);
+		if (key.endsWith("/")) {
+			key = key.substring(0, key.length() - 1);
+		}
+		for (String segment : key.split("/")) {
+			if (".".equals(segment) || "..".equals(segment)) {
+				return null;
+			}
+		}
+		return key;
+	}
+
+	private static String strip(String name) {
+		return name.startsWith("/") ? name.substring(1) : name;
+	}
+
+	@Override
+	public String toString() {
+		return "BundleEntryIndex{entries=" + entries.size() + ", fragments=" + fragments
+				+ ", classLoaderEntries=" + classLoaderEntries + "}";
+	}
+
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2026 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.web.service.spi.context;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.osgi.framework.Bundle;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * <p>Global registry of {@link BundleEntryIndex bundle entry indexes} used by the default contexts.</p>
+ *
+ * <p>It's static, because the default contexts are created in many places (pax-web-runtime, the extenders,
+ * {@link org.ops4j.pax.web.service.spi.model.ServerModel}) without access to the configuration - it's
+ * pax-web-runtime which enables the registry. The indexes are built lazily on first use and rebuilt when
+ * the bundle is updated or refreshed. When the registry is disabled (the default), the only cost is a check
+ * of a volatile flag.</p>
+ */
+public final class BundleEntryIndexRegistry {
+
+	private static final Logger LOG = LoggerFactory.getLogger(BundleEntryIndexRegistry.class);
+
+	private static volatile boolean enabled = false;
+
+	private static final Map<Bundle, BundleEntryIndex> INDEXES = new ConcurrentHashMap<>();
+
+	private BundleEntryIndexRegistry() {
+	}
+
+	public static boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Switches the usage of the indexes. Existing indexes are dropped when disabled.
+	 * @param enabled
+	 */
+	public static void setEnabled(boolean enabled) {
+		BundleEntryIndexRegistry.enabled = enabled;
+		if (!enabled) {
+			INDEXES.clear();
+		}
+	}
+
+	/**
+	 * Returns an index for current revision of the bundle, building it if needed.
+	 * @param bundle
+	 * @return the index or {@code null} if the registry is disabled or the bundle is not resolved
+	 */
+	public static BundleEntryIndex forBundle(Bundle bundle) {
+		if (!enabled || bundle == null) {
+			return null;
+		}
+		int state = bundle.getState();
+		if (state == Bundle.INSTALLED || state == Bundle.STOPPING || state == Bundle.UNINSTALLED) {
+			// just as in DefaultHttpContext.getResourcePaths() - we don't want to resolve the bundle
+			INDEXES.remove(bundle);
+			return null;
+		}
+
+		BundleEntryIndex index = INDEXES.get(bundle);
+		if (index != null && index.isCurrent()) {
+			return index;
+		}
+
+		// concurrent building of the same index is possible, but harmless
+		index = BundleEntryIndex.build(bundle);
+		if (index == null) {
+			INDEXES.remove(bundle);
+			return null;
+		}
+		LOG.debug("Built {} for {}", index, bundle);
+		INDEXES.put(bundle, index);
+		return index;
+	}
+
+	/**
+	 * Drops the index of the bundle - for example when it's refreshed or uninstalled.
+	 * @param bundle
+	 */
+	public static void invalidate(Bundle bundle) {
+		INDEXES.remove(bundle);
+	}
+
+	/**
+	 * Number of currently held indexes
+	 * @return
+	 */
+	public static int size() {
+		return INDEXES.size();
+	}
+
+}
@@ -175,6 +175,10 @@ public class DefaultHttpContext implements WebContainerContext {
 		// "name" is passed from javax.servlet.ServletContext.getResource() which always should start with a slash
 		final String normalizedName = Path.normalizeResourcePath(name);
 		LOG.trace("Searching bundle [" + bundle + "] for resource [" + normalizedName + "]");
+		BundleEntryIndex index = BundleEntryIndexRegistry.forBundle(bundle);
+		if (index != null && index.resolvesResource(normalizedName)) {
+			return index.getEntry(normalizedName);
+		}
 		return bundle.getResource(normalizedName);
 	}
 
@@ -220,6 +224,10 @@ public class DefaultHttpContext implements WebContainerContext {
 				// thread)
 				return null;
 			}
+			BundleEntryIndex index = BundleEntryIndexRegistry.forBundle(bundle);
+			if (index != null && index.resolvesEntries(normalizedName)) {
+				return index.findEntryPaths(normalizedName);
+			}
 			final Enumeration<URL> e = bundle.findEntries(normalizedName, null, false);
 			if (e != null) {
 				final Set<String> result = new LinkedHashSet<String>();
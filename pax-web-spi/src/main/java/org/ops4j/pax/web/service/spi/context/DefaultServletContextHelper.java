@@ -59,6 +59,12 @@ public class DefaultServletContextHelper extends ServletContextHelper {
 		if ("/".equals(name) && bundle != null) {
 			return bundle.getEntry("/");
 		}
+		if (name != null) {
+			BundleEntryIndex index = BundleEntryIndexRegistry.forBundle(bundle);
+			if (index != null && index.resolvesEntry(name)) {
+				return index.getEntry(name);
+			}
+		}
 		return super.getResource(name);
 	}
 
@@ -71,6 +77,12 @@ public class DefaultServletContextHelper extends ServletContextHelper {
 	@Override
 	public Set<String> getResourcePaths(String path) {
 		// 140.2.4 Set<String> getResourcePaths(String)
+		if (path != null) {
+			BundleEntryIndex index = BundleEntryIndexRegistry.forBundle(bundle);
+			if (index != null && index.resolvesEntries(path)) {
+				return index.findEntryPaths(path);
+			}
+		}
 		return super.getResourcePaths(path);
 	}
 
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2026 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.web.service.spi.model;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * <p>Temporary, copy-on-write view of per-context mappings of {@link ServletContextModel} (like
+ * {@link ServletContextModel#getServletNameMapping()}) used by {@link ServerModel} when calculating which
+ * models should be enabled and which should be disabled after registration/unregistration of a web element.</p>
+ *
+ * <p>Instead of copying mappings of all the contexts, only the changes are recorded on top of the live
+ * mappings (which are not changed until the batch is accepted). So conflict check is a single lookup and
+ * preparation of the snapshot doesn't depend on the number of already registered elements.</p>
+ *
+ * @param <M> type of the mapped models
+ */
+final class ContextMappingSnapshot<M> {
+
+	/** Marker of a mapping removed in the snapshot */
+	private static final Object REMOVED = new Object();
+
+	private final Map<String, ServletContextModel> servletContexts;
+	private final Function<ServletContextModel, Map<String, M>> mapping;
+
+	/** Context path &rarr; key &rarr; model (or {@link #REMOVED}) */
+	private final Map<String, Map<String, Object>> changes = new HashMap<>();
+
+	/**
+	 * Creates a snapshot of the mappings of all the servlet contexts.
+	 *
+	 * @param servletContexts live {@link ServletContextModel servlet contexts} by context path
+	 * @param mapping the mapping of {@link ServletContextModel} to use
+	 */
+	ContextMappingSnapshot(Map<String, ServletContextModel> servletContexts,
+			Function<ServletContextModel, Map<String, M>> mapping) {
+		this.servletContexts = servletContexts;
+		this.mapping = mapping;
+	}
+
+	/**
+	 * Returns a model mapped under given key in given context.
+	 *
+	 * @param contextPath
+	 * @param key
+	 * @return
+	 */
+	@SuppressWarnings("unchecked")
+	M get(String contextPath, String key) {
+		Map<String, Object> contextChanges = changes.get(contextPath);
+		if (contextChanges != null) {
+			Object changed = contextChanges.get(key);
+			if (changed == REMOVED) {
+				return null;
+			}
+			if (changed != null) {
+				return (M) changed;
+			}
+		}
+		ServletContextModel scm = servletContexts.get(contextPath);
+		return scm == null ? null : mapping.apply(scm).get(key);
+	}
+
+	/**
+	 * Maps a model under given key in given context.
+	 *
+	 * @param contextPath
+	 * @param key
+	 * @param model
+	 */
+	void put(String contextPath, String key, M model) {
+		changes.computeIfAbsent(contextPath, cp -> new HashMap<>()).put(key, model);
+	}
+
+	/**
+	 * Removes the mapping of the key in given context, only if it's currently mapped to given model.
+	 *
+	 * @param contextPath
+	 * @param key
+	 * @param model
+	 */
+	void remove(String contextPath, String key, M model) {
+		M current = get(contextPath, key);
+		if (current != null && Objects.equals(current, model)) {
+			changes.computeIfAbsent(contextPath, cp -> new HashMap<>()).put(key, REMOVED);
+		}
+	}
+
+}
@@ -0,0 +1,319 @@
+/*
+ * Copyright 2026 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.web.service.spi.model;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.IntFunction;
+import java.util.function.UnaryOperator;
+
+import org.ops4j.pax.web.service.spi.model.elements.EventListenerModel;
+import org.ops4j.pax.web.service.spi.model.elements.FilterModel;
+import org.ops4j.pax.web.service.spi.model.elements.ServletModel;
+import org.osgi.dto.DTO;
+import org.osgi.framework.dto.ServiceReferenceDTO;
+import org.osgi.service.http.runtime.dto.BaseServletDTO;
+import org.osgi.service.http.runtime.dto.ErrorPageDTO;
+import org.osgi.service.http.runtime.dto.FailedErrorPageDTO;
+import org.osgi.service.http.runtime.dto.FailedFilterDTO;
+import org.osgi.service.http.runtime.dto.FailedListenerDTO;
+import org.osgi.service.http.runtime.dto.FailedPreprocessorDTO;
+import org.osgi.service.http.runtime.dto.FailedResourceDTO;
+import org.osgi.service.http.runtime.dto.FailedServletContextDTO;
+import org.osgi.service.http.runtime.dto.FailedServletDTO;
+import org.osgi.service.http.runtime.dto.FilterDTO;
+import org.osgi.service.http.runtime.dto.ListenerDTO;
+import org.osgi.service.http.runtime.dto.PreprocessorDTO;
+import org.osgi.service.http.runtime.dto.ResourceDTO;
+import org.osgi.service.http.runtime.dto.RuntimeDTO;
+import org.osgi.service.http.runtime.dto.ServletContextDTO;
+import org.osgi.service.http.runtime.dto.ServletDTO;
+
+/**
+ * <p>{@link RuntimeDTO} built by {@link ServerModel} for given version of the model. As long as the model doesn't
+ * change, the same snapshot is used for each {@link ServerModel#getRuntimeDTO()} call - only the
+ * {@link RuntimeDTO#serviceDTO} (with current <em>using bundles</em>) is prepared each time.</p>
+ *
+ * <p>The snapshot itself is never returned - {@link DTO DTOs} are mutable, so each caller gets its own deep
+ * copy. Copying (field by field, without reflection) is still much cheaper than visiting the model again.</p>
+ */
+final class RuntimeDTOSnapshot {
+
+	private final long version;
+	private final RuntimeDTO dto;
+
+	RuntimeDTOSnapshot(long version, RuntimeDTO dto) {
+		this.version = version;
+		this.dto = dto;
+	}
+
+	long getVersion() {
+		return version;
+	}
+
+	/**
+	 * Returns a deep copy of this snapshot with given {@link RuntimeDTO#serviceDTO}, so the caller may do
+	 * whatever it wants with the result.
+	 *
+	 * @param serviceDTO
+	 * @return
+	 */
+	RuntimeDTO toRuntimeDTO(ServiceReferenceDTO serviceDTO) {
+		RuntimeDTO result = new RuntimeDTO();
+		result.serviceDTO = serviceDTO;
+		result.preprocessorDTOs = copy(dto.preprocessorDTOs, PreprocessorDTO[]::new,
+				d -> copyPreprocessor(d, new PreprocessorDTO()));
+		result.servletContextDTOs = copy(dto.servletContextDTOs, ServletContextDTO[]::new,
+				d -> copyServletContext(d, new ServletContextDTO()));
+		result.failedServletContextDTOs = copy(dto.failedServletContextDTOs, FailedServletContextDTO[]::new, d -> {
+			FailedServletContextDTO c = copyServletContext(d, new FailedServletContextDTO());
+			c.failureReason = d.failureReason;
+			return c;
+		});
+		result.failedServletDTOs = copy(dto.failedServletDTOs, FailedServletDTO[]::new, d -> {
+			FailedServletDTO c = copyServlet(d, new FailedServletDTO());
+			c.failureReason = d.failureReason;
+			return c;
+		});
+		result.failedResourceDTOs = copy(dto.failedResourceDTOs, FailedResourceDTO[]::new, d -> {
+			FailedResourceDTO c = copyResource(d, new FailedResourceDTO());
+			c.failureReason = d.failureReason;
+			return c;
+		});
+		result.failedPreprocessorDTOs = copy(dto.failedPreprocessorDTOs, FailedPreprocessorDTO[]::new, d -> {
+			FailedPreprocessorDTO c = copyPreprocessor(d, new FailedPreprocessorDTO());
+			c.failureReason = d.failureReason;
+			return c;
+		});
+		result.failedFilterDTOs = copy(dto.failedFilterDTOs, FailedFilterDTO[]::new, d -> {
+			FailedFilterDTO c = copyFilter(d, new FailedFilterDTO());
+			c.failureReason = d.failureReason;
+			return c;
+		});
+		result.failedErrorPageDTOs = copy(dto.failedErrorPageDTOs, FailedErrorPageDTO[]::new, d -> {
+			FailedErrorPageDTO c = copyErrorPage(d, new FailedErrorPageDTO());
+			c.failureReason = d.failureReason;
+			return c;
+		});
+		result.failedListenerDTOs = copy(dto.failedListenerDTOs, FailedListenerDTO[]::new, d -> {
+			FailedListenerDTO c = copyListener(d, new FailedListenerDTO());
+			c.failureReason = d.failureReason;
+			return c;
+		});
+		return result;
+	}
+
+	private static <T extends ServletContextDTO> T copyServletContext(ServletContextDTO from, T to) {
+		to.name = from.name;
+		to.contextPath = from.contextPath;
+		to.initParams = copy(from.initParams);
+		// attribute values are shared - the same objects are returned by ServletContext.getAttribute()
+		to.attributes = copy(from.attributes);
+		to.serviceId = from.serviceId;
+		to.servletDTOs = copy(from.servletDTOs, ServletDTO[]::new, d -> copyServlet(d, new ServletDTO()));
+		to.resourceDTOs = copy(from.resourceDTOs, ResourceDTO[]::new, d -> copyResource(d, new ResourceDTO()));
+		to.filterDTOs = copy(from.filterDTOs, FilterDTO[]::new, d -> copyFilter(d, new FilterDTO()));
+		to.errorPageDTOs = copy(from.errorPageDTOs, ErrorPageDTO[]::new, d -> copyErrorPage(d, new ErrorPageDTO()));
+		to.listenerDTOs = copy(from.listenerDTOs, ListenerDTO[]::new, d -> copyListener(d, new ListenerDTO()));
+		return to;
+	}
+
+	private static <T extends BaseServletDTO> T copyBaseServlet(BaseServletDTO from, T to) {
+		to.name = from.name;
+		to.servletInfo = from.servletInfo;
+		to.asyncSupported = from.asyncSupported;
+		to.initParams = copy(from.initParams);
+		to.servletContextId = from.servletContextId;
+		to.serviceId = from.serviceId;
+		return to;
+	}
+
+	private static <T extends ServletDTO> T copyServlet(ServletDTO from, T to) {
+		copyBaseServlet(from, to);
+		to.patterns = copy(from.patterns);
+		to.multipartEnabled = from.multipartEnabled;
+		to.multipartFileSizeThreshold = from.multipartFileSizeThreshold;
+		to.multipartLocation = from.multipartLocation;
+		to.multipartMaxFileSize = from.multipartMaxFileSize;
+		to.multipartMaxRequestSize = from.multipartMaxRequestSize;
+		return to;
+	}
+
+	private static <T extends ErrorPageDTO> T copyErrorPage(ErrorPageDTO from, T to) {
+		copyBaseServlet(from, to);
+		to.exceptions = copy(from.exceptions);
+		to.errorCodes = from.errorCodes == null ? null : from.errorCodes.clone();
+		return to;
+	}
+
+	private static <T extends ResourceDTO> T copyResource(ResourceDTO from, T to) {
+		to.patterns = copy(from.patterns);
+		to.prefix = from.prefix;
+		to.serviceId = from.serviceId;
+		to.servletContextId = from.servletContextId;
+		return to;
+	}
+
+	private static <T extends FilterDTO> T copyFilter(FilterDTO from, T to) {
+		to.name = from.name;
+		to.patterns = copy(from.patterns);
+		to.servletNames = copy(from.servletNames);
+		to.regexs = copy(from.regexs);
+		to.asyncSupported = from.asyncSupported;
+		to.dispatcher = copy(from.dispatcher);
+		to.initParams = copy(from.initParams);
+		to.serviceId = from.serviceId;
+		to.servletContextId = from.servletContextId;
+		return to;
+	}
+
+	private static <T extends ListenerDTO> T copyListener(ListenerDTO from, T to) {
+		to.types = copy(from.types);
+		to.serviceId = from.serviceId;
+		to.servletContextId = from.servletContextId;
+		return to;
+	}
+
+	private static <T extends PreprocessorDTO> T copyPreprocessor(PreprocessorDTO from, T to) {
+		to.initParams = copy(from.initParams);
+		to.serviceId = from.serviceId;
+		return to;
+	}
+
+	private static <T> T[] copy(T[] dtos, IntFunction<T[]> arrayFactory, UnaryOperator<T> copier) {
+		if (dtos == null) {
+			return null;
+		}
+		T[] result = arrayFactory.apply(dtos.length);
+		for (int i = 0; i < dtos.length; i++) {
+			result[i] = dtos[i] == null ? null : copier.apply(dtos[i]);
+		}
+		return result;
+	}
+
+	private static String[] copy(String[] values) {
+		return values == null ? null : values.clone();
+	}
+
+	private static <V> Map<String, V> copy(Map<String, V> values) {
+		return values == null ? null : new LinkedHashMap<>(values);
+	}
+
+	/**
+	 * Valid elements of single {@link OsgiContextModel}, which are turned into DTOs nested in
+	 * {@link ServletContextDTO}.
+	 */
+	static final class ContextElements {
+		final List<ServletModel> servlets = new ArrayList<>();
+		final List<ServletModel> resources = new ArrayList<>();
+		final List<ServletModel> errorPages = new ArrayList<>();
+		final List<FilterModel> filters = new ArrayList<>();
+		final List<EventListenerModel> listeners = new ArrayList<>();
+
+		private boolean sameAs(ContextElements other) {
+			return same(servlets, other.servlets) && same(resources, other.resources)
+					&& same(errorPages, other.errorPages) && same(filters, other.filters)
+					&& same(listeners, other.listeners);
+		}
+
+		private static boolean same(List<?> l1, List<?> l2) {
+			if (l1.size() != l2.size()) {
+				return false;
+			}
+			for (int i = 0; i < l1.size(); i++) {
+				if (l1.get(i) != l2.get(i)) {
+					return false;
+				}
+			}
+			return true;
+		}
+	}
+
+	/**
+	 * {@link ServletContextDTO} with all nested DTOs, which is rebuilt only when the {@link OsgiContextModel}
+	 * or the set of its elements changes.
+	 */
+	static final class ContextSnapshot {
+
+		private final OsgiContextModel osgiContextModel;
+		private final ContextElements elements;
+		private final ServletContextDTO dto;
+
+		private ContextSnapshot(OsgiContextModel osgiContextModel, ContextElements elements, ServletContextDTO dto) {
+			this.osgiContextModel = osgiContextModel;
+			this.elements = elements;
+			this.dto = dto;
+		}
+
+		static ContextSnapshot create(OsgiContextModel ocm, ContextElements elements) {
+			ServletContextDTO scDTO = ocm.toDTO();
+
+			scDTO.errorPageDTOs = new ErrorPageDTO[elements.errorPages.size()];
+			for (int i = 0; i < scDTO.errorPageDTOs.length; i++) {
+				ServletModel sm = elements.errorPages.get(i);
+				scDTO.errorPageDTOs[i] = sm.getErrorPageModel().toDTO(sm);
+				scDTO.errorPageDTOs[i].servletContextId = scDTO.serviceId;
+			}
+			scDTO.filterDTOs = new FilterDTO[elements.filters.size()];
+			for (int i = 0; i < scDTO.filterDTOs.length; i++) {
+				scDTO.filterDTOs[i] = elements.filters.get(i).toFilterDTO();
+				scDTO.filterDTOs[i].servletContextId = scDTO.serviceId;
+			}
+			scDTO.listenerDTOs = new ListenerDTO[elements.listeners.size()];
+			for (int i = 0; i < scDTO.listenerDTOs.length; i++) {
+				scDTO.listenerDTOs[i] = elements.listeners.get(i).toDTO();
+				scDTO.listenerDTOs[i].servletContextId = scDTO.serviceId;
+			}
+			scDTO.servletDTOs = new ServletDTO[elements.servlets.size()];
+			for (int i = 0; i < scDTO.servletDTOs.length; i++) {
+				scDTO.servletDTOs[i] = elements.servlets.get(i).toServletDTO();
+				scDTO.servletDTOs[i].servletContextId = scDTO.serviceId;
+			}
+			scDTO.resourceDTOs = new ResourceDTO[elements.resources.size()];
+			for (int i = 0; i < scDTO.resourceDTOs.length; i++) {
+				scDTO.resourceDTOs[i] = elements.resources.get(i).toResourceDTO();
+				scDTO.resourceDTOs[i].servletContextId = scDTO.serviceId;
+			}
+
+			return new ContextSnapshot(ocm, elements, scDTO);
+		}
+
+		/**
+		 * Checks whether this snapshot may be reused for given {@link OsgiContextModel} with given elements.
+		 *
+		 * @param ocm
+		 * @param elements
+		 * @return
+		 */
+		boolean isValidFor(OsgiContextModel ocm, ContextElements elements) {
+			return osgiContextModel == ocm
+					&& dto.serviceId == ocm.getServiceId()
+					&& Objects.equals(dto.name, ocm.getName())
+					&& Objects.equals(dto.contextPath, ocm.getContextPath())
+					&& dto.attributes.equals(ocm.getInitialContextAttributes())
+					&& dto.initParams.equals(ocm.getContextParams())
+					&& this.elements.sameAs(elements);
+		}
+
+		ServletContextDTO getDTO() {
+			return dto;
+		}
+	}
+
+}
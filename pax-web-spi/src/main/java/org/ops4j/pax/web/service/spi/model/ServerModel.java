@@ -43,6 +43,8 @@ import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executor;
 import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.regex.Pattern;
@@ -58,6 +60,7 @@ import org.ops4j.pax.web.service.PaxWebConstants;
 import org.ops4j.pax.web.service.WebContainer;
 import org.ops4j.pax.web.service.WebContainerContext;
 import org.ops4j.pax.web.service.spi.ServerController;
+import org.ops4j.pax.web.service.spi.StripedServerController;
 import org.ops4j.pax.web.service.spi.config.JspConfiguration;
 import org.ops4j.pax.web.service.spi.context.DefaultMultiBundleWebContainerContext;
 import org.ops4j.pax.web.service.spi.context.WebContainerContextWrapper;
@@ -71,10 +74,11 @@ import org.ops4j.pax.web.service.spi.model.elements.ServletModel;
 import org.ops4j.pax.web.service.spi.model.elements.WebSocketModel;
 import org.ops4j.pax.web.service.spi.model.elements.WelcomeFileModel;
 import org.ops4j.pax.web.service.spi.model.events.WebContextEventListener;
-import org.ops4j.pax.web.service.spi.model.events.WebElementEventData;
+import org.ops4j.pax.web.service.spi.model.info.RequestMetricsInfo;
 import org.ops4j.pax.web.service.spi.model.info.ServletInfo;
 import org.ops4j.pax.web.service.spi.model.info.WebApplicationInfo;
 import org.ops4j.pax.web.service.spi.model.views.ReportViewPlugin;
+import org.ops4j.pax.web.service.spi.servlet.RequestMetricsRegistry;
 import org.ops4j.pax.web.service.spi.task.Batch;
 import org.ops4j.pax.web.service.spi.task.BatchVisitor;
 import org.ops4j.pax.web.service.spi.task.ClearDynamicRegistrationsChange;
@@ -110,7 +114,6 @@ import org.osgi.service.http.NamespaceException;
 import org.osgi.service.http.context.ServletContextHelper;
 import org.osgi.service.http.runtime.HttpServiceRuntime;
 import org.osgi.service.http.runtime.dto.DTOConstants;
-import org.osgi.service.http.runtime.dto.ErrorPageDTO;
 import org.osgi.service.http.runtime.dto.FailedErrorPageDTO;
 import org.osgi.service.http.runtime.dto.FailedFilterDTO;
 import org.osgi.service.http.runtime.dto.FailedListenerDTO;
@@ -119,7 +122,6 @@ import org.osgi.service.http.runtime.dto.FailedResourceDTO;
 import org.osgi.service.http.runtime.dto.FailedServletContextDTO;
 import org.osgi.service.http.runtime.dto.FailedServletDTO;
 import org.osgi.service.http.runtime.dto.FilterDTO;
-import org.osgi.service.http.runtime.dto.ListenerDTO;
 import org.osgi.service.http.runtime.dto.PreprocessorDTO;
 import org.osgi.service.http.runtime.dto.RequestInfoDTO;
 import org.osgi.service.http.runtime.dto.ResourceDTO;
@@ -435,6 +437,33 @@ public class ServerModel implements BatchVisitor, HttpServiceRuntime, ReportView
 	 */
 	private final AtomicLong changeCount = new AtomicLong(0L);
 
+	/**
+	 * Minimal interval (in milliseconds) between updates of {@link #httpServiceRuntimeReg} with new value of
+	 * {@link #changeCount}. The counter itself is always exact. It may be changed while the tasks are run.
+	 */
+	private volatile long changeCountUpdateInterval = 0L;
+
+	/** Number of actual updates of {@link #httpServiceRuntimeReg} properties */
+	private final AtomicLong changeCountUpdates = new AtomicLong(0L);
+
+	/** Whether the update of {@link #httpServiceRuntimeReg} is already scheduled */
+	private final AtomicBoolean changeCountUpdateScheduled = new AtomicBoolean(false);
+
+	/** Time (nanos) of last update of {@link #httpServiceRuntimeReg} */
+	private volatile long lastChangeCountUpdate = 0L;
+
+	/**
+	 * Version of the model - incremented each time a configuration/registration task is executed in
+	 * configuration thread. Used to check whether {@link #runtimeDTOSnapshot} is still valid.
+	 */
+	private final AtomicLong modelVersion = new AtomicLong(0L);
+
+	/** {@link RuntimeDTO} prepared for given {@link #modelVersion} */
+	private volatile RuntimeDTOSnapshot runtimeDTOSnapshot;
+
+	/** Per-context parts of {@link #runtimeDTOSnapshot}. Accessed only in configuration thread. */
+	private Map<OsgiContextModel, RuntimeDTOSnapshot.ContextSnapshot> contextDTOSnapshots = new HashMap<>();
+
 	private final List<ReportViewPlugin> plugins = new CopyOnWriteArrayList<>();
 
 	private final AtomicBoolean stopping = new AtomicBoolean(false);
@@ -529,20 +558,29 @@ public class ServerModel implements BatchVisitor, HttpServiceRuntime, ReportView
 
 		if (!asynchronous && Thread.currentThread().getId() == registrationThreadId) {
 			// we can run immediately
+			modelVersion.incrementAndGet();
 			return task.run();
 		}
 
 		final Throwable originalTrace = new Throwable();
 
+		// when a context is started outside of the configuration thread (see StripedServerController), the
+		// registrations it performs synchronously have to be recognized as done on behalf of this context
+		final String originContextPath = asynchronous ? null : StripedServerController.currentContextPath();
+
 		try {
 			try {
 				CompletableFuture<T> future = CompletableFuture.supplyAsync(() -> {
+					String previousContextPath = StripedServerController.enterContextPath(originContextPath);
 					try {
+						modelVersion.incrementAndGet();
 						return task.run();
 					} catch (ServletException e) {
 						throw new ModelRegistrationException(e);
 					} catch (NamespaceException e) {
 						throw new ModelRegistrationException(e);
+					} finally {
+						StripedServerController.restoreContextPath(previousContextPath);
 					}
 				}, executor);
 				if (asynchronous) {
@@ -600,6 +638,7 @@ public class ServerModel implements BatchVisitor, HttpServiceRuntime, ReportView
 		try {
 			CompletableFuture.supplyAsync(() -> {
 				try {
+					modelVersion.incrementAndGet();
 					return task.run();
 				} catch (ServletException e) {
 					throw new ModelRegistrationException(e);
@@ -617,6 +656,34 @@ public class ServerModel implements BatchVisitor, HttpServiceRuntime, ReportView
 		this.stopping.set(true);
 	}
 
+	/**
+	 * Sets minimal interval between updates of {@code service.changecount} property of {@link HttpServiceRuntime}
+	 * registration. With positive interval, the changes are propagated (with latest value of the counter) only
+	 * after the interval passes since last update.
+	 *
+	 * @param changeCountUpdateInterval
+	 */
+	public void setChangeCountUpdateInterval(long changeCountUpdateInterval) {
+		this.changeCountUpdateInterval = Math.max(0L, changeCountUpdateInterval);
+	}
+
+	/**
+	 * Returns current (exact) value of {@code service.changecount}.
+	 * @return
+	 */
+	public long getChangeCount() {
+		return changeCount.get();
+	}
+
+	/**
+	 * Returns the number of actual updates of {@link HttpServiceRuntime} registration properties - each update
+	 * is a {@link org.osgi.framework.ServiceEvent#MODIFIED} event.
+	 * @return
+	 */
+	public long getChangeCountUpdates() {
+		return changeCountUpdates.get();
+	}
+
 	/**
 	 * Increment internal change counter and propagate this information to {@link ServiceRegistration} for
 	 * {@link HttpServiceRuntime} and {@link ServiceReferenceDTO}
@@ -627,6 +694,35 @@ public class ServerModel implements BatchVisitor, HttpServiceRuntime, ReportView
 		}
 
 		changeCount.incrementAndGet();
+
+		long interval = changeCountUpdateInterval;
+		if (interval <= 0L || !(executor instanceof ScheduledExecutorService)) {
+			updateChangeCount();
+			return;
+		}
+		if (changeCountUpdateScheduled.compareAndSet(false, true)) {
+			// the update will be performed with the value of the counter at the time the task runs, so all
+			// the changes within the interval are propagated with single service event
+			long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - lastChangeCountUpdate);
+			long delay = lastChangeCountUpdate == 0L ? 0L : Math.max(0L, interval - elapsed);
+			try {
+				((ScheduledExecutorService) executor).schedule(() -> {
+					changeCountUpdateScheduled.set(false);
+					updateChangeCount();
+				}, delay, TimeUnit.MILLISECONDS);
+			} catch (RejectedExecutionException e) {
+				changeCountUpdateScheduled.set(false);
+			}
+		}
+	}
+
+	/**
+	 * Sets current value of the change counter in {@link HttpServiceRuntime} registration properties.
+	 */
+	private void updateChangeCount() {
+		if (stopping.get()) {
+			return;
+		}
 		try {
 			if (httpServiceRuntimeReg == null || httpServiceRuntimeReg.getReference() == null) {
 				// usually during tests
@@ -640,6 +736,11 @@ public class ServerModel implements BatchVisitor, HttpServiceRuntime, ReportView
 			newProps.put("service.changecount", changeCount.get());
 			// update the registration properties
 			httpServiceRuntimeReg.setProperties(newProps);
+			lastChangeCountUpdate = System.nanoTime();
+			long updates = changeCountUpdates.incrementAndGet();
+			if (changeCountUpdateInterval > 0L) {
+				LOG.trace("service.changecount updated to {} ({} updates)", newProps.get("service.changecount"), updates);
+			}
 		} catch (IllegalStateException e) {
 			LOG.debug("Problem incrementing the change counter: {}", e.getMessage());
 		} catch (Exception e) {
@@ -1558,8 +1659,10 @@ public class ServerModel implements BatchVisitor, HttpServiceRuntime, ReportView
 		// each disabled servletModel may be a reason to enable other models. Currently disabled
 		// ServerModels (+ our new model) may be enabled ONLY if they can be enabled in ALL associated contexts
 
-		Map<String, Map<String, ServletModel>> currentlyEnabledByName = new HashMap<>();
-		Map<String, Map<String, ServletModel>> currentlyEnabledByPattern = new HashMap<>();
+		ContextMappingSnapshot<ServletModel> currentlyEnabledByName
+				= new ContextMappingSnapshot<>(servletContexts, ServletContextModel::getServletNameMapping);
+		ContextMappingSnapshot<ServletModel> currentlyEnabledByPattern
+				= new ContextMappingSnapshot<>(servletContexts, ServletContextModel::getServletUrlPatternMapping);
 		Set<ServletModel> currentlyDisabled = new TreeSet<>();
 		prepareServletsSnapshot(currentlyEnabledByName, currentlyEnabledByPattern, currentlyDisabled,
 				model, newlyDisabled);
@@ -1597,8 +1700,10 @@ public class ServerModel implements BatchVisitor, HttpServiceRuntime, ReportView
 		});
 		batch.removeServletModels(modelsAndStates);
 
-		Map<String, Map<String, ServletModel>> currentlyEnabledByName = new HashMap<>();
-		Map<String, Map<String, ServletModel>> currentlyEnabledByPattern = new HashMap<>();
+		ContextMappingSnapshot<ServletModel> currentlyEnabledByName
+				= new ContextMappingSnapshot<>(servletContexts, ServletContextModel::getServletNameMapping);
+		ContextMappingSnapshot<ServletModel> currentlyEnabledByPattern
+				= new ContextMappingSnapshot<>(servletContexts, ServletContextModel::getServletUrlPatternMapping);
 		Set<ServletModel> currentlyDisabled = new TreeSet<>();
 		prepareServletsSnapshot(currentlyEnabledByName, currentlyEnabledByPattern, currentlyDisabled,
 				null, new HashSet<>(models));
@@ -1608,8 +1713,9 @@ public class ServerModel implements BatchVisitor, HttpServiceRuntime, ReportView
 	}
 
 	/**
-	 * Preparation for {@link #reEnableServletModels(Set, Map, Map, ServletModel, Batch)} that does
-	 * proper copy of current state of all {@link ServletContextModel}
+	 * Preparation for {@link #reEnableServletModels(Set, ContextMappingSnapshot, ContextMappingSnapshot, ServletModel, Batch)}
+	 * that prepares a view of current state of all {@link ServletContextModel servlet contexts}. Only the changes
+	 * are recorded in the snapshots, so the cost doesn't depend on the number of registered servlets.
 	 *
 	 * @param currentlyEnabledByName
 	 * @param currentlyEnabledByPattern
@@ -1618,35 +1724,25 @@ public class ServerModel implements BatchVisitor, HttpServiceRuntime, ReportView
 	 *        (to enable it potentially)
 	 * @param newlyDisabled prepared snapshot will already have newlyDisabled models removed from snapshot mappings
 	 */
-	private void prepareServletsSnapshot(Map<String, Map<String, ServletModel>> currentlyEnabledByName,
-			Map<String, Map<String, ServletModel>> currentlyEnabledByPattern,
+	private void prepareServletsSnapshot(ContextMappingSnapshot<ServletModel> currentlyEnabledByName,
+			ContextMappingSnapshot<ServletModel> currentlyEnabledByPattern,
 			Set<ServletModel> currentlyDisabled,
 			ServletModel newlyAdded, Set<ServletModel> newlyDisabled) {
 
 		currentlyDisabled.addAll(disabledServletModels);
 
-		servletContexts.values().forEach(scm -> {
-			String path = scm.getContextPath();
-			// deep copies
-			Map<String, ServletModel> enabledByName = new HashMap<>(scm.getServletNameMapping());
-			Map<String, ServletModel> enabledByPattern = new HashMap<>(scm.getServletUrlPatternMapping());
-			currentlyEnabledByName.put(path, enabledByName);
-			currentlyEnabledByPattern.put(path, enabledByPattern);
-
-			// newlyDisabled are scheduled for disabling (in batch), so let's remove them from the snapshot
-			if (newlyDisabled != null) {
-				newlyDisabled.forEach(sm -> {
-					getServletContextModels(sm).forEach(scm2 -> {
-						if (scm.equals(scm2)) {
-							enabledByName.remove(sm.getName(), sm);
-							Arrays.stream(sm.getUrlPatterns()).forEach(pattern -> {
-								enabledByPattern.remove(pattern, sm);
-							});
-						}
+		// newlyDisabled are scheduled for disabling (in batch), so let's remove them from the snapshot
+		if (newlyDisabled != null) {
+			newlyDisabled.forEach(sm -> {
+				getServletContextModels(sm).forEach(scm -> {
+					String path = scm.getContextPath();
+					currentlyEnabledByName.remove(path, sm.getName(), sm);
+					Arrays.stream(sm.getUrlPatterns()).forEach(pattern -> {
+						currentlyEnabledByPattern.remove(path, pattern, sm);
 					});
 				});
-			}
-		});
+			});
+		}
 
 		// newlyAdded is for now only "offered" to be registered as active, because if new model causes
 		// disabling of existing model, other (disabled) model may be better than the newly registered one
@@ -1673,8 +1769,8 @@ public class ServerModel implements BatchVisitor, HttpServiceRuntime, ReportView
 	 * @param batch this {@link Batch} will collect avalanche of possible disable/enable operations
 	 */
 	private void reEnableServletModels(Set<ServletModel> currentlyDisabled,
-			Map<String, Map<String, ServletModel>> currentlyEnabledByName,
-			Map<String, Map<String, ServletModel>> currentlyEnabledByPattern,
+			ContextMappingSnapshot<ServletModel> currentlyEnabledByName,
+			ContextMappingSnapshot<ServletModel> currentlyEnabledByPattern,
 			ServletModel modelToEnable, Batch batch) {
 
 		Set<ServletModel> newlyDisabled = new LinkedHashSet<>();
@@ -1699,30 +1795,24 @@ public class ServerModel implements BatchVisitor, HttpServiceRuntime, ReportView
 			for (ServletContextModel sc : contextsOfDisabledModel) {
 				String cp = sc.getContextPath();
 
-				// name conflict check
-				for (Map.Entry<String, ServletModel> entry : currentlyEnabledByName.get(cp).entrySet()) {
-					ServletModel enabled = entry.getValue();
-					boolean nameConflict = haveAnyNameConflict(disabled.getName(), enabled.getName(), disabled, enabled);
-					if (nameConflict) {
-						// name conflict with existing, enabled model. BUT currently disabled model may have
-						// higher ranking...
-						if (disabled.compareTo(enabled) < 0) {
-							// still can be enabled (but we have to check everything) and currently disabled
-							// may potentially get disabled
-							newlyDisabled.add(enabled);
-						} else {
-							canBeEnabled = false;
-							break;
-						}
+				// name conflict check - enabled model with the same name in the same context
+				ServletModel enabled = currentlyEnabledByName.get(cp, disabled.getName());
+				if (enabled != null) {
+					// name conflict with existing, enabled model. BUT currently disabled model may have
+					// higher ranking...
+					if (disabled.compareTo(enabled) < 0) {
+						// still can be enabled (but we have to check everything) and currently disabled
+						// may potentially get disabled
+						newlyDisabled.add(enabled);
+					} else {
+						canBeEnabled = false;
+						break;
 					}
 				}
-				if (!canBeEnabled) {
-					break;
-				}
 
 				// URL mapping check
 				for (String pattern : disabled.getUrlPatterns()) {
-					ServletModel existingMapping = currentlyEnabledByPattern.get(cp).get(pattern);
+					ServletModel existingMapping = currentlyEnabledByPattern.get(cp, pattern);
 					if (existingMapping != null) {
 						// URL conflict with existing, enabled model. BUT currently disabled model may have
 						// higher ranking...
@@ -1749,9 +1839,9 @@ public class ServerModel implements BatchVisitor, HttpServiceRuntime, ReportView
 
 					// and forget about it in the snapshot
 					getServletContextModels(model).forEach(scm -> {
-						currentlyEnabledByName.get(scm.getContextPath()).remove(model.getName(), model);
+						currentlyEnabledByName.remove(scm.getContextPath(), model.getName(), model);
 						Arrays.stream(model.getUrlPatterns()).forEach(p -> {
-							currentlyEnabledByPattern.get(scm.getContextPath()).remove(p, model);
+							currentlyEnabledByPattern.remove(scm.getContextPath(), p, model);
 						});
 					});
 
@@ -1761,9 +1851,9 @@ public class ServerModel implements BatchVisitor, HttpServiceRuntime, ReportView
 				// update the snapshot - newly enabled model should be visible as the one registered
 				// under its name and patterns
 				for (ServletContextModel sc : contextsOfDisabledModel) {
-					currentlyEnabledByName.get(sc.getContextPath()).put(disabled.getName(), disabled);
+					currentlyEnabledByName.put(sc.getContextPath(), disabled.getName(), disabled);
 					Arrays.stream(disabled.getUrlPatterns())
-							.forEach(p -> currentlyEnabledByPattern.get(sc.getContextPath()).put(p, disabled));
+							.forEach(p -> currentlyEnabledByPattern.put(sc.getContextPath(), p, disabled));
 				}
 				if (modelToEnable != null && modelToEnable.equals(disabled)) {
 					batch.addServletModel(disabled);
@@ -1956,18 +2046,19 @@ public class ServerModel implements BatchVisitor, HttpServiceRuntime, ReportView
 			}
 
 			currentlyEnabledByPath.put(path, enabledFilters);
+		});
 
-			// newlyDisabled are scheduled for disabling (in batch), so let's remove them from the snapshot
-			if (newlyDisabled != null) {
-				newlyDisabled.forEach(fm -> {
-					getServletContextModels(fm).forEach(scm2 -> {
-						if (scm.equals(scm2)) {
-							enabledFilters.remove(fm);
-						}
-					});
+		// newlyDisabled are scheduled for disabling (in batch), so let's remove them from the snapshot
+		if (newlyDisabled != null) {
+			newlyDisabled.forEach(fm -> {
+				getServletContextModels(fm).forEach(scm -> {
+					TreeMap<FilterModel, List<OsgiContextModel>> enabledFilters = currentlyEnabledByPath.get(scm.getContextPath());
+					if (enabledFilters != null) {
+						enabledFilters.remove(fm);
+					}
 				});
-			}
-		});
+			});
+		}
 
 		// newlyAdded is for now only "offered" to be registered as active, because if new model causes
 		// disabling of existing model, other (disabled) model may be better than the newly registered one
@@ -1994,14 +2085,32 @@ public class ServerModel implements BatchVisitor, HttpServiceRuntime, ReportView
 	 */
 	private void reEnableFilterModels(Set<FilterModel> currentlyDisabled,
 			Map<String, TreeMap<FilterModel, List<OsgiContextModel>>> currentlyEnabledByPath, FilterModel modelToEnable, Batch batch) {
+		// index of enabled filters by name, maintained together with the snapshot, so name conflict
+		// check doesn't have to review all the filters of the context
+		Map<String, Map<String, FilterModel>> currentlyEnabledByName = new HashMap<>();
+		currentlyEnabledByPath.forEach((cp, filters) -> {
+			Map<String, FilterModel> byName = new HashMap<>();
+			filters.keySet().forEach(fm -> byName.put(fm.getName(), fm));
+			currentlyEnabledByName.put(cp, byName);
+		});
 
+		// index of disabled filters by context and name. A disabled model that can't be enabled now, may be
+		// enabled only after the enabled model with the same name is disabled in one of its contexts - only then
+		// it has to be checked again
+		Map<String, Map<String, Set<FilterModel>>> currentlyDisabledByName = new HashMap<>();
+		for (FilterModel disabled : currentlyDisabled) {
+			for (ServletContextModel sc : getServletContextModels(disabled)) {
+				currentlyDisabledByName.computeIfAbsent(sc.getContextPath(), cp -> new HashMap<>())
+						.computeIfAbsent(disabled.getName(), n -> new HashSet<>()).add(disabled);
+			}
+		}
+
+		// models to check - always the highest ranked one first
+		TreeSet<FilterModel> toCheck = new TreeSet<>(currentlyDisabled);
 		Set<FilterModel> newlyDisabled = new LinkedHashSet<>();
-		boolean change = false;
 
-		// reviewed using TreeSet, i.e., by proper ranking
-		for (Iterator<FilterModel> iterator = currentlyDisabled.iterator(); iterator.hasNext(); ) {
-			// this is the highest ranked, currently disabled filter model
-			FilterModel disabled = iterator.next();
+		FilterModel disabled;
+		while ((disabled = toCheck.pollFirst()) != null) {
 			boolean canBeEnabled = true;
 			newlyDisabled.clear();
 
@@ -2010,93 +2119,62 @@ public class ServerModel implements BatchVisitor, HttpServiceRuntime, ReportView
 			for (ServletContextModel sc : contextsOfDisabledModel) {
 				String cp = sc.getContextPath();
 
-				// name conflict check
-				for (FilterModel enabled : currentlyEnabledByPath.get(cp).keySet()) {
-					boolean nameConflict = haveAnyNameConflict(disabled.getName(), enabled.getName(), disabled, enabled);
-					if (nameConflict) {
-						// name conflict with existing, enabled model. BUT currently disabled model may have
-						// higher ranking...
-						if (disabled.compareTo(enabled) < 0) {
-							// still can be enabled (but we have to check everything) and currently disabled
-							// may potentially get disabled
-							newlyDisabled.add(enabled);
-						} else {
-							canBeEnabled = false;
-							break;
-						}
+				// name conflict check - enabled model with the same name in the same context
+				FilterModel enabled = currentlyEnabledByName.get(cp).get(disabled.getName());
+				if (enabled != null) {
+					// name conflict with existing, enabled model. BUT currently disabled model may have
+					// higher ranking...
+					if (disabled.compareTo(enabled) < 0) {
+						// still can be enabled (but we have to check everything) and currently disabled
+						// may potentially get disabled
+						newlyDisabled.add(enabled);
+					} else {
+						canBeEnabled = false;
+						break;
 					}
 				}
-				if (!canBeEnabled) {
-					break;
-				}
 			} // end of check for the conflicts in all the contexts
 
 			// disabled model can be enabled again - in all its contexts
 			if (canBeEnabled) {
-				newlyDisabled.forEach(model -> {
+				currentlyDisabled.remove(disabled);
+				for (ServletContextModel sc : contextsOfDisabledModel) {
+					currentlyDisabledByName.get(sc.getContextPath()).get(disabled.getName()).remove(disabled);
+				}
+
+				for (FilterModel model : newlyDisabled) {
 					// disable the one that has lost
 					batch.disableFilterModel(model);
 
 					// and forget about it in the snapshot
-					getServletContextModels(model).forEach(scm -> {
-						currentlyEnabledByPath.get(scm.getContextPath()).remove(model);
-					});
+					for (ServletContextModel scm : getServletContextModels(model)) {
+						String cp = scm.getContextPath();
+						currentlyEnabledByPath.get(cp).remove(model);
+						currentlyEnabledByName.get(cp).remove(model.getName(), model);
+
+						// disabled models waiting for this name in this context have to be checked again
+						Set<FilterModel> waiting = currentlyDisabledByName.getOrDefault(cp, Collections.emptyMap())
+								.get(model.getName());
+						if (waiting != null) {
+							toCheck.addAll(waiting);
+						}
+					}
 
 					// do NOT add newlyDisabled to "currentlyDisabled" - we don't want to check if they can be enabled!
-				});
+				}
 
 				// update the snapshot - newly enabled model should be visible as the one registered
 				for (ServletContextModel sc : contextsOfDisabledModel) {
 					currentlyEnabledByPath.get(sc.getContextPath()).put(disabled, null);
+					currentlyEnabledByName.get(sc.getContextPath()).put(disabled.getName(), disabled);
 				}
 				if (modelToEnable != null && modelToEnable.equals(disabled)) {
 					batch.addFilterModel(disabled);
 				} else {
 					batch.enableFilterModel(disabled);
 				}
-				// remove - to check if our new model should later be added as disabled
-				iterator.remove();
-				change = true;
-			}
-			if (change) {
-				// exit the loop (leaving some currently disabled models not checked) and get ready for recursion
-				break;
 			}
-		} // end of "for" loop that checks all currently disabled models that can potentially be enabled
-
-		if (change) {
-			reEnableFilterModels(currentlyDisabled, currentlyEnabledByPath, modelToEnable, batch);
-		}
-	}
-
-	/**
-	 * Check conflict between named models. Name conflict is not a problem if it occurs in disjoint sets of
-	 * target servlet contexts. In other words, we can't have servlet "s1" registered in "/c1" and "/c2" and allow
-	 * registration of another "s1" servlet in "/c2". However it could be possible if "s1" was originally registered
-	 * only in "/c1".
-	 *
-	 * @param name1
-	 * @param name2
-	 * @param model1
-	 * @param model2
-	 * @param <T>
-	 * @return
-	 */
-	private <T, D extends WebElementEventData> boolean haveAnyNameConflict(String name1, String name2,
-			ElementModel<T, D> model1, ElementModel<T, D> model2) {
-		// if one model has name conflict with other model, check whether the conflict
-		// is in disjoint servlet contexts
-		if (name1.equals(name2)) {
-			for (ServletContextModel sc1 : getServletContextModels(model1)) {
-				for (ServletContextModel sc2 : getServletContextModels(model2)) {
-					if (sc1.equals(sc2)) {
-						return true;
-					}
-				}
-			}
-		}
-
-		return false;
+		} // end of the loop that checks all currently disabled models that can potentially be enabled
 	}
 
 	@PaxWebConfiguration
@@ -2222,18 +2300,19 @@ public class ServerModel implements BatchVisitor, HttpServiceRuntime, ReportView
 			}
 
 			currentlyEnabledByPath.put(path, enabledErrorPages);
+		});
 
-			// newlyDisabled are scheduled for disabling (in batch), so let's remove them from the snapshot
-			if (newlyDisabled != null) {
-				newlyDisabled.forEach(epm -> {
-					getServletContextModels(epm).forEach(scm2 -> {
-						if (scm.equals(scm2)) {
-							enabledErrorPages.remove(epm);
-						}
-					});
+		// newlyDisabled are scheduled for disabling (in batch), so let's remove them from the snapshot
+		if (newlyDisabled != null) {
+			newlyDisabled.forEach(epm -> {
+				getServletContextModels(epm).forEach(scm -> {
+					TreeMap<ErrorPageModel, List<OsgiContextModel>> enabledErrorPages = currentlyEnabledByPath.get(scm.getContextPath());
+					if (enabledErrorPages != null) {
+						enabledErrorPages.remove(epm);
+					}
 				});
-			}
-		});
+			});
+		}
 
 		// newlyAdded is for now only "offered" to be registered as active, because if new model causes
 		// disabling of existing model, other (disabled) model may be better than the newly registered one
@@ -2256,14 +2335,30 @@ public class ServerModel implements BatchVisitor, HttpServiceRuntime, ReportView
 	 */
 	private void reEnableErrorPageModels(Set<ErrorPageModel> currentlyDisabled,
 			Map<String, TreeMap<ErrorPageModel, List<OsgiContextModel>>> currentlyEnabledByPath, ErrorPageModel modelToEnable, Batch batch) {
+		// index of enabled error page models by error page description (code, wildcard, FQCN of exception class)
+		// maintained together with the snapshot, so conflict check is a lookup for each page of the checked model
+		Map<String, Map<String, Set<ErrorPageModel>>> currentlyEnabledByPage = new HashMap<>();
+		currentlyEnabledByPath.forEach((cp, models) -> {
+			Map<String, Set<ErrorPageModel>> byPage = new HashMap<>();
+			models.keySet().forEach(epm -> indexErrorPages(byPage, epm));
+			currentlyEnabledByPage.put(cp, byPage);
+		});
 
+		// the same index of disabled models. A disabled model that can't be enabled now, may be enabled only after
+		// a conflicting model is disabled in one of its contexts - only then it has to be checked again
+		Map<String, Map<String, Set<ErrorPageModel>>> currentlyDisabledByPage = new HashMap<>();
+		for (ErrorPageModel disabled : currentlyDisabled) {
+			for (ServletContextModel sc : getServletContextModels(disabled)) {
+				indexErrorPages(currentlyDisabledByPage.computeIfAbsent(sc.getContextPath(), cp -> new HashMap<>()), disabled);
+			}
+		}
+
+		// models to check - always the highest ranked one first
+		TreeSet<ErrorPageModel> toCheck = new TreeSet<>(currentlyDisabled);
 		Set<ErrorPageModel> newlyDisabled = new LinkedHashSet<>();
-		boolean change = false;
 
-		// reviewed using TreeSet, i.e., by proper ranking
-		for (Iterator<ErrorPageModel> iterator = currentlyDisabled.iterator(); iterator.hasNext(); ) {
-			// this is the highest ranked, currently disabled error page model
-			ErrorPageModel disabled = iterator.next();
+		ErrorPageModel disabled;
+		while ((disabled = toCheck.pollFirst()) != null) {
 			boolean canBeEnabled = true;
 			newlyDisabled.clear();
 
@@ -2273,28 +2368,22 @@ public class ServerModel implements BatchVisitor, HttpServiceRuntime, ReportView
 				String cp = sc.getContextPath();
 
 				// conflict check by error page description (code, wildcard, fqcn of exception class)
-				for (ErrorPageModel enabled : currentlyEnabledByPath.get(cp).keySet()) {
-					boolean conflict = false;
-					for (String page1 : disabled.getErrorPages()) {
-						for (String page2 : enabled.getErrorPages()) {
-							if (page1.equals(page2)) {
-								conflict = true;
-								break;
-							}
-						}
-						if (conflict) {
-							break;
-						}
+				Map<String, Set<ErrorPageModel>> byPage = currentlyEnabledByPage.get(cp);
+				Set<ErrorPageModel> conflicting = new TreeSet<>();
+				for (String page : disabled.getErrorPages()) {
+					Set<ErrorPageModel> enabledForPage = byPage.get(page);
+					if (enabledForPage != null) {
+						conflicting.addAll(enabledForPage);
 					}
-					if (conflict) {
-						// conflict with existing, enabled model. BUT currently disabled model may have
-						// higher ranking...
-						if (disabled.compareTo(enabled) < 0) {
-							newlyDisabled.add(enabled);
-						} else {
-							canBeEnabled = false;
-							break;
-						}
+				}
+				for (ErrorPageModel enabled : conflicting) {
+					// conflict with existing, enabled model. BUT currently disabled model may have
+					// higher ranking...
+					if (disabled.compareTo(enabled) < 0) {
+						newlyDisabled.add(enabled);
+					} else {
+						canBeEnabled = false;
+						break;
 					}
 				}
 				if (!canBeEnabled) {
@@ -2304,46 +2393,65 @@ public class ServerModel implements BatchVisitor, HttpServiceRuntime, ReportView
 
 			// disabled model can be enabled again - in all its contexts
 			if (canBeEnabled) {
-				newlyDisabled.forEach(model -> {
+				currentlyDisabled.remove(disabled);
+				for (ServletContextModel sc : contextsOfDisabledModel) {
+					unindexErrorPages(currentlyDisabledByPage.get(sc.getContextPath()), disabled);
+				}
+
+				for (ErrorPageModel model : newlyDisabled) {
 					// disable the one that has lost
 					batch.disableErrorPageModel(model);
 
 					// and forget about it in the snapshot
-					getServletContextModels(model).forEach(scm -> {
-						currentlyEnabledByPath.get(scm.getContextPath()).remove(model);
-					});
+					for (ServletContextModel scm : getServletContextModels(model)) {
+						String cp = scm.getContextPath();
+						currentlyEnabledByPath.get(cp).remove(model);
+						unindexErrorPages(currentlyEnabledByPage.get(cp), model);
+
+						// disabled models waiting for any of these pages in this context have to be checked again
+						Map<String, Set<ErrorPageModel>> waiting = currentlyDisabledByPage.get(cp);
+						if (waiting != null) {
+							for (String page : model.getErrorPages()) {
+								toCheck.addAll(waiting.getOrDefault(page, Collections.emptySet()));
+							}
+						}
+					}
 
 					// do NOT add newlyDisabled to "currentlyDisabled" - we don't want to check if they can be enabled!
-				});
+				}
 
 				// update the snapshot - newly enabled model should be visible as the one registered
 				for (ServletContextModel sc : contextsOfDisabledModel) {
 					currentlyEnabledByPath.get(sc.getContextPath()).put(disabled, null);
+					indexErrorPages(currentlyEnabledByPage.get(sc.getContextPath()), disabled);
 				}
 				if (modelToEnable != null && modelToEnable.equals(disabled)) {
 					batch.addErrorPageModel(disabled);
 				} else {
 					batch.enableErrorPageModel(disabled);
 				}
-				// remove - to check if our new model should later be added as disabled
-				iterator.remove();
-				change = true;
 			}
+		} // end of the loop that checks all currently disabled models that can potentially be enabled
 
-			// if model to enable is still in the collection of currently disabled ones, it has to be added
-			// as disabled - just to know it was registered!
-			if (modelToEnable != null && currentlyDisabled.contains(modelToEnable)) {
-				batch.addDisabledErrorPageModel(modelToEnable);
-			}
+		// if model to enable is still in the collection of currently disabled ones, it has to be added
+		// as disabled - just to know it was registered!
+		if (modelToEnable != null && currentlyDisabled.contains(modelToEnable)) {
+			batch.addDisabledErrorPageModel(modelToEnable);
+		}
+	}
 
-			if (change) {
-				// exit the loop (leaving some currently disabled models not checked) and get ready for recursion
-				break;
-			}
-		} // end of "for" loop that checks all currently disabled models that can potentially be enabled
+	private void indexErrorPages(Map<String, Set<ErrorPageModel>> byPage, ErrorPageModel model) {
+		for (String page : model.getErrorPages()) {
+			byPage.computeIfAbsent(page, p -> new HashSet<>()).add(model);
+		}
+	}
 
-		if (change) {
-			reEnableErrorPageModels(currentlyDisabled, currentlyEnabledByPath, modelToEnable, batch);
+	private void unindexErrorPages(Map<String, Set<ErrorPageModel>> byPage, ErrorPageModel model) {
+		for (String page : model.getErrorPages()) {
+			Set<ErrorPageModel> models = byPage.get(page);
+			if (models != null && models.remove(model) && models.isEmpty()) {
+				byPage.remove(page);
+			}
 		}
 	}
 
@@ -2674,9 +2782,13 @@ public class ServerModel implements BatchVisitor, HttpServiceRuntime, ReportView
 				disassociateHttpContext(model.getDirectHttpContextInstance(), model);
 				break;
 			}
-			case ADD:
 			case DELETE:
-				// actuall it's NOOP at ServerModel level
+				// only the metrics are kept at ServerModel level
+				RequestMetricsRegistry.remove(change.getOsgiContextModel());
+				break;
+			case ADD:
+				// only the metrics are kept at ServerModel level
+				RequestMetricsRegistry.add(change.getOsgiContextModel());
 				break;
 			default:
 				break;
@@ -2714,6 +2826,7 @@ public class ServerModel implements BatchVisitor, HttpServiceRuntime, ReportView
 					servlets.put(model.getServlet(), model);
 				}
 				servletsForDTO.add(model);
+				RequestMetricsRegistry.add(model);
 				break;
 			}
 			case DELETE: {
@@ -2721,6 +2834,7 @@ public class ServerModel implements BatchVisitor, HttpServiceRuntime, ReportView
 
 				models.forEach(model -> {
 					servletsForDTO.remove(model);
+					RequestMetricsRegistry.remove(model);
 					if (model.getServlet() != null) {
 						servlets.remove(model.getServlet(), model);
 					}
@@ -3106,224 +3220,219 @@ public class ServerModel implements BatchVisitor, HttpServiceRuntime, ReportView
 
 	@Override
 	public RuntimeDTO getRuntimeDTO() {
-		return runSilently(() -> {
-			RuntimeDTO dto = new RuntimeDTO();
+		// when no configuration task was executed since last call, there's no need to visit the model again
+		RuntimeDTOSnapshot snapshot = runtimeDTOSnapshot;
+		if (snapshot == null || snapshot.getVersion() != modelVersion.get()) {
+			snapshot = runSilently(this::createRuntimeDTOSnapshot, false);
+			if (snapshot == null) {
+				return null;
+			}
+		}
 
-			// --- service information
+		// --- service information
 
-			dto.serviceDTO = new ServiceReferenceDTO();
-			dto.serviceDTO.id = httpServiceRuntimeDTO.id;
-			dto.serviceDTO.bundle = httpServiceRuntimeDTO.bundle;
-			dto.serviceDTO.usingBundles = Arrays.stream(httpServiceRuntimeReg.getReference().getUsingBundles())
-					.mapToLong(Bundle::getBundleId).toArray();
-			dto.serviceDTO.properties = new HashMap<>(httpServiceRuntimeDTO.properties);
-			dto.serviceDTO.properties.put("service.changecount", changeCount.get());
-			// osgi.http.endpoint will be updated by org.ops4j.pax.web.service.internal.Activator.AddressConfiguration
+		ServiceReferenceDTO serviceDTO = new ServiceReferenceDTO();
+		serviceDTO.id = httpServiceRuntimeDTO.id;
+		serviceDTO.bundle = httpServiceRuntimeDTO.bundle;
+		serviceDTO.usingBundles = Arrays.stream(httpServiceRuntimeReg.getReference().getUsingBundles())
+				.mapToLong(Bundle::getBundleId).toArray();
+		serviceDTO.properties = new HashMap<>(httpServiceRuntimeDTO.properties);
+		serviceDTO.properties.put("service.changecount", changeCount.get());
+		// osgi.http.endpoint will be updated by org.ops4j.pax.web.service.internal.Activator.AddressConfiguration
 
-			// --- context information
+		return snapshot.toRuntimeDTO(serviceDTO);
+	}
 
-			Map<OsgiContextModel, ServletContextDTO> scDTOs = new LinkedHashMap<>();
-			List<FailedServletContextDTO> failedScDTOs = new ArrayList<>();
+	/**
+	 * Creates new {@link RuntimeDTOSnapshot} for current version of the model. {@link ServletContextDTO}
+	 * (with nested DTOs) from previous snapshot is reused if the context and its elements didn't change.
+	 * Should be called in configuration thread.
+	 * @return
+	 */
+	private RuntimeDTOSnapshot createRuntimeDTOSnapshot() {
+		long version = modelVersion.get();
+		RuntimeDTO dto = new RuntimeDTO();
 
-			// OsgiContextModels from WABs - we don't care about contexts "awaiting allocation"
-			bundleWabAllocatedContexts.values().forEach(ocm -> {
-				scDTOs.put(ocm, ocm.toDTO());
-			});
-			// OsgiContextModels from HttpService/WebContainer (including Whiteboard ones with direct context instance)
-			// including non-failed ones and failed (usually shaded - set elements from 2nd to the end)
-			bundleContexts.values().forEach(ocms -> {
-				boolean first = true;
-				for (OsgiContextModel ocm : ocms) {
-					if (first) {
-						scDTOs.put(ocm, ocm.toDTO());
-					} else {
-						failedScDTOs.add(ocm.toFailedDTO(DTOConstants.FAILURE_REASON_SHADOWED_BY_OTHER_SERVICE));
-					}
-					first = false;
-				}
-			});
-			// HttpService/WebContainer which are shaded by Whiteboard-registered contexts with direct instance
-			bundleDefaultContexts.values().forEach(ocm -> {
-				failedScDTOs.add(ocm.toFailedDTO(DTOConstants.FAILURE_REASON_SHADOWED_BY_OTHER_SERVICE));
-			});
-			// OsgiContextModels from Whiteboard (excluding ones with direct context instance) - failed and non-failed
-			// they're not kept at ServerModel level at all
-			whiteboardContexts.values().stream().flatMap(Collection::stream).forEach(ocm -> {
-				if (ocm.getDtoFailureCode() >= 0) {
-					failedScDTOs.add(ocm.toFailedDTO(ocm.getDtoFailureCode()));
+		// --- context information
+
+		Map<OsgiContextModel, RuntimeDTOSnapshot.ContextElements> scElements = new LinkedHashMap<>();
+		List<FailedServletContextDTO> failedScDTOs = new ArrayList<>();
+
+		// OsgiContextModels from WABs - we don't care about contexts "awaiting allocation"
+		bundleWabAllocatedContexts.values().forEach(ocm -> {
+			scElements.put(ocm, new RuntimeDTOSnapshot.ContextElements());
+		});
+		// OsgiContextModels from HttpService/WebContainer (including Whiteboard ones with direct context instance)
+		// including non-failed ones and failed (usually shaded - set elements from 2nd to the end)
+		bundleContexts.values().forEach(ocms -> {
+			boolean first = true;
+			for (OsgiContextModel ocm : ocms) {
+				if (first) {
+					scElements.put(ocm, new RuntimeDTOSnapshot.ContextElements());
 				} else {
-					scDTOs.put(ocm, ocm.toDTO());
+					failedScDTOs.add(ocm.toFailedDTO(DTOConstants.FAILURE_REASON_SHADOWED_BY_OTHER_SERVICE));
 				}
-			});
-			// we don't care about shared HttpService/WebContainer contexts as these are Pax Web specific
-
-			dto.servletContextDTOs = scDTOs.values().toArray(new ServletContextDTO[0]);
-			dto.failedServletContextDTOs = failedScDTOs.toArray(new FailedServletContextDTO[0]);
-
-			// --- element information
-			//     successful DTOs are attached to one of the ServletContextDTO
-			//     failed DTOs are attached directly to the RuntimeDTO
-
-			Map<ServletContextDTO, List<ErrorPageDTO>> scErrorPages = new IdentityHashMap<>();
-			Map<ServletContextDTO, List<FilterDTO>> scFilters = new IdentityHashMap<>();
-			Map<ServletContextDTO, List<ListenerDTO>> scListeners = new IdentityHashMap<>();
-			List<PreprocessorDTO> preprocessorDTOs = new ArrayList<>();
-			Map<ServletContextDTO, List<ResourceDTO>> scResources = new IdentityHashMap<>();
-			Map<ServletContextDTO, List<ServletDTO>> scServlets = new IdentityHashMap<>();
-
-			for (ServletContextDTO scDTO : dto.servletContextDTOs) {
-				scErrorPages.put(scDTO, new ArrayList<>());
-				scFilters.put(scDTO, new ArrayList<>());
-				scListeners.put(scDTO, new ArrayList<>());
-				scResources.put(scDTO, new ArrayList<>());
-				scServlets.put(scDTO, new ArrayList<>());
-			}
-
-			List<FailedErrorPageDTO> failedErrorPageDTOs = new ArrayList<>();
-			List<FailedFilterDTO> failedFilterDTOs = new ArrayList<>();
-			List<FailedListenerDTO> failedListenerDTOs = new ArrayList<>();
-			List<FailedPreprocessorDTO> failedPreprocessorDTOs = new ArrayList<>();
-			List<FailedResourceDTO> failedResourceDTOs = new ArrayList<>();
-			List<FailedServletDTO> failedServletDTOs = new ArrayList<>();
-
-			// ------ servlets, resources and error pages
-			this.servletsForDTO.forEach(sm -> {
-				if (sm.isResourceServlet()) {
-					if (!sm.isValid()) {
-						failedResourceDTOs.add(sm.toFailedResourceDTO(sm.getDtoFailureCode()));
-						return;
-					}
-				} else if (sm.getErrorPageModel() != null) {
-					if (!sm.getErrorPageModel().isValid()) {
-						failedErrorPageDTOs.add(sm.getErrorPageModel().toFailedDTO(sm, sm.getErrorPageModel().getDtoFailureCode()));
-						return;
-					}
-				} else if (!sm.isValid()) {
-					failedServletDTOs.add(sm.toFailedServletDTO(sm.getDtoFailureCode()));
+				first = false;
+			}
+		});
+		// HttpService/WebContainer which are shaded by Whiteboard-registered contexts with direct instance
+		bundleDefaultContexts.values().forEach(ocm -> {
+			failedScDTOs.add(ocm.toFailedDTO(DTOConstants.FAILURE_REASON_SHADOWED_BY_OTHER_SERVICE));
+		});
+		// OsgiContextModels from Whiteboard (excluding ones with direct context instance) - failed and non-failed
+		// they're not kept at ServerModel level at all
+		whiteboardContexts.values().stream().flatMap(Collection::stream).forEach(ocm -> {
+			if (ocm.getDtoFailureCode() >= 0) {
+				failedScDTOs.add(ocm.toFailedDTO(ocm.getDtoFailureCode()));
+			} else {
+				scElements.put(ocm, new RuntimeDTOSnapshot.ContextElements());
+			}
+		});
+		// we don't care about shared HttpService/WebContainer contexts as these are Pax Web specific
+
+		dto.failedServletContextDTOs = failedScDTOs.toArray(new FailedServletContextDTO[0]);
+
+		// --- element information
+		//     successful elements are collected for one of the ServletContextDTO
+		//     failed DTOs are attached directly to the RuntimeDTO
+
+		List<PreprocessorDTO> preprocessorDTOs = new ArrayList<>();
+
+		List<FailedErrorPageDTO> failedErrorPageDTOs = new ArrayList<>();
+		List<FailedFilterDTO> failedFilterDTOs = new ArrayList<>();
+		List<FailedListenerDTO> failedListenerDTOs = new ArrayList<>();
+		List<FailedPreprocessorDTO> failedPreprocessorDTOs = new ArrayList<>();
+		List<FailedResourceDTO> failedResourceDTOs = new ArrayList<>();
+		List<FailedServletDTO> failedServletDTOs = new ArrayList<>();
+
+		// ------ servlets, resources and error pages
+		this.servletsForDTO.forEach(sm -> {
+			if (sm.isResourceServlet()) {
+				if (!sm.isValid()) {
+					failedResourceDTOs.add(sm.toFailedResourceDTO(sm.getDtoFailureCode()));
+					return;
+				}
+			} else if (sm.getErrorPageModel() != null) {
+				if (!sm.getErrorPageModel().isValid()) {
+					failedErrorPageDTOs.add(sm.getErrorPageModel().toFailedDTO(sm, sm.getErrorPageModel().getDtoFailureCode()));
 					return;
 				}
+			} else if (!sm.isValid()) {
+				failedServletDTOs.add(sm.toFailedServletDTO(sm.getDtoFailureCode()));
+				return;
+			}
 
-				// case of valid models
-				sm.getContextModels().forEach(ocm -> {
-					if (sm.isResourceServlet()) {
-						scResources.get(scDTOs.get(ocm)).add(sm.toResourceDTO());
-					} else if (sm.getErrorPageModel() != null) {
-						scErrorPages.get(scDTOs.get(ocm)).add(sm.getErrorPageModel().toDTO(sm));
-					} else {
-						scServlets.get(scDTOs.get(ocm)).add(sm.toServletDTO());
-					}
-				});
-			});
-			this.disabledServletModels.forEach(sm -> {
+			// case of valid models
+			sm.getContextModels().forEach(ocm -> {
 				if (sm.isResourceServlet()) {
-					failedResourceDTOs.add(sm.toFailedResourceDTO(DTOConstants.FAILURE_REASON_SHADOWED_BY_OTHER_SERVICE));
+					scElements.get(ocm).resources.add(sm);
 				} else if (sm.getErrorPageModel() != null) {
-					failedErrorPageDTOs.add(sm.getErrorPageModel().toFailedDTO(sm, DTOConstants.FAILURE_REASON_SHADOWED_BY_OTHER_SERVICE));
+					scElements.get(ocm).errorPages.add(sm);
 				} else {
-					failedServletDTOs.add(sm.toFailedServletDTO(DTOConstants.FAILURE_REASON_SHADOWED_BY_OTHER_SERVICE));
+					scElements.get(ocm).servlets.add(sm);
 				}
 			});
-			this.disabledErrorPageModels.forEach(epm -> {
-				failedErrorPageDTOs.add(epm.toFailedDTO(null, DTOConstants.FAILURE_REASON_SHADOWED_BY_OTHER_SERVICE));
-			});
-			// ------ filters and preprocessors
-			this.filtersForDTO.forEach(fm -> {
-				if (!fm.isValid()) {
-					if (fm.isPreprocessor()) {
-						failedPreprocessorDTOs.add(fm.toFailedPreprocessorDTO(fm.getDtoFailureCode()));
-					} else {
-						failedFilterDTOs.add(fm.toFailedFilterDTO(fm.getDtoFailureCode()));
-					}
-				} else {
-					fm.getContextModels().forEach(ocm -> {
-						if (fm.isPreprocessor()) {
-							// diagram Figure 140.3 Runtime DTO Overview Diagram is wrong, because
-							// PreprocessorDTOs are kept at RuntimeDTO level
-							preprocessorDTOs.add(fm.toPreprocessorDTO());
-						} else {
-							// only preprocessors are associated (according to Whiteboard DTO chapter) with
-							// any context - even if in Pax Web they're associated with ALL the contexts
-							scFilters.get(scDTOs.get(ocm)).add(fm.toFilterDTO());
-						}
-					});
-				}
-			});
-			this.disabledFilterModels.forEach(fm -> {
+		});
+		this.disabledServletModels.forEach(sm -> {
+			if (sm.isResourceServlet()) {
+				failedResourceDTOs.add(sm.toFailedResourceDTO(DTOConstants.FAILURE_REASON_SHADOWED_BY_OTHER_SERVICE));
+			} else if (sm.getErrorPageModel() != null) {
+				failedErrorPageDTOs.add(sm.getErrorPageModel().toFailedDTO(sm, DTOConstants.FAILURE_REASON_SHADOWED_BY_OTHER_SERVICE));
+			} else {
+				failedServletDTOs.add(sm.toFailedServletDTO(DTOConstants.FAILURE_REASON_SHADOWED_BY_OTHER_SERVICE));
+			}
+		});
+		this.disabledErrorPageModels.forEach(epm -> {
+			failedErrorPageDTOs.add(epm.toFailedDTO(null, DTOConstants.FAILURE_REASON_SHADOWED_BY_OTHER_SERVICE));
+		});
+		// ------ filters and preprocessors
+		this.filtersForDTO.forEach(fm -> {
+			if (!fm.isValid()) {
 				if (fm.isPreprocessor()) {
-					failedPreprocessorDTOs.add(fm.toFailedPreprocessorDTO(DTOConstants.FAILURE_REASON_SHADOWED_BY_OTHER_SERVICE));
-				} else {
-					failedFilterDTOs.add(fm.toFailedFilterDTO(DTOConstants.FAILURE_REASON_SHADOWED_BY_OTHER_SERVICE));
-				}
-			});
-			// ------ listeners
-			this.eventListenersForDTO.forEach(lm -> {
-				if (!lm.isValid()) {
-					failedListenerDTOs.add(lm.toFailedDTO(lm.getDtoFailureCode()));
+					failedPreprocessorDTOs.add(fm.toFailedPreprocessorDTO(fm.getDtoFailureCode()));
 				} else {
-					lm.getContextModels().forEach(ocm -> {
-						scListeners.get(scDTOs.get(ocm)).add(lm.toDTO());
-					});
+					failedFilterDTOs.add(fm.toFailedFilterDTO(fm.getDtoFailureCode()));
 				}
-			});
-			// ------ failed Whiteboard elements
-			this.failedWhiteboardElements.forEach(em -> {
-				if (em instanceof ErrorPageModel) {
-					failedErrorPageDTOs.add(((ErrorPageModel) em).toFailedDTO(null, em.getDtoFailureCode()));
-				} else if (em instanceof FilterModel) {
-					if (((FilterModel) em).isPreprocessor()) {
-						failedPreprocessorDTOs.add(((FilterModel) em).toFailedPreprocessorDTO(em.getDtoFailureCode()));
-					} else {
-						failedFilterDTOs.add(((FilterModel) em).toFailedFilterDTO(em.getDtoFailureCode()));
-					}
-				} else if (em instanceof EventListenerModel) {
-					failedListenerDTOs.add(((EventListenerModel) em).toFailedDTO(em.getDtoFailureCode()));
-				} else if (em instanceof ServletModel) {
-					if (((ServletModel) em).isResourceServlet()) {
-						failedResourceDTOs.add(((ServletModel) em).toFailedResourceDTO(em.getDtoFailureCode()));
-					} else if (((ServletModel) em).getErrorPageModel() != null) {
-						failedErrorPageDTOs.add(((ServletModel) em).getErrorPageModel().toFailedDTO((ServletModel) em,
-								((ServletModel) em).getErrorPageModel().getDtoFailureCode()));
+			} else {
+				fm.getContextModels().forEach(ocm -> {
+					if (fm.isPreprocessor()) {
+						// diagram Figure 140.3 Runtime DTO Overview Diagram is wrong, because
+						// PreprocessorDTOs are kept at RuntimeDTO level
+						preprocessorDTOs.add(fm.toPreprocessorDTO());
 					} else {
-						failedServletDTOs.add(((ServletModel) em).toFailedServletDTO(em.getDtoFailureCode()));
+						// only preprocessors are associated (according to Whiteboard DTO chapter) with
+						// any context - even if in Pax Web they're associated with ALL the contexts
+						scElements.get(ocm).filters.add(fm);
 					}
+				});
+			}
+		});
+		this.disabledFilterModels.forEach(fm -> {
+			if (fm.isPreprocessor()) {
+				failedPreprocessorDTOs.add(fm.toFailedPreprocessorDTO(DTOConstants.FAILURE_REASON_SHADOWED_BY_OTHER_SERVICE));
+			} else {
+				failedFilterDTOs.add(fm.toFailedFilterDTO(DTOConstants.FAILURE_REASON_SHADOWED_BY_OTHER_SERVICE));
+			}
+		});
+		// ------ listeners
+		this.eventListenersForDTO.forEach(lm -> {
+			if (!lm.isValid()) {
+				failedListenerDTOs.add(lm.toFailedDTO(lm.getDtoFailureCode()));
+			} else {
+				lm.getContextModels().forEach(ocm -> {
+					scElements.get(ocm).listeners.add(lm);
+				});
+			}
+		});
+		// ------ failed Whiteboard elements
+		this.failedWhiteboardElements.forEach(em -> {
+			if (em instanceof ErrorPageModel) {
+				failedErrorPageDTOs.add(((ErrorPageModel) em).toFailedDTO(null, em.getDtoFailureCode()));
+			} else if (em instanceof FilterModel) {
+				if (((FilterModel) em).isPreprocessor()) {
+					failedPreprocessorDTOs.add(((FilterModel) em).toFailedPreprocessorDTO(em.getDtoFailureCode()));
+				} else {
+					failedFilterDTOs.add(((FilterModel) em).toFailedFilterDTO(em.getDtoFailureCode()));
+				}
+			} else if (em instanceof EventListenerModel) {
+				failedListenerDTOs.add(((EventListenerModel) em).toFailedDTO(em.getDtoFailureCode()));
+			} else if (em instanceof ServletModel) {
+				if (((ServletModel) em).isResourceServlet()) {
+					failedResourceDTOs.add(((ServletModel) em).toFailedResourceDTO(em.getDtoFailureCode()));
+				} else if (((ServletModel) em).getErrorPageModel() != null) {
+					failedErrorPageDTOs.add(((ServletModel) em).getErrorPageModel().toFailedDTO((ServletModel) em,
+							((ServletModel) em).getErrorPageModel().getDtoFailureCode()));
+				} else {
+					failedServletDTOs.add(((ServletModel) em).toFailedServletDTO(em.getDtoFailureCode()));
 				}
-			});
+			}
+		});
 
-			for (ServletContextDTO scDTO : dto.servletContextDTOs) {
-				scDTO.errorPageDTOs = scErrorPages.get(scDTO).toArray(new ErrorPageDTO[0]);
-				for (ErrorPageDTO d : scDTO.errorPageDTOs) {
-					d.servletContextId = scDTO.serviceId;
-				}
-				scDTO.filterDTOs = scFilters.get(scDTO).toArray(new FilterDTO[0]);
-				for (FilterDTO d : scDTO.filterDTOs) {
-					d.servletContextId = scDTO.serviceId;
-				}
-				// this should work according to Figure 140.3 Runtime DTO Overview Diagram...
-//				scDTO.preprocessorDTOs = scPreprocessors.get(scDTO).toArray(new PreprocessorDTO[0]);
-				scDTO.listenerDTOs = scListeners.get(scDTO).toArray(new ListenerDTO[0]);
-				for (ListenerDTO d : scDTO.listenerDTOs) {
-					d.servletContextId = scDTO.serviceId;
-				}
-				scDTO.servletDTOs = scServlets.get(scDTO).toArray(new ServletDTO[0]);
-				for (ServletDTO d : scDTO.servletDTOs) {
-					d.servletContextId = scDTO.serviceId;
-				}
-				scDTO.resourceDTOs = scResources.get(scDTO).toArray(new ResourceDTO[0]);
-				for (ResourceDTO d : scDTO.resourceDTOs) {
-					d.servletContextId = scDTO.serviceId;
-				}
+		// ------ ServletContextDTOs - rebuilt only if the context or its elements have changed
+		Map<OsgiContextModel, RuntimeDTOSnapshot.ContextSnapshot> newContextSnapshots = new HashMap<>();
+		List<ServletContextDTO> scDTOs = new ArrayList<>(scElements.size());
+		scElements.forEach((ocm, elements) -> {
+			RuntimeDTOSnapshot.ContextSnapshot cs = contextDTOSnapshots.get(ocm);
+			if (cs == null || !cs.isValidFor(ocm, elements)) {
+				cs = RuntimeDTOSnapshot.ContextSnapshot.create(ocm, elements);
 			}
+			newContextSnapshots.put(ocm, cs);
+			scDTOs.add(cs.getDTO());
+		});
+		contextDTOSnapshots = newContextSnapshots;
 
-			dto.failedErrorPageDTOs = failedErrorPageDTOs.toArray(new FailedErrorPageDTO[0]);
-			dto.failedFilterDTOs = failedFilterDTOs.toArray(new FailedFilterDTO[0]);
-			dto.preprocessorDTOs = preprocessorDTOs.toArray(new PreprocessorDTO[0]);
-			dto.failedPreprocessorDTOs = failedPreprocessorDTOs.toArray(new FailedPreprocessorDTO[0]);
-			dto.failedListenerDTOs = failedListenerDTOs.toArray(new FailedListenerDTO[0]);
-			dto.failedResourceDTOs = failedResourceDTOs.toArray(new FailedResourceDTO[0]);
-			dto.failedServletDTOs = failedServletDTOs.toArray(new FailedServletDTO[0]);
+		dto.servletContextDTOs = scDTOs.toArray(new ServletContextDTO[0]);
+		dto.failedErrorPageDTOs = failedErrorPageDTOs.toArray(new FailedErrorPageDTO[0]);
+		dto.failedFilterDTOs = failedFilterDTOs.toArray(new FailedFilterDTO[0]);
+		dto.preprocessorDTOs = preprocessorDTOs.toArray(new PreprocessorDTO[0]);
+		dto.failedPreprocessorDTOs = failedPreprocessorDTOs.toArray(new FailedPreprocessorDTO[0]);
+		dto.failedListenerDTOs = failedListenerDTOs.toArray(new FailedListenerDTO[0]);
+		dto.failedResourceDTOs = failedResourceDTOs.toArray(new FailedResourceDTO[0]);
+		dto.failedServletDTOs = failedServletDTOs.toArray(new FailedServletDTO[0]);
 
-			return dto;
-		}, false);
+		RuntimeDTOSnapshot snapshot = new RuntimeDTOSnapshot(version, dto);
+		runtimeDTOSnapshot = snapshot;
+		return snapshot;
 	}
 
 	@Override
@@ -3570,6 +3679,24 @@ public class ServerModel implements BatchVisitor, HttpServiceRuntime, ReportView
 		}
 	}
 
+	/**
+	 * Collects {@link RequestMetricsInfo} of the contexts for which {@link RequestMetricsRegistry} has
+	 * recorded any request.
+	 * @param metrics
+	 */
+	public void collectContextMetrics(Set<RequestMetricsInfo> metrics) {
+		RequestMetricsRegistry.getContextMetrics().forEach((ocm, m) -> metrics.add(new RequestMetricsInfo(ocm, m)));
+	}
+
+	/**
+	 * Collects {@link RequestMetricsInfo} of the servlets for which {@link RequestMetricsRegistry} has
+	 * recorded any request.
+	 * @param metrics
+	 */
+	public void collectServletMetrics(Set<RequestMetricsInfo> metrics) {
+		RequestMetricsRegistry.getServletMetrics().forEach((sm, m) -> metrics.add(new RequestMetricsInfo(sm, m)));
+	}
+
 	public void registerReportViewPlugin(ReportViewPlugin plugin) {
 		plugins.add(plugin);
 	}
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2026 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.web.service.spi.model.info;
+
+import org.ops4j.pax.web.service.spi.model.OsgiContextModel;
+import org.ops4j.pax.web.service.spi.servlet.OsgiServletContextClassLoader;
+
+/**
+ * A read-only snapshot of the statistics of one of the internal caches of the server runtime (like the lookup
+ * cache of {@link OsgiServletContextClassLoader}) used by a context.
+ */
+public class CacheStatisticsInfo implements Comparable<CacheStatisticsInfo> {
+
+	/** Name of the cache of {@link OsgiServletContextClassLoader} */
+	public static final String CLASS_LOADER = "ClassLoader";
+
+	/** Name of the cache of filter chains created for requests (used by Jetty) */
+	public static final String FILTER_CHAIN = "FilterChain";
+
+	private final String cache;
+	private final String contextPath;
+	private final String contextName;
+	private final String contextId;
+
+	private final long hits;
+	private final long misses;
+	private final long evictions;
+	private final long averageMissTime;
+
+	public CacheStatisticsInfo(OsgiContextModel model, OsgiServletContextClassLoader loader) {
+		this(CLASS_LOADER, model.getContextPath(), model, loader.getCacheHits(), loader.getCacheMisses(),
+				0L, loader.getAverageLookupTime());
+	}
+
+	/**
+	 * Creates the statistics of a cache.
+	 * @param cache name of the cache
+	 * @param contextPath path of the context using the cache
+	 * @param model the {@link OsgiContextModel}, if the cache is specific to one of the OSGi contexts
+	 *        with given {@code contextPath}
+	 * @param hits
+	 * @param misses
+	 * @param evictions
+	 * @param averageMissTime average time (in nanoseconds) needed to get a value not found in the cache
+	 *        or {@code 0} if not measured
+	 */
+	public CacheStatisticsInfo(String cache, String contextPath, OsgiContextModel model,
+			long hits, long misses, long evictions, long averageMissTime) {
+		this.cache = cache;
+		this.contextPath = contextPath;
+		this.contextName = model == null ? "" : model.getName();
+		this.contextId = model == null ? "" : model.getId();
+		this.hits = hits;
+		this.misses = misses;
+		this.evictions = evictions;
+		this.averageMissTime = averageMissTime;
+	}
+
+	public String getCache() {
+		return cache;
+	}
+
+	public String getContextPath() {
+		return contextPath;
+	}
+
+	public String getContextName() {
+		return contextName;
+	}
+
+	public String getContextId() {
+		return contextId;
+	}
+
+	public long getHits() {
+		return hits;
+	}
+
+	public long getMisses() {
+		return misses;
+	}
+
+	public long getEvictions() {
+		return evictions;
+	}
+
+	public long getAverageMissTime() {
+		return averageMissTime;
+	}
+
+	/**
+	 * Ratio of lookups answered from the cache ({@code 0.0} if there were no lookups yet).
+	 * @return
+	 */
+	public double getHitRatio() {
+		long total = hits + misses;
+		return total == 0L ? 0.0d : (double) hits / total;
+	}
+
+	@Override
+	public int compareTo(CacheStatisticsInfo other) {
+		// first - by context
+		int c = contextPath.compareTo(other.contextPath);
+		if (c != 0) {
+			return c;
+		}
+
+		// then by cache
+		c = cache.compareTo(other.cache);
+		if (c != 0) {
+			return c;
+		}
+
+		// then by the name of OSGi context
+		c = contextName.compareTo(other.contextName);
+		if (c != 0) {
+			return c;
+		}
+
+		// finally by ID
+		return contextId.compareTo(other.contextId);
+	}
+
+}
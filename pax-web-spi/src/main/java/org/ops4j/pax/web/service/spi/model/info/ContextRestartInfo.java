@@ -0,0 +1,87 @@
+/*
+ * Copyright 2026 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.web.service.spi.model.info;
+
+import org.ops4j.pax.web.service.spi.task.ContextRestartScheduler;
+
+/**
+ * A read-only snapshot of the statistics of context restarts debounced by {@link ContextRestartScheduler}.
+ */
+public class ContextRestartInfo {
+
+	private final long quietPeriod;
+	private final long requestedRestarts;
+	private final long performedRestarts;
+	private final long savedRestarts;
+
+	/**
+	 * Creates the statistics from given scheduler.
+	 * @param scheduler the scheduler of the server runtime or {@code null} if the runtime doesn't debounce
+	 *        context restarts - all the values are {@code 0} then
+	 */
+	public ContextRestartInfo(ContextRestartScheduler scheduler) {
+		if (scheduler == null) {
+			this.quietPeriod = 0L;
+			this.requestedRestarts = 0L;
+			this.performedRestarts = 0L;
+			this.savedRestarts = 0L;
+		} else {
+			this.quietPeriod = scheduler.getQuietPeriod();
+			this.requestedRestarts = scheduler.getRequestedRestarts();
+			this.performedRestarts = scheduler.getPerformedRestarts();
+			this.savedRestarts = scheduler.getSavedRestarts();
+		}
+	}
+
+	/**
+	 * Time (in milliseconds) without new restart requests after which a dirty context is started.
+	 * @return
+	 */
+	public long getQuietPeriod() {
+		return quietPeriod;
+	}
+
+	/**
+	 * Number of context stop/start cycles that would be performed without debouncing.
+	 * @return
+	 */
+	public long getRequestedRestarts() {
+		return requestedRestarts;
+	}
+
+	/**
+	 * Number of context stop/start cycles actually performed.
+	 * @return
+	 */
+	public long getPerformedRestarts() {
+		return performedRestarts;
+	}
+
+	/**
+	 * Number of context stop/start cycles avoided thanks to debouncing.
+	 * @return
+	 */
+	public long getSavedRestarts() {
+		return savedRestarts;
+	}
+
+	@Override
+	public String toString() {
+		return "ContextRestartInfo{quietPeriod=" + quietPeriod + "ms, requested=" + requestedRestarts
+				+ ", performed=" + performedRestarts + ", saved=" + savedRestarts + "}";
+	}
+
+}
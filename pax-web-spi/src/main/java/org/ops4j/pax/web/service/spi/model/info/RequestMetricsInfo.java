@@ -0,0 +1,130 @@
+/*
+ * Copyright 2026 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.web.service.spi.model.info;
+
+import org.ops4j.pax.web.service.spi.model.OsgiContextModel;
+import org.ops4j.pax.web.service.spi.model.elements.ServletModel;
+import org.ops4j.pax.web.service.spi.servlet.RequestMetrics;
+import org.ops4j.pax.web.service.spi.util.LatencyHistogram;
+
+/**
+ * A read-only snapshot of {@link RequestMetrics} of an {@link OsgiContextModel} or a {@link ServletModel}.
+ * Latencies are given in microseconds.
+ */
+public class RequestMetricsInfo implements Comparable<RequestMetricsInfo> {
+
+	private final String name;
+	private final String[] contexts;
+	private final String id;
+
+	private final long requestCount;
+	private final long errorCount;
+	private final long inFlight;
+
+	private final double meanLatency;
+	private final double p50Latency;
+	private final double p90Latency;
+	private final double p99Latency;
+	private final double maxLatency;
+
+	public RequestMetricsInfo(OsgiContextModel model, RequestMetrics metrics) {
+		this(model.getName(), new String[] { model.getContextPath() }, model.getId(), metrics);
+	}
+
+	public RequestMetricsInfo(ServletModel model, RequestMetrics metrics) {
+		this(model.getName(), model.getContextModels().stream().map(OsgiContextModel::getContextPath)
+				.distinct().toArray(String[]::new), model.getId(), metrics);
+	}
+
+	private RequestMetricsInfo(String name, String[] contexts, String id, RequestMetrics metrics) {
+		this.name = name;
+		this.contexts = contexts;
+		this.id = id;
+
+		this.requestCount = metrics.getRequestCount();
+		this.errorCount = metrics.getErrorCount();
+		this.inFlight = metrics.getInFlight();
+
+		LatencyHistogram latency = metrics.getLatency();
+		this.meanLatency = latency.getMean() / 1000.0d;
+		this.p50Latency = latency.getValueAtPercentile(50.0d) / 1000.0d;
+		this.p90Latency = latency.getValueAtPercentile(90.0d) / 1000.0d;
+		this.p99Latency = latency.getValueAtPercentile(99.0d) / 1000.0d;
+		this.maxLatency = latency.getMax() / 1000.0d;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public String[] getContexts() {
+		return contexts;
+	}
+
+	public String getId() {
+		return id;
+	}
+
+	public long getRequestCount() {
+		return requestCount;
+	}
+
+	public long getErrorCount() {
+		return errorCount;
+	}
+
+	public long getInFlight() {
+		return inFlight;
+	}
+
+	public double getMeanLatency() {
+		return meanLatency;
+	}
+
+	public double getP50Latency() {
+		return p50Latency;
+	}
+
+	public double getP90Latency() {
+		return p90Latency;
+	}
+
+	public double getP99Latency() {
+		return p99Latency;
+	}
+
+	public double getMaxLatency() {
+		return maxLatency;
+	}
+
+	@Override
+	public int compareTo(RequestMetricsInfo other) {
+		// first - by context
+		int c = String.join(",", contexts).compareTo(String.join(",", other.contexts));
+		if (c != 0) {
+			return c;
+		}
+
+		// then by name
+		if (!name.equals(other.name)) {
+			return name.compareTo(other.name);
+		}
+
+		// finally by ID
+		return id.compareTo(other.id);
+	}
+
+}
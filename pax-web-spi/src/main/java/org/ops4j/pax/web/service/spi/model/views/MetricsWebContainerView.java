@@ -0,0 +1,89 @@
+/*
+ * Copyright 2026 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.web.service.spi.model.views;
+
+import java.util.Set;
+
+import org.ops4j.pax.web.service.spi.model.info.CacheStatisticsInfo;
+import org.ops4j.pax.web.service.spi.model.info.ContextRestartInfo;
+import org.ops4j.pax.web.service.spi.model.info.RequestMetricsInfo;
+import org.ops4j.pax.web.service.views.PaxWebContainerView;
+
+/**
+ * <p>This {@link PaxWebContainerView view} gives access to request metrics recorded per
+ * {@link org.ops4j.pax.web.service.spi.model.OsgiContextModel} and per
+ * {@link org.ops4j.pax.web.service.spi.model.elements.ServletModel}. Similarly to
+ * {@link ReportWebContainerView} it's meant for Karaf commands and monitoring, but it allows to switch
+ * the recording at runtime.</p>
+ */
+public interface MetricsWebContainerView extends PaxWebContainerView {
+
+	/**
+	 * Checks whether request metrics are recorded.
+	 * @return
+	 */
+	boolean isMetricsEnabled();
+
+	/**
+	 * Switches recording of request metrics without restarting the runtime.
+	 * @param enabled
+	 */
+	void setMetricsEnabled(boolean enabled);
+
+	/**
+	 * Returns metrics of all the contexts that have handled at least one request since the recording was
+	 * enabled.
+	 * @return
+	 */
+	Set<RequestMetricsInfo> listContextMetrics();
+
+	/**
+	 * Returns metrics of all the servlets that have handled at least one request since the recording was
+	 * enabled.
+	 * @return
+	 */
+	Set<RequestMetricsInfo> listServletMetrics();
+
+	/**
+	 * Returns statistics of the internal caches of the server runtime, like the lookup caches of the
+	 * {@link org.ops4j.pax.web.service.spi.servlet.OsgiServletContextClassLoader class loaders} of the contexts.
+	 * These are recorded regardless of {@link #isMetricsEnabled()}.
+	 * @return
+	 */
+	Set<CacheStatisticsInfo> listCacheStatistics();
+
+	/**
+	 * Returns the number of updates of {@code service.changecount} property of
+	 * {@link org.osgi.service.http.runtime.HttpServiceRuntime} registration. When the updates are coalesced, it's
+	 * lower than the number of changes.
+	 * @return
+	 */
+	long getChangeCountUpdates();
+
+	/**
+	 * Returns the statistics of context restarts (caused by registration of listeners and SCIs into started
+	 * contexts) requested, performed and avoided thanks to debouncing. These are recorded regardless of
+	 * {@link #isMetricsEnabled()}.
+	 * @return
+	 */
+	ContextRestartInfo getContextRestarts();
+
+	/**
+	 * Clears all recorded metrics.
+	 */
+	void resetMetrics();
+
+}
@@ -16,9 +16,12 @@
 package org.ops4j.pax.web.service.spi.servlet;
 
 import java.io.IOException;
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.function.Consumer;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.DispatcherType;
 import javax.servlet.FilterChain;
 import javax.servlet.ServletContext;
 import javax.servlet.ServletException;
@@ -28,6 +31,8 @@ import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
 import org.ops4j.pax.web.service.WebContainerContext;
+import org.ops4j.pax.web.service.spi.model.OsgiContextModel;
+import org.ops4j.pax.web.service.spi.model.elements.ServletModel;
 import org.osgi.framework.Bundle;
 import org.osgi.service.http.whiteboard.Preprocessor;
 
@@ -39,10 +44,16 @@ import org.osgi.service.http.whiteboard.Preprocessor;
  *     {@link org.osgi.service.http.context.ServletContextHelper#handleSecurity} +
  *     {@link org.osgi.service.http.context.ServletContextHelper#finishSecurity}</li>
  * </ul>
+ *
+ * <p>The chain is created for each request, so it only keeps a position within the list of preprocessors, which
+ * is shared (never copied) between the requests.</p>
+ *
+ * <p>As the entry point of every request in all the runtimes, this chain also records {@link RequestMetrics}
+ * of the target context and servlet, when {@link RequestMetricsRegistry#isEnabled() enabled}.</p>
  */
 public class OsgiFilterChain implements FilterChain {
 
-	private final List<Preprocessor> preprocessors = new LinkedList<>();
+	private final List<PreprocessorFilterConfig> preprocessors;
 
 	private final ServletContext servletContext;
 	private final WebContainerContext webContext;
@@ -54,32 +65,96 @@ public class OsgiFilterChain implements FilterChain {
 
 	private int index = 0;
 
+	private OsgiContextModel osgiContextModel;
+	private ServletModel servletModel;
+	private boolean measured = false;
+
 	/**
 	 * Creates {@link FilterChain} that will invoke all the processors, security handlers, filters and target
 	 * servlet in correct order.
 	 *
-	 * @param preprocessors
+	 * @param preprocessors immutable list of the preprocessors of the context, which is not copied - runtimes
+	 *        should replace the list when preprocessors change
 	 * @param servletContext wrapped {@link ServletContext} with proper delegation
 	 * @param context already resolved (with proper {@link Bundle}) {@link WebContainerContext}.
 	 * @param originalChain
+	 * @param osgiSessionsBridge
+	 * @param authListener
+	 * @param osgiContextModel target context for which {@link RequestMetrics} are recorded
+	 * @param servletModel target servlet for which {@link RequestMetrics} are recorded (may be {@code null})
 	 */
-	public OsgiFilterChain(List<Preprocessor> preprocessors, ServletContext servletContext,
+	public OsgiFilterChain(List<PreprocessorFilterConfig> preprocessors, ServletContext servletContext,
 			WebContainerContext context, FilterChain originalChain,
-			OsgiSessionAttributeListener osgiSessionsBridge, Consumer<HttpServletRequest> authListener) {
-		this.preprocessors.addAll(preprocessors);
+			OsgiSessionAttributeListener osgiSessionsBridge, Consumer<HttpServletRequest> authListener,
+			OsgiContextModel osgiContextModel, ServletModel servletModel) {
+		this.preprocessors = preprocessors;
 		this.webContext = context;
 		this.servletContext = servletContext;
 		this.chain = originalChain;
 		this.osgiSessionsBridge = osgiSessionsBridge;
 		this.authListener = authListener;
+		this.osgiContextModel = osgiContextModel;
+		this.servletModel = servletModel;
+	}
+
+	/**
+	 * Creates {@link FilterChain} for given {@link Preprocessor} instances, without target context and servlet.
+	 *
+	 * @param preprocessors
+	 * @param servletContext wrapped {@link ServletContext} with proper delegation
+	 * @param context already resolved (with proper {@link Bundle}) {@link WebContainerContext}.
+	 * @param originalChain
+	 * @param osgiSessionsBridge
+	 * @param authListener
+	 * @deprecated the preprocessors are copied for each chain, use
+	 *             {@link #OsgiFilterChain(List, ServletContext, WebContainerContext, FilterChain, OsgiSessionAttributeListener, Consumer, OsgiContextModel, ServletModel)}
+	 *             with the configs of the preprocessors instead
+	 */
+	@Deprecated
+	public OsgiFilterChain(List<Preprocessor> preprocessors, ServletContext servletContext,
+			WebContainerContext context, FilterChain originalChain,
+			OsgiSessionAttributeListener osgiSessionsBridge, Consumer<HttpServletRequest> authListener) {
+		this(configs(preprocessors), servletContext, context, originalChain, osgiSessionsBridge, authListener,
+				null, null);
+	}
+
+	private static List<PreprocessorFilterConfig> configs(List<Preprocessor> preprocessors) {
+		List<PreprocessorFilterConfig> configs = new ArrayList<>(preprocessors.size());
+		for (Preprocessor preprocessor : preprocessors) {
+			configs.add(new PreprocessorFilterConfig(null, null) {
+				@Override
+				public Preprocessor getInstance() {
+					return preprocessor;
+				}
+			});
+		}
+		return configs;
 	}
 
 	public void setChain(FilterChain chain) {
 		this.chain = chain;
 	}
 
+	/**
+	 * Sets the models for which {@link RequestMetrics} are recorded.
+	 * @param osgiContextModel target context (for servlet or default context of the runtime's context)
+	 * @param servletModel target servlet (may be {@code null}, for example for 404 servlet)
+	 */
+	public void setModels(OsgiContextModel osgiContextModel, ServletModel servletModel) {
+		this.osgiContextModel = osgiContextModel;
+		this.servletModel = servletModel;
+	}
+
 	@Override
 	public void doFilter(ServletRequest request, ServletResponse response) throws IOException, ServletException {
+		if (index == 0 && !measured && RequestMetricsRegistry.isEnabled()
+				&& (osgiContextModel != null || servletModel != null)
+				&& request.getDispatcherType() == DispatcherType.REQUEST) {
+			measured = true;
+			doFilterMeasured(request, response);
+			return;
+		}
+
 		HttpServletRequest req = (HttpServletRequest) request;
 		HttpServletResponse res = (HttpServletResponse) response;
 
@@ -90,7 +165,7 @@ public class OsgiFilterChain implements FilterChain {
 
 		if (index < preprocessors.size()) {
 			// still something left
-			Preprocessor filter = preprocessors.get(index++);
+			Preprocessor filter = preprocessors.get(index++).getInstance();
 			filter.doFilter(req, res, this);
 			return;
 		}
@@ -99,7 +174,7 @@ public class OsgiFilterChain implements FilterChain {
 		// and target servlet)
 		try {
 			if (webContext == null || webContext.handleSecurity(req, res)) {
-				if (authListener != null && webContext != null) {
+				if (webContext != null) {
 					// it means we've passed the OSGi security handler
 					// here, the listener may translate (if available):
 					// - org.osgi.service.http.context.ServletContextHelper.REMOTE_USER
@@ -107,7 +182,7 @@ public class OsgiFilterChain implements FilterChain {
 					// into runtime-specific data available through:
 					// - javax.servlet.http.HttpServletRequest.getUserPrincipal()
 					// - javax.servlet.http.HttpServletRequest.getRemoteUser()
-					authListener.accept(req);
+					authenticated(req);
 				}
 				// continue normally with normal filters and target servlet
 				chain.doFilter(req, res);
@@ -129,4 +204,105 @@ public class OsgiFilterChain implements FilterChain {
 		}
 	}
 
+	/**
+	 * Called after {@link WebContainerContext#handleSecurity} passes. By default it calls the auth listener
+	 * passed to the constructor, but runtimes may override it to use request-specific data without creating
+	 * a listener for each request.
+	 * @param request
+	 */
+	protected void authenticated(HttpServletRequest request) {
+		if (authListener != null) {
+			authListener.accept(request);
+		}
+	}
+
+	/**
+	 * Invokes this chain again, measuring the time until the request is finished - which is after returning
+	 * from the chain or (for asynchronous requests) after {@link javax.servlet.AsyncContext} completes.
+	 * @param request
+	 * @param response
+	 */
+	private void doFilterMeasured(ServletRequest request, ServletResponse response) throws IOException, ServletException {
+		Recording recording = new Recording(
+				osgiContextModel == null ? null : RequestMetricsRegistry.forContext(osgiContextModel),
+				servletModel == null ? null : RequestMetricsRegistry.forServlet(servletModel),
+				(HttpServletResponse) response);
+		boolean failed = true;
+		try {
+			doFilter(request, response);
+			failed = false;
+		} finally {
+			if (!failed && request.isAsyncStarted()) {
+				request.getAsyncContext().addListener(recording);
+			} else {
+				recording.finish(failed);
+			}
+		}
+	}
+
+	/**
+	 * Single request being measured.
+	 */
+	private static final class Recording implements AsyncListener {
+
+		private final long start = System.nanoTime();
+		private final RequestMetrics contextMetrics;
+		private final RequestMetrics servletMetrics;
+		private final HttpServletResponse response;
+		private boolean finished;
+
+		Recording(RequestMetrics contextMetrics, RequestMetrics servletMetrics, HttpServletResponse response) {
+			this.contextMetrics = contextMetrics;
+			this.servletMetrics = servletMetrics;
+			this.response = response;
+			if (contextMetrics != null) {
+				contextMetrics.requestStarted();
+			}
+			if (servletMetrics != null) {
+				servletMetrics.requestStarted();
+			}
+		}
+
+		/**
+		 * Finishes the recording once. Asynchronous events are not delivered concurrently, so no locking
+		 * is needed.
+		 * @param failed
+		 */
+		void finish(boolean failed) {
+			if (finished) {
+				return;
+			}
+			finished = true;
+			long time = System.nanoTime() - start;
+			boolean error = failed || response.getStatus() >= 500;
+			if (contextMetrics != null) {
+				contextMetrics.requestFinished(time, error);
+			}
+			if (servletMetrics != null) {
+				servletMetrics.requestFinished(time, error);
+			}
+		}
+
+		@Override
+		public void onComplete(AsyncEvent event) {
+			finish(false);
+		}
+
+		@Override
+		public void onTimeout(AsyncEvent event) {
+			finish(true);
+		}
+
+		@Override
+		public void onError(AsyncEvent event) {
+			finish(true);
+		}
+
+		@Override
+		public void onStartAsync(AsyncEvent event) {
+			// listeners are removed when the request is put into asynchronous mode again
+			event.getAsyncContext().addListener(this);
+		}
+	}
+
 }
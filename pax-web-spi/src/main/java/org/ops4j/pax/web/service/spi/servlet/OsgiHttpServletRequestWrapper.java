@@ -62,7 +62,7 @@ public class OsgiHttpServletRequestWrapper extends HttpServletRequestWrapper {
 
 	/**
 	 * {@link HttpSession} that ensures session separation between OSGi contexts and proper {@link ServletContext}
-	 * access.
+	 * access. Cached as long as the container returns the same session.
 	 */
 	private volatile OsgiHttpSession session;
 
@@ -105,28 +105,26 @@ public class OsgiHttpServletRequestWrapper extends HttpServletRequestWrapper {
 
 	@Override
 	public HttpSession getSession(boolean create) {
-		if (session != null) {
+		// the container has to be asked each time, because it checks whether the session is still valid (and
+		// may create new one), but new wrapper is needed only if the container returns different session.
+		// The request is used by single thread, so there's no need to synchronize
+		HttpSession original = super.getSession(create);
+		if (original == null) {
 			session = null;
+			return null;
 		}
-		if (session == null) {
-			synchronized (this) {
-				if (session == null) {
-					HttpSession original = super.getSession(create);
-					if (original == null) {
-						return null;
-					}
-					if (original instanceof OsgiHttpSession) {
-						session = (OsgiHttpSession) original;
-						return session;
-					}
-
-					// the only place where org.ops4j.pax.web.service.spi.servlet.OsgiHttpSession is created
-					this.session = new OsgiHttpSession(original, osgiContext, context, osgiSessionsBridge);
-				}
-			}
+		if (original instanceof OsgiHttpSession) {
+			return original;
+		}
+
+		OsgiHttpSession current = session;
+		if (current == null || current.getOriginal() != original) {
+			// the only place where org.ops4j.pax.web.service.spi.servlet.OsgiHttpSession is created
+			current = new OsgiHttpSession(original, osgiContext, context, osgiSessionsBridge);
+			session = current;
 		}
 
-		return session;
+		return current;
 	}
 
 	@Override
@@ -38,6 +38,14 @@ public class OsgiHttpSession implements HttpSession {
 		this.context = context;
 	}
 
+	/**
+	 * Returns the container's session wrapped by this session.
+	 * @return
+	 */
+	HttpSession getOriginal() {
+		return original;
+	}
+
 	@Override
 	public long getCreationTime() {
 		return original.getCreationTime();
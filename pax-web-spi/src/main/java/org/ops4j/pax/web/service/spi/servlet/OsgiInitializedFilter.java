@@ -22,11 +22,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
-import java.util.ArrayList;
 import java.util.Enumeration;
-import java.util.List;
-import java.util.regex.Pattern;
-import java.util.regex.PatternSyntaxException;
 import javax.servlet.Filter;
 import javax.servlet.FilterChain;
 import javax.servlet.FilterConfig;
@@ -47,7 +43,8 @@ public class OsgiInitializedFilter implements Filter {
 	private final Filter filter;
 	private final FilterModel filterModel;
 	private final ServletContext servletContext;
-	private Pattern[] filterPatterns = null;
+	private RegexFilterMatcher regexMatcher = null;
+	private RegexFilterMatcher.Patterns regexPatterns = null;
 
 	/**
 	 * Whether TCCL should be set to servlet's bundle classloader. If {@code false}, TCCL from
@@ -67,19 +64,18 @@ public class OsgiInitializedFilter implements Filter {
 			if (regexPatterns != null && regexPatterns.length > 0) {
 				// we have Whiteboard-special RegEx filter
 				LOG.debug("Preparing RegEx based filter for {}", model);
-				filterPatterns = new Pattern[regexPatterns.length];
-				List<Pattern> patterns = new ArrayList<>();
-				for (String pattern : regexPatterns) {
-					try {
-						patterns.add(Pattern.compile(pattern));
-					} catch (PatternSyntaxException e) {
-						LOG.warn("Problem compiling filter RegEx pattern \"{}\". Skipping", pattern);
-					}
-				}
-				if (patterns.size() > 0) {
-					filterPatterns = patterns.toArray(new Pattern[0]);
-				} else {
+				this.regexPatterns = RegexFilterMatcher.compile(regexPatterns);
+				if (this.regexPatterns == null) {
 					LOG.warn("No RegEx pattern can be compiled. Filter will match all the requests");
+				} else {
+					// all RegEx filters of the same context are matched together
+					OsgiServletContext osgiContext = null;
+					if (servletSpecificContext instanceof OsgiScopedServletContext) {
+						osgiContext = ((OsgiScopedServletContext) servletSpecificContext).getOsgiContext();
+					} else if (servletSpecificContext instanceof OsgiServletContext) {
+						osgiContext = (OsgiServletContext) servletSpecificContext;
+					}
+					regexMatcher = osgiContext != null ? osgiContext.getRegexFilterMatcher() : new RegexFilterMatcher();
 				}
 			}
 		}
@@ -90,6 +86,9 @@ public class OsgiInitializedFilter implements Filter {
 		if (filter == null) {
 			return;
 		}
+		if (regexMatcher != null) {
+			regexMatcher.add(regexPatterns);
+		}
 		ClassLoader tccl = Thread.currentThread().getContextClassLoader();
 		try {
 			ClassLoader newCl = null;
@@ -146,22 +145,15 @@ public class OsgiInitializedFilter implements Filter {
 				tccl = Thread.currentThread().getContextClassLoader();
 				Thread.currentThread().setContextClassLoader(request.getServletContext().getClassLoader());
 			}
-			if (filterPatterns != null) {
+			if (regexMatcher != null) {
 				// do RegEx matching
-				boolean match = false;
+				boolean match = true;
 				if (request instanceof HttpServletRequest) {
 					String uri = ((HttpServletRequest) request).getRequestURI();
 					if (((HttpServletRequest) request).getQueryString() != null) {
 						uri += "?" + ((HttpServletRequest) request).getQueryString();
 					}
-					for (Pattern p : filterPatterns) {
-						if (p.matcher(uri).matches()) {
-							match = true;
-							break;
-						}
-					}
-				} else {
-					match = true;
+					match = regexMatcher.matches(regexPatterns, uri);
 				}
 				if (match) {
 					filter.doFilter(request, response, chain);
@@ -185,6 +177,9 @@ public class OsgiInitializedFilter implements Filter {
 
 	@Override
 	public void destroy() {
+		if (regexMatcher != null) {
+			regexMatcher.remove(regexPatterns);
+		}
 		filter.destroy();
 	}
 
@@ -107,6 +107,9 @@ public class OsgiServletContext implements ServletContext {
 
 	private boolean acceptsServletContextListeners = true;
 
+	/** Shared matcher of all the Whiteboard RegEx filters of this context */
+	private final RegexFilterMatcher regexFilterMatcher = new RegexFilterMatcher();
+
 	/**
 	 * Constructor called when {@link OsgiContextModel} is passed to given
 	 * {@link org.ops4j.pax.web.service.spi.ServerController}. We still can't grab an instance of
@@ -271,6 +274,10 @@ public class OsgiServletContext implements ServletContext {
 		return servletContextModel;
 	}
 
+	public RegexFilterMatcher getRegexFilterMatcher() {
+		return regexFilterMatcher;
+	}
+
 	/**
 	 * We have to be able to replace server-specific {@link ServletContext}, because we can't freely
 	 * replace web elements in Undertow. In Undertow we have to recreate entire context, thus getting new
@@ -19,12 +19,17 @@ import java.io.IOException;
 import java.net.URL;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Dictionary;
 import java.util.Enumeration;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 import javax.servlet.ServletContext;
 
 import org.osgi.framework.Bundle;
 import org.osgi.framework.BundleReference;
+import org.osgi.framework.Constants;
 import org.osgi.framework.wiring.BundleWiring;
 
 /**
@@ -61,11 +66,27 @@ import org.osgi.framework.wiring.BundleWiring;
  * </ul></p>
  *
  * <p>This {@link ClassLoader} implements {@link BundleReference}</p>
+ *
+ * <p>Results of {@link #loadClass(String)} and {@link #findResource(String)} are cached - both found and missing
+ * classes/resources, because frameworks like JSF or Jasper constantly probe for classes that are not there.
+ * The cache is dropped when a wiring of any of the bundles is no longer current (after a refresh). Missing
+ * classes/resources are not cached if any of the bundles uses {@code DynamicImport-Package}, because they may
+ * become available without a refresh.</p>
  */
 public class OsgiServletContextClassLoader extends ClassLoader implements BundleReference {
 
+	/** Missing classes or resources are no longer remembered when there are that many cached entries */
+	static final int MAX_NEGATIVE_ENTRIES = 4096;
+
 	private List<Bundle> bundles = new ArrayList<>();
 
+	/** Current cache - replaced when bundles change or when any wiring is no longer current */
+	private volatile LookupCache cache;
+
+	private final LongAdder cacheHits = new LongAdder();
+	private final LongAdder cacheMisses = new LongAdder();
+	private final LongAdder lookupTime = new LongAdder();
+
 	public OsgiServletContextClassLoader() {
 		super(null);
 	}
@@ -82,6 +103,7 @@ public class OsgiServletContextClassLoader extends ClassLoader implements Bundle
 	public void addBundle(Bundle bundle) {
 		if (bundle != null && !bundles.contains(bundle)) {
 			bundles.add(bundle);
+			cache = null;
 		}
 	}
 
@@ -96,6 +118,7 @@ public class OsgiServletContextClassLoader extends ClassLoader implements Bundle
 					bundles.add(b);
 				}
 			}
+			cache = null;
 		}
 	}
 
@@ -110,19 +133,71 @@ public class OsgiServletContextClassLoader extends ClassLoader implements Bundle
 		bundles = Collections.unmodifiableList(bundles);
 	}
 
+	/**
+	 * Number of class/resource lookups answered from the cache.
+	 * @return
+	 */
+	public long getCacheHits() {
+		return cacheHits.sum();
+	}
+
+	/**
+	 * Number of class/resource lookups that had to check the bundles.
+	 * @return
+	 */
+	public long getCacheMisses() {
+		return cacheMisses.sum();
+	}
+
+	/**
+	 * Ratio of lookups answered from the cache ({@code 0.0} if there were no lookups yet).
+	 * @return
+	 */
+	public double getCacheHitRatio() {
+		long hits = cacheHits.sum();
+		long total = hits + cacheMisses.sum();
+		return total == 0L ? 0.0d : (double) hits / total;
+	}
+
+	/**
+	 * Average time (in nanoseconds) of a lookup that had to check the bundles.
+	 * @return
+	 */
+	public long getAverageLookupTime() {
+		long misses = cacheMisses.sum();
+		return misses == 0L ? 0L : lookupTime.sum() / misses;
+	}
+
 	@Override
 	public Class<?> loadClass(String name) throws ClassNotFoundException {
-		List<Exception> suppressed = new ArrayList<>(bundles.size());
-		for (Bundle b : bundles) {
-			BundleWiring bw = b.adapt(BundleWiring.class);
-			ClassLoader cl = bw == null ? null : bw.getClassLoader();
-			if (cl != null) {
-				try {
-					return cl.loadClass(name);
-				} catch (Exception e) {
-					suppressed.add(e);
+		LookupCache c = currentCache();
+		Object cached = c.classes.get(name);
+		if (cached != null) {
+			cacheHits.increment();
+			if (cached == LookupCache.MISSING) {
+				throw new ClassNotFoundException(name);
+			}
+			return (Class<?>) cached;
+		}
+
+		cacheMisses.increment();
+		long start = System.nanoTime();
+		List<Exception> suppressed = new ArrayList<>(c.loaders.length);
+		try {
+			for (ClassLoader cl : c.loaders) {
+				if (cl != null) {
+					try {
+						Class<?> cls = cl.loadClass(name);
+						c.classes.put(name, cls);
+						return cls;
+					} catch (Exception e) {
+						suppressed.add(e);
+					}
 				}
 			}
+			c.markMissing(c.classes, name);
+		} finally {
+			lookupTime.add(System.nanoTime() - start);
 		}
 
 		ClassNotFoundException cnfe = new ClassNotFoundException(name);
@@ -132,15 +207,28 @@ public class OsgiServletContextClassLoader extends ClassLoader implements Bundle
 
 	@Override
 	protected URL findResource(String name) {
-		for (Bundle b : bundles) {
-			BundleWiring bw = b.adapt(BundleWiring.class);
-			ClassLoader cl = bw == null ? null : bw.getClassLoader();
-			if (cl != null) {
-				URL res = cl.getResource(name);
-				if (res != null) {
-					return res;
+		LookupCache c = currentCache();
+		Object cached = c.resources.get(name);
+		if (cached != null) {
+			cacheHits.increment();
+			return cached == LookupCache.MISSING ? null : (URL) cached;
+		}
+
+		cacheMisses.increment();
+		long start = System.nanoTime();
+		try {
+			for (ClassLoader cl : c.loaders) {
+				if (cl != null) {
+					URL res = cl.getResource(name);
+					if (res != null) {
+						c.resources.put(name, res);
+						return res;
+					}
 				}
 			}
+			c.markMissing(c.resources, name);
+		} finally {
+			lookupTime.add(System.nanoTime() - start);
 		}
 
 		return null;
@@ -171,4 +259,72 @@ public class OsgiServletContextClassLoader extends ClassLoader implements Bundle
 		throw new ClassNotFoundException(name);
 	}
 
+	/**
+	 * Returns the cache which is valid for current wirings of the bundles, creating new one if needed.
+	 * @return
+	 */
+	private LookupCache currentCache() {
+		LookupCache c = cache;
+		if (c == null || !c.isCurrent()) {
+			c = new LookupCache(bundles);
+			cache = c;
+		}
+		return c;
+	}
+
+	/**
+	 * Results of lookups for given {@link BundleWiring wirings} of the bundles.
+	 */
+	private static final class LookupCache {
+
+		/** Marker of a missing class or resource */
+		static final Object MISSING = new Object();
+
+		private final Bundle[] bundles;
+		private final BundleWiring[] wirings;
+		private final ClassLoader[] loaders;
+
+		/** Whether missing classes/resources may be cached - they can't appear without new wiring */
+		private final boolean cacheMissing;
+
+		private final Map<String, Object> classes = new ConcurrentHashMap<>();
+		private final Map<String, Object> resources = new ConcurrentHashMap<>();
+
+		LookupCache(List<Bundle> bundles) {
+			this.bundles = bundles.toArray(new Bundle[0]);
+			wirings = new BundleWiring[this.bundles.length];
+			loaders = new ClassLoader[wirings.length];
+			boolean dynamicImports = false;
+			for (int i = 0; i < wirings.length; i++) {
+				wirings[i] = this.bundles[i].adapt(BundleWiring.class);
+				loaders[i] = wirings[i] == null ? null : wirings[i].getClassLoader();
+				Dictionary<String, String> headers = this.bundles[i].getHeaders();
+				dynamicImports |= headers != null && headers.get(Constants.DYNAMICIMPORT_PACKAGE) != null;
+			}
+			// dynamically imported package is wired to current wiring on first use
+			cacheMissing = !dynamicImports;
+		}
+
+		/**
+		 * Checks whether the wirings of the bundles are still the same. For bundles which were not resolved
+		 * when the cache was created, we check whether they still have no wiring.
+		 * @return
+		 */
+		boolean isCurrent() {
+			for (int i = 0; i < wirings.length; i++) {
+				if (wirings[i] == null ? bundles[i].adapt(BundleWiring.class) != null : !wirings[i].isCurrent()) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		void markMissing(Map<String, Object> entries, String name) {
+			// the number of names probed by frameworks is bounded, but protect against unusual usage
+			if (cacheMissing && entries.size() < MAX_NEGATIVE_ENTRIES) {
+				entries.put(name, MISSING);
+			}
+		}
+	}
+
 }
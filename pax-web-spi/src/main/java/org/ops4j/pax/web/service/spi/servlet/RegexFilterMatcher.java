@@ -0,0 +1,261 @@
+/*
+ * Copyright 2026 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.web.service.spi.servlet;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * <p>Matcher for Whiteboard filters registered with {@code osgi.http.whiteboard.filter.regex} property. Such
+ * filters are mapped to {@code /*} in all the runtimes and the actual matching is done in
+ * {@link OsgiInitializedFilter} for each request.</p>
+ *
+ * <p>There's one matcher per {@link OsgiServletContext}. The patterns of all its RegEx filters are compiled
+ * into single pattern with one named group per filter, so one run of the regex engine tells which of the
+ * filters match given request URI (with query string). The results are remembered (per URI, in a bounded cache
+ * read without locking), so the other filters in the chain and repeated requests don't run the regex engine at
+ * all. Dispatcher types are not part of the key - they're checked by the runtime's own {@code /*} mapping.</p>
+ */
+public final class RegexFilterMatcher {
+
+	/** Maximum number of cached results - request paths may come from anywhere */
+	static final int MAX_CACHED_PATHS = 1024;
+
+	private static final Logger LOG = LoggerFactory.getLogger(RegexFilterMatcher.class);
+
+	/** Backreferences can't be used in a combined pattern, because groups get renumbered */
+	private static final Pattern BACKREFERENCE = Pattern.compile("\\\\([1-9]|k<)");
+
+	/** Filters matched by this matcher, replaced when a filter is added or removed */
+	private volatile Snapshot snapshot = new Snapshot(Collections.emptyList());
+
+	/**
+	 * Compiles the patterns of single filter, skipping (with a warning) the ones which are not valid.
+	 *
+	 * @param regexPatterns
+	 * @return {@code null} if none of the patterns can be compiled
+	 */
+	public static Patterns compile(String[] regexPatterns) {
+		List<Pattern> compiled = new ArrayList<>(regexPatterns.length);
+		boolean combinable = true;
+		for (String pattern : regexPatterns) {
+			try {
+				compiled.add(Pattern.compile(pattern));
+				combinable &= !BACKREFERENCE.matcher(pattern).find();
+			} catch (PatternSyntaxException e) {
+				LOG.warn("Problem compiling filter RegEx pattern \"{}\". Skipping", pattern);
+			}
+		}
+		return compiled.isEmpty() ? null : new Patterns(compiled.toArray(new Pattern[0]), combinable);
+	}
+
+	/**
+	 * Adds the patterns of a filter being initialized.
+	 *
+	 * @param patterns
+	 */
+	public synchronized void add(Patterns patterns) {
+		List<Patterns> filters = new ArrayList<>(snapshot.filters);
+		if (!filters.contains(patterns)) {
+			filters.add(patterns);
+			snapshot = new Snapshot(filters);
+		}
+	}
+
+	/**
+	 * Removes the patterns of a filter being destroyed.
+	 *
+	 * @param patterns
+	 */
+	public synchronized void remove(Patterns patterns) {
+		List<Patterns> filters = new ArrayList<>(snapshot.filters);
+		if (filters.remove(patterns)) {
+			snapshot = new Snapshot(filters);
+		}
+	}
+
+	/**
+	 * Checks whether the request path matches any of the patterns of given filter.
+	 *
+	 * @param patterns
+	 * @param path request URI followed by {@code ?} and the query string, if there is one
+	 * @return
+	 */
+	public boolean matches(Patterns patterns, String path) {
+		Snapshot s = snapshot;
+		Integer index = s.indexes.get(patterns);
+		if (index == null) {
+			// filter not (yet) initialized
+			return patterns.matches(path);
+		}
+		return s.matches(path).get(index);
+	}
+
+	/**
+	 * Checks whether there's a cached result for given path - for testing.
+	 *
+	 * @param path
+	 * @return
+	 */
+	boolean isCached(String path) {
+		return snapshot.results.containsKey(path);
+	}
+
+	/**
+	 * Valid patterns of single filter.
+	 */
+	public static final class Patterns {
+
+		private final Pattern[] patterns;
+		private final boolean combinable;
+
+		private Patterns(Pattern[] patterns, boolean combinable) {
+			this.patterns = patterns;
+			this.combinable = combinable;
+		}
+
+		boolean matches(String path) {
+			for (Pattern p : patterns) {
+				if (p.matcher(path).matches()) {
+					return true;
+				}
+			}
+			return false;
+		}
+	}
+
+	/**
+	 * Immutable set of filters with the combined pattern and the cache of results for these filters.
+	 */
+	private static final class Snapshot {
+
+		private final List<Patterns> filters;
+		private final Map<Patterns, Integer> indexes = new IdentityHashMap<>();
+
+		/** Single pattern with {@code f<index>} group for each filter or {@code null} if they can't be combined */
+		private final Pattern combined;
+		private final String[] groups;
+
+		/** Request path &rarr; indexes of matching filters */
+		private final Map<String, Result> results = new ConcurrentHashMap<>();
+
+		private Snapshot(List<Patterns> filters) {
+			this.filters = filters;
+			groups = new String[filters.size()];
+			boolean combinable = true;
+			StringBuilder sb = new StringBuilder();
+			for (int i = 0; i < filters.size(); i++) {
+				indexes.put(filters.get(i), i);
+				groups[i] = "f" + i;
+				combinable &= filters.get(i).combinable;
+				// each filter is an optional lookahead which captures the whole path if any of its patterns
+				// matches. Inline flags like "(?i)" are scoped to the enclosing group
+				sb.append("(?:(?=(?<").append(groups[i]).append('>');
+				Pattern[] patterns = filters.get(i).patterns;
+				for (int j = 0; j < patterns.length; j++) {
+					sb.append(j > 0 ? "|" : "").append("(?:").append(patterns[j].pattern()).append(")\\z");
+				}
+				sb.append(")))?");
+			}
+			Pattern pattern = null;
+			if (combinable && filters.size() > 1) {
+				try {
+					pattern = Pattern.compile(sb.toString());
+				} catch (PatternSyntaxException e) {
+					// e.g., the same named group used in more patterns
+					LOG.debug("Can't combine filter RegEx patterns: {}", e.getMessage());
+				}
+			}
+			combined = pattern;
+		}
+
+		BitSet matches(String path) {
+			Result cached = results.get(path);
+			if (cached != null) {
+				if (!cached.used) {
+					cached.used = true;
+				}
+				return cached.matches;
+			}
+			BitSet result = new BitSet(filters.size());
+			if (combined != null) {
+				Matcher m = combined.matcher(path);
+				if (m.lookingAt()) {
+					for (int i = 0; i < groups.length; i++) {
+						if (m.start(groups[i]) >= 0) {
+							result.set(i);
+						}
+					}
+				}
+			} else {
+				for (int i = 0; i < filters.size(); i++) {
+					if (filters.get(i).matches(path)) {
+						result.set(i);
+					}
+				}
+			}
+			if (results.size() >= MAX_CACHED_PATHS) {
+				evict();
+			}
+			results.put(path, new Result(result));
+			return result;
+		}
+
+		/**
+		 * Removes the results not used since previous eviction (<em>second chance</em>), so the paths used
+		 * repeatedly stay cached without tracking the order of access.
+		 */
+		private synchronized void evict() {
+			if (results.size() < MAX_CACHED_PATHS) {
+				return;
+			}
+			results.values().removeIf(r -> {
+				boolean unused = !r.used;
+				r.used = false;
+				return unused;
+			});
+			if (results.size() >= MAX_CACHED_PATHS) {
+				// all the results were used - no way to choose
+				results.clear();
+			}
+		}
+	}
+
+	/**
+	 * Cached indexes of matching filters with a mark of being used since last eviction.
+	 */
+	private static final class Result {
+
+		private final BitSet matches;
+		private volatile boolean used;
+
+		private Result(BitSet matches) {
+			this.matches = matches;
+		}
+	}
+
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2026 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.web.service.spi.servlet;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import org.ops4j.pax.web.service.spi.util.LatencyHistogram;
+
+/**
+ * Request counters and latency histogram of single {@link org.ops4j.pax.web.service.spi.model.OsgiContextModel}
+ * or {@link org.ops4j.pax.web.service.spi.model.elements.ServletModel}, recorded by {@link OsgiFilterChain}
+ * and kept in {@link RequestMetricsRegistry}.
+ */
+public final class RequestMetrics {
+
+	private final LongAdder errors = new LongAdder();
+	private final LongAdder inFlight = new LongAdder();
+	private final LatencyHistogram latency = new LatencyHistogram();
+
+	void requestStarted() {
+		inFlight.increment();
+	}
+
+	void requestFinished(long nanos, boolean error) {
+		inFlight.decrement();
+		if (error) {
+			errors.increment();
+		}
+		latency.record(nanos);
+	}
+
+	/**
+	 * Number of finished requests.
+	 * @return
+	 */
+	public long getRequestCount() {
+		return latency.getCount();
+	}
+
+	/**
+	 * Number of finished requests that ended with an exception or with {@code 5xx} status.
+	 * @return
+	 */
+	public long getErrorCount() {
+		return errors.sum();
+	}
+
+	/**
+	 * Number of requests being processed at the moment.
+	 * @return
+	 */
+	public long getInFlight() {
+		return inFlight.sum();
+	}
+
+	/**
+	 * Histogram of processing times (in nanoseconds) of finished requests.
+	 * @return
+	 */
+	public LatencyHistogram getLatency() {
+		return latency;
+	}
+
+	/**
+	 * Clears the counters and the histogram, but not the number of requests in flight.
+	 */
+	public void reset() {
+		errors.reset();
+		latency.reset();
+	}
+
+}
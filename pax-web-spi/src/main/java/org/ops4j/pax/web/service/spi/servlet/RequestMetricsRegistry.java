@@ -0,0 +1,133 @@
+/*
+ * Copyright 2026 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.web.service.spi.servlet;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.ops4j.pax.web.service.spi.model.OsgiContextModel;
+import org.ops4j.pax.web.service.spi.model.elements.ServletModel;
+
+/**
+ * <p>Global registry of {@link RequestMetrics} per {@link OsgiContextModel} and per {@link ServletModel}.</p>
+ *
+ * <p>It's static, because it's shared between the runtime-specific bundles (where {@link OsgiFilterChain}
+ * records the requests) and pax-web-runtime (which publishes the metrics) - and there's only one active
+ * {@link org.ops4j.pax.web.service.spi.model.ServerModel} at a time. When metrics are disabled (the default),
+ * the only per-request cost is a check of a volatile flag.</p>
+ *
+ * <p>The metrics are added and removed together with the models by the
+ * {@link org.ops4j.pax.web.service.spi.model.ServerModel}, so requests still running after unregistration
+ * don't bring them back.</p>
+ */
+public final class RequestMetricsRegistry {
+
+	private static volatile boolean enabled = false;
+
+	private static final Map<OsgiContextModel, RequestMetrics> CONTEXT_METRICS = new ConcurrentHashMap<>();
+	private static final Map<ServletModel, RequestMetrics> SERVLET_METRICS = new ConcurrentHashMap<>();
+
+	private RequestMetricsRegistry() {
+	}
+
+	public static boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Switches recording of the metrics. Already collected metrics are kept when the recording is disabled.
+	 * @param enabled
+	 */
+	public static void setEnabled(boolean enabled) {
+		RequestMetricsRegistry.enabled = enabled;
+	}
+
+	/**
+	 * Returns metrics of registered context.
+	 * @param model
+	 * @return {@code null} if the context is not (or no longer) registered
+	 */
+	static RequestMetrics forContext(OsgiContextModel model) {
+		return CONTEXT_METRICS.get(model);
+	}
+
+	/**
+	 * Returns metrics of registered servlet.
+	 * @param model
+	 * @return {@code null} if the servlet is not (or no longer) registered
+	 */
+	static RequestMetrics forServlet(ServletModel model) {
+		return SERVLET_METRICS.get(model);
+	}
+
+	/**
+	 * Returns read-only view of metrics of registered contexts.
+	 * @return
+	 */
+	public static Map<OsgiContextModel, RequestMetrics> getContextMetrics() {
+		return Collections.unmodifiableMap(CONTEXT_METRICS);
+	}
+
+	/**
+	 * Returns read-only view of metrics of registered servlets.
+	 * @return
+	 */
+	public static Map<ServletModel, RequestMetrics> getServletMetrics() {
+		return Collections.unmodifiableMap(SERVLET_METRICS);
+	}
+
+	/**
+	 * Adds (empty) metrics of newly registered context.
+	 * @param model
+	 */
+	public static void add(OsgiContextModel model) {
+		CONTEXT_METRICS.putIfAbsent(model, new RequestMetrics());
+	}
+
+	/**
+	 * Adds (empty) metrics of newly registered servlet.
+	 * @param model
+	 */
+	public static void add(ServletModel model) {
+		SERVLET_METRICS.putIfAbsent(model, new RequestMetrics());
+	}
+
+	/**
+	 * Removes metrics of a context that is no longer registered.
+	 * @param model
+	 */
+	public static void remove(OsgiContextModel model) {
+		CONTEXT_METRICS.remove(model);
+	}
+
+	/**
+	 * Removes metrics of a servlet that is no longer registered.
+	 * @param model
+	 */
+	public static void remove(ServletModel model) {
+		SERVLET_METRICS.remove(model);
+	}
+
+	/**
+	 * Clears all collected metrics.
+	 */
+	public static void reset() {
+		CONTEXT_METRICS.values().forEach(RequestMetrics::reset);
+		SERVLET_METRICS.values().forEach(RequestMetrics::reset);
+	}
+
+}
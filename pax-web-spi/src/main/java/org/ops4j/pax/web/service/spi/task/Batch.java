@@ -16,10 +16,15 @@
 package org.ops4j.pax.web.service.spi.task;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
-import java.util.LinkedList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.TreeMap;
 
 import org.ops4j.pax.web.service.WebContainerContext;
@@ -28,6 +33,7 @@ import org.ops4j.pax.web.service.spi.model.OsgiContextModel;
 import org.ops4j.pax.web.service.spi.model.ServerModel;
 import org.ops4j.pax.web.service.spi.model.ServletContextModel;
 import org.ops4j.pax.web.service.spi.model.elements.ContainerInitializerModel;
+import org.ops4j.pax.web.service.spi.model.elements.ElementModel;
 import org.ops4j.pax.web.service.spi.model.elements.ErrorPageModel;
 import org.ops4j.pax.web.service.spi.model.elements.EventListenerModel;
 import org.ops4j.pax.web.service.spi.model.elements.FilterModel;
@@ -54,7 +60,7 @@ import org.ops4j.pax.web.service.spi.model.elements.WelcomeFileModel;
  */
 public class Batch {
 
-	private final List<Change> operations = new LinkedList<>();
+	private final List<Change> operations = new ArrayList<>();
 	private final String description;
 	private String shortDescription;
 
@@ -447,6 +453,384 @@ public class Batch {
 		return b;
 	}
 
+	/**
+	 * <p>Returns a {@link Batch} without the operations which are redundant for the server runtime. The global
+	 * {@link ServerModel} should visit all the operations, but when for example an element is added and then
+	 * removed within the same batch (which is possible when batches are
+	 * {@link org.ops4j.pax.web.service.spi.CoalescingServerController coalesced}), there's no need to configure
+	 * the runtime at all.</p>
+	 *
+	 * <p>These operations are removed:<ul>
+	 *     <li>{@link OpCode#ADD} of an element followed by {@link OpCode#DELETE} of this element only (the reverse
+	 *     order is a replacement and is kept)</li>
+	 *     <li>{@link FilterStateChange}/{@link ErrorPageStateChange} superseded by later state change for the same
+	 *     contexts</li>
+	 *     <li>{@link ContextStartChange} followed by {@link ContextStopChange} of already stopped context and
+	 *     repeated starts/stops of the same context</li>
+	 * </ul></p>
+	 *
+	 * <p>The operations themselves are not copied, so the <em>batch completed actions</em> registered when the
+	 * compacted batch is visited are available in this batch as well.</p>
+	 *
+	 * @return compacted batch or this batch if there's nothing to remove
+	 */
+	public Batch compact() {
+		int size = operations.size();
+		if (size < 2) {
+			return this;
+		}
+		Change[] ops = operations.toArray(new Change[0]);
+		boolean[] redundant = new boolean[size];
+		int removed = removeAddDeletePairs(ops, redundant);
+		removed += removeSupersededStateChanges(ops, redundant);
+		removed += removeRedundantLifecycleChanges(ops, redundant);
+		if (removed == 0) {
+			return this;
+		}
+
+		Batch compacted = new Batch(description);
+		compacted.shortDescription = shortDescription;
+		((ArrayList<Change>) compacted.operations).ensureCapacity(size - removed);
+		for (int i = 0; i < size; i++) {
+			if (!redundant[i]) {
+				compacted.operations.add(ops[i]);
+			}
+		}
+		return compacted;
+	}
+
+	private static int removeAddDeletePairs(Change[] ops, boolean[] redundant) {
+		int removed = 0;
+		// element model -> index of the operation that added it
+		Map<ElementModel<?, ?>, Integer> added = new IdentityHashMap<>();
+		for (int i = 0; i < ops.length; i++) {
+			Change c = ops[i];
+			Collection<? extends ElementModel<?, ?>> models = elementModels(c);
+			if (models == null || models.isEmpty()) {
+				continue;
+			}
+			if (models.size() == 1) {
+				ElementModel<?, ?> model = models.iterator().next();
+				if (c.getKind() == OpCode.ADD && !isDynamic(c) && newModels(c).isEmpty()) {
+					added.put(model, i);
+					continue;
+				}
+				if (c.getKind() == OpCode.DELETE) {
+					Integer add = added.remove(model);
+					if (add != null) {
+						redundant[add] = true;
+						redundant[i] = true;
+						removed += 2;
+						continue;
+					}
+				}
+			}
+			// any other operation on the added element (enabling, disabling, ...) has to be kept
+			models.forEach(added::remove);
+		}
+		return removed;
+	}
+
+	private static int removeSupersededStateChanges(Change[] ops, boolean[] redundant) {
+		int removed = 0;
+		// context path -> the flags of later state change with no relevant operation in between
+		Map<String, String> filterStates = new HashMap<>();
+		Set<String> errorPageStates = new HashSet<>();
+		Set<String> paths = new HashSet<>();
+		for (int i = ops.length - 1; i >= 0; i--) {
+			Change c = ops[i];
+			if (redundant[i]) {
+				continue;
+			}
+			if (c instanceof FilterStateChange) {
+				FilterStateChange change = (FilterStateChange) c;
+				String flags = change.isDynamic() + "/" + change.useWebOrder();
+				Set<String> contexts = change.getContextFilters().keySet();
+				if (!contexts.isEmpty() && contexts.stream().allMatch(cp -> flags.equals(filterStates.get(cp)))) {
+					redundant[i] = true;
+					removed++;
+				} else {
+					contexts.forEach(cp -> filterStates.put(cp, flags));
+				}
+				continue;
+			}
+			if (c instanceof ErrorPageStateChange) {
+				Set<String> contexts = ((ErrorPageStateChange) c).getContextErrorPages().keySet();
+				if (!contexts.isEmpty() && errorPageStates.containsAll(contexts)) {
+					redundant[i] = true;
+					removed++;
+				} else {
+					errorPageStates.addAll(contexts);
+				}
+				continue;
+			}
+			if (c instanceof ErrorPageModelChange
+					|| (c instanceof FilterModelChange && !((FilterModelChange) c).isDynamic())) {
+				// not relevant to the runtime - handled using state changes
+				continue;
+			}
+			paths.clear();
+			if (collectContextPaths(c, paths)) {
+				filterStates.keySet().removeAll(paths);
+				errorPageStates.removeAll(paths);
+			} else {
+				filterStates.clear();
+				errorPageStates.clear();
+			}
+		}
+		return removed;
+	}
+
+	private static int removeRedundantLifecycleChanges(Change[] ops, boolean[] redundant) {
+		int removed = 0;
+		// context path -> index of last start/stop operation with no relevant operation in between
+		Map<String, Integer> lastLifecycle = new HashMap<>();
+		// contexts known to be stopped
+		Set<String> stopped = new HashSet<>();
+		// contexts started (by last lifecycle operation) after being stopped
+		Set<String> restarted = new HashSet<>();
+		Set<String> paths = new HashSet<>();
+		for (int i = 0; i < ops.length; i++) {
+			Change c = ops[i];
+			if (redundant[i]) {
+				continue;
+			}
+			if (c instanceof ContextStopChange) {
+				String contextPath = ((ContextStopChange) c).getContextPath();
+				Integer last = lastLifecycle.get(contextPath);
+				if (last != null && ops[last] instanceof ContextStopChange) {
+					// already stopped
+					redundant[i] = true;
+					removed++;
+				} else if (last != null && restarted.contains(contextPath)) {
+					// stopped context started and stopped again
+					redundant[last] = true;
+					redundant[i] = true;
+					removed += 2;
+					lastLifecycle.remove(contextPath);
+					restarted.remove(contextPath);
+				} else {
+					lastLifecycle.put(contextPath, i);
+					stopped.add(contextPath);
+				}
+				continue;
+			}
+			if (c instanceof ContextStartChange && !((ContextStartChange) c).isDebounced()) {
+				String contextPath = ((ContextStartChange) c).getContextPath();
+				Integer last = lastLifecycle.get(contextPath);
+				if (last != null && ops[last] instanceof ContextStartChange) {
+					// already started
+					redundant[i] = true;
+					removed++;
+				} else {
+					lastLifecycle.put(contextPath, i);
+					if (stopped.remove(contextPath)) {
+						restarted.add(contextPath);
+					} else {
+						restarted.remove(contextPath);
+					}
+				}
+				continue;
+			}
+			paths.clear();
+			if (!collectContextPaths(c, paths)) {
+				lastLifecycle.clear();
+				stopped.clear();
+				restarted.clear();
+				continue;
+			}
+			lastLifecycle.keySet().removeAll(paths);
+			restarted.removeAll(paths);
+			if (!(c instanceof ContextParamsChange || c instanceof SecurityConfigChange
+					|| c instanceof ContextMetadataModelChange || c instanceof MimeAndLocaleMappingChange)) {
+				// the operation may start the context
+				stopped.removeAll(paths);
+			}
+		}
+		return removed;
+	}
+
+	/**
+	 * Returns all the element models an operation is related to or {@code null} if the operation is not related
+	 * to the elements that may be simply added and removed.
+	 */
+	private static Collection<? extends ElementModel<?, ?>> elementModels(Change c) {
+		if (c instanceof ServletModelChange) {
+			return ((ServletModelChange) c).getServletModels().keySet();
+		} else if (c instanceof FilterModelChange) {
+			FilterModelChange change = (FilterModelChange) c;
+			return change.getFilterModel() != null ? Collections.singletonList(change.getFilterModel())
+					: change.getFilterModels();
+		} else if (c instanceof ErrorPageModelChange) {
+			ErrorPageModelChange change = (ErrorPageModelChange) c;
+			return change.getErrorPageModel() != null ? Collections.singletonList(change.getErrorPageModel())
+					: change.getErrorPageModels();
+		} else if (c instanceof EventListenerModelChange) {
+			EventListenerModelChange change = (EventListenerModelChange) c;
+			return change.getEventListenerModel() != null ? Collections.singletonList(change.getEventListenerModel())
+					: change.getEventListenerModels();
+		} else if (c instanceof WebSocketModelChange) {
+			return ((WebSocketModelChange) c).getWebSocketModels().keySet();
+		}
+		return null;
+	}
+
+	private static boolean isDynamic(Change c) {
+		if (c instanceof ServletModelChange) {
+			return ((ServletModelChange) c).isDynamic();
+		} else if (c instanceof FilterModelChange) {
+			return ((FilterModelChange) c).isDynamic();
+		} else if (c instanceof EventListenerModelChange) {
+			return ((EventListenerModelChange) c).isDynamic();
+		}
+		return false;
+	}
+
+	private static List<OsgiContextModel> newModels(Change c) {
+		if (c instanceof ServletModelChange) {
+			return ((ServletModelChange) c).getNewModels();
+		} else if (c instanceof FilterModelChange) {
+			return ((FilterModelChange) c).getNewModels();
+		} else if (c instanceof ErrorPageModelChange) {
+			return ((ErrorPageModelChange) c).getNewModels();
+		} else if (c instanceof EventListenerModelChange) {
+			return ((EventListenerModelChange) c).getNewModels();
+		} else if (c instanceof WebSocketModelChange) {
+			return ((WebSocketModelChange) c).getNewModels();
+		}
+		return Collections.emptyList();
+	}
+
+	/**
+	 * Collects the <em>callback changes</em> registered (using {@link Change#registerBatchCompletedAction(Change)})
+	 * by server runtime when this batch was processed. Such changes should be sent in new batch in next
+	 * <em>tick</em> of the configuration thread - but not earlier than after {@link #getDelay()} milliseconds.
+	 *
+	 * @param description
+	 * @return
+	 */
+	public Batch batchCompletedActions(String description) {
+		Batch actions = new Batch(description);
+		for (Change c : operations) {
+			if (c.getBatchCompletedAction() != null) {
+				actions.getOperations().add(c.getBatchCompletedAction());
+			}
+		}
+		return actions;
+	}
+
+	/**
+	 * Returns the number of milliseconds this batch should wait before being sent to server runtime. Only
+	 * debounced {@link ContextStartChange context restarts} are delayed.
+	 *
+	 * @return
+	 */
+	public long getDelay() {
+		long delay = 0L;
+		for (Change c : operations) {
+			if (c instanceof ContextStartChange) {
+				delay = Math.max(delay, ((ContextStartChange) c).getDelay());
+			}
+		}
+		return delay;
+	}
+
+	/**
+	 * Returns the context paths of all the contexts affected by the operations of this batch.
+	 *
+	 * @return set of context paths or {@code null} if it's not possible to determine the contexts for at least
+	 *         one of the operations
+	 */
+	public Set<String> getContextPaths() {
+		Set<String> paths = new LinkedHashSet<>();
+		for (Change c : operations) {
+			if (!collectContextPaths(c, paths)) {
+				return null;
+			}
+		}
+		return paths;
+	}
+
+	private static boolean collectContextPaths(Change c, Set<String> paths) {
+		if (c instanceof TransactionStateChange) {
+			paths.add(((TransactionStateChange) c).getContextPath());
+		} else if (c instanceof ContextStartChange) {
+			paths.add(((ContextStartChange) c).getContextPath());
+		} else if (c instanceof ContextStopChange) {
+			paths.add(((ContextStopChange) c).getContextPath());
+		} else if (c instanceof ServletContextModelChange) {
+			paths.add(((ServletContextModelChange) c).getServletContextModel().getContextPath());
+		} else if (c instanceof OsgiContextModelChange) {
+			OsgiContextModelChange change = (OsgiContextModelChange) c;
+			if (change.getOsgiContextModel() != null) {
+				paths.add(change.getOsgiContextModel().getContextPath());
+			} else if (change.getServletContextModel() != null) {
+				paths.add(change.getServletContextModel().getContextPath());
+			} else {
+				return false;
+			}
+		} else if (c instanceof ContextParamsChange) {
+			paths.add(((ContextParamsChange) c).getOsgiContextModel().getContextPath());
+		} else if (c instanceof ContextMetadataModelChange) {
+			paths.add(((ContextMetadataModelChange) c).getOsgiContextModel().getContextPath());
+		} else if (c instanceof MimeAndLocaleMappingChange) {
+			paths.add(((MimeAndLocaleMappingChange) c).getOsgiContextModel().getContextPath());
+		} else if (c instanceof SecurityConfigChange) {
+			paths.add(((SecurityConfigChange) c).getOsgiContextModel().getContextPath());
+		} else if (c instanceof FilterStateChange) {
+			paths.addAll(((FilterStateChange) c).getContextFilters().keySet());
+		} else if (c instanceof ErrorPageStateChange) {
+			paths.addAll(((ErrorPageStateChange) c).getContextErrorPages().keySet());
+		} else if (c instanceof ClearDynamicRegistrationsChange) {
+			c.getContextModels().forEach(ocm -> paths.add(ocm.getContextPath()));
+		} else if (c instanceof ServletModelChange) {
+			ServletModelChange change = (ServletModelChange) c;
+			return collectContextPaths(change.getServletModel(), change.getServletModels().keySet(),
+					change.getNewModels(), paths);
+		} else if (c instanceof FilterModelChange) {
+			FilterModelChange change = (FilterModelChange) c;
+			return collectContextPaths(change.getFilterModel(), change.getFilterModels(), change.getNewModels(), paths);
+		} else if (c instanceof ErrorPageModelChange) {
+			ErrorPageModelChange change = (ErrorPageModelChange) c;
+			return collectContextPaths(change.getErrorPageModel(), change.getErrorPageModels(),
+					change.getNewModels(), paths);
+		} else if (c instanceof EventListenerModelChange) {
+			EventListenerModelChange change = (EventListenerModelChange) c;
+			return collectContextPaths(change.getEventListenerModel(), change.getEventListenerModels(),
+					change.getNewModels(), paths);
+		} else if (c instanceof ContainerInitializerModelChange) {
+			ContainerInitializerModelChange change = (ContainerInitializerModelChange) c;
+			return collectContextPaths(change.getContainerInitializerModel(), change.getContainerInitializerModels(),
+					change.getNewModels(), paths);
+		} else if (c instanceof WebSocketModelChange) {
+			WebSocketModelChange change = (WebSocketModelChange) c;
+			return collectContextPaths(change.getWebSocketModel(), change.getWebSocketModels().keySet(),
+					change.getNewModels(), paths);
+		} else if (c instanceof WelcomeFileModelChange) {
+			WelcomeFileModelChange change = (WelcomeFileModelChange) c;
+			return collectContextPaths(change.getWelcomeFileModel(), Collections.emptyList(), change.getNewModels(), paths);
+		} else {
+			return false;
+		}
+		return true;
+	}
+
+	private static boolean collectContextPaths(ElementModel<?, ?> model, Collection<? extends ElementModel<?, ?>> models,
+			List<OsgiContextModel> newModels, Set<String> paths) {
+		List<ElementModel<?, ?>> all = new ArrayList<>(models);
+		if (model != null) {
+			all.add(model);
+		}
+		newModels.forEach(ocm -> paths.add(ocm.getContextPath()));
+		for (ElementModel<?, ?> m : all) {
+			if (!m.hasContextModels()) {
+				return false;
+			}
+			m.getContextModels().forEach(ocm -> paths.add(ocm.getContextPath()));
+		}
+		return !paths.isEmpty();
+	}
+
 	@Override
 	public String toString() {
 		return "Batch{\"" + description + "\", size=" + operations.size() + "}";
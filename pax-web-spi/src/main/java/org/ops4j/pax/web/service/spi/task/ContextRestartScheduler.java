@@ -0,0 +1,190 @@
+/*
+ * Copyright 2026 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.web.service.spi.task;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * <p>Per-context restart tracker used by server wrappers (Jetty, Tomcat, Undertow) when registration of
+ * {@link javax.servlet.ServletContextListener listeners} or {@link javax.servlet.ServletContainerInitializer SCIs}
+ * requires a started context to be stopped and started again.</p>
+ *
+ * <p>Without this scheduler, each such registration leads to stop/start cycle of the context. Here, the context
+ * is marked as <em>dirty</em>, it's stopped only once and the {@link ContextStartChange} is postponed until there
+ * are no more restart requests for given context during configured <em>quiet period</em>.</p>
+ *
+ * <p>The methods are usually called from the configuration thread (the one that invokes {@link BatchVisitor}
+ * methods of the server wrapper), but {@link #started(String)} may be called from a thread that starts the
+ * context (see {@link org.ops4j.pax.web.service.spi.ContextStarter}).</p>
+ */
+public class ContextRestartScheduler {
+
+	private static final Logger LOG = LoggerFactory.getLogger(ContextRestartScheduler.class);
+
+	private final long quietPeriod;
+
+	/** Context paths marked as dirty mapped to the time (nanos) of last restart request */
+	private final Map<String, Long> dirtyContexts = new ConcurrentHashMap<>();
+
+	/** Number of stop/start cycles that would be performed without debouncing */
+	private final AtomicLong requestedRestarts = new AtomicLong();
+	/** Number of stop/start cycles actually performed */
+	private final AtomicLong performedRestarts = new AtomicLong();
+
+	/**
+	 * Creates the scheduler
+	 *
+	 * @param quietPeriod time in milliseconds without new restart requests after which a dirty context is started.
+	 *        {@code 0} means that the context is started in next tick of the configuration thread.
+	 */
+	public ContextRestartScheduler(long quietPeriod) {
+		this.quietPeriod = Math.max(0L, quietPeriod);
+	}
+
+	/**
+	 * Marks the context as requiring a restart. Should be called each time a listener/SCI is added to a started
+	 * context (which is then stopped) or to a context that's already waiting for a restart.
+	 *
+	 * @param contextPath
+	 * @return {@code true} if the context was not dirty yet - the caller should stop the context and schedule
+	 *         {@link #restart(String) a restart}
+	 */
+	public boolean markDirty(String contextPath) {
+		requestedRestarts.incrementAndGet();
+		return dirtyContexts.put(contextPath, System.nanoTime()) == null;
+	}
+
+	/**
+	 * Checks whether the context is waiting for a restart.
+	 *
+	 * @param contextPath
+	 * @return
+	 */
+	public boolean isDirty(String contextPath) {
+		return dirtyContexts.containsKey(contextPath);
+	}
+
+	/**
+	 * Creates a {@link ContextStartChange} to be registered as <em>batch completed action</em> to restart
+	 * a dirty context.
+	 *
+	 * @param contextPath
+	 * @return
+	 */
+	public ContextStartChange restart(String contextPath) {
+		return new ContextStartChange(OpCode.MODIFY, contextPath, quietPeriod);
+	}
+
+	/**
+	 * Checks whether a {@link ContextStartChange} may be processed now. If there were restart requests for
+	 * the context within the quiet period, new change (with remaining delay) is returned and should be
+	 * registered as <em>batch completed action</em> instead of starting the context.
+	 *
+	 * @param change
+	 * @return {@code null} if the context may be started now
+	 */
+	public ContextStartChange postpone(ContextStartChange change) {
+		if (!change.isDebounced()) {
+			return null;
+		}
+		Long lastRequest = dirtyContexts.get(change.getContextPath());
+		if (lastRequest == null) {
+			// started in the meantime (e.g., by registration of active web element)
+			return null;
+		}
+		long remaining = remaining(lastRequest);
+		if (remaining <= 0L) {
+			return null;
+		}
+		LOG.debug("Postponing start of the context \"{}\" by {}ms", change.getContextPath(), remaining);
+		return new ContextStartChange(OpCode.MODIFY, change.getContextPath(), remaining);
+	}
+
+	/**
+	 * Checks whether the context should not be started now, even if some active web element is registered.
+	 * It's the case when the context is dirty and the quiet period didn't pass yet - the context will be started
+	 * by the debounced {@link ContextStartChange}.
+	 *
+	 * @param contextPath
+	 * @return
+	 */
+	public boolean isStartDeferred(String contextPath) {
+		Long lastRequest = dirtyContexts.get(contextPath);
+		return lastRequest != null && remaining(lastRequest) > 0L;
+	}
+
+	/**
+	 * Should be called after the context was actually started - clears the dirty state.
+	 *
+	 * @param contextPath
+	 */
+	public void started(String contextPath) {
+		if (dirtyContexts.remove(contextPath) != null) {
+			performedRestarts.incrementAndGet();
+			if (LOG.isDebugEnabled()) {
+				LOG.debug("Context \"{}\" restarted. Restarts requested: {}, performed: {}, saved: {}",
+						contextPath, getRequestedRestarts(), getPerformedRestarts(), getSavedRestarts());
+			}
+		}
+	}
+
+	/**
+	 * Should be called when the context is removed - there's nothing to restart.
+	 *
+	 * @param contextPath
+	 */
+	public void removed(String contextPath) {
+		dirtyContexts.remove(contextPath);
+	}
+
+	private long remaining(long lastRequest) {
+		return quietPeriod - TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - lastRequest);
+	}
+
+	public long getQuietPeriod() {
+		return quietPeriod;
+	}
+
+	public long getRequestedRestarts() {
+		return requestedRestarts.get();
+	}
+
+	public long getPerformedRestarts() {
+		return performedRestarts.get();
+	}
+
+	/**
+	 * Returns the number of context stop/start cycles avoided thanks to debouncing.
+	 *
+	 * @return
+	 */
+	public long getSavedRestarts() {
+		return Math.max(0L, requestedRestarts.get() - performedRestarts.get());
+	}
+
+	@Override
+	public String toString() {
+		return "ContextRestartScheduler{quietPeriod=" + quietPeriod + "ms, requested=" + getRequestedRestarts()
+				+ ", performed=" + getPerformedRestarts() + ", saved=" + getSavedRestarts() + "}";
+	}
+
+}
@@ -23,22 +23,32 @@ import org.ops4j.pax.web.service.spi.model.OsgiContextModel;
  * case at https://github.com/ops4j/org.ops4j.pax.web/issues/1622.
  * For HTTP context processing (to alter security configuration) this action may also be registered when configuration
  * changes.
+ * When registration of listeners/initializers requires a restart of a context, the action may be <em>debounced</em>
+ * (see {@link ContextRestartScheduler}) - in such case, the action carries a delay after which it should be sent
+ * to the server runtime.
  */
 public class ContextStartChange extends Change {
 
 	private final String contextPath;
 	private final OsgiContextModel osgiContextModel;
+	private final long delay;
 
 	public ContextStartChange(OpCode op, String contextPath) {
+		this(op, contextPath, 0L);
+	}
+
+	public ContextStartChange(OpCode op, String contextPath, long delay) {
 		super(op);
 		this.contextPath = contextPath;
 		this.osgiContextModel = null;
+		this.delay = delay;
 	}
 
 	public ContextStartChange(OpCode op, OsgiContextModel osgiContextModel) {
 		super(op);
 		this.contextPath = osgiContextModel.getContextPath();
 		this.osgiContextModel = osgiContextModel;
+		this.delay = 0L;
 	}
 
 	@Override
@@ -54,4 +64,21 @@ public class ContextStartChange extends Change {
 		return osgiContextModel;
 	}
 
+	/**
+	 * Returns the time in milliseconds after which this change should be sent to the server runtime. {@code 0}
+	 * means <em>next tick of the configuration thread</em>.
+	 * @return
+	 */
+	public long getDelay() {
+		return delay;
+	}
+
+	/**
+	 * Whether this change is a <em>debounced restart</em> scheduled by {@link ContextRestartScheduler}.
+	 * @return
+	 */
+	public boolean isDebounced() {
+		return delay > 0L;
+	}
+
 }
@@ -0,0 +1,167 @@
+/*
+ * Copyright 2026 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.web.service.spi.util;
+
+import java.io.File;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+
+import org.osgi.framework.Bundle;
+import org.osgi.framework.Constants;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * <p>Resolves URLs of entries of a bundle installed from a directory (like {@code reference:file:/path/to/dir}
+ * or exploded WAB) to files, so the <em>resource servlets</em> can use native file resources (with
+ * {@code sendfile}/{@link java.nio.channels.FileChannel#transferTo} and efficient range requests) instead of
+ * streaming the content through {@link java.net.URLConnection}.</p>
+ *
+ * <p>Only the URLs of the bundle itself (not its fragments) are resolved: Felix {@code bundle:} and Equinox
+ * {@code bundleentry:} entry URLs and, if the bundle class path starts with {@code .}, the class path resource
+ * URLs for the root of the bundle ({@code bundle://<id>.<rev>:1/} in Felix and {@code bundleresource:} in
+ * Equinox).</p>
+ */
+public final class BundleFileResolver {
+
+	private static final Logger LOG = LoggerFactory.getLogger(BundleFileResolver.class);
+
+	private final long bundleId;
+	private final Path base;
+	private final boolean rootClassPath;
+
+	BundleFileResolver(long bundleId, Path base, boolean rootClassPath) {
+		this.bundleId = bundleId;
+		this.base = base;
+		this.rootClassPath = rootClassPath;
+	}
+
+	/**
+	 * Creates a resolver for a bundle if it's installed from a directory.
+	 * @param bundle
+	 * @return a resolver or {@code null} if the bundle is not installed from a directory
+	 */
+	public static BundleFileResolver create(Bundle bundle) {
+		if (bundle == null || bundle.getLocation() == null) {
+			return null;
+		}
+		String location = bundle.getLocation();
+		if (location.startsWith("reference:")) {
+			location = location.substring("reference:".length());
+		}
+		if (!location.startsWith("file:")) {
+			return null;
+		}
+		String path = location.substring("file:".length());
+		try {
+			path = new URI(location).getSchemeSpecificPart();
+		} catch (URISyntaxException ignored) {
+			// not encoded location, like "reference:file:/path with spaces"
+		}
+		Path base;
+		try {
+			base = new File(path).toPath().toAbsolutePath().normalize();
+		} catch (InvalidPathException e) {
+			return null;
+		}
+		if (!Files.isDirectory(base)) {
+			return null;
+		}
+
+		String classPath = bundle.getHeaders() == null ? null : bundle.getHeaders().get(Constants.BUNDLE_CLASSPATH);
+		boolean rootClassPath = classPath == null || ".".equals(classPath.split(",")[0].trim());
+
+		LOG.debug("Resources of bundle {} will be served from {}", bundle, base);
+		return new BundleFileResolver(bundle.getBundleId(), base, rootClassPath);
+	}
+
+	/**
+	 * Returns a file for given bundle URL.
+	 * @param url
+	 * @return existing file (not a directory) or {@code null} if the URL can't be resolved to a file
+	 */
+	public File resolve(URL url) {
+		if (url == null || !isBundleRootUrl(url)) {
+			return null;
+		}
+		// Felix: bundle://<id>.<rev>:<port>, Felix 7: bundle://<framework uuid>_<id>.<rev>:<port>,
+		// Equinox: bundleentry://<id>.fwk<hash>
+		String host = url.getHost();
+		int dot = host == null ? -1 : host.indexOf('.');
+		String id = dot <= 0 ? "" : host.substring(host.lastIndexOf('_', dot) + 1, dot);
+		if (!Long.toString(bundleId).equals(id)) {
+			// other bundle or a fragment
+			return null;
+		}
+
+		String path = url.getPath();
+		if (path.indexOf('%') >= 0) {
+			try {
+				path = url.toURI().getPath();
+			} catch (URISyntaxException e) {
+				return null;
+			}
+		}
+		if (path == null || "".equals(path) || path.endsWith("/")) {
+			return null;
+		}
+		while (path.startsWith("/")) {
+			path = path.substring(1);
+		}
+
+		Path file;
+		try {
+			file = base.resolve(path).normalize();
+		} catch (InvalidPathException e) {
+			return null;
+		}
+		if (!file.startsWith(base) || !Files.isRegularFile(file)) {
+			return null;
+		}
+		return file.toFile();
+	}
+
+	/**
+	 * Checks whether the URL is an entry URL or class path resource URL of bundle's root.
+	 * @param url
+	 * @return
+	 */
+	private boolean isBundleRootUrl(URL url) {
+		int port = url.getPort();
+		switch (url.getProtocol()) {
+			case "bundleentry":
+				return true;
+			case "bundle":
+				// Felix: 0 for entries, class path index + 1 for resources
+				return port <= 0 || (port == 1 && rootClassPath);
+			case "bundleresource":
+				// Equinox: class path index
+				return port <= 0 && rootClassPath;
+			default:
+				return false;
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "BundleFileResolver{bundle=" + bundleId + ", base=" + base + "}";
+	}
+
+}
@@ -0,0 +1,329 @@
+/*
+ * Copyright 2026 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.web.service.spi.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+import org.ops4j.pax.web.service.spi.config.ResourceConfiguration;
+import org.osgi.framework.Bundle;
+
+/**
+ * <p>Server-wide cache of gzipped static content used by the <em>resource servlets</em> when there's no
+ * precompressed {@code .gz} sibling of a resource. The runtimes expose the compressed content as virtual
+ * {@code <resource>.gz} resources, so native precompressed content negotiation of Jetty, Tomcat and Undertow
+ * can be used.</p>
+ *
+ * <p>Entries are keyed by owner (bundle id), version (bundle last modification time) and path (resource URL),
+ * so each revision of a resource is compressed only once. Resources which can't be compressed to smaller size
+ * are remembered too, so they're not compressed again.</p>
+ */
+public final class CompressedContentCache {
+
+	/** Encoding of the compressed content */
+	public static final String ENCODING = "gzip";
+
+	/** Extension of virtual resources with compressed content */
+	public static final String EXTENSION = ".gz";
+
+	/** Resources smaller than this are not worth compressing */
+	private static final int MIN_SIZE = 256;
+
+	/** Marker for resources which were not compressed */
+	private static final Entry NOT_COMPRESSIBLE = new Entry(new byte[0], 0L);
+
+	private final long maxSize;
+	private final long maxEntrySize;
+	private final String[] mimeTypes;
+
+	private final Map<SharedResourceCache.Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+	private long size;
+
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder compressions = new LongAdder();
+	private final LongAdder compressionTime = new LongAdder();
+	private final LongAdder originalBytes = new LongAdder();
+	private final LongAdder compressedBytes = new LongAdder();
+
+	/**
+	 * Creates a cache with given budget.
+	 * @param maxSize total size (in bytes) of cached compressed content
+	 * @param maxEntrySize max size (in bytes) of single resource to compress
+	 * @param mimeTypes compressible MIME types - exact or with {@code type/*} wildcard
+	 */
+	public CompressedContentCache(long maxSize, long maxEntrySize, String[] mimeTypes) {
+		this.maxSize = Math.max(1L, maxSize);
+		this.maxEntrySize = maxEntrySize;
+		this.mimeTypes = new String[mimeTypes.length];
+		for (int i = 0; i < mimeTypes.length; i++) {
+			this.mimeTypes[i] = mimeTypes[i].trim().toLowerCase(Locale.ROOT);
+		}
+	}
+
+	/**
+	 * Creates a cache using {@link ResourceConfiguration#compression()},
+	 * {@link ResourceConfiguration#maxCompressedCacheSize()}, {@link ResourceConfiguration#maxCacheEntrySize()}
+	 * and {@link ResourceConfiguration#compressibleMimeTypes()}.
+	 * @param configuration
+	 * @return a cache or {@code null} if the compression is not enabled (the default)
+	 */
+	public static CompressedContentCache create(ResourceConfiguration configuration) {
+		if (!configuration.compression()) {
+			return null;
+		}
+		Integer maxSize = configuration.maxCompressedCacheSize();
+		Integer maxEntrySize = configuration.maxCacheEntrySize();
+		if (maxEntrySize == null || maxEntrySize <= 0) {
+			// Jetty default 128 * 1024 * 1024 / 64
+			maxEntrySize = 2048;
+		}
+		return new CompressedContentCache(maxSize * 1024L, maxEntrySize * 1024L,
+				configuration.compressibleMimeTypes());
+	}
+
+	/**
+	 * Checks whether resources of given MIME type should be compressed.
+	 * @param mimeType MIME type, possibly with parameters like {@code charset}
+	 * @return
+	 */
+	public boolean isCompressible(String mimeType) {
+		if (mimeType == null) {
+			return false;
+		}
+		String type = mimeType;
+		int semicolon = type.indexOf(';');
+		if (semicolon >= 0) {
+			type = type.substring(0, semicolon);
+		}
+		type = type.trim().toLowerCase(Locale.ROOT);
+		for (String mt : mimeTypes) {
+			if (mt.equals(type) || (mt.endsWith("/*") && type.startsWith(mt.substring(0, mt.length() - 1)))) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Returns gzipped content of a resource, compressing it if needed.
+	 * @param bundle bundle from which the resource is served - {@code null} if it's not a bundle resource
+	 * @param lastModified used as the version if there's no bundle
+	 * @param path unique location of the resource, for example its URL
+	 * @param length length of the resource or {@code -1} if not known
+	 * @param loader used to load the original content
+	 * @return compressed content (not to be modified) or {@code null} if the resource shouldn't be compressed
+	 * @throws IOException
+	 */
+	public byte[] getCompressed(Bundle bundle, long lastModified, String path, long length,
+			SharedResourceCache.ContentLoader loader) throws IOException {
+		long owner = bundle == null ? -1L : bundle.getBundleId();
+		long version = bundle == null ? lastModified : bundle.getLastModified();
+		return getCompressed(owner, version, path, length, loader);
+	}
+
+	/**
+	 * Returns gzipped content of a resource, compressing it if needed.
+	 * @param owner
+	 * @param version
+	 * @param path
+	 * @param length
+	 * @param loader
+	 * @return
+	 * @throws IOException
+	 */
+	public byte[] getCompressed(long owner, long version, String path, long length,
+			SharedResourceCache.ContentLoader loader) throws IOException {
+		if ((length >= 0 && length < MIN_SIZE) || length > maxEntrySize) {
+			return null;
+		}
+		SharedResourceCache.Key key = new SharedResourceCache.Key(owner, version, path);
+		Entry entry;
+		synchronized (entries) {
+			entry = entries.get(key);
+		}
+		if (entry != null) {
+			hits.increment();
+		} else {
+			// compressing outside of the lock - concurrent compression of the same resource is possible,
+			// but harmless
+			entry = compress(loader);
+			synchronized (entries) {
+				Entry existing = entries.put(key, entry);
+				size += entry.compressed.length;
+				if (existing != null) {
+					size -= existing.compressed.length;
+				}
+				Iterator<Entry> it = entries.values().iterator();
+				while (size > maxSize && it.hasNext()) {
+					size -= it.next().compressed.length;
+					it.remove();
+				}
+			}
+		}
+		if (entry == NOT_COMPRESSIBLE) {
+			return null;
+		}
+		originalBytes.add(entry.originalLength);
+		compressedBytes.add(entry.compressed.length);
+		return entry.compressed;
+	}
+
+	private Entry compress(SharedResourceCache.ContentLoader loader) throws IOException {
+		long start = System.nanoTime();
+		ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		long read = 0L;
+		try (InputStream is = loader.open()) {
+			if (is == null) {
+				return NOT_COMPRESSIBLE;
+			}
+			try (GZIPOutputStream gzip = new GZIPOutputStream(baos, 8192) {
+				{
+					// the content is compressed only once, so it's worth to use the best compression
+					def.setLevel(Deflater.BEST_COMPRESSION);
+				}
+			}) {
+				byte[] buffer = new byte[8192];
+				int count;
+				while ((count = is.read(buffer)) != -1) {
+					read += count;
+					if (read > maxEntrySize) {
+						return NOT_COMPRESSIBLE;
+					}
+					gzip.write(buffer, 0, count);
+				}
+			}
+		} finally {
+			compressionTime.add(System.nanoTime() - start);
+		}
+		compressions.increment();
+		if (read < MIN_SIZE || baos.size() >= read) {
+			return NOT_COMPRESSIBLE;
+		}
+		return new Entry(baos.toByteArray(), read);
+	}
+
+	/**
+	 * Removes content of all resources of given owner (bundle id).
+	 * @param owner
+	 */
+	public void invalidate(long owner) {
+		synchronized (entries) {
+			Iterator<Map.Entry<SharedResourceCache.Key, Entry>> it = entries.entrySet().iterator();
+			while (it.hasNext()) {
+				Map.Entry<SharedResourceCache.Key, Entry> e = it.next();
+				if (e.getKey().owner == owner) {
+					size -= e.getValue().compressed.length;
+					it.remove();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Removes all the content.
+	 */
+	public void clear() {
+		synchronized (entries) {
+			entries.clear();
+			size = 0L;
+		}
+	}
+
+	/**
+	 * Number of compressed content lookups which didn't require compression.
+	 * @return
+	 */
+	public long getHits() {
+		return hits.sum();
+	}
+
+	/**
+	 * Number of performed compressions (including the ones that didn't reduce the size).
+	 * @return
+	 */
+	public long getCompressions() {
+		return compressions.sum();
+	}
+
+	/**
+	 * Total time (in nanoseconds) spent compressing the content.
+	 * @return
+	 */
+	public long getCompressionTime() {
+		return compressionTime.sum();
+	}
+
+	/**
+	 * Total size (in bytes) of original content for which compressed content was returned.
+	 * @return
+	 */
+	public long getOriginalBytes() {
+		return originalBytes.sum();
+	}
+
+	/**
+	 * Total size (in bytes) of returned compressed content.
+	 * @return
+	 */
+	public long getCompressedBytes() {
+		return compressedBytes.sum();
+	}
+
+	public int getEntryCount() {
+		synchronized (entries) {
+			return entries.size();
+		}
+	}
+
+	/**
+	 * Size (in bytes) of all cached compressed content.
+	 * @return
+	 */
+	public long getSize() {
+		synchronized (entries) {
+			return size;
+		}
+	}
+
+	public long getMaxSize() {
+		return maxSize;
+	}
+
+	@Override
+	public String toString() {
+		return "CompressedContentCache{maxSize=" + maxSize + ", size=" + getSize() + ", hits=" + getHits()
+				+ ", compressions=" + getCompressions() + "}";
+	}
+
+	private static final class Entry {
+		private final byte[] compressed;
+		private final long originalLength;
+
+		Entry(byte[] compressed, long originalLength) {
+			this.compressed = compressed;
+			this.originalLength = originalLength;
+		}
+	}
+
+}
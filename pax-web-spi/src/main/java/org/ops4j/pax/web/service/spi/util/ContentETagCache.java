@@ -0,0 +1,217 @@
+/*
+ * Copyright 2026 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.web.service.spi.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.ops4j.pax.web.service.spi.config.ResourceConfiguration;
+import org.osgi.framework.Bundle;
+
+/**
+ * <p>Server-wide cache of strong, content based entity tags of bundle resources served by the
+ * <em>resource servlets</em>.</p>
+ *
+ * <p>Bundle entry URLs often report bundle installation time (or {@code 0}) as last modification time, so
+ * default {@code length + lastModified} entity tags don't change with the content and are only weak. Here
+ * the tag is a hash of the content, computed once per bundle revision - entries are keyed by owner (bundle id),
+ * version (bundle last modification time) and path (resource URL), just as in {@link SharedResourceCache}.</p>
+ *
+ * <p>Lookups don't lock - when the cache is full, the tags not used since previous eviction are removed
+ * (<em>second chance</em>), so there's no need to track the order of access.</p>
+ */
+public final class ContentETagCache {
+
+	/** Max number of remembered tags - the entries are small, so it's not configurable */
+	private static final int DEFAULT_MAX_ENTRIES = 16384;
+
+	/** Number of bytes of SHA-256 digest used in the tag */
+	private static final int TAG_BYTES = 16;
+
+	private final int maxEntries;
+
+	private final Map<SharedResourceCache.Key, Tag> tags = new ConcurrentHashMap<>();
+
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder computations = new LongAdder();
+
+	public ContentETagCache(int maxEntries) {
+		this.maxEntries = Math.max(1, maxEntries);
+	}
+
+	/**
+	 * Creates a cache if {@link ResourceConfiguration#contentETags()} is enabled.
+	 * @param configuration
+	 * @return a cache or {@code null} if content based tags are not enabled (the default)
+	 */
+	public static ContentETagCache create(ResourceConfiguration configuration) {
+		if (!configuration.contentETags()) {
+			return null;
+		}
+		return new ContentETagCache(DEFAULT_MAX_ENTRIES);
+	}
+
+	/**
+	 * Returns opaque tag (without quotes) of bundle resource, computing it if needed.
+	 * @param bundle bundle from which the resource is served - {@code null} if it's not a bundle resource
+	 * @param path unique location of the resource, for example its URL
+	 * @param loader used to load the content
+	 * @return the tag or {@code null} if the tag can't be computed (or the resource is not a bundle resource)
+	 * @throws IOException
+	 */
+	public String getETag(Bundle bundle, String path, SharedResourceCache.ContentLoader loader) throws IOException {
+		if (bundle == null) {
+			// resources from configured directories have reliable last modification time
+			return null;
+		}
+		return getETag(bundle.getBundleId(), bundle.getLastModified(), path, loader);
+	}
+
+	/**
+	 * Returns opaque tag (without quotes) of a resource, computing it if needed.
+	 * @param owner
+	 * @param version
+	 * @param path
+	 * @param loader
+	 * @return
+	 * @throws IOException
+	 */
+	public String getETag(long owner, long version, String path, SharedResourceCache.ContentLoader loader) throws IOException {
+		SharedResourceCache.Key key = new SharedResourceCache.Key(owner, version, path);
+		Tag cached = tags.get(key);
+		if (cached != null) {
+			if (!cached.used) {
+				cached.used = true;
+			}
+			hits.increment();
+			return cached.value;
+		}
+
+		// concurrent hashing of the same resource is possible, but harmless
+		String tag = hash(loader);
+		if (tag != null) {
+			if (tags.size() >= maxEntries) {
+				evict();
+			}
+			tags.put(key, new Tag(tag));
+		}
+		return tag;
+	}
+
+	/**
+	 * Removes the tags not used since previous eviction (<em>second chance</em>), so the resources requested
+	 * repeatedly keep their tags.
+	 */
+	private synchronized void evict() {
+		if (tags.size() < maxEntries) {
+			return;
+		}
+		tags.values().removeIf(t -> {
+			boolean unused = !t.used;
+			t.used = false;
+			return unused;
+		});
+		if (tags.size() >= maxEntries) {
+			// all the tags were used - no way to choose
+			tags.clear();
+		}
+	}
+
+	private String hash(SharedResourceCache.ContentLoader loader) throws IOException {
+		MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e.getMessage(), e);
+		}
+		try (InputStream is = loader.open()) {
+			if (is == null) {
+				return null;
+			}
+			byte[] buffer = new byte[8192];
+			int count;
+			while ((count = is.read(buffer)) != -1) {
+				digest.update(buffer, 0, count);
+			}
+		}
+		computations.increment();
+		byte[] hash = digest.digest();
+		byte[] tag = new byte[TAG_BYTES];
+		System.arraycopy(hash, 0, tag, 0, TAG_BYTES);
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(tag);
+	}
+
+	/**
+	 * Removes tags of all resources of given owner (bundle id).
+	 * @param owner
+	 */
+	public void invalidate(long owner) {
+		tags.keySet().removeIf(key -> key.owner == owner);
+	}
+
+	/**
+	 * Removes all the tags.
+	 */
+	public void clear() {
+		tags.clear();
+	}
+
+	/**
+	 * Number of tag lookups which didn't require reading the content.
+	 * @return
+	 */
+	public long getHits() {
+		return hits.sum();
+	}
+
+	/**
+	 * Number of tags computed from the content.
+	 * @return
+	 */
+	public long getComputations() {
+		return computations.sum();
+	}
+
+	public int getEntryCount() {
+		return tags.size();
+	}
+
+	@Override
+	public String toString() {
+		return "ContentETagCache{entries=" + getEntryCount() + ", hits=" + getHits()
+				+ ", computations=" + getComputations() + "}";
+	}
+
+	/**
+	 * Cached tag with a mark of being used since last eviction.
+	 */
+	private static final class Tag {
+
+		private final String value;
+		private volatile boolean used;
+
+		private Tag(String value) {
+			this.value = value;
+		}
+	}
+
+}
@@ -0,0 +1,211 @@
+/*
+ * Copyright 2026 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.web.service.spi.util;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.LongSupplier;
+
+import org.ops4j.pax.web.service.spi.config.SecurityConfiguration;
+
+/**
+ * <p>Bounded cache of <em>successful</em> credential verifications, used by the runtimes to avoid full JAAS
+ * login (which may involve LDAP or JDBC) for every request with BASIC/FORM credentials.</p>
+ *
+ * <p>Entries are keyed by realm, user name and a salted SHA-256 hash of the credential - the credential itself is
+ * never kept. Entries expire after configured TTL and least recently used entries are removed when the cache
+ * is full. The cache should be {@link #invalidate() invalidated} whenever the realm or its configuration
+ * changes.</p>
+ *
+ * @param <T> the verified identity (account, principal, ...) returned from the cache
+ */
+public final class CredentialCache<T> {
+
+	private final long ttlNanos;
+	private final int maxSize;
+	private final LongSupplier clock;
+
+	/** Per-cache salt, so the hashes in memory can't be matched against precomputed ones */
+	private final byte[] salt = new byte[16];
+
+	private final Map<Key, Entry<T>> entries;
+
+	public CredentialCache(long ttlMillis, int maxSize) {
+		this(ttlMillis, maxSize, System::nanoTime);
+	}
+
+	CredentialCache(long ttlMillis, int maxSize, LongSupplier clock) {
+		this.ttlNanos = ttlMillis * 1_000_000L;
+		this.maxSize = Math.max(1, maxSize);
+		this.clock = clock;
+		new SecureRandom().nextBytes(salt);
+		this.entries = new LinkedHashMap<Key, Entry<T>>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Key, Entry<T>> eldest) {
+				return size() > CredentialCache.this.maxSize;
+			}
+		};
+	}
+
+	/**
+	 * Creates a cache using {@link SecurityConfiguration#getCredentialCacheTtl()} and
+	 * {@link SecurityConfiguration#getCredentialCacheMaxSize()}.
+	 * @param configuration
+	 * @param <T>
+	 * @return a cache or {@code null} if caching is disabled (which is the default)
+	 */
+	public static <T> CredentialCache<T> create(SecurityConfiguration configuration) {
+		Long ttl = configuration.getCredentialCacheTtl();
+		Integer maxSize = configuration.getCredentialCacheMaxSize();
+		if (ttl == null || ttl <= 0L || maxSize == null || maxSize <= 0) {
+			return null;
+		}
+		return new CredentialCache<>(ttl, maxSize);
+	}
+
+	/**
+	 * Returns previously verified identity, if it's still valid.
+	 * @param realm
+	 * @param user
+	 * @param credential password as {@code char[]}, {@link String} or any object with meaningful
+	 *        {@link Object#toString()}
+	 * @return
+	 */
+	public T get(String realm, String user, Object credential) {
+		if (user == null || credential == null) {
+			return null;
+		}
+		Key key = new Key(realm, user, hash(credential));
+		synchronized (entries) {
+			Entry<T> entry = entries.get(key);
+			if (entry == null) {
+				return null;
+			}
+			if (clock.getAsLong() - entry.created >= ttlNanos) {
+				entries.remove(key);
+				return null;
+			}
+			return entry.value;
+		}
+	}
+
+	/**
+	 * Remembers successful verification of the credential. Failed verifications should never be cached.
+	 * @param realm
+	 * @param user
+	 * @param credential
+	 * @param value
+	 */
+	public void put(String realm, String user, Object credential, T value) {
+		if (user == null || credential == null || value == null) {
+			return;
+		}
+		Key key = new Key(realm, user, hash(credential));
+		synchronized (entries) {
+			entries.put(key, new Entry<>(value, clock.getAsLong()));
+		}
+	}
+
+	/**
+	 * Removes all entries.
+	 */
+	public void invalidate() {
+		synchronized (entries) {
+			entries.clear();
+		}
+	}
+
+	public int size() {
+		synchronized (entries) {
+			return entries.size();
+		}
+	}
+
+	private byte[] hash(Object credential) {
+		byte[] bytes;
+		if (credential instanceof char[]) {
+			ByteBuffer bb = StandardCharsets.UTF_8.encode(CharBuffer.wrap((char[]) credential));
+			bytes = new byte[bb.remaining()];
+			bb.get(bytes);
+			if (bb.hasArray()) {
+				Arrays.fill(bb.array(), (byte) 0);
+			}
+		} else {
+			bytes = credential.toString().getBytes(StandardCharsets.UTF_8);
+		}
+		try {
+			MessageDigest md = MessageDigest.getInstance("SHA-256");
+			md.update(salt);
+			return md.digest(bytes);
+		} catch (NoSuchAlgorithmException e) {
+			// SHA-256 is required to be available in every JVM
+			throw new IllegalStateException(e.getMessage(), e);
+		} finally {
+			Arrays.fill(bytes, (byte) 0);
+		}
+	}
+
+	private static final class Key {
+		private final String realm;
+		private final String user;
+		private final byte[] hash;
+		private final int hashCode;
+
+		Key(String realm, String user, byte[] hash) {
+			this.realm = realm;
+			this.user = user;
+			this.hash = hash;
+			this.hashCode = 31 * (31 * Objects.hashCode(realm) + user.hashCode()) + Arrays.hashCode(hash);
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (!(o instanceof Key)) {
+				return false;
+			}
+			Key key = (Key) o;
+			return Objects.equals(realm, key.realm) && user.equals(key.user)
+					&& MessageDigest.isEqual(hash, key.hash);
+		}
+
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
+	}
+
+	private static final class Entry<T> {
+		private final T value;
+		private final long created;
+
+		Entry(T value, long created) {
+			this.value = value;
+			this.created = created;
+		}
+	}
+
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2026 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.web.service.spi.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import org.ops4j.pax.web.service.spi.config.ResourceConfiguration;
+
+/**
+ * <p>Policy deciding which static resources are <em>fingerprinted</em> (their name changes with the content,
+ * like {@code app.3f2a9c1e.js}), so they can be served with {@code Cache-Control: immutable} and long
+ * {@code max-age}.</p>
+ *
+ * <p>The patterns are regular expressions searched (not matched) in the path of the resource within
+ * resource servlet, which always starts with {@code /}. Use {@code ^} and {@code $} anchors if needed.</p>
+ */
+public final class ImmutableResources {
+
+	public static final String CACHE_CONTROL = "Cache-Control";
+
+	/** One year, the maximum recommended by RFC 9111 */
+	public static final int DEFAULT_MAX_AGE = 365 * 24 * 60 * 60;
+
+	private final Pattern[] patterns;
+	private final String cacheControl;
+
+	/**
+	 * Creates a policy for given patterns.
+	 * @param patterns regular expressions of fingerprinted resource paths
+	 * @param maxAge {@code max-age} in seconds
+	 */
+	public ImmutableResources(String[] patterns, int maxAge) {
+		List<Pattern> compiled = new ArrayList<>(patterns.length);
+		for (String p : patterns) {
+			if (p != null && !"".equals(p.trim())) {
+				compiled.add(Pattern.compile(p.trim()));
+			}
+		}
+		this.patterns = compiled.toArray(new Pattern[0]);
+		this.cacheControl = "public, max-age=" + maxAge + ", immutable";
+	}
+
+	/**
+	 * Creates a policy using {@link ResourceConfiguration#immutablePatterns()} and
+	 * {@link ResourceConfiguration#immutableMaxAge()}.
+	 * @param configuration
+	 * @return a policy or {@code null} if there are no patterns configured (the default)
+	 */
+	public static ImmutableResources create(ResourceConfiguration configuration) {
+		String[] patterns = configuration.immutablePatterns();
+		if (patterns == null || patterns.length == 0) {
+			return null;
+		}
+		Integer maxAge = configuration.immutableMaxAge();
+		return new ImmutableResources(patterns, maxAge == null || maxAge <= 0 ? DEFAULT_MAX_AGE : maxAge);
+	}
+
+	/**
+	 * Checks whether resource at given path is fingerprinted.
+	 * @param path path of the resource within resource servlet - with or without leading {@code /}
+	 * @return
+	 */
+	public boolean isImmutable(String path) {
+		if (path == null) {
+			return false;
+		}
+		String p = path.startsWith("/") ? path : "/" + path;
+		for (Pattern pattern : patterns) {
+			if (pattern.matcher(p).find()) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Value of {@code Cache-Control} header for fingerprinted resources.
+	 * @return
+	 */
+	public String getCacheControl() {
+		return cacheControl;
+	}
+
+	@Override
+	public String toString() {
+		return "ImmutableResources{patterns=" + Arrays.toString(patterns) + ", cacheControl=" + cacheControl + "}";
+	}
+
+}
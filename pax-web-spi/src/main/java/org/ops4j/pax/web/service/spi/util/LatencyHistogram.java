@@ -0,0 +1,143 @@
+/*
+ * Copyright 2026 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.web.service.spi.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * <p>Lock-free histogram of durations (in nanoseconds), organized like HdrHistogram - each power of 2 is
+ * divided into {@link #SUB_BUCKETS} linear buckets, so the value returned for a percentile is never off by more
+ * than 1/16 (6.25%), while the full {@code long} range fits into less than a thousand counters.</p>
+ *
+ * <p>Recording is a single atomic increment of a bucket (the maximum is rarely updated), so it can be done
+ * by many request threads without any locking. Count and mean are calculated from the buckets when reading.
+ * Reading is not atomic - values recorded concurrently may or may not be included.</p>
+ */
+public final class LatencyHistogram {
+
+	private static final int SUB_BUCKET_BITS = 4;
+	static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+	static final int BUCKETS = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+	private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+	private final AtomicLong max = new AtomicLong();
+
+	/**
+	 * Records single duration. Negative values (possible with broken clocks) are recorded as {@code 0}.
+	 * @param nanos
+	 */
+	public void record(long nanos) {
+		long value = Math.max(0L, nanos);
+		counts.incrementAndGet(indexOf(value));
+		long current = max.get();
+		while (value > current && !max.compareAndSet(current, value)) {
+			current = max.get();
+		}
+	}
+
+	public long getCount() {
+		long total = 0L;
+		for (int i = 0; i < BUCKETS; i++) {
+			total += counts.get(i);
+		}
+		return total;
+	}
+
+	public long getMax() {
+		return max.get();
+	}
+
+	/**
+	 * Returns mean of all recorded values, where each value is represented by the middle of its bucket.
+	 * @return
+	 */
+	public double getMean() {
+		long total = 0L;
+		double sum = 0.0d;
+		for (int i = 0; i < BUCKETS; i++) {
+			long c = counts.get(i);
+			if (c > 0L) {
+				total += c;
+				sum += c * ((double) lowestEquivalentValue(i) + highestEquivalentValue(i)) / 2.0d;
+			}
+		}
+		return total == 0L ? 0.0d : sum / total;
+	}
+
+	/**
+	 * Returns the highest value that is equivalent (within the precision of the histogram) to a value below
+	 * which given percentage of recorded values falls.
+	 * @param percentile a value between {@code 0} and {@code 100}
+	 * @return
+	 */
+	public long getValueAtPercentile(double percentile) {
+		long[] snapshot = new long[BUCKETS];
+		long total = 0L;
+		for (int i = 0; i < BUCKETS; i++) {
+			snapshot[i] = counts.get(i);
+			total += snapshot[i];
+		}
+		if (total == 0L) {
+			return 0L;
+		}
+		double p = Math.min(100.0d, Math.max(0.0d, percentile));
+		long target = Math.max(1L, (long) Math.ceil(p / 100.0d * total));
+		long cumulative = 0L;
+		for (int i = 0; i < BUCKETS; i++) {
+			cumulative += snapshot[i];
+			if (cumulative >= target) {
+				return Math.min(highestEquivalentValue(i), max.get());
+			}
+		}
+		return max.get();
+	}
+
+	/**
+	 * Clears all recorded values.
+	 */
+	public void reset() {
+		for (int i = 0; i < BUCKETS; i++) {
+			counts.set(i, 0L);
+		}
+		max.set(0L);
+	}
+
+	static int indexOf(long value) {
+		if (value < SUB_BUCKETS) {
+			return (int) value;
+		}
+		int magnitude = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+		int shift = magnitude - SUB_BUCKET_BITS;
+		int subBucket = (int) (value >>> shift) & (SUB_BUCKETS - 1);
+		return (shift + 1) * SUB_BUCKETS + subBucket;
+	}
+
+	static long lowestEquivalentValue(int index) {
+		if (index < SUB_BUCKETS) {
+			return index;
+		}
+		return (long) (SUB_BUCKETS + index % SUB_BUCKETS) << (index / SUB_BUCKETS - 1);
+	}
+
+	static long highestEquivalentValue(int index) {
+		if (index < SUB_BUCKETS) {
+			return index;
+		}
+		return lowestEquivalentValue(index) + (1L << (index / SUB_BUCKETS - 1)) - 1L;
+	}
+
+}
@@ -0,0 +1,514 @@
+/*
+ * Copyright 2026 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.web.service.spi.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+import org.ops4j.pax.web.service.spi.config.ResourceConfiguration;
+import org.osgi.framework.Bundle;
+
+/**
+ * <p>Server-wide cache of static resource content, shared by all the <em>resource servlets</em> of a runtime, so
+ * hot content of one context can use the memory not needed by other contexts. The content is kept in direct
+ * (off-heap) {@link ByteBuffer buffers} and the total size of all the buffers never exceeds single, global
+ * budget.</p>
+ *
+ * <p>Entries are keyed by <em>owner</em> (bundle id), <em>version</em> (bundle last modification time) and
+ * path (resource URL), so an updated bundle never gets stale content. Eviction follows W-TinyLFU: new entries
+ * are put into small LRU <em>window</em> and when they're evicted from the window, they're admitted to the
+ * <em>main</em> LRU area only if they were accessed more frequently than the entries that would have to be
+ * evicted to make room for them. Access frequency is estimated using small, periodically aged count-min
+ * sketch, so one-time scans of many resources can't flush the hot content.</p>
+ *
+ * <p>Cache hits don't take any lock - the content is looked up in a concurrent map and the access is only
+ * recorded in one of the striped, lossy read buffers. The buffers are drained (updating the sketch and LRU
+ * order) under the lock, which is taken when new content is added (admission and eviction) or, without
+ * waiting, when a buffer gets full.</p>
+ */
+public final class SharedResourceCache {
+
+	/** Percentage of the budget used for the admission window */
+	private static final int WINDOW_PERCENT = 1;
+
+	private final long maxSize;
+	private final long maxEntrySize;
+	private final long maxWindowSize;
+
+	/** All cached content, read without locking */
+	private final Map<Key, ByteBuffer> data = new ConcurrentHashMap<>();
+
+	/** Guards the eviction policy - {@link #window}, {@link #main} and {@link #sketch} */
+	private final ReentrantLock evictionLock = new ReentrantLock();
+
+	private final Map<Key, ByteBuffer> window = new LinkedHashMap<>(16, 0.75f, true);
+	private final Map<Key, ByteBuffer> main = new LinkedHashMap<>(16, 0.75f, true);
+	private long windowSize;
+	private long mainSize;
+
+	private final FrequencySketch sketch;
+
+	/** Accesses not yet applied to the eviction policy */
+	private final ReadBuffer[] readBuffers;
+
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder evictions = new LongAdder();
+
+	/**
+	 * Creates a cache with given budget.
+	 * @param maxSize total size (in bytes) of all cached content
+	 * @param maxEntrySize max size (in bytes) of single cached resource
+	 */
+	public SharedResourceCache(long maxSize, long maxEntrySize) {
+		this.maxSize = Math.max(1L, maxSize);
+		this.maxEntrySize = Math.min(this.maxSize, maxEntrySize);
+		this.maxWindowSize = Math.max(1L, this.maxSize * WINDOW_PERCENT / 100L);
+		// assuming 8kB average resource size
+		this.sketch = new FrequencySketch((int) Math.min(1L << 20, Math.max(64L, this.maxSize / 8192L)));
+		int stripes = Integer.highestOneBit(Math.min(64, Runtime.getRuntime().availableProcessors()) * 2 - 1);
+		this.readBuffers = new ReadBuffer[stripes];
+		for (int i = 0; i < stripes; i++) {
+			readBuffers[i] = new ReadBuffer();
+		}
+	}
+
+	/**
+	 * Creates a cache using {@link ResourceConfiguration#maxSharedCacheSize()} and
+	 * {@link ResourceConfiguration#maxCacheEntrySize()} (both in kB).
+	 * @param configuration
+	 * @return a cache or {@code null} if the shared cache is not enabled (the default)
+	 */
+	public static SharedResourceCache create(ResourceConfiguration configuration) {
+		Integer maxSize = configuration.maxSharedCacheSize();
+		if (maxSize == null || maxSize <= 0) {
+			return null;
+		}
+		Integer maxEntrySize = configuration.maxCacheEntrySize();
+		if (maxEntrySize == null || maxEntrySize <= 0) {
+			// Jetty default 128 * 1024 * 1024 / 64
+			maxEntrySize = 2048;
+		}
+		return new SharedResourceCache(maxSize * 1024L, maxEntrySize * 1024L);
+	}
+
+	/**
+	 * Returns cached content of a resource or loads it, if the resource is small enough to be cached.
+	 * @param bundle bundle from which the resource is served - {@code null} if it's not a bundle resource
+	 * @param lastModified used as the version if there's no bundle
+	 * @param path unique location of the resource, for example its URL
+	 * @param length expected length of the content or {@code -1} if not known
+	 * @param loader used to load the content on cache miss
+	 * @return read-only buffer with the content (which may already be evicted from the cache) or {@code null} if
+	 *         the resource can't be cached, so it should be served in usual way
+	 * @throws IOException
+	 */
+	public ByteBuffer getContent(Bundle bundle, long lastModified, String path, long length, ContentLoader loader)
+			throws IOException {
+		long owner = bundle == null ? -1L : bundle.getBundleId();
+		long version = bundle == null ? lastModified : bundle.getLastModified();
+		return getContent(owner, version, path, length, loader);
+	}
+
+	/**
+	 * Returns cached content of a resource or loads it, if the resource is small enough to be cached.
+	 * @param owner
+	 * @param version
+	 * @param path
+	 * @param length
+	 * @param loader
+	 * @return
+	 * @throws IOException
+	 */
+	public ByteBuffer getContent(long owner, long version, String path, long length, ContentLoader loader)
+			throws IOException {
+		Key key = new Key(owner, version, path);
+		recordAccess(key);
+		ByteBuffer buffer = data.get(key);
+		if (buffer != null) {
+			hits.increment();
+			return buffer.duplicate();
+		}
+		misses.increment();
+		if (length > maxEntrySize) {
+			return null;
+		}
+
+		// loading outside of the lock - concurrent loads of the same resource are possible, but harmless
+		ByteBuffer loaded = load(loader);
+		if (loaded == null) {
+			return null;
+		}
+
+		evictionLock.lock();
+		try {
+			drainReadBuffers();
+			ByteBuffer existing = data.putIfAbsent(key, loaded);
+			if (existing != null) {
+				return existing.duplicate();
+			}
+			window.put(key, loaded);
+			windowSize += loaded.capacity();
+			while (windowSize > maxWindowSize && !window.isEmpty()) {
+				Iterator<Map.Entry<Key, ByteBuffer>> it = window.entrySet().iterator();
+				Map.Entry<Key, ByteBuffer> candidate = it.next();
+				it.remove();
+				windowSize -= candidate.getValue().capacity();
+				admit(candidate.getKey(), candidate.getValue());
+			}
+		} finally {
+			evictionLock.unlock();
+		}
+		return loaded.duplicate();
+	}
+
+	/**
+	 * Records an access in the read buffer of current thread, draining the buffers if it's full and the lock
+	 * is not held by other thread.
+	 * @param key
+	 */
+	private void recordAccess(Key key) {
+		ReadBuffer buffer = readBuffers[(int) Thread.currentThread().getId() & (readBuffers.length - 1)];
+		if (!buffer.offer(key) && evictionLock.tryLock()) {
+			try {
+				drainReadBuffers();
+			} finally {
+				evictionLock.unlock();
+			}
+		}
+	}
+
+	/**
+	 * Applies the recorded accesses to the sketch and the LRU order. Called with the lock held.
+	 */
+	private void drainReadBuffers() {
+		for (ReadBuffer buffer : readBuffers) {
+			buffer.drain(key -> {
+				sketch.increment(key.hashCode);
+				// access-ordered maps - get() moves the entry to the end
+				if (window.get(key) == null) {
+					main.get(key);
+				}
+			});
+		}
+	}
+
+	/**
+	 * Moves an entry evicted from the window into the main area, if it's accessed more frequently than
+	 * the entries that have to be evicted to make room for it.
+	 * @param key
+	 * @param buffer
+	 */
+	private void admit(Key key, ByteBuffer buffer) {
+		long maxMainSize = maxSize - maxWindowSize;
+		int size = buffer.capacity();
+		if (mainSize + size > maxMainSize) {
+			// TinyLFU admission - the candidate has to be more popular than the LRU victims
+			int candidateFrequency = sketch.frequency(key.hashCode);
+			long freed = 0L;
+			// iterating over entries, because get() would change the order of access-ordered map
+			for (Map.Entry<Key, ByteBuffer> victim : main.entrySet()) {
+				if (mainSize - freed + size <= maxMainSize) {
+					break;
+				}
+				if (sketch.frequency(victim.getKey().hashCode) >= candidateFrequency) {
+					data.remove(key);
+					evictions.increment();
+					return;
+				}
+				freed += victim.getValue().capacity();
+			}
+			Iterator<Map.Entry<Key, ByteBuffer>> it = main.entrySet().iterator();
+			while (mainSize + size > maxMainSize && it.hasNext()) {
+				Map.Entry<Key, ByteBuffer> victim = it.next();
+				mainSize -= victim.getValue().capacity();
+				data.remove(victim.getKey());
+				it.remove();
+				evictions.increment();
+			}
+		}
+		main.put(key, buffer);
+		mainSize += size;
+	}
+
+	private ByteBuffer load(ContentLoader loader) throws IOException {
+		byte[] bytes = new byte[8192];
+		int length = 0;
+		try (InputStream is = loader.open()) {
+			if (is == null) {
+				return null;
+			}
+			int read;
+			while ((read = is.read(bytes, length, bytes.length - length)) != -1) {
+				length += read;
+				if (length > maxEntrySize) {
+					return null;
+				}
+				if (length == bytes.length) {
+					bytes = Arrays.copyOf(bytes, (int) Math.min(maxEntrySize + 1, bytes.length * 2L));
+				}
+			}
+		}
+		ByteBuffer buffer = ByteBuffer.allocateDirect(length);
+		buffer.put(bytes, 0, length);
+		buffer.flip();
+		return buffer.asReadOnlyBuffer();
+	}
+
+	/**
+	 * Removes content of all resources of given owner (bundle id).
+	 * @param owner
+	 */
+	public void invalidate(long owner) {
+		evictionLock.lock();
+		try {
+			Iterator<Map.Entry<Key, ByteBuffer>> it = window.entrySet().iterator();
+			while (it.hasNext()) {
+				Map.Entry<Key, ByteBuffer> e = it.next();
+				if (e.getKey().owner == owner) {
+					windowSize -= e.getValue().capacity();
+					data.remove(e.getKey());
+					it.remove();
+				}
+			}
+			it = main.entrySet().iterator();
+			while (it.hasNext()) {
+				Map.Entry<Key, ByteBuffer> e = it.next();
+				if (e.getKey().owner == owner) {
+					mainSize -= e.getValue().capacity();
+					data.remove(e.getKey());
+					it.remove();
+				}
+			}
+		} finally {
+			evictionLock.unlock();
+		}
+	}
+
+	/**
+	 * Removes all the content.
+	 */
+	public void clear() {
+		evictionLock.lock();
+		try {
+			data.clear();
+			window.clear();
+			main.clear();
+			windowSize = 0L;
+			mainSize = 0L;
+		} finally {
+			evictionLock.unlock();
+		}
+	}
+
+	public long getHits() {
+		return hits.sum();
+	}
+
+	public long getMisses() {
+		return misses.sum();
+	}
+
+	/**
+	 * Number of entries evicted from the cache or not admitted to it because of the size limit.
+	 * @return
+	 */
+	public long getEvictions() {
+		return evictions.sum();
+	}
+
+	public int getEntryCount() {
+		return data.size();
+	}
+
+	/**
+	 * Size (in bytes) of all cached content.
+	 * @return
+	 */
+	public long getSize() {
+		evictionLock.lock();
+		try {
+			return windowSize + mainSize;
+		} finally {
+			evictionLock.unlock();
+		}
+	}
+
+	public long getMaxSize() {
+		return maxSize;
+	}
+
+	@Override
+	public String toString() {
+		return "SharedResourceCache{maxSize=" + maxSize + ", size=" + getSize() + ", hits=" + getHits()
+				+ ", misses=" + getMisses() + ", evictions=" + getEvictions() + "}";
+	}
+
+	/**
+	 * Source of content to be cached.
+	 */
+	@FunctionalInterface
+	public interface ContentLoader {
+		InputStream open() throws IOException;
+	}
+
+	/**
+	 * Key of cached content - also used by {@link CompressedContentCache} and {@link ContentETagCache}.
+	 */
+	static final class Key {
+		final long owner;
+		final int hashCode;
+		private final long version;
+		private final String path;
+
+		Key(long owner, long version, String path) {
+			this.owner = owner;
+			this.version = version;
+			this.path = path;
+			this.hashCode = 31 * (31 * Long.hashCode(owner) + Long.hashCode(version)) + path.hashCode();
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (!(o instanceof Key)) {
+				return false;
+			}
+			Key key = (Key) o;
+			return owner == key.owner && version == key.version && path.equals(key.path);
+		}
+
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
+	}
+
+	/**
+	 * Bounded buffer of accessed keys, written without locking by many threads and drained by the thread holding
+	 * the lock. Accesses are dropped when the buffer is full - the frequencies are estimates anyway.
+	 */
+	static final class ReadBuffer {
+
+		private static final int SIZE = 32;
+		private static final int MASK = SIZE - 1;
+
+		private final AtomicReferenceArray<Key> keys = new AtomicReferenceArray<>(SIZE);
+		private final AtomicInteger writes = new AtomicInteger();
+		private volatile int reads;
+
+		/**
+		 * Records the key.
+		 * @param key
+		 * @return {@code false} if the buffer is full and should be drained
+		 */
+		boolean offer(Key key) {
+			int w = writes.get();
+			if (w - reads >= SIZE) {
+				return false;
+			}
+			if (writes.compareAndSet(w, w + 1)) {
+				keys.lazySet(w & MASK, key);
+			}
+			return w + 1 - reads < SIZE;
+		}
+
+		void drain(Consumer<Key> consumer) {
+			int r = reads;
+			int w = writes.get();
+			while (r != w) {
+				Key key = keys.get(r & MASK);
+				if (key == null) {
+					// slot claimed, but not written yet
+					break;
+				}
+				keys.lazySet(r & MASK, null);
+				consumer.accept(key);
+				r++;
+			}
+			reads = r;
+		}
+	}
+
+	/**
+	 * Count-min sketch of 4-bit counters (4 rows) with periodic aging - all counters are halved after
+	 * {@code 10 * width} increments, so the frequencies reflect recent popularity.
+	 */
+	static final class FrequencySketch {
+
+		private static final int[] SEEDS = { 0x97cb3127, 0xb8f0d5a3, 0xc6a4a793, 0x9e3779b9 };
+
+		private final byte[][] rows = new byte[SEEDS.length][];
+		private final int mask;
+		private final int sampleSize;
+		private int additions;
+
+		FrequencySketch(int width) {
+			int w = Integer.highestOneBit(Math.max(16, width - 1) << 1);
+			for (int i = 0; i < rows.length; i++) {
+				rows[i] = new byte[w];
+			}
+			mask = w - 1;
+			sampleSize = 10 * w;
+		}
+
+		void increment(int hash) {
+			boolean added = false;
+			for (int i = 0; i < rows.length; i++) {
+				int index = index(hash, i);
+				if (rows[i][index] < 15) {
+					rows[i][index]++;
+					added = true;
+				}
+			}
+			if (added && ++additions >= sampleSize) {
+				for (byte[] row : rows) {
+					for (int j = 0; j < row.length; j++) {
+						row[j] = (byte) (row[j] >>> 1);
+					}
+				}
+				additions /= 2;
+			}
+		}
+
+		int frequency(int hash) {
+			int min = 15;
+			for (int i = 0; i < rows.length; i++) {
+				min = Math.min(min, rows[i][index(hash, i)]);
+			}
+			return min;
+		}
+
+		private int index(int hash, int row) {
+			int h = (hash ^ (hash >>> 16)) * SEEDS[row];
+			return (h ^ (h >>> 15)) & mask;
+		}
+	}
+
+}
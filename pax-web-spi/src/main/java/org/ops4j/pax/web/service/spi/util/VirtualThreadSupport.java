@@ -0,0 +1,107 @@
+/*
+ * Copyright 2026 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.web.service.spi.util;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * <p>Access to JDK 21 virtual threads without compile-time dependency on JDK 21 API. Pax Web is still built
+ * for and runs on Java 11, so {@code Thread.ofVirtual()} and {@code Executors.newThreadPerTaskExecutor()}
+ * are called reflectively.</p>
+ *
+ * <p>Executors created here don't pool the threads - each task runs in new virtual thread with
+ * a name created from given prefix and with fixed {@link Thread#getContextClassLoader() TCCL}, so (as with
+ * platform threads of the runtimes) TCCL doesn't depend on the thread which submitted the task.</p>
+ */
+public final class VirtualThreadSupport {
+
+	private static final Logger LOG = LoggerFactory.getLogger(VirtualThreadSupport.class);
+
+	private static final Method OF_VIRTUAL;
+	private static final Method NAME;
+	private static final Method FACTORY;
+	private static final Method NEW_THREAD_PER_TASK_EXECUTOR;
+
+	static {
+		Method ofVirtual = null;
+		Method name = null;
+		Method factory = null;
+		Method newThreadPerTaskExecutor = null;
+		try {
+			ofVirtual = Thread.class.getMethod("ofVirtual");
+			Class<?> builderClass = ofVirtual.getReturnType();
+			name = builderClass.getMethod("name", String.class, long.class);
+			factory = builderClass.getMethod("factory");
+			newThreadPerTaskExecutor = Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+		} catch (NoSuchMethodException e) {
+			ofVirtual = null;
+		}
+		OF_VIRTUAL = ofVirtual;
+		NAME = name;
+		FACTORY = factory;
+		NEW_THREAD_PER_TASK_EXECUTOR = newThreadPerTaskExecutor;
+	}
+
+	private VirtualThreadSupport() {
+	}
+
+	/**
+	 * Checks whether current JVM supports virtual threads.
+	 *
+	 * @return
+	 */
+	public static boolean isSupported() {
+		return OF_VIRTUAL != null;
+	}
+
+	/**
+	 * Creates an {@link ExecutorService} that runs each task in new virtual thread. If virtual threads are not
+	 * supported, a warning is logged and {@code null} is returned, so the caller continues to use its
+	 * platform thread pool.
+	 *
+	 * @param namePrefix prefix of thread names - the threads are numbered starting with {@code 0}
+	 * @param tccl {@link Thread#getContextClassLoader() TCCL} to set for the threads. If {@code null}, TCCL
+	 *        is inherited from the thread which submitted the task.
+	 * @return
+	 */
+	public static ExecutorService createExecutor(String namePrefix, ClassLoader tccl) {
+		if (!isSupported()) {
+			LOG.warn("Virtual threads are not supported by Java {} (Java 21+ is required)."
+					+ " Platform threads will be used.", System.getProperty("java.version"));
+			return null;
+		}
+		try {
+			Object builder = NAME.invoke(OF_VIRTUAL.invoke(null), namePrefix, 0L);
+			ThreadFactory virtualThreadFactory = (ThreadFactory) FACTORY.invoke(builder);
+			ThreadFactory threadFactory = tccl == null ? virtualThreadFactory : r -> {
+				Thread t = virtualThreadFactory.newThread(r);
+				t.setContextClassLoader(tccl);
+				return t;
+			};
+			return (ExecutorService) NEW_THREAD_PER_TASK_EXECUTOR.invoke(null, threadFactory);
+		} catch (ReflectiveOperationException e) {
+			LOG.warn("Can't create virtual thread executor: {}. Platform threads will be used.", e.getMessage(), e);
+			return null;
+		}
+	}
+
+}
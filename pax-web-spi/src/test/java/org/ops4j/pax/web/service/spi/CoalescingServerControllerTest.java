@@ -0,0 +1,158 @@
+/*
+ * Copyright 2026 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.web.service.spi;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import javax.servlet.http.HttpServlet;
+
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.ops4j.pax.web.service.spi.model.OsgiContextModel;
+import org.ops4j.pax.web.service.spi.model.elements.ServletModel;
+import org.ops4j.pax.web.service.spi.task.Batch;
+import org.ops4j.pax.web.service.spi.task.Change;
+import org.ops4j.pax.web.service.spi.task.OpCode;
+import org.ops4j.pax.web.service.spi.task.ServletModelChange;
+import org.ops4j.pax.web.service.spi.task.TransactionStateChange;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class CoalescingServerControllerTest {
+
+	@Test
+	public void batchesAreMergedWithinWindow() {
+		ServerController delegate = mock(ServerController.class);
+		when(delegate.getState()).thenReturn(ServerState.STARTED);
+		ScheduledExecutorService executor = mock(ScheduledExecutorService.class);
+		CoalescingServerController controller = new CoalescingServerController(delegate, executor, 100L, 1000);
+
+		OsgiContextModel ocm = new OsgiContextModel(null, 0, 0L, true);
+		ocm.setContextPath("/c");
+
+		controller.sendBatch(servletBatch("/s1", ocm));
+		controller.sendBatch(servletBatch("/s2", ocm));
+		verify(delegate, never()).sendBatch(any(Batch.class));
+
+		controller.flush();
+
+		ArgumentCaptor<Batch> captor = ArgumentCaptor.forClass(Batch.class);
+		verify(delegate, times(1)).sendBatch(captor.capture());
+		List<Change> ops = captor.getValue().getOperations();
+		assertEquals(4, ops.size());
+		assertTrue(ops.get(0) instanceof TransactionStateChange);
+		assertEquals(OpCode.ASSOCIATE, ops.get(0).getKind());
+		assertTrue(ops.get(1) instanceof ServletModelChange);
+		assertTrue(ops.get(2) instanceof ServletModelChange);
+		assertEquals(OpCode.DISASSOCIATE, ops.get(3).getKind());
+	}
+
+	@Test
+	public void transactionalBatchesAreNotMerged() {
+		ServerController delegate = mock(ServerController.class);
+		when(delegate.getState()).thenReturn(ServerState.STARTED);
+		ScheduledExecutorService executor = mock(ScheduledExecutorService.class);
+		CoalescingServerController controller = new CoalescingServerController(delegate, executor, 100L, 1000);
+
+		OsgiContextModel ocm = new OsgiContextModel(null, 0, 0L, true);
+		ocm.setContextPath("/c");
+
+		controller.sendBatch(servletBatch("/s1", ocm));
+		Batch wab = new Batch("WAB");
+		wab.beginTransaction("/wab");
+		wab.commitTransaction("/wab");
+		controller.sendBatch(wab);
+
+		ArgumentCaptor<Batch> captor = ArgumentCaptor.forClass(Batch.class);
+		verify(delegate, times(2)).sendBatch(captor.capture());
+		assertEquals(3, captor.getAllValues().get(0).getOperations().size());
+		assertSame(wab, captor.getAllValues().get(1));
+	}
+
+	@Test
+	public void dynamicRegistrationsAreNotMerged() {
+		ServerController delegate = mock(ServerController.class);
+		when(delegate.getState()).thenReturn(ServerState.STARTED);
+		ScheduledExecutorService executor = mock(ScheduledExecutorService.class);
+		CoalescingServerController controller = new CoalescingServerController(delegate, executor, 100L, 1000);
+
+		OsgiContextModel ocm = new OsgiContextModel(null, 0, 0L, true);
+		ocm.setContextPath("/c");
+
+		controller.sendBatch(servletBatch("/s1", ocm));
+		Batch dynamic = servletBatch("/s2", ocm);
+		((ServletModelChange) dynamic.getOperations().get(0)).getServletModel().setDynamic(true);
+		controller.sendBatch(dynamic);
+
+		// pending operations are flushed first, so the order is kept
+		ArgumentCaptor<Batch> captor = ArgumentCaptor.forClass(Batch.class);
+		verify(delegate, times(2)).sendBatch(captor.capture());
+		assertEquals(3, captor.getAllValues().get(0).getOperations().size());
+		assertSame(dynamic, captor.getAllValues().get(1));
+	}
+
+	@Test
+	public void batchesSentDuringProcessingAreNotMerged() {
+		ServerController delegate = mock(ServerController.class);
+		when(delegate.getState()).thenReturn(ServerState.STARTED);
+		ScheduledExecutorService executor = mock(ScheduledExecutorService.class);
+		CoalescingServerController controller = new CoalescingServerController(delegate, executor, 100L, 1000);
+
+		OsgiContextModel ocm = new OsgiContextModel(null, 0, 0L, true);
+		ocm.setContextPath("/c");
+
+		// for example a listener registering a servlet while the context is started by the merged batch
+		Batch nested = servletBatch("/s2", ocm);
+		List<Batch> received = new ArrayList<>();
+		doAnswer(invocation -> {
+			Batch batch = invocation.getArgument(0);
+			received.add(batch);
+			if (received.size() == 1) {
+				controller.sendBatch(nested);
+				assertEquals(2, received.size());
+			}
+			return null;
+		}).when(delegate).sendBatch(any(Batch.class));
+
+		controller.sendBatch(servletBatch("/s1", ocm));
+		controller.flush();
+
+		assertEquals(2, received.size());
+		assertSame(nested, received.get(1));
+	}
+
+	private Batch servletBatch(String alias, OsgiContextModel ocm) {
+		ServletModel model = new ServletModel.Builder()
+				.withAlias(alias)
+				.withServlet(new HttpServlet() { })
+				.withOsgiContextModel(ocm)
+				.build();
+		Batch batch = new Batch("Registration of " + model);
+		batch.getOperations().add(new ServletModelChange(OpCode.ADD, model, ocm));
+		return batch;
+	}
+
+}
@@ -0,0 +1,191 @@
+/*
+ * Copyright 2026 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.web.service.spi;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.servlet.http.HttpServlet;
+
+import org.junit.Test;
+import org.mockito.InOrder;
+import org.ops4j.pax.web.service.spi.model.OsgiContextModel;
+import org.ops4j.pax.web.service.spi.model.elements.ServletModel;
+import org.ops4j.pax.web.service.spi.task.Batch;
+import org.ops4j.pax.web.service.spi.task.Change;
+import org.ops4j.pax.web.service.spi.task.OpCode;
+import org.ops4j.pax.web.service.spi.task.ServletModelChange;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+public class StripedServerControllerTest {
+
+	@Test
+	public void batchesForStartingContextAreDeferred() throws Exception {
+		ServerController delegate = mock(ServerController.class);
+		ScheduledExecutorService executor = mock(ScheduledExecutorService.class);
+		StripedServerController controller = new StripedServerController(delegate, executor, 2);
+		verify(delegate).setContextStarter(controller);
+
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		controller.start("/c1", () -> {
+			started.countDown();
+			try {
+				release.await(5, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		});
+		assertTrue(started.await(5, TimeUnit.SECONDS));
+		assertTrue(controller.isStarting("/c1"));
+
+		Batch b1 = servletBatch("/s", "/c1");
+		Batch b2 = servletBatch("/s", "/c2");
+		controller.sendBatch(b1);
+		controller.sendBatch(b2);
+
+		// batches don't share the runtime with the start, so even independent context has to wait, but the
+		// sender doesn't
+		verify(delegate, never()).sendBatch(b1);
+		verify(delegate, never()).sendBatch(b2);
+
+		release.countDown();
+		verify(delegate, timeout(5000)).sendBatch(b1);
+		verify(delegate, timeout(5000)).sendBatch(b2);
+		assertFalse(controller.isStarting("/c1"));
+
+		controller.stop();
+		verify(delegate).stop();
+	}
+
+	@Test
+	public void independentContextsAreStartedInParallel() throws Exception {
+		ServerController delegate = mock(ServerController.class);
+		ScheduledExecutorService executor = mock(ScheduledExecutorService.class);
+		StripedServerController controller = new StripedServerController(delegate, executor, 2);
+
+		// each start finishes only when both are in progress
+		CountDownLatch inProgress = new CountDownLatch(2);
+		CountDownLatch finished = new CountDownLatch(2);
+		for (String contextPath : new String[] { "/c1", "/c2" }) {
+			controller.start(contextPath, () -> {
+				inProgress.countDown();
+				try {
+					if (inProgress.await(5, TimeUnit.SECONDS)) {
+						finished.countDown();
+					}
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			});
+		}
+
+		assertTrue("Starts should not wait for each other", finished.await(10, TimeUnit.SECONDS));
+
+		controller.stop();
+	}
+
+	@Test
+	public void dynamicRegistrationsAreAppliedDuringStart() throws Exception {
+		ServerController delegate = mock(ServerController.class);
+		ScheduledExecutorService executor = mock(ScheduledExecutorService.class);
+		StripedServerController controller = new StripedServerController(delegate, executor, 2);
+
+		Batch dynamic = servletBatch("/dynamic", "/c1");
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch queued = new CountDownLatch(1);
+		AtomicBoolean applied = new AtomicBoolean();
+		controller.start("/c1", () -> {
+			started.countDown();
+			try {
+				assertTrue(queued.await(5, TimeUnit.SECONDS));
+				// an SCI registers a servlet, which is handled by the configuration thread while this one waits
+				Thread config = new Thread(() -> {
+					StripedServerController.enterContextPath("/c1");
+					controller.sendBatch(dynamic);
+				});
+				config.start();
+				config.join(5000);
+				applied.set(!config.isAlive());
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		});
+		assertTrue(started.await(5, TimeUnit.SECONDS));
+
+		// a batch waiting for all the pending work
+		Batch unknown = new Batch("Unknown contexts");
+		unknown.getOperations().add(mock(Change.class));
+		controller.sendBatch(unknown);
+		queued.countDown();
+
+		InOrder inOrder = inOrder(delegate);
+		inOrder.verify(delegate, timeout(5000)).sendBatch(dynamic);
+		inOrder.verify(delegate, timeout(5000)).sendBatch(unknown);
+		assertTrue("Dynamic registration should not wait for the start", applied.get());
+
+		controller.stop();
+	}
+
+	@Test
+	public void startFailuresAreNotReportedToOtherBatches() throws Exception {
+		ServerController delegate = mock(ServerController.class);
+		ScheduledExecutorService executor = mock(ScheduledExecutorService.class);
+		StripedServerController controller = new StripedServerController(delegate, executor, 2);
+
+		controller.start("/c1", () -> {
+			throw new IllegalStateException("Can't start context \"/c1\"");
+		});
+		for (int i = 0; i < 50 && controller.isStarting("/c1"); i++) {
+			Thread.sleep(100);
+		}
+		assertFalse(controller.isStarting("/c1"));
+
+		// other contexts are not affected
+		Batch b2 = servletBatch("/s", "/c2");
+		controller.sendBatch(b2);
+		verify(delegate, timeout(5000)).sendBatch(b2);
+
+		// the failure is only logged - the sender of a batch for the same context didn't cause it
+		Batch b1 = servletBatch("/s", "/c1");
+		controller.sendBatch(b1);
+		verify(delegate, timeout(5000)).sendBatch(b1);
+
+		controller.stop();
+	}
+
+	private Batch servletBatch(String alias, String contextPath) {
+		OsgiContextModel ocm = new OsgiContextModel(null, 0, 0L, true);
+		ocm.setContextPath(contextPath);
+		ServletModel model = new ServletModel.Builder()
+				.withAlias(alias)
+				.withServlet(new HttpServlet() { })
+				.withOsgiContextModel(ocm)
+				.build();
+		Batch batch = new Batch("Registration of " + model);
+		batch.getOperations().add(new ServletModelChange(OpCode.ADD, model, ocm));
+		return batch;
+	}
+
+}
@@ -0,0 +1,234 @@
+/*
+ * Copyright 2026 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.web.service.spi.context;
+
+import java.net.URL;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Hashtable;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.After;
+import org.junit.Test;
+import org.osgi.framework.Bundle;
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.Constants;
+import org.osgi.framework.namespace.BundleNamespace;
+import org.osgi.framework.namespace.HostNamespace;
+import org.osgi.framework.namespace.PackageNamespace;
+import org.osgi.framework.wiring.BundleCapability;
+import org.osgi.framework.wiring.BundleWire;
+import org.osgi.framework.wiring.BundleWiring;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.ops4j.pax.web.service.spi.util.BundleUrls.url;
+
+public class BundleEntryIndexTest {
+
+	private static final String ROOT = "bundle://42.0:0";
+
+	private static final List<String> ENTRIES = Arrays.asList(
+			"/META-INF/", "/META-INF/MANIFEST.MF",
+			"/static/", "/static/index.html", "/static/css/", "/static/css/app.css",
+			"/org/example/", "/org/example/messages.properties",
+			"/implicit/dir/file.txt"
+	);
+
+	@After
+	public void cleanUp() {
+		BundleEntryIndexRegistry.setEnabled(false);
+	}
+
+	@Test
+	public void entries() throws Exception {
+		BundleEntryIndex index = BundleEntryIndex.build(bundle(wiring(true), false));
+
+		assertTrue(index.resolvesEntry("static/index.html"));
+		assertEntry("/static/index.html", index.getEntry("static/index.html"));
+		assertEntry("/static/index.html", index.getEntry("/static/index.html"));
+		assertTrue(index.resolvesEntry("static/missing.html"));
+		assertNull(index.getEntry("static/missing.html"));
+		assertTrue(index.resolvesEntry("static/css/"));
+		assertEntry("/static/css/", index.getEntry("static/css/"));
+
+		// frameworks may or may not return directory entries without trailing slash
+		assertFalse(index.resolvesEntry("static/css"));
+		assertFalse(index.resolvesEntry("implicit"));
+		// root, wildcards and relative segments
+		assertFalse(index.resolvesEntry("/"));
+		assertFalse(index.resolvesEntry("static/*.html"));
+		assertFalse(index.resolvesEntry("static/../secret.txt"));
+		assertFalse(index.resolvesEntries("static/./css/app.css"));
+
+		assertEntry("/static/css/", index.findEntry("static/css"));
+		assertEntry("/static/css/app.css", index.findEntry("static/css/app.css"));
+	}
+
+	@Test
+	public void entryPaths() throws Exception {
+		BundleEntryIndex index = BundleEntryIndex.build(bundle(wiring(true), false));
+
+		assertEquals(new HashSet<>(Arrays.asList("/META-INF/", "/static/", "/org/", "/implicit/")),
+				index.findEntryPaths("/"));
+		assertEquals(new HashSet<>(Arrays.asList("/static/index.html", "/static/css/")),
+				index.findEntryPaths("static"));
+		assertEquals(new HashSet<>(Arrays.asList("/static/index.html", "/static/css/")),
+				index.findEntryPaths("/static/"));
+		assertEquals(Collections.singleton("/implicit/dir/"), index.findEntryPaths("implicit"));
+		assertEquals(Collections.singleton("/implicit/dir/file.txt"), index.findEntryPaths("implicit/dir"));
+		assertNull(index.findEntryPaths("static/index.html"));
+		assertNull(index.findEntryPaths("missing"));
+	}
+
+	@Test
+	public void classLoaderResources() throws Exception {
+		BundleEntryIndex index = BundleEntryIndex.build(bundle(wiring(true), false));
+
+		assertTrue(index.resolvesResource("static/index.html"));
+		assertTrue(index.resolvesResource("missing.txt"));
+		// org.example is imported, so the bundle class loader delegates to the exporter
+		assertFalse(index.resolvesResource("org/example/messages.properties"));
+		assertFalse(index.resolvesResource("java/lang/Object.class"));
+
+		// classes and resources from embedded jars are not entries of the bundle
+		Bundle bundle = bundle(wiring(true), false);
+		Hashtable<String, String> headers = new Hashtable<>();
+		headers.put("Bundle-ClassPath", "., lib/embedded.jar");
+		when(bundle.getHeaders()).thenReturn(headers);
+		assertFalse(BundleEntryIndex.build(bundle).resolvesResource("static/index.html"));
+	}
+
+	@Test
+	public void bootDelegatedResources() throws Exception {
+		Bundle bundle = bundle(wiring(true), false);
+		BundleContext context = mock(BundleContext.class);
+		when(bundle.getBundleContext()).thenReturn(context);
+		when(context.getProperty(Constants.FRAMEWORK_BOOTDELEGATION)).thenReturn("sun.*, com.sun.*,org.exact");
+		BundleEntryIndex index = BundleEntryIndex.build(bundle);
+
+		assertTrue(index.resolvesResource("static/index.html"));
+		// the parent class loader is asked first
+		assertFalse(index.resolvesResource("sun/misc/resource.txt"));
+		assertFalse(index.resolvesResource("com/sun/example/deep/resource.txt"));
+		assertFalse(index.resolvesResource("org/exact/resource.txt"));
+		// wildcard matches only subpackages and exact name only the package itself
+		assertTrue(index.resolvesResource("sun/resource.txt"));
+		assertTrue(index.resolvesResource("com/resource.txt"));
+		assertTrue(index.resolvesResource("org/exact/sub/resource.txt"));
+
+		when(context.getProperty(Constants.FRAMEWORK_BOOTDELEGATION)).thenReturn("*");
+		assertFalse(BundleEntryIndex.build(bundle).resolvesResource("static/index.html"));
+	}
+
+	@Test
+	public void fragments() throws Exception {
+		BundleEntryIndex index = BundleEntryIndex.build(bundle(wiring(true), true));
+
+		// findEntries() includes fragments, getEntry() and getResource() don't
+		assertTrue(index.resolvesEntries("static/index.html"));
+		assertFalse(index.resolvesEntry("static/index.html"));
+		assertFalse(index.resolvesResource("static/index.html"));
+	}
+
+	@Test
+	public void defaultHttpContextUsesIndexWhenEnabled() throws Exception {
+		BundleWiring wiring = wiring(true);
+		Bundle bundle = bundle(wiring, false);
+		DefaultHttpContext context = new DefaultHttpContext(bundle);
+
+		context.getResource("/static/index.html");
+		verify(bundle).getResource("static/index.html");
+
+		BundleEntryIndexRegistry.setEnabled(true);
+		assertEntry("/static/index.html", context.getResource("/static/index.html"));
+		assertNull(context.getResource("/static/missing.html"));
+		assertEquals(new HashSet<>(Arrays.asList("/static/index.html", "/static/css/")),
+				context.getResourcePaths("/static/"));
+		verify(bundle, times(1)).getResource(anyString());
+		verify(bundle, never()).findEntries("static/", null, false);
+
+		// imported package - asking the bundle
+		context.getResource("/org/example/messages.properties");
+		verify(bundle).getResource("org/example/messages.properties");
+
+		// the same index until the bundle is refreshed
+		BundleEntryIndex index = BundleEntryIndexRegistry.forBundle(bundle);
+		assertSame(index, BundleEntryIndexRegistry.forBundle(bundle));
+		when(wiring.isCurrent()).thenReturn(false);
+		assertNotSame(index, BundleEntryIndexRegistry.forBundle(bundle));
+
+		BundleEntryIndexRegistry.setEnabled(false);
+		assertEquals(0, BundleEntryIndexRegistry.size());
+	}
+
+	@Test
+	public void noIndexForUnresolvedBundles() throws Exception {
+		BundleEntryIndexRegistry.setEnabled(true);
+		Bundle bundle = bundle(wiring(true), false);
+		when(bundle.getState()).thenReturn(Bundle.INSTALLED);
+		assertNull(BundleEntryIndexRegistry.forBundle(bundle));
+
+		when(bundle.getState()).thenReturn(Bundle.RESOLVED);
+		when(bundle.adapt(BundleWiring.class)).thenReturn(null);
+		assertNull(BundleEntryIndexRegistry.forBundle(bundle));
+	}
+
+	private BundleWiring wiring(boolean current) {
+		BundleWiring wiring = mock(BundleWiring.class);
+		when(wiring.isInUse()).thenReturn(true);
+		when(wiring.isCurrent()).thenReturn(current);
+		return wiring;
+	}
+
+	private Bundle bundle(BundleWiring wiring, boolean fragments) {
+		Bundle bundle = mock(Bundle.class);
+		when(bundle.getState()).thenReturn(Bundle.ACTIVE);
+		when(bundle.getHeaders()).thenReturn(new Hashtable<>());
+		when(bundle.adapt(BundleWiring.class)).thenReturn(wiring);
+		List<URL> urls = ENTRIES.stream().map(path -> url(ROOT + path)).collect(Collectors.toList());
+		when(bundle.findEntries("/", null, true)).thenAnswer(i -> Collections.enumeration(urls));
+
+		BundleWire fragment = mock(BundleWire.class);
+		when(wiring.getProvidedWires(HostNamespace.HOST_NAMESPACE))
+				.thenReturn(fragments ? Collections.singletonList(fragment) : Collections.emptyList());
+		BundleCapability export = mock(BundleCapability.class);
+		when(export.getAttributes()).thenReturn(Collections.<String, Object>singletonMap(PackageNamespace.PACKAGE_NAMESPACE, "org.example"));
+		BundleWire importWire = mock(BundleWire.class);
+		when(importWire.getCapability()).thenReturn(export);
+		when(wiring.getRequiredWires(PackageNamespace.PACKAGE_NAMESPACE)).thenReturn(Collections.singletonList(importWire));
+		when(wiring.getRequiredWires(BundleNamespace.BUNDLE_NAMESPACE)).thenReturn(Collections.emptyList());
+		return bundle;
+	}
+
+	private static void assertEntry(String path, URL url) {
+		// URL.equals() may need name resolution
+		assertEquals(ROOT + path, url == null ? null : url.toExternalForm());
+	}
+
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2026 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.web.service.spi.model;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+import org.ops4j.pax.web.service.spi.model.elements.ServletModel;
+
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class ContextMappingSnapshotTest {
+
+	@Test
+	public void changesDontAffectLiveMappings() {
+		ServletContextModel scm = new ServletContextModel("/c");
+		Map<String, ServletContextModel> contexts = new HashMap<>();
+		contexts.put("/c", scm);
+
+		ServletModel s1 = new ServletModel.Builder().withServletName("s1").build();
+		ServletModel s2 = new ServletModel.Builder().withServletName("s2").build();
+		scm.getServletUrlPatternMapping().put("/s/*", s1);
+
+		ContextMappingSnapshot<ServletModel> snapshot
+				= new ContextMappingSnapshot<>(contexts, ServletContextModel::getServletUrlPatternMapping);
+		assertSame(s1, snapshot.get("/c", "/s/*"));
+		assertNull(snapshot.get("/d", "/s/*"));
+
+		// removal only if mapped to given model
+		snapshot.remove("/c", "/s/*", s2);
+		assertSame(s1, snapshot.get("/c", "/s/*"));
+		snapshot.remove("/c", "/s/*", s1);
+		assertNull(snapshot.get("/c", "/s/*"));
+
+		snapshot.put("/c", "/s/*", s2);
+		snapshot.put("/c", "/t/*", s2);
+		assertSame(s2, snapshot.get("/c", "/s/*"));
+		assertSame(s2, snapshot.get("/c", "/t/*"));
+
+		assertSame(s1, scm.getServletUrlPatternMapping().get("/s/*"));
+		assertNull(scm.getServletUrlPatternMapping().get("/t/*"));
+	}
+
+}
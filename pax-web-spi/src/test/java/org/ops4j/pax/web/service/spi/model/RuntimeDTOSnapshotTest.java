@@ -0,0 +1,112 @@
+/*
+ * Copyright 2026 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.web.service.spi.model;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import org.osgi.dto.DTO;
+import org.osgi.framework.dto.ServiceReferenceDTO;
+import org.osgi.service.http.runtime.dto.RuntimeDTO;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+public class RuntimeDTOSnapshotTest {
+
+	@Test
+	public void allFieldsAreCopied() throws Exception {
+		RuntimeDTO dto = fill(new RuntimeDTO(), new AtomicInteger());
+		ServiceReferenceDTO serviceDTO = new ServiceReferenceDTO();
+
+		RuntimeDTO copy = new RuntimeDTOSnapshot(1L, dto).toRuntimeDTO(serviceDTO);
+
+		assertSame(serviceDTO, copy.serviceDTO);
+		copy.serviceDTO = null;
+		dto.serviceDTO = null;
+		assertDeepCopy("RuntimeDTO", dto, copy);
+	}
+
+	/**
+	 * Sets all the public fields of a DTO (recursively) to distinct, non-null values.
+	 */
+	private static <T> T fill(T dto, AtomicInteger counter) throws Exception {
+		for (Field f : dto.getClass().getFields()) {
+			if (Modifier.isStatic(f.getModifiers())) {
+				continue;
+			}
+			Class<?> type = f.getType();
+			int v = counter.incrementAndGet();
+			if (type == String.class) {
+				f.set(dto, "v" + v);
+			} else if (type == long.class) {
+				f.setLong(dto, v);
+			} else if (type == int.class) {
+				f.setInt(dto, v);
+			} else if (type == boolean.class) {
+				f.setBoolean(dto, true);
+			} else if (type == String[].class) {
+				f.set(dto, new String[] { "v" + v });
+			} else if (type == long[].class) {
+				f.set(dto, new long[] { v });
+			} else if (type == Map.class) {
+				f.set(dto, Collections.singletonMap("k" + v, "v" + v));
+			} else if (type.isArray() && DTO.class.isAssignableFrom(type.getComponentType())) {
+				Object array = Array.newInstance(type.getComponentType(), 1);
+				Array.set(array, 0, fill(type.getComponentType().getConstructor().newInstance(), counter));
+				f.set(dto, array);
+			} else if (DTO.class.isAssignableFrom(type)) {
+				f.set(dto, type.getConstructor().newInstance());
+			}
+		}
+		return dto;
+	}
+
+	private static void assertDeepCopy(String path, Object original, Object copy) throws Exception {
+		if (original == null || original instanceof String || original instanceof Number
+				|| original instanceof Boolean) {
+			assertEquals(path, original, copy);
+			return;
+		}
+		assertNotNull(path, copy);
+		assertNotSame(path, original, copy);
+		if (original instanceof Map) {
+			assertEquals(path, original, copy);
+			return;
+		}
+		assertSame(path, original.getClass(), copy.getClass());
+		if (original.getClass().isArray()) {
+			assertEquals(path, Array.getLength(original), Array.getLength(copy));
+			for (int i = 0; i < Array.getLength(original); i++) {
+				assertDeepCopy(path + "[" + i + "]", Array.get(original, i), Array.get(copy, i));
+			}
+		} else {
+			for (Field f : original.getClass().getFields()) {
+				if (!Modifier.isStatic(f.getModifiers())) {
+					assertDeepCopy(path + "." + f.getName(), f.get(original), f.get(copy));
+				}
+			}
+		}
+	}
+
+}
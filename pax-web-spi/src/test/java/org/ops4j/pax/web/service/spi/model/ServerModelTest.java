@@ -0,0 +1,258 @@
+/*
+ * Copyright 2026 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.web.service.spi.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Dictionary;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.LongAdder;
+import javax.servlet.Filter;
+
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.ops4j.pax.web.service.spi.model.elements.ErrorPageModel;
+import org.ops4j.pax.web.service.spi.model.elements.FilterModel;
+import org.ops4j.pax.web.service.spi.task.Batch;
+import org.ops4j.pax.web.service.spi.task.ErrorPageModelChange;
+import org.ops4j.pax.web.service.spi.task.FilterModelChange;
+import org.ops4j.pax.web.service.spi.task.OpCode;
+import org.osgi.framework.Bundle;
+import org.osgi.framework.ServiceReference;
+import org.osgi.framework.ServiceRegistration;
+import org.osgi.framework.dto.ServiceReferenceDTO;
+import org.osgi.service.http.runtime.HttpServiceRuntime;
+import org.osgi.service.http.runtime.dto.RuntimeDTO;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ServerModelTest {
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void changeCountUpdatesAreThrottled() throws Exception {
+		ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+		try {
+			ServerModel model = new ServerModel(executor);
+			ServiceRegistration<HttpServiceRuntime> registration = mock(ServiceRegistration.class);
+			ServiceReference<HttpServiceRuntime> reference = mock(ServiceReference.class);
+			when(registration.getReference()).thenReturn(reference);
+			when(reference.getPropertyKeys()).thenReturn(new String[0]);
+			model.setHttpServiceRuntimeInformation(registration, null);
+
+			model.setChangeCountUpdateInterval(60_000L);
+			for (int i = 0; i < 10; i++) {
+				model.run(() -> null, false);
+			}
+			assertEquals("The counter is always exact", 10L, model.getChangeCount());
+			// first change is propagated immediately, the others have to wait for the interval
+			verify(registration, timeout(5000)).setProperties(any());
+			Thread.sleep(200L);
+			verify(registration, times(1)).setProperties(any());
+			assertEquals(1L, model.getChangeCountUpdates());
+
+			// without throttling, the change is propagated in calling thread
+			model.setChangeCountUpdateInterval(0L);
+			model.run(() -> null, false);
+			ArgumentCaptor<Dictionary<String, Object>> properties = ArgumentCaptor.forClass(Dictionary.class);
+			verify(registration, times(2)).setProperties(properties.capture());
+			assertEquals(11L, properties.getValue().get("service.changecount"));
+			assertEquals(2L, model.getChangeCountUpdates());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void runtimeDTOsAreIsolatedAndRebuiltAfterChanges() throws Exception {
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			ServerModel model = new ServerModel(executor);
+			ServiceRegistration<HttpServiceRuntime> registration = mock(ServiceRegistration.class);
+			ServiceReference<HttpServiceRuntime> reference = mock(ServiceReference.class);
+			when(registration.getReference()).thenReturn(reference);
+			when(reference.getPropertyKeys()).thenReturn(new String[0]);
+			when(reference.getUsingBundles()).thenReturn(new Bundle[0]);
+			ServiceReferenceDTO serviceDTO = new ServiceReferenceDTO();
+			serviceDTO.properties = new HashMap<>();
+			model.setHttpServiceRuntimeInformation(registration, serviceDTO);
+
+			OsgiContextModel c1 = context("c1", 1L);
+			OsgiContextModel c2 = context("c2", 2L);
+			model.run(() -> {
+				model.addWhiteboardContext(c1);
+				return null;
+			}, false);
+
+			RuntimeDTO dto1 = model.getRuntimeDTO();
+			assertArrayEquals(new String[] { "c1" }, names(dto1));
+
+			// whatever the caller does with the DTO, it's not visible to other callers
+			dto1.servletContextDTOs[0].name = "changed";
+			dto1.servletContextDTOs[0].initParams.put("p1", "v1");
+			dto1.failedServletDTOs = null;
+			RuntimeDTO dto2 = model.getRuntimeDTO();
+			assertArrayEquals(new String[] { "c1" }, names(dto2));
+			assertTrue(dto2.servletContextDTOs[0].initParams.isEmpty());
+			assertEquals(0, dto2.failedServletDTOs.length);
+
+			// each change of the model is reflected in next DTO
+			model.run(() -> {
+				model.addWhiteboardContext(c2);
+				return null;
+			}, false);
+			assertArrayEquals(new String[] { "c1", "c2" }, names(model.getRuntimeDTO()));
+			model.run(() -> {
+				model.removeWhiteboardContext(c1);
+				return null;
+			}, false);
+			RuntimeDTO dto3 = model.getRuntimeDTO();
+			assertArrayEquals(new String[] { "c2" }, names(dto3));
+			assertEquals(model.getChangeCount(), dto3.serviceDTO.properties.get("service.changecount"));
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void reEnablingOfFiltersChecksEachDisabledModelOnce() throws Exception {
+		int n = 1000;
+		ServerModel model = new ServerModel(null, 0L);
+		Batch setup = new Batch("setup");
+		OsgiContextModel context = context("c", 1L);
+		setup.addOsgiContextModel(context, model.getOrCreateServletContextModel("/c", setup));
+
+		// "a" filters stay disabled, because they're shadowed by higher ranked ones, "b" filters will be
+		// enabled after the filters shadowing them are removed
+		LongAdder checks = new LongAdder();
+		List<FilterModel> shadowing = new ArrayList<>();
+		long id = 0L;
+		for (int i = 0; i < n; i++) {
+			setup.addFilterModel(filter("a" + i, 3, ++id, context, null));
+			setup.addDisabledFilterModel(filter("a" + i, 2, ++id, context, checks));
+			FilterModel f = filter("b" + i, 1, ++id, context, null);
+			shadowing.add(f);
+			setup.addFilterModel(f);
+			setup.addDisabledFilterModel(filter("b" + i, 0, ++id, context, null));
+		}
+		setup.accept(model);
+		checks.reset();
+
+		Batch batch = new Batch("remove");
+		model.removeFilterModels(shadowing, batch);
+
+		long enabled = batch.getOperations().stream()
+				.filter(c -> c instanceof FilterModelChange && c.getKind() == OpCode.ENABLE).count();
+		assertEquals(n, enabled);
+		// each disabled "a" filter is indexed and checked once - not after each enabled "b" filter
+		assertTrue("Too many checks: " + checks.sum(), checks.sum() <= 4L * n);
+	}
+
+	@Test
+	public void reEnablingOfErrorPagesChecksEachDisabledModelOnce() throws Exception {
+		int n = 1000;
+		ServerModel model = new ServerModel(null, 0L);
+		Batch setup = new Batch("setup");
+		OsgiContextModel context = context("c", 1L);
+		setup.addOsgiContextModel(context, model.getOrCreateServletContextModel("/c", setup));
+
+		LongAdder checks = new LongAdder();
+		List<ErrorPageModel> shadowing = new ArrayList<>();
+		long id = 0L;
+		for (int i = 0; i < n; i++) {
+			setup.addErrorPageModel(errorPage("a.Exception" + i, 3, ++id, context, null));
+			setup.addDisabledErrorPageModel(errorPage("a.Exception" + i, 2, ++id, context, checks));
+			ErrorPageModel epm = errorPage("b.Exception" + i, 1, ++id, context, null);
+			shadowing.add(epm);
+			setup.addErrorPageModel(epm);
+			setup.addDisabledErrorPageModel(errorPage("b.Exception" + i, 0, ++id, context, null));
+		}
+		setup.accept(model);
+		checks.reset();
+
+		Batch batch = new Batch("remove");
+		model.removeErrorPageModels(shadowing, batch);
+
+		long enabled = batch.getOperations().stream()
+				.filter(c -> c instanceof ErrorPageModelChange && c.getKind() == OpCode.ENABLE).count();
+		assertEquals(n, enabled);
+		assertTrue("Too many checks: " + checks.sum(), checks.sum() <= 4L * n);
+	}
+
+	/**
+	 * Creates a {@link FilterModel} which counts how many times its contexts were checked.
+	 */
+	private static FilterModel filter(String name, int rank, long serviceId, OsgiContextModel context, LongAdder checks) {
+		FilterModel fm = new FilterModel(name, new String[] { "/*" }, null, null, Filter.class, null, false) {
+			@Override
+			public List<OsgiContextModel> getContextModels() {
+				if (checks != null) {
+					checks.increment();
+				}
+				return super.getContextModels();
+			}
+		};
+		fm.setServiceRank(rank);
+		fm.setServiceId(serviceId);
+		fm.addContextModel(context);
+		return fm;
+	}
+
+	/**
+	 * Creates an {@link ErrorPageModel} which counts how many times its contexts were checked.
+	 */
+	private static ErrorPageModel errorPage(String exception, int rank, long serviceId, OsgiContextModel context,
+			LongAdder checks) {
+		ErrorPageModel epm = new ErrorPageModel(new String[] { exception }, "/error") {
+			@Override
+			public List<OsgiContextModel> getContextModels() {
+				if (checks != null) {
+					checks.increment();
+				}
+				return super.getContextModels();
+			}
+		};
+		epm.setServiceRank(rank);
+		epm.setServiceId(serviceId);
+		epm.addContextModel(context);
+		return epm;
+	}
+
+	private static OsgiContextModel context(String name, long serviceId) {
+		OsgiContextModel context = new OsgiContextModel(null, 0, serviceId, true);
+		context.setName(name);
+		context.setContextPath("/" + name);
+		return context;
+	}
+
+	private static String[] names(RuntimeDTO dto) {
+		return Arrays.stream(dto.servletContextDTOs).map(sc -> sc.name).sorted().toArray(String[]::new);
+	}
+
+}
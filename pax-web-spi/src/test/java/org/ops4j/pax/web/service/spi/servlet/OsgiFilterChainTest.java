@@ -0,0 +1,90 @@
+/*
+ * Copyright 2026 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.web.service.spi.servlet;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import javax.servlet.FilterChain;
+import javax.servlet.FilterConfig;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.junit.Test;
+import org.ops4j.pax.web.service.WebContainerContext;
+import org.osgi.service.http.whiteboard.Preprocessor;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class OsgiFilterChainTest {
+
+	@Test
+	@SuppressWarnings("deprecation")
+	public void preprocessorInstancesAreInvokedInOrder() throws Exception {
+		List<String> calls = new ArrayList<>();
+		OsgiFilterChain chain = new OsgiFilterChain(Arrays.asList(preprocessor("p1", calls), preprocessor("p2", calls)),
+				null, null, (req, res) -> calls.add("target"), null, null);
+		chain.doFilter(mock(HttpServletRequest.class), mock(HttpServletResponse.class));
+
+		assertEquals(Arrays.asList("p1", "p2", "target"), calls);
+	}
+
+	@Test
+	public void authenticatedIsCalledAfterSecurityPasses() throws Exception {
+		List<String> calls = new ArrayList<>();
+		WebContainerContext context = mock(WebContainerContext.class);
+		when(context.handleSecurity(any(), any())).thenReturn(true);
+		OsgiFilterChain chain = new OsgiFilterChain(Collections.emptyList(), null, context,
+				(req, res) -> calls.add("target"), null, req -> calls.add("listener"), null, null) {
+			@Override
+			protected void authenticated(HttpServletRequest request) {
+				calls.add("authenticated");
+				super.authenticated(request);
+			}
+		};
+		chain.doFilter(mock(HttpServletRequest.class), mock(HttpServletResponse.class));
+
+		assertEquals(Arrays.asList("authenticated", "listener", "target"), calls);
+	}
+
+	private Preprocessor preprocessor(String name, List<String> calls) {
+		return new Preprocessor() {
+			@Override
+			public void init(FilterConfig filterConfig) {
+			}
+
+			@Override
+			public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+					throws IOException, ServletException {
+				calls.add(name);
+				chain.doFilter(request, response);
+			}
+
+			@Override
+			public void destroy() {
+			}
+		};
+	}
+
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2026 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.web.service.spi.servlet;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpSession;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class OsgiHttpServletRequestWrapperTest {
+
+	@Test
+	public void sessionWrapperCachedUntilContainerSessionChanges() {
+		HttpServletRequest request = mock(HttpServletRequest.class);
+		HttpSession s1 = mock(HttpSession.class);
+		HttpSession s2 = mock(HttpSession.class);
+		when(request.getSession(true)).thenReturn(s1, s1, s2);
+		when(request.getSession(false)).thenReturn(s2, (HttpSession) null);
+
+		OsgiHttpServletRequestWrapper wrapper = new OsgiHttpServletRequestWrapper(request, null, null);
+
+		HttpSession session1 = wrapper.getSession();
+		assertSame(s1, ((OsgiHttpSession) session1).getOriginal());
+		assertSame(session1, wrapper.getSession());
+
+		// e.g., new session after invalidation
+		HttpSession session2 = wrapper.getSession();
+		assertNotSame(session1, session2);
+		assertSame(s2, ((OsgiHttpSession) session2).getOriginal());
+		assertSame(session2, wrapper.getSession(false));
+
+		assertNull(wrapper.getSession(false));
+	}
+
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright 2026 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.web.service.spi.servlet;
+
+import java.net.URL;
+import java.util.Hashtable;
+
+import org.junit.Test;
+import org.osgi.framework.Bundle;
+import org.osgi.framework.Constants;
+import org.osgi.framework.wiring.BundleWiring;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class OsgiServletContextClassLoaderTest {
+
+	@Test
+	public void lookupsCachedUntilRefresh() throws Exception {
+		CountingClassLoader bundleLoader = new CountingClassLoader(getClass().getClassLoader());
+		Bundle bundle = mock(Bundle.class);
+		BundleWiring wiring = mock(BundleWiring.class);
+		when(bundle.adapt(BundleWiring.class)).thenReturn(wiring);
+		when(wiring.getClassLoader()).thenReturn(bundleLoader);
+		when(wiring.isCurrent()).thenReturn(true);
+
+		OsgiServletContextClassLoader loader = new OsgiServletContextClassLoader();
+		loader.addBundle(bundle);
+		loader.makeImmutable();
+
+		for (int i = 0; i < 3; i++) {
+			assertSame(String.class, loader.loadClass("java.lang.String"));
+			try {
+				loader.loadClass("com.example.Missing");
+				fail("Should throw ClassNotFoundException");
+			} catch (ClassNotFoundException expected) {
+			}
+			assertNotNull(loader.getResource("org/ops4j/pax/web/service/spi/servlet/OsgiServletContextClassLoaderTest.class"));
+			assertNull(loader.getResource("com/example/missing.txt"));
+		}
+		assertEquals(2, bundleLoader.lookups);
+		assertEquals(4L, loader.getCacheMisses());
+		assertEquals(8L, loader.getCacheHits());
+		assertEquals(8.0d / 12.0d, loader.getCacheHitRatio(), 0.0001d);
+
+		// bundle refreshed - it has new wiring
+		when(wiring.isCurrent()).thenReturn(false);
+		BundleWiring newWiring = mock(BundleWiring.class);
+		when(bundle.adapt(BundleWiring.class)).thenReturn(newWiring);
+		when(newWiring.getClassLoader()).thenReturn(bundleLoader);
+		when(newWiring.isCurrent()).thenReturn(true);
+
+		try {
+			loader.loadClass("com.example.Missing");
+			fail("Should throw ClassNotFoundException");
+		} catch (ClassNotFoundException expected) {
+		}
+		assertEquals(3, bundleLoader.lookups);
+		assertEquals(5L, loader.getCacheMisses());
+	}
+
+	@Test
+	public void missingClassesNotCachedWithDynamicImports() throws Exception {
+		CountingClassLoader bundleLoader = new CountingClassLoader(getClass().getClassLoader());
+		Bundle bundle = mock(Bundle.class);
+		BundleWiring wiring = mock(BundleWiring.class);
+		when(bundle.adapt(BundleWiring.class)).thenReturn(wiring);
+		Hashtable<String, String> headers = new Hashtable<>();
+		headers.put(Constants.DYNAMICIMPORT_PACKAGE, "*");
+		when(bundle.getHeaders()).thenReturn(headers);
+		when(wiring.getClassLoader()).thenReturn(bundleLoader);
+		when(wiring.isCurrent()).thenReturn(true);
+
+		OsgiServletContextClassLoader loader = new OsgiServletContextClassLoader();
+		loader.addBundle(bundle);
+		loader.makeImmutable();
+
+		// the package may be wired later without a refresh
+		for (int i = 0; i < 3; i++) {
+			try {
+				loader.loadClass("com.example.Missing");
+				fail("Should throw ClassNotFoundException");
+			} catch (ClassNotFoundException expected) {
+			}
+			assertSame(String.class, loader.loadClass("java.lang.String"));
+		}
+		assertEquals(3, bundleLoader.lookups);
+	}
+
+	/**
+	 * Counts the lookups of {@code com.example} classes/resources, which are never found.
+	 */
+	private static class CountingClassLoader extends ClassLoader {
+
+		private int lookups;
+
+		CountingClassLoader(ClassLoader parent) {
+			super(parent);
+		}
+
+		@Override
+		protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+			if (name.startsWith("com.example.")) {
+				lookups++;
+			}
+			return super.loadClass(name, resolve);
+		}
+
+		@Override
+		public URL getResource(String name) {
+			if (name.startsWith("com/example/")) {
+				lookups++;
+			}
+			return super.getResource(name);
+		}
+	}
+
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2026 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.web.service.spi.servlet;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class RegexFilterMatcherTest {
+
+	@Test
+	public void combinedPatterns() {
+		RegexFilterMatcher matcher = new RegexFilterMatcher();
+		RegexFilterMatcher.Patterns f1 = RegexFilterMatcher.compile(new String[] { "/a/.*", "[" });
+		RegexFilterMatcher.Patterns f2 = RegexFilterMatcher.compile(new String[] { "(?i)/B/\\d+", "/a/x" });
+		RegexFilterMatcher.Patterns f3 = RegexFilterMatcher.compile(new String[] { "/A/.*" });
+		matcher.add(f1);
+		matcher.add(f2);
+		matcher.add(f3);
+		for (int i = 0; i < 2; i++) {
+			// more filters may match the same path
+			assertTrue(matcher.matches(f1, "/a/x"));
+			assertTrue(matcher.matches(f2, "/a/x"));
+			assertFalse(matcher.matches(f3, "/a/x"));
+			assertTrue(matcher.matches(f2, "/b/42"));
+			assertFalse(matcher.matches(f1, "/b/42"));
+			assertFalse(matcher.matches(f2, "/b/x"));
+			// inline flag of the 2nd filter doesn't leak into other patterns
+			assertFalse(matcher.matches(f1, "/A/x"));
+			assertTrue(matcher.matches(f3, "/A/x"));
+			// whole path has to match
+			assertFalse(matcher.matches(f1, "/x/a/x"));
+		}
+
+		matcher.remove(f1);
+		assertFalse(matcher.matches(f2, "/a/y"));
+		// not initialized filter is still matched
+		assertTrue(matcher.matches(f1, "/a/y"));
+	}
+
+	@Test
+	public void patternsThatCantBeCombined() {
+		// group numbers would change in combined pattern
+		RegexFilterMatcher matcher = new RegexFilterMatcher();
+		RegexFilterMatcher.Patterns f1 = RegexFilterMatcher.compile(new String[] { "/(x)y" });
+		RegexFilterMatcher.Patterns f2 = RegexFilterMatcher.compile(new String[] { "/(a)\\1" });
+		matcher.add(f1);
+		matcher.add(f2);
+		assertTrue(matcher.matches(f2, "/aa"));
+		assertFalse(matcher.matches(f2, "/ax"));
+		assertTrue(matcher.matches(f1, "/xy"));
+		assertFalse(matcher.matches(f2, "/xy"));
+
+		// duplicate group names
+		matcher = new RegexFilterMatcher();
+		f1 = RegexFilterMatcher.compile(new String[] { "/(?<n>a)" });
+		f2 = RegexFilterMatcher.compile(new String[] { "/(?<n>b)" });
+		matcher.add(f1);
+		matcher.add(f2);
+		assertTrue(matcher.matches(f1, "/a"));
+		assertTrue(matcher.matches(f2, "/b"));
+		assertFalse(matcher.matches(f2, "/a"));
+	}
+
+	@Test
+	public void queryStringIsMatched() {
+		RegexFilterMatcher matcher = new RegexFilterMatcher();
+		RegexFilterMatcher.Patterns f1 = RegexFilterMatcher.compile(new String[] { ".*xxx.*" });
+		RegexFilterMatcher.Patterns f2 = RegexFilterMatcher.compile(new String[] { "/s/.*" });
+		matcher.add(f1);
+		matcher.add(f2);
+		assertFalse(matcher.matches(f1, "/s/any/xx/any"));
+		assertTrue(matcher.matches(f1, "/s/any/xx/any?query=xxx"));
+		assertTrue(matcher.isCached("/s/any/xx/any?query=xxx"));
+		assertFalse(matcher.matches(f1, "/s/any/xx/any"));
+	}
+
+	@Test
+	public void pathsNotUsedSinceLastEvictionAreEvicted() {
+		RegexFilterMatcher matcher = new RegexFilterMatcher();
+		RegexFilterMatcher.Patterns f1 = RegexFilterMatcher.compile(new String[] { "/a/.*" });
+		matcher.add(f1);
+
+		matcher.matches(f1, "/a/hot");
+		for (int i = 0; i < RegexFilterMatcher.MAX_CACHED_PATHS; i++) {
+			matcher.matches(f1, "/a/" + i);
+			matcher.matches(f1, "/a/hot");
+		}
+		assertTrue(matcher.isCached("/a/hot"));
+		assertFalse(matcher.isCached("/a/0"));
+		assertTrue(matcher.isCached("/a/" + (RegexFilterMatcher.MAX_CACHED_PATHS - 1)));
+
+		// new set of filters - new results
+		matcher.add(RegexFilterMatcher.compile(new String[] { "/b/.*" }));
+		assertFalse(matcher.isCached("/a/hot"));
+	}
+
+	@Test
+	public void noValidPatterns() {
+		assertNull(RegexFilterMatcher.compile(new String[] { "[", "(" }));
+	}
+
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright 2026 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.web.service.spi.servlet;
+
+import java.util.Collections;
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.DispatcherType;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.ops4j.pax.web.service.spi.model.OsgiContextModel;
+import org.ops4j.pax.web.service.spi.model.elements.ServletModel;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class RequestMetricsTest {
+
+	private final OsgiContextModel context = new OsgiContextModel(null, 0, 0L, true);
+	private final ServletModel servlet = new ServletModel.Builder().withServletName("s1").build();
+
+	@Before
+	public void register() {
+		RequestMetricsRegistry.add(context);
+		RequestMetricsRegistry.add(servlet);
+	}
+
+	@After
+	public void cleanUp() {
+		RequestMetricsRegistry.setEnabled(false);
+		RequestMetricsRegistry.remove(context);
+		RequestMetricsRegistry.remove(servlet);
+	}
+
+	@Test
+	public void nothingRecordedWhenDisabled() throws Exception {
+		invoke(request(), mock(HttpServletResponse.class), false);
+
+		assertEquals(0L, RequestMetricsRegistry.getContextMetrics().get(context).getRequestCount());
+		assertEquals(0L, RequestMetricsRegistry.getServletMetrics().get(servlet).getRequestCount());
+	}
+
+	@Test
+	public void removedMetricsAreNotRecreated() throws Exception {
+		RequestMetricsRegistry.setEnabled(true);
+		RequestMetricsRegistry.remove(context);
+		RequestMetricsRegistry.remove(servlet);
+
+		// e.g., a request still running after the servlet was unregistered
+		invoke(request(), mock(HttpServletResponse.class), false);
+
+		assertFalse(RequestMetricsRegistry.getContextMetrics().containsKey(context));
+		assertFalse(RequestMetricsRegistry.getServletMetrics().containsKey(servlet));
+	}
+
+	@Test
+	public void requestsAndErrors() throws Exception {
+		RequestMetricsRegistry.setEnabled(true);
+
+		HttpServletResponse ok = mock(HttpServletResponse.class);
+		when(ok.getStatus()).thenReturn(200);
+		invoke(request(), ok, false);
+		HttpServletResponse error = mock(HttpServletResponse.class);
+		when(error.getStatus()).thenReturn(503);
+		invoke(request(), error, false);
+		try {
+			invoke(request(), ok, true);
+			fail("Should rethrow");
+		} catch (ServletException expected) {
+		}
+
+		RequestMetrics contextMetrics = RequestMetricsRegistry.getContextMetrics().get(context);
+		RequestMetrics servletMetrics = RequestMetricsRegistry.getServletMetrics().get(servlet);
+		for (RequestMetrics m : new RequestMetrics[] { contextMetrics, servletMetrics }) {
+			assertEquals(3L, m.getRequestCount());
+			assertEquals(2L, m.getErrorCount());
+			assertEquals(0L, m.getInFlight());
+			assertEquals(3L, m.getLatency().getCount());
+		}
+
+		RequestMetricsRegistry.reset();
+		assertEquals(0L, contextMetrics.getRequestCount());
+	}
+
+	@Test
+	public void asyncRequestFinishedByListener() throws Exception {
+		RequestMetricsRegistry.setEnabled(true);
+
+		HttpServletRequest request = request();
+		AsyncContext asyncContext = mock(AsyncContext.class);
+		when(request.isAsyncStarted()).thenReturn(true);
+		when(request.getAsyncContext()).thenReturn(asyncContext);
+		HttpServletResponse response = mock(HttpServletResponse.class);
+		when(response.getStatus()).thenReturn(200);
+
+		invoke(request, response, false);
+
+		RequestMetrics metrics = RequestMetricsRegistry.getServletMetrics().get(servlet);
+		assertEquals(1L, metrics.getInFlight());
+		assertEquals(0L, metrics.getRequestCount());
+
+		ArgumentCaptor<AsyncListener> listener = ArgumentCaptor.forClass(AsyncListener.class);
+		verify(asyncContext).addListener(listener.capture());
+		listener.getValue().onTimeout(new AsyncEvent(asyncContext));
+		listener.getValue().onComplete(new AsyncEvent(asyncContext));
+
+		assertEquals(0L, metrics.getInFlight());
+		assertEquals(1L, metrics.getRequestCount());
+		assertEquals(1L, metrics.getErrorCount());
+	}
+
+	private HttpServletRequest request() {
+		HttpServletRequest request = mock(HttpServletRequest.class);
+		when(request.getDispatcherType()).thenReturn(DispatcherType.REQUEST);
+		return request;
+	}
+
+	private void invoke(HttpServletRequest request, HttpServletResponse response, boolean fail) throws Exception {
+		OsgiFilterChain chain = new OsgiFilterChain(Collections.emptyList(), null, null, (req, res) -> {
+			if (fail) {
+				throw new ServletException("expected");
+			}
+		}, null, null, context, servlet);
+		chain.doFilter(request, response);
+	}
+
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2026 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.web.service.spi.task;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import javax.servlet.http.HttpServlet;
+
+import org.junit.Test;
+import org.ops4j.pax.web.service.spi.model.OsgiContextModel;
+import org.ops4j.pax.web.service.spi.model.elements.FilterModel;
+import org.ops4j.pax.web.service.spi.model.elements.ServletModel;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class BatchTest {
+
+	@Test
+	public void addedAndRemovedElementIsSkipped() {
+		OsgiContextModel ocm = context("/c");
+		ServletModel s1 = servlet("/s1", ocm);
+		ServletModel s2 = servlet("/s2", ocm);
+
+		Batch batch = new Batch("test");
+		batch.addServletModel(s1);
+		batch.removeServletModels(Collections.singletonMap(s1, true));
+		// replacement (remove + add) has to be kept
+		batch.removeServletModels(Collections.singletonMap(s2, true));
+		batch.addServletModel(s2);
+
+		Batch compacted = batch.compact();
+		List<Change> ops = compacted.getOperations();
+		assertEquals(2, ops.size());
+		assertSame(batch.getOperations().get(2), ops.get(0));
+		assertSame(batch.getOperations().get(3), ops.get(1));
+		assertEquals(4, batch.getOperations().size());
+		assertSame(compacted, compacted.compact());
+	}
+
+	@Test
+	public void supersededStateAndLifecycleChangesAreSkipped() {
+		OsgiContextModel ocm = context("/c");
+		Map<String, TreeMap<FilterModel, List<OsgiContextModel>>> filters = Collections.singletonMap("/d", new TreeMap<>());
+
+		Batch batch = new Batch("test");
+		batch.updateFilters(filters, false);
+		batch.getOperations().add(new ContextStopChange(OpCode.MODIFY, ocm));
+		batch.getOperations().add(new ContextParamsChange(OpCode.ADD, ocm, Collections.singletonMap("p", "1")));
+		batch.getOperations().add(new ContextStartChange(OpCode.MODIFY, ocm));
+		batch.getOperations().add(new ContextStopChange(OpCode.MODIFY, ocm));
+		batch.getOperations().add(new ContextParamsChange(OpCode.ADD, ocm, Collections.singletonMap("p", "2")));
+		batch.getOperations().add(new ContextStartChange(OpCode.MODIFY, ocm));
+		batch.updateFilters(filters, false);
+
+		List<Change> all = batch.getOperations();
+		List<Change> ops = batch.compact().getOperations();
+		assertEquals(5, ops.size());
+		assertSame(all.get(1), ops.get(0));
+		assertSame(all.get(2), ops.get(1));
+		assertSame(all.get(5), ops.get(2));
+		assertSame(all.get(6), ops.get(3));
+		assertSame(all.get(7), ops.get(4));
+	}
+
+	private OsgiContextModel context(String contextPath) {
+		OsgiContextModel ocm = new OsgiContextModel(null, 0, 0L, true);
+		ocm.setContextPath(contextPath);
+		return ocm;
+	}
+
+	private ServletModel servlet(String alias, OsgiContextModel ocm) {
+		return new ServletModel.Builder()
+				.withAlias(alias)
+				.withServlet(new HttpServlet() { })
+				.withOsgiContextModel(ocm)
+				.build();
+	}
+
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2026 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.web.service.spi.task;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ContextRestartSchedulerTest {
+
+	@Test
+	public void noDebouncingWithoutQuietPeriod() {
+		ContextRestartScheduler scheduler = new ContextRestartScheduler(0L);
+		assertTrue(scheduler.markDirty("/c"));
+		ContextStartChange restart = scheduler.restart("/c");
+		assertFalse(restart.isDebounced());
+		assertNull(scheduler.postpone(restart));
+		assertFalse(scheduler.isStartDeferred("/c"));
+		scheduler.started("/c");
+		assertEquals(1L, scheduler.getPerformedRestarts());
+		assertEquals(0L, scheduler.getSavedRestarts());
+	}
+
+	@Test
+	public void restartsArePostponedAndCounted() {
+		ContextRestartScheduler scheduler = new ContextRestartScheduler(60_000L);
+		assertTrue(scheduler.markDirty("/c"));
+		assertFalse(scheduler.markDirty("/c"));
+		assertFalse(scheduler.markDirty("/c"));
+
+		ContextStartChange restart = scheduler.restart("/c");
+		assertTrue(restart.isDebounced());
+		ContextStartChange postponed = scheduler.postpone(restart);
+		assertNotNull(postponed);
+		assertTrue(postponed.getDelay() > 0L && postponed.getDelay() <= 60_000L);
+		assertTrue("Registration of active web element can't start the context", scheduler.isStartDeferred("/c"));
+		assertFalse(scheduler.isStartDeferred("/other"));
+
+		scheduler.started("/c");
+		assertFalse(scheduler.isDirty("/c"));
+		assertFalse(scheduler.isStartDeferred("/c"));
+		assertNull("Context already started", scheduler.postpone(postponed));
+		assertEquals(3L, scheduler.getRequestedRestarts());
+		assertEquals(1L, scheduler.getPerformedRestarts());
+		assertEquals(2L, scheduler.getSavedRestarts());
+	}
+
+	@Test
+	public void startIsNotDeferredAfterQuietPeriod() throws Exception {
+		ContextRestartScheduler scheduler = new ContextRestartScheduler(20L);
+		assertTrue(scheduler.markDirty("/c"));
+		assertTrue(scheduler.isStartDeferred("/c"));
+		Thread.sleep(50L);
+		assertNull(scheduler.postpone(scheduler.restart("/c")));
+		assertFalse(scheduler.isStartDeferred("/c"));
+		assertTrue("Still dirty until started", scheduler.isDirty("/c"));
+	}
+
+}
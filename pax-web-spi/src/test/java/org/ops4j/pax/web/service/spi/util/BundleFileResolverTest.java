@@ -0,0 +1,126 @@
+/*
+ * Copyright 2026 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.web.service.spi.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Hashtable;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.osgi.framework.Bundle;
+import org.osgi.framework.Constants;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.ops4j.pax.web.service.spi.util.BundleUrls.url;
+
+public class BundleFileResolverTest {
+
+	private Path dir;
+
+	@Before
+	public void createBundleDirectory() throws IOException {
+		dir = Files.createTempDirectory("bundle");
+		Files.createDirectories(dir.resolve("static/css"));
+		Files.write(dir.resolve("static/css/app.css"), "body {}".getBytes());
+		Files.write(dir.resolve("secret.txt"), "secret".getBytes());
+	}
+
+	@After
+	public void deleteBundleDirectory() throws IOException {
+		Files.delete(dir.resolve("static/css/app.css"));
+		Files.delete(dir.resolve("static/css"));
+		Files.delete(dir.resolve("static"));
+		Files.delete(dir.resolve("secret.txt"));
+		Files.delete(dir);
+	}
+
+	@Test
+	public void onlyDirectoryBundles() {
+		assertNull(BundleFileResolver.create(null));
+		assertNull(BundleFileResolver.create(bundle(5L, "mvn:org.example/app/1.0", null)));
+		assertNull(BundleFileResolver.create(bundle(5L, "file:" + dir.resolve("secret.txt"), null)));
+		assertNotNull(BundleFileResolver.create(bundle(5L, dir.toUri().toString(), null)));
+		assertNotNull(BundleFileResolver.create(bundle(5L, "reference:" + dir.toUri(), null)));
+	}
+
+	@Test
+	public void entryUrls() throws IOException {
+		BundleFileResolver resolver = BundleFileResolver.create(bundle(5L, "reference:" + dir.toUri(), null));
+		File css = dir.resolve("static/css/app.css").toFile();
+
+		// Felix entry and class path resource
+		assertEquals(css, resolver.resolve(url("bundle://5.0:0/static/css/app.css")));
+		assertEquals(css, resolver.resolve(url("bundle://5.3:1/static/css/app.css")));
+		// Felix 7 prepends framework UUID
+		assertEquals(css, resolver.resolve(url("bundle://0d0df6e5-14e6-493d-a2a1-21cc8071e986_5.0:0/static/css/app.css")));
+		assertEquals(css, resolver.resolve(url("bundle://0d0df6e5-14e6-493d-a2a1-21cc8071e986_5.3:1/static/css/app.css")));
+		// Equinox entry and class path resource
+		assertEquals(css, resolver.resolve(url("bundleentry://5.fwk1234/static/css/app.css")));
+		assertEquals(css, resolver.resolve(url("bundleresource://5.fwk1234/static/css/app.css")));
+
+		// other bundle
+		assertNull(resolver.resolve(url("bundle://6.0:0/static/css/app.css")));
+		assertNull(resolver.resolve(url("bundle://0d0df6e5-14e6-493d-a2a1-21cc8071e986_6.0:0/static/css/app.css")));
+		assertNull(resolver.resolve(url("bundle://0d0df6e5-14e6-493d-a2a1-21cc8071e986_15.0:0/static/css/app.css")));
+		assertNull(resolver.resolve(url("bundleentry://15.fwk1234/static/css/app.css")));
+		// directories and missing entries
+		assertNull(resolver.resolve(url("bundle://5.0:0/static/css/")));
+		assertNull(resolver.resolve(url("bundle://5.0:0/static/css")));
+		assertNull(resolver.resolve(url("bundle://5.0:0/static/css/missing.css")));
+		// other protocols
+		assertNull(resolver.resolve(dir.resolve("secret.txt").toUri().toURL()));
+		assertNull(resolver.resolve(null));
+	}
+
+	@Test
+	public void noEscapeFromBundleDirectory() throws IOException {
+		BundleFileResolver resolver = BundleFileResolver.create(bundle(5L, dir.resolve("static").toUri().toString(), null));
+		assertNotNull(resolver.resolve(url("bundle://5.0:0/css/app.css")));
+		assertNull(resolver.resolve(url("bundle://5.0:0/../secret.txt")));
+		assertNull(resolver.resolve(url("bundle://5.0:0/css/../../secret.txt")));
+		assertNull(resolver.resolve(url("bundle://5.0:0/%2e%2e/secret.txt")));
+	}
+
+	@Test
+	public void classPathResourcesOfEmbeddedJars() throws IOException {
+		BundleFileResolver resolver = BundleFileResolver.create(bundle(5L, dir.toUri().toString(), "lib/a.jar,."));
+		// entries are still resolved, but "lib/a.jar" resources are not in the bundle directory
+		assertNotNull(resolver.resolve(url("bundle://5.0:0/static/css/app.css")));
+		assertNull(resolver.resolve(url("bundle://5.0:1/static/css/app.css")));
+		assertNull(resolver.resolve(url("bundleresource://5.fwk1234/static/css/app.css")));
+	}
+
+	private Bundle bundle(long id, String location, String classPath) {
+		Bundle bundle = mock(Bundle.class);
+		when(bundle.getBundleId()).thenReturn(id);
+		when(bundle.getLocation()).thenReturn(location);
+		Hashtable<String, String> headers = new Hashtable<>();
+		if (classPath != null) {
+			headers.put(Constants.BUNDLE_CLASSPATH, classPath);
+		}
+		when(bundle.getHeaders()).thenReturn(headers);
+		return bundle;
+	}
+
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2026 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.web.service.spi.util;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.net.URLStreamHandler;
+
+/**
+ * Bundle URLs ({@code bundle:}, {@code bundleentry:}, ...) for tests, where there's no framework to register
+ * the protocol handlers. The URLs can be parsed and compared, but not opened.
+ */
+public final class BundleUrls {
+
+	private static final URLStreamHandler HANDLER = new URLStreamHandler() {
+		@Override
+		protected URLConnection openConnection(URL u) {
+			throw new UnsupportedOperationException("Can't open " + u);
+		}
+	};
+
+	private BundleUrls() {
+	}
+
+	public static URL url(String spec) {
+		try {
+			return new URL(null, spec, HANDLER);
+		} catch (MalformedURLException e) {
+			throw new IllegalArgumentException(e.getMessage(), e);
+		}
+	}
+
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright 2026 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.web.service.spi.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class CompressedContentCacheTest {
+
+	private static final String[] MIME_TYPES = new String[] { "text/*", "application/json" };
+
+	@Test
+	public void compressibleMimeTypes() {
+		CompressedContentCache cache = new CompressedContentCache(100_000L, 10_000L, MIME_TYPES);
+		assertTrue(cache.isCompressible("text/html"));
+		assertTrue(cache.isCompressible("text/css; charset=UTF-8"));
+		assertTrue(cache.isCompressible("Application/JSON"));
+		assertFalse(cache.isCompressible("application/javascript"));
+		assertFalse(cache.isCompressible("image/png"));
+		assertFalse(cache.isCompressible("textual/plain"));
+		assertFalse(cache.isCompressible(null));
+	}
+
+	@Test
+	public void contentIsCompressedOnce() throws IOException {
+		CompressedContentCache cache = new CompressedContentCache(100_000L, 10_000L, MIME_TYPES);
+		AtomicInteger loads = new AtomicInteger();
+		byte[] content = text(4_000);
+
+		byte[] c1 = cache.getCompressed(1L, 1L, "/a.txt", content.length, loader(loads, content));
+		byte[] c2 = cache.getCompressed(1L, 1L, "/a.txt", content.length, loader(loads, content));
+		assertNotNull(c1);
+		assertSame(c1, c2);
+		assertTrue(c1.length < content.length);
+		assertArrayEquals(content, gunzip(c1));
+		assertEquals(1, loads.get());
+		assertEquals(1L, cache.getCompressions());
+		assertEquals(1L, cache.getHits());
+		assertEquals(2L * content.length, cache.getOriginalBytes());
+		assertEquals(2L * c1.length, cache.getCompressedBytes());
+
+		// new version of the bundle
+		cache.getCompressed(1L, 2L, "/a.txt", content.length, loader(loads, content));
+		assertEquals(2, loads.get());
+		assertEquals(2, cache.getEntryCount());
+	}
+
+	@Test
+	public void notCompressibleContent() throws IOException {
+		CompressedContentCache cache = new CompressedContentCache(100_000L, 10_000L, MIME_TYPES);
+		AtomicInteger loads = new AtomicInteger();
+
+		// too small
+		assertNull(cache.getCompressed(1L, 1L, "/small.txt", 10L, loader(loads, text(10))));
+		// too big
+		assertNull(cache.getCompressed(1L, 1L, "/big.txt", 20_000L, loader(loads, text(20_000))));
+		assertNull(cache.getCompressed(1L, 1L, "/unknown.txt", -1L, loader(loads, text(20_000))));
+		assertEquals(1, loads.get());
+
+		// random content can't be compressed, but it's remembered
+		byte[] random = new byte[4_000];
+		new Random(42L).nextBytes(random);
+		assertNull(cache.getCompressed(1L, 1L, "/random.bin", random.length, loader(loads, random)));
+		assertNull(cache.getCompressed(1L, 1L, "/random.bin", random.length, loader(loads, random)));
+		assertEquals(2, loads.get());
+		assertEquals(0L, cache.getOriginalBytes());
+	}
+
+	@Test
+	public void budgetAndInvalidation() throws IOException {
+		CompressedContentCache cache = new CompressedContentCache(1_000L, 100_000L, MIME_TYPES);
+		AtomicInteger loads = new AtomicInteger();
+		for (int i = 0; i < 50; i++) {
+			assertNotNull(cache.getCompressed(i % 2, 1L, "/r" + i, -1L, loader(loads, text(2_000 + i))));
+			assertTrue(cache.getSize() <= cache.getMaxSize());
+		}
+		assertTrue(cache.getEntryCount() < 50);
+
+		cache.invalidate(0L);
+		int count = cache.getEntryCount();
+		cache.getCompressed(1L, 1L, "/r49", -1L, loader(loads, text(2_049)));
+		assertEquals(count, cache.getEntryCount());
+
+		cache.clear();
+		assertEquals(0, cache.getEntryCount());
+		assertEquals(0L, cache.getSize());
+	}
+
+	private byte[] text(int size) {
+		byte[] content = new byte[size];
+		byte[] pattern = "Lorem ipsum dolor sit amet, consectetur adipiscing elit. ".getBytes();
+		for (int i = 0; i < size; i++) {
+			content[i] = pattern[i % pattern.length];
+		}
+		return content;
+	}
+
+	private byte[] gunzip(byte[] compressed) throws IOException {
+		ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		try (InputStream is = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+			byte[] buffer = new byte[1024];
+			int count;
+			while ((count = is.read(buffer)) != -1) {
+				baos.write(buffer, 0, count);
+			}
+		}
+		return baos.toByteArray();
+	}
+
+	private SharedResourceCache.ContentLoader loader(AtomicInteger loads, byte[] content) {
+		return () -> {
+			loads.incrementAndGet();
+			return new ByteArrayInputStream(Arrays.copyOf(content, content.length));
+		};
+	}
+
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2026 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.web.service.spi.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+public class ContentETagCacheTest {
+
+	@Test
+	public void tagIsComputedOncePerRevision() throws IOException {
+		ContentETagCache cache = new ContentETagCache(100);
+		AtomicInteger loads = new AtomicInteger();
+
+		String t1 = cache.getETag(1L, 1L, "/a.js", loader(loads, "content"));
+		String t2 = cache.getETag(1L, 1L, "/a.js", loader(loads, "content"));
+		assertEquals(t1, t2);
+		assertEquals(22, t1.length());
+		assertFalse(t1.contains("\""));
+		assertEquals(1, loads.get());
+		assertEquals(1L, cache.getComputations());
+		assertEquals(1L, cache.getHits());
+
+		// new bundle revision with the same content - the same tag
+		assertEquals(t1, cache.getETag(1L, 2L, "/a.js", loader(loads, "content")));
+		// different content - different tag
+		String t3 = cache.getETag(1L, 3L, "/a.js", loader(loads, "changed content"));
+		assertFalse(t1.equals(t3));
+		assertEquals(3, loads.get());
+	}
+
+	@Test
+	public void noBundleOrContent() throws IOException {
+		ContentETagCache cache = new ContentETagCache(100);
+		AtomicInteger loads = new AtomicInteger();
+		assertNull(cache.getETag(null, "/a.js", loader(loads, "content")));
+		assertNull(cache.getETag(1L, 1L, "/missing.js", () -> null));
+		assertEquals(0, loads.get());
+		assertEquals(0, cache.getEntryCount());
+	}
+
+	@Test
+	public void boundedAndInvalidated() throws IOException {
+		ContentETagCache cache = new ContentETagCache(10);
+		AtomicInteger loads = new AtomicInteger();
+		for (int i = 0; i < 50; i++) {
+			cache.getETag(i % 2, 1L, "/r" + i, loader(loads, "content " + i));
+		}
+		assertEquals(10, cache.getEntryCount());
+
+		cache.invalidate(0L);
+		assertEquals(5, cache.getEntryCount());
+
+		cache.clear();
+		assertEquals(0, cache.getEntryCount());
+	}
+
+	@Test
+	public void usedTagsSurviveEviction() throws IOException {
+		ContentETagCache cache = new ContentETagCache(10);
+		AtomicInteger loads = new AtomicInteger();
+		for (int i = 0; i < 10; i++) {
+			cache.getETag(1L, 1L, "/r" + i, loader(loads, "content " + i));
+		}
+		// used since the tag was computed
+		cache.getETag(1L, 1L, "/r0", loader(loads, "content 0"));
+		assertEquals(10, loads.get());
+
+		cache.getETag(1L, 1L, "/r10", loader(loads, "content 10"));
+		assertEquals(2, cache.getEntryCount());
+		cache.getETag(1L, 1L, "/r0", loader(loads, "content 0"));
+		assertEquals(11, loads.get());
+		assertEquals(2L, cache.getHits());
+	}
+
+	private SharedResourceCache.ContentLoader loader(AtomicInteger loads, String content) {
+		return () -> {
+			loads.incrementAndGet();
+			return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+		};
+	}
+
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2026 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.web.service.spi.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class CredentialCacheTest {
+
+	@Test
+	public void keyedByRealmUserAndCredential() {
+		CredentialCache<String> cache = new CredentialCache<>(1000L, 10);
+		cache.put("r1", "admin", "secret".toCharArray(), "identity");
+
+		assertEquals("identity", cache.get("r1", "admin", "secret".toCharArray()));
+		assertEquals("identity", cache.get("r1", "admin", "secret"));
+		assertNull(cache.get("r1", "admin", "other"));
+		assertNull(cache.get("r2", "admin", "secret"));
+		assertNull(cache.get("r1", "user", "secret"));
+
+		cache.put("r1", "user", "wrong", null);
+		assertEquals(1, cache.size());
+	}
+
+	@Test
+	public void expirationAndEviction() {
+		AtomicLong now = new AtomicLong();
+		CredentialCache<String> cache = new CredentialCache<>(1000L, 2, now::get);
+		cache.put("r", "u1", "p", "i1");
+		cache.put("r", "u2", "p", "i2");
+		assertEquals("i1", cache.get("r", "u1", "p"));
+
+		// u2 is least recently used
+		cache.put("r", "u3", "p", "i3");
+		assertNull(cache.get("r", "u2", "p"));
+		assertEquals(2, cache.size());
+
+		now.addAndGet(1_000_000_000L);
+		assertNull(cache.get("r", "u1", "p"));
+		assertEquals(1, cache.size());
+	}
+
+	@Test
+	public void invalidation() {
+		CredentialCache<String> cache = new CredentialCache<>(1000L, 10);
+		cache.put("r1", "u", "p", "i1");
+		cache.put("r2", "u", "p", "i2");
+		assertEquals("i2", cache.get("r2", "u", "p"));
+
+		cache.invalidate();
+		assertEquals(0, cache.size());
+		assertNull(cache.get("r1", "u", "p"));
+		assertNull(cache.get("r2", "u", "p"));
+	}
+
+}
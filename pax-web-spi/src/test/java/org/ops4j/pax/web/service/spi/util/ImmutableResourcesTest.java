@@ -0,0 +1,41 @@
+/*
+ * Copyright 2026 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.web.service.spi.util;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ImmutableResourcesTest {
+
+	@Test
+	public void fingerprintedPaths() {
+		ImmutableResources resources = new ImmutableResources(new String[] {
+				"\\.[0-9a-f]{8,}\\.(js|css)$", "^/static/", " "
+		}, 600);
+		assertTrue(resources.isImmutable("/js/app.3f2a9c1e.js"));
+		assertTrue(resources.isImmutable("css/site.0123456789abcdef.css"));
+		assertTrue(resources.isImmutable("/static/logo.png"));
+		assertFalse(resources.isImmutable("/js/app.js"));
+		assertFalse(resources.isImmutable("/js/app.3f2a9c1e.js.map"));
+		assertFalse(resources.isImmutable("/other/static/logo.png"));
+		assertFalse(resources.isImmutable(null));
+		assertEquals("public, max-age=600, immutable", resources.getCacheControl());
+	}
+
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2026 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.web.service.spi.util;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class LatencyHistogramTest {
+
+	@Test
+	public void bucketsCoverWholeRange() {
+		assertEquals(0, LatencyHistogram.indexOf(0L));
+		assertEquals(LatencyHistogram.BUCKETS - 1, LatencyHistogram.indexOf(Long.MAX_VALUE));
+		assertEquals(Long.MAX_VALUE, LatencyHistogram.highestEquivalentValue(LatencyHistogram.BUCKETS - 1));
+
+		for (int i = 0; i < LatencyHistogram.BUCKETS - 1; i++) {
+			long highest = LatencyHistogram.highestEquivalentValue(i);
+			assertEquals(i, LatencyHistogram.indexOf(LatencyHistogram.lowestEquivalentValue(i)));
+			assertEquals(i, LatencyHistogram.indexOf(highest));
+			assertEquals(i + 1, LatencyHistogram.indexOf(highest + 1));
+		}
+	}
+
+	@Test
+	public void percentiles() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		for (long v = 1; v <= 10_000; v++) {
+			histogram.record(v * 1000L);
+		}
+
+		assertEquals(10_000, histogram.getCount());
+		assertEquals(10_000_000L, histogram.getMax());
+		assertEquals(5_000_500.0d, histogram.getMean(), 5_000_500.0d / LatencyHistogram.SUB_BUCKETS);
+		assertWithin(5_000_000L, histogram.getValueAtPercentile(50.0d));
+		assertWithin(9_900_000L, histogram.getValueAtPercentile(99.0d));
+		assertEquals(10_000_000L, histogram.getValueAtPercentile(100.0d));
+
+		histogram.reset();
+		assertEquals(0L, histogram.getCount());
+		assertEquals(0L, histogram.getValueAtPercentile(50.0d));
+	}
+
+	private void assertWithin(long expected, long actual) {
+		assertTrue(actual + " is not close to " + expected,
+				actual >= expected && actual <= expected + expected / LatencyHistogram.SUB_BUCKETS);
+	}
+
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright 2026 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.web.service.spi.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class SharedResourceCacheTest {
+
+	@Test
+	public void hitsAndMisses() throws IOException {
+		SharedResourceCache cache = new SharedResourceCache(100_000L, 10_000L);
+		AtomicInteger loads = new AtomicInteger();
+
+		ByteBuffer b1 = cache.getContent(1L, 1L, "/a.txt", 5L, loader(loads, 5));
+		ByteBuffer b2 = cache.getContent(1L, 1L, "/a.txt", 5L, loader(loads, 5));
+		assertEquals(5, b1.remaining());
+		assertEquals(5, b2.remaining());
+		assertTrue(b1.isDirect());
+		assertEquals(1, loads.get());
+		assertEquals(1L, cache.getHits());
+		assertEquals(1L, cache.getMisses());
+
+		// new version of the bundle
+		cache.getContent(1L, 2L, "/a.txt", 5L, loader(loads, 5));
+		assertEquals(2, loads.get());
+
+		// too big
+		assertNull(cache.getContent(1L, 1L, "/big.bin", 20_000L, loader(loads, 20_000)));
+		assertNull(cache.getContent(1L, 1L, "/unknown.bin", -1L, loader(loads, 20_000)));
+		assertEquals(2, cache.getEntryCount());
+	}
+
+	@Test
+	public void budgetIsNeverExceeded() throws IOException {
+		SharedResourceCache cache = new SharedResourceCache(10_000L, 1_000L);
+		AtomicInteger loads = new AtomicInteger();
+		for (int i = 0; i < 100; i++) {
+			assertNotNull(cache.getContent(1L, 1L, "/r" + i, 1_000L, loader(loads, 1_000)));
+			assertTrue(cache.getSize() <= cache.getMaxSize());
+		}
+		assertTrue(cache.getEvictions() > 0L);
+	}
+
+	@Test
+	public void frequentlyUsedContentSurvivesScan() throws IOException {
+		SharedResourceCache cache = new SharedResourceCache(10_000L, 1_000L);
+		AtomicInteger loads = new AtomicInteger();
+		for (int n = 0; n < 10; n++) {
+			for (int i = 0; i < 5; i++) {
+				cache.getContent(1L, 1L, "/hot" + i, 1_000L, loader(loads, 1_000));
+			}
+		}
+		// one-time scan of many resources
+		for (int i = 0; i < 200; i++) {
+			cache.getContent(2L, 1L, "/cold" + i, 1_000L, loader(loads, 1_000));
+		}
+
+		int before = loads.get();
+		for (int i = 0; i < 5; i++) {
+			cache.getContent(1L, 1L, "/hot" + i, 1_000L, loader(loads, 1_000));
+		}
+		assertEquals(before, loads.get());
+	}
+
+	@Test
+	public void concurrentHitsAreRecorded() throws Exception {
+		SharedResourceCache cache = new SharedResourceCache(10_000L, 1_000L);
+		AtomicInteger loads = new AtomicInteger();
+		for (int i = 0; i < 5; i++) {
+			cache.getContent(1L, 1L, "/hot" + i, 1_000L, loader(loads, 1_000));
+		}
+		ExecutorService pool = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int t = 0; t < 4; t++) {
+				futures.add(pool.submit(() -> {
+					for (int n = 0; n < 1_000; n++) {
+						cache.getContent(1L, 1L, "/hot" + (n % 5), 1_000L, loader(loads, 1_000));
+					}
+					return null;
+				}));
+			}
+			for (Future<?> f : futures) {
+				f.get();
+			}
+		} finally {
+			pool.shutdownNow();
+		}
+		assertEquals(4_000L, cache.getHits());
+		assertEquals(5, loads.get());
+
+		// the hits made the entries popular enough to survive a scan
+		for (int i = 0; i < 200; i++) {
+			cache.getContent(2L, 1L, "/cold" + i, 1_000L, loader(loads, 1_000));
+		}
+		int before = loads.get();
+		for (int i = 0; i < 5; i++) {
+			cache.getContent(1L, 1L, "/hot" + i, 1_000L, loader(loads, 1_000));
+		}
+		assertEquals(before, loads.get());
+		assertTrue(cache.getSize() <= cache.getMaxSize());
+	}
+
+	@Test
+	public void invalidation() throws IOException {
+		SharedResourceCache cache = new SharedResourceCache(100_000L, 10_000L);
+		AtomicInteger loads = new AtomicInteger();
+		cache.getContent(1L, 1L, "/a", 10L, loader(loads, 10));
+		cache.getContent(2L, 1L, "/b", 10L, loader(loads, 10));
+
+		cache.invalidate(1L);
+		assertEquals(1, cache.getEntryCount());
+		assertEquals(10L, cache.getSize());
+
+		cache.clear();
+		assertEquals(0, cache.getEntryCount());
+		assertEquals(0L, cache.getSize());
+	}
+
+	private SharedResourceCache.ContentLoader loader(AtomicInteger loads, int size) {
+		return () -> {
+			loads.incrementAndGet();
+			return new ByteArrayInputStream(new byte[size]);
+		};
+	}
+
+}
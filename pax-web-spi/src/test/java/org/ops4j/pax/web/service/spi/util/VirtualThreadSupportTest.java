@@ -0,0 +1,51 @@
+/*
+ * Copyright 2026 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.web.service.spi.util;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class VirtualThreadSupportTest {
+
+	@Test
+	public void virtualThreadsWithNameAndTccl() throws Exception {
+		ClassLoader tccl = new URLClassLoader(new URL[0]);
+		ExecutorService executor = VirtualThreadSupport.createExecutor("test-virt-", tccl);
+		if (!VirtualThreadSupport.isSupported()) {
+			// older Java - caller should use platform threads
+			assertNull(executor);
+			return;
+		}
+
+		try {
+			Future<Thread> thread = executor.submit(Thread::currentThread);
+			assertTrue(thread.get().getName().startsWith("test-virt-"));
+			Future<ClassLoader> cl = executor.submit(() -> Thread.currentThread().getContextClassLoader());
+			assertSame(tccl, cl.get());
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2026 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.web.service.tomcat.internal;
+
+import java.security.Principal;
+import java.util.Arrays;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.catalina.LifecycleException;
+import org.apache.catalina.Realm;
+import org.apache.catalina.realm.CombinedRealm;
+import org.apache.catalina.realm.GenericPrincipal;
+import org.ops4j.pax.web.service.spi.util.CredentialCache;
+
+/**
+ * <p>{@link CombinedRealm} with single nested realm (usually {@link org.apache.catalina.realm.JAASRealm} configured
+ * in {@code tomcat-server.xml}) that remembers successful username/password authentications in a
+ * {@link CredentialCache}, so full JAAS login isn't performed for every request with BASIC credentials.</p>
+ *
+ * <p>It's similar to Tomcat's own {@link org.apache.catalina.realm.LockOutRealm}, which wraps other realms
+ * in the same way to remember failed authentications.</p>
+ *
+ * <p>The cache holds only the result of the verification. Each authentication gets its own
+ * {@link GenericPrincipal} without the JAAS {@link javax.security.auth.login.LoginContext}, because
+ * {@link org.apache.catalina.session.StandardSession#expire()} calls {@link GenericPrincipal#logout()}, which
+ * would log out all the sessions sharing the cached principal. The cached login simply expires.</p>
+ */
+class CachingRealm extends CombinedRealm {
+
+	private final String name;
+	private final CredentialCache<GenericPrincipal> cache;
+
+	CachingRealm(Realm realm, String name, CredentialCache<GenericPrincipal> cache) {
+		this.name = name;
+		this.cache = cache;
+		addRealm(realm);
+	}
+
+	@Override
+	public Principal authenticate(String username, String credentials) {
+		GenericPrincipal verified = cache.get(name, username, credentials);
+		if (verified == null) {
+			Principal principal = super.authenticate(username, credentials);
+			if (!(principal instanceof GenericPrincipal)) {
+				// failed authentication or a principal we can't copy - not cached
+				return principal;
+			}
+			verified = (GenericPrincipal) principal;
+			cache.put(name, username, credentials, verified);
+		}
+		return copy(verified);
+	}
+
+	private static GenericPrincipal copy(GenericPrincipal verified) {
+		Map<String, Object> attributes = new HashMap<>();
+		for (Enumeration<String> e = verified.getAttributeNames(); e.hasMoreElements(); ) {
+			String attribute = e.nextElement();
+			attributes.put(attribute, verified.getAttribute(attribute));
+		}
+		// no LoginContext and no GSSCredential - these are shared and GenericPrincipal.logout() would dispose them
+		return new GenericPrincipal(verified.getName(), verified.getPassword(), Arrays.asList(verified.getRoles()),
+				verified.getUserPrincipal(), null, null, attributes.isEmpty() ? null : attributes);
+	}
+
+	@Override
+	protected void stopInternal() throws LifecycleException {
+		cache.invalidate();
+		super.stopInternal();
+	}
+
+}
@@ -15,6 +15,7 @@
  */
 package org.ops4j.pax.web.service.tomcat.internal;
 
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
 
 import org.apache.catalina.connector.Connector;
@@ -28,6 +29,7 @@ import org.apache.tomcat.util.net.Nio2Endpoint;
 import org.apache.tomcat.util.threads.TaskQueue;
 import org.apache.tomcat.util.threads.TaskThreadFactory;
 import org.apache.tomcat.util.threads.ThreadPoolExecutor;
+import org.ops4j.pax.web.service.spi.util.VirtualThreadSupport;
 
 /**
  * Almost like {@link org.apache.coyote.http11.Http11Nio2Protocol}, but with a slightly changed {@link Nio2Endpoint}.
@@ -45,6 +47,16 @@ public class PaxWebHttp11Nio2Protocol extends AbstractHttp11JsseProtocol<Nio2Cha
 		super(new Nio2Endpoint() {
 			@Override
 			public void createExecutor() {
+				if (getUseVirtualThreads()) {
+					// like org.apache.tomcat.util.threads.VirtualThreadExecutor, but with proper TCCL
+					ExecutorService executor = VirtualThreadSupport.createExecutor(getName() + "-virt-",
+							TomcatFactory.class.getClassLoader());
+					if (executor != null) {
+						setExecutor(executor);
+						internalExecutor = true;
+						return;
+					}
+				}
 				TaskQueue taskqueue = new TaskQueue();
 				TaskThreadFactory tf = new PaxWebTaskThreadFactory(getName() + "-exec-", getDaemon(), getThreadPriority());
 				ThreadPoolExecutor executor = new ThreadPoolExecutor(getMinSpareThreads(), getMaxThreads(), 60, TimeUnit.SECONDS, taskqueue, tf);
@@ -23,10 +23,10 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeMap;
-import java.util.function.Consumer;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentHashMap;
 import javax.servlet.DispatcherType;
 import javax.servlet.Filter;
+import javax.servlet.FilterChain;
 import javax.servlet.Servlet;
 import javax.servlet.ServletContainerInitializer;
 import javax.servlet.ServletContext;
@@ -38,10 +38,12 @@ import javax.servlet.http.HttpSessionListener;
 import org.apache.catalina.Container;
 import org.apache.catalina.LifecycleException;
 import org.apache.catalina.LifecycleState;
+import org.apache.catalina.connector.Connector;
 import org.apache.catalina.connector.Request;
 import org.apache.catalina.core.StandardContext;
 import org.apache.catalina.realm.GenericPrincipal;
 import org.apache.catalina.valves.ValveBase;
+import org.apache.coyote.ProtocolHandler;
 import org.apache.tomcat.util.descriptor.web.ErrorPage;
 import org.ops4j.pax.web.service.WebContainerContext;
 import org.ops4j.pax.web.service.spi.model.OsgiContextModel;
@@ -109,8 +111,10 @@ public class PaxWebStandardContext extends StandardContext {
 	 * {@link Preprocessor} are registered as filters, but without particular target
 	 * {@link org.ops4j.pax.web.service.spi.servlet.OsgiServletContext}, so they're effectively registered in
 	 * all available physical servlet contexts.
+	 * The list is immutable and replaced when preprocessors change, so it can be passed to every
+	 * {@link OsgiFilterChain} without copying.
 	 */
-	private final List<PreprocessorFilterConfig> preprocessors = new LinkedList<>();
+	private volatile List<PreprocessorFilterConfig> preprocessors = Collections.emptyList();
 
 	private final Collection<SCIWrapper> servletContainerInitializers = new LinkedList<>();
 
@@ -132,6 +136,12 @@ public class PaxWebStandardContext extends StandardContext {
 	private String[] connectorNames;
 	private boolean whiteboardTCCL;
 
+	/**
+	 * Results of {@link #matches(String, String)} per {@link Connector} and Host header - replaced when virtual
+	 * hosts change.
+	 */
+	private volatile Map<Connector, VirtualHostDecisions> virtualHostDecisions = new ConcurrentHashMap<>();
+
 	public PaxWebStandardContext(Default404Servlet defaultServlet, OsgiSessionAttributeListener osgiSessionsBridge) {
 		super();
 		getPipeline().addValve(new PaxWebStandardContextValve((ValveBase) getPipeline().getBasic(), defaultServlet));
@@ -155,44 +165,25 @@ public class PaxWebStandardContext extends StandardContext {
 			Request tomcatRequest = (Request) request.getAttribute(PAXWEB_TOMCAT_REQUEST);
 			request.removeAttribute(PAXWEB_TOMCAT_REQUEST);
 
-			if (wrapper == null) {
-				Container[] children = PaxWebStandardContext.this.findChildren();
-				for (Container c : children) {
-					if (c instanceof PaxWebStandardWrapper && request instanceof HttpServletRequest
-							&& c.getName() != null
-							&& c.getName().equals(((HttpServletRequest) request).getHttpServletMapping().getServletName())) {
-						wrapper = (PaxWebStandardWrapper) c;
-					}
+			if (wrapper == null && request instanceof HttpServletRequest) {
+				// not dispatched through PaxWebStandardWrapperValve (e.g., forward or include)
+				Container c = findChild(((HttpServletRequest) request).getHttpServletMapping().getServletName());
+				if (c instanceof PaxWebStandardWrapper) {
+					wrapper = (PaxWebStandardWrapper) c;
 				}
 			}
 
-			// listener called when org.osgi.service.http.HttpContext.handleSecurity() returns true
-			Consumer<HttpServletRequest> authListener = (req) -> {
-				final Object user = req.getAttribute(ServletContextHelper.REMOTE_USER);
-				final Object authType = req.getAttribute(ServletContextHelper.AUTHENTICATION_TYPE);
-
-				if (user != null || authType != null) {
-					// translate it into Tomcat specific authentication
-					String userName = user != null ? user.toString() : null;
-					String authMethod = authType != null ? authType.toString() : null;
-					if (tomcatRequest.getPrincipal() == null) {
-						tomcatRequest.setUserPrincipal(new GenericPrincipal(userName, null, Collections.emptyList()));
-					}
-				}
-			};
-
 			final OsgiFilterChain osgiChain;
-			List<Preprocessor> preprocessorInstances = preprocessors.stream().map(PreprocessorFilterConfig::getInstance).collect(Collectors.toList());
 			if (wrapper != null && !wrapper.is404()) {
-				osgiChain = new OsgiFilterChain(new ArrayList<>(preprocessorInstances),
-						wrapper.getServletContext(), wrapper.getWebContainerContext(), null, osgiSessionsBridge, authListener);
+				osgiChain = new TomcatOsgiFilterChain(preprocessors, wrapper.getServletContext(),
+						wrapper.getWebContainerContext(), chain, osgiSessionsBridge,
+						wrapper.getOsgiContextModel(), wrapper.getServletModel(), tomcatRequest);
 			} else {
-				osgiChain = new OsgiFilterChain(new ArrayList<>(preprocessorInstances),
-						delegate.getDefaultServletContext(), delegate.getDefaultWebContainerContext(), null, osgiSessionsBridge, authListener);
+				osgiChain = new TomcatOsgiFilterChain(preprocessors, delegate.getDefaultServletContext(),
+						delegate.getDefaultWebContainerContext(), chain, osgiSessionsBridge,
+						delegate.getDefaultOsgiContextModel(), null, tomcatRequest);
 			}
 
-			// this chain will be called (or not)
-			osgiChain.setChain(chain);
 			osgiChain.doFilter(request, response);
 		};
 
@@ -536,6 +527,14 @@ public class PaxWebStandardContext extends StandardContext {
 		return preprocessors;
 	}
 
+	/**
+	 * Replaces the preprocessors of this context.
+	 * @param preprocessors
+	 */
+	public void setPreprocessors(List<PreprocessorFilterConfig> preprocessors) {
+		this.preprocessors = Collections.unmodifiableList(new ArrayList<>(preprocessors));
+	}
+
 	public void setVirtualHosts(String[] virtualHosts) {
 		int size = virtualHosts == null ? 0 : virtualHosts.length;
 		if (size == 0) {
@@ -585,6 +584,39 @@ public class PaxWebStandardContext extends StandardContext {
 				}
 			}
 		}
+		this.virtualHostDecisions = new ConcurrentHashMap<>();
+	}
+
+	/**
+	 * Checks whether the request coming through given {@link Connector} with given Host header (server name) should
+	 * be handled by this context. The decisions are cached for each {@link Connector}, so connector name and
+	 * virtual host checks are not performed for each request.
+	 * @param connector
+	 * @param vhost
+	 * @return
+	 */
+	public boolean matches(Connector connector, String vhost) {
+		if (this.virtualHosts == null) {
+			return true;
+		}
+		if (vhost == null) {
+			return matches((String) null, connectorName(connector));
+		}
+		return virtualHostDecisions.computeIfAbsent(connector, VirtualHostDecisions::new).matches(vhost);
+	}
+
+	/**
+	 * Gets the name of Pax Web connector - directly, without reflection used by {@link Connector#getProperty}
+	 * when possible.
+	 * @param connector
+	 * @return
+	 */
+	static String connectorName(Connector connector) {
+		ProtocolHandler protocolHandler = connector.getProtocolHandler();
+		if (protocolHandler instanceof PaxWebHttp11Nio2Protocol) {
+			return ((PaxWebHttp11Nio2Protocol) protocolHandler).getPaxWebConnectorName();
+		}
+		return (String) connector.getProperty("PaxWebConnectorName");
 	}
 
 	/**
@@ -633,4 +665,64 @@ public class PaxWebStandardContext extends StandardContext {
 		this.whiteboardTCCL = whiteboardTCCL;
 	}
 
+	/**
+	 * Cached {@link #matches(String, String)} results for single {@link Connector}.
+	 */
+	private class VirtualHostDecisions {
+
+		/** Host header comes from the client, so we don't remember unlimited number of values */
+		private static final int MAX_HOSTS = 256;
+
+		private final String connectorName;
+		private final Map<String, Boolean> hosts = new ConcurrentHashMap<>();
+
+		VirtualHostDecisions(Connector connector) {
+			this.connectorName = connectorName(connector);
+		}
+
+		boolean matches(String vhost) {
+			Boolean result = hosts.get(vhost);
+			if (result == null) {
+				result = PaxWebStandardContext.this.matches(vhost, connectorName);
+				if (hosts.size() >= MAX_HOSTS) {
+					hosts.clear();
+				}
+				hosts.put(vhost, result);
+			}
+			return result;
+		}
+	}
+
+	/**
+	 * {@link OsgiFilterChain} that translates the user authenticated by
+	 * {@link org.osgi.service.http.HttpContext#handleSecurity} into Tomcat's principal of the request, without
+	 * a listener created for each request.
+	 */
+	private static final class TomcatOsgiFilterChain extends OsgiFilterChain {
+
+		private final Request tomcatRequest;
+
+		TomcatOsgiFilterChain(List<PreprocessorFilterConfig> preprocessors, ServletContext servletContext,
+				WebContainerContext context, FilterChain originalChain, OsgiSessionAttributeListener osgiSessionsBridge,
+				OsgiContextModel osgiContextModel, ServletModel servletModel, Request tomcatRequest) {
+			super(preprocessors, servletContext, context, originalChain, osgiSessionsBridge, null,
+					osgiContextModel, servletModel);
+			this.tomcatRequest = tomcatRequest;
+		}
+
+		@Override
+		protected void authenticated(HttpServletRequest req) {
+			final Object user = req.getAttribute(ServletContextHelper.REMOTE_USER);
+			final Object authType = req.getAttribute(ServletContextHelper.AUTHENTICATION_TYPE);
+
+			if ((user != null || authType != null) && tomcatRequest != null) {
+				// translate it into Tomcat specific authentication
+				String userName = user != null ? user.toString() : null;
+				if (tomcatRequest.getPrincipal() == null) {
+					tomcatRequest.setUserPrincipal(new GenericPrincipal(userName, null, Collections.emptyList()));
+				}
+			}
+		}
+	}
+
 }
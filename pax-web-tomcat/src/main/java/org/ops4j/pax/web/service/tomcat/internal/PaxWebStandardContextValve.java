@@ -23,6 +23,8 @@ import org.apache.catalina.Wrapper;
 import org.apache.catalina.connector.Request;
 import org.apache.catalina.connector.Response;
 import org.apache.catalina.valves.ValveBase;
+import org.apache.tomcat.util.buf.ByteChunk;
+import org.apache.tomcat.util.buf.CharChunk;
 import org.apache.tomcat.util.buf.MessageBytes;
 import org.ops4j.pax.web.service.spi.servlet.Default404Servlet;
 
@@ -53,12 +55,7 @@ public class PaxWebStandardContextValve extends ValveBase {
 	public void invoke(Request request, Response response) throws IOException, ServletException {
 		// org.apache.catalina.core.StandardContextValve.invoke() checks for WEB-INF and META-INF paths
 		// we'll check also for OSGI-INF and OSGI-OPT according to "128.3.5 Static Content"
-		MessageBytes requestPathMB = request.getRequestPathMB();
-		if ((requestPathMB.startsWithIgnoreCase("/META-INF/", 0)) || (requestPathMB.equalsIgnoreCase("/META-INF"))
-				|| (requestPathMB.startsWithIgnoreCase("/WEB-INF/", 0)) || (requestPathMB.equalsIgnoreCase("/WEB-INF"))
-				|| (requestPathMB.startsWithIgnoreCase("/OSGI-INF/", 0)) || (requestPathMB.equalsIgnoreCase("/OSGI-INF"))
-				|| (requestPathMB.startsWithIgnoreCase("/OSGI-OPT/", 0)) || (requestPathMB.equalsIgnoreCase("/OSGI-OPT"))
-		) {
+		if (isProtectedPath(request.getRequestPathMB())) {
 			response.sendError(HttpServletResponse.SC_NOT_FOUND);
 			return;
 		}
@@ -66,7 +63,7 @@ public class PaxWebStandardContextValve extends ValveBase {
 		// Tomcat does it at mapping level, when <Engine> selects a <Host>
 		// Here we're already at <Engine>/<Host>/<Context> level and do the VHost mapping as in Jetty.
 		PaxWebStandardContext ctx = ((PaxWebStandardContext) getContainer());
-		if (!ctx.matches(request.getServerName(), (String) request.getConnector().getProperty("PaxWebConnectorName"))) {
+		if (!ctx.matches(request.getConnector(), request.getServerName())) {
 			response.sendError(HttpServletResponse.SC_NOT_FOUND);
 			return;
 		}
@@ -88,4 +85,62 @@ public class PaxWebStandardContextValve extends ValveBase {
 		}
 	}
 
+	/**
+	 * Checks (case-insensitively, in single pass) whether the path is {@code /META-INF}, {@code /WEB-INF},
+	 * {@code /OSGI-INF} or {@code /OSGI-OPT} or is a path within these directories.
+	 * @param path
+	 * @return
+	 */
+	public static boolean isProtectedPath(MessageBytes path) {
+		int length = path.getLength();
+		if (length < 8 || charAt(path, 0) != '/') {
+			return false;
+		}
+		switch (charAt(path, 1)) {
+			case 'M':
+			case 'm':
+				return matchesDirectory(path, length, "META-INF");
+			case 'W':
+			case 'w':
+				return matchesDirectory(path, length, "WEB-INF");
+			case 'O':
+			case 'o':
+				return matchesDirectory(path, length, "OSGI-INF") || matchesDirectory(path, length, "OSGI-OPT");
+			default:
+				return false;
+		}
+	}
+
+	/**
+	 * Checks whether path (after leading {@code /}) is given directory or starts with given directory
+	 * and {@code /}.
+	 */
+	private static boolean matchesDirectory(MessageBytes path, int length, String directory) {
+		int end = directory.length() + 1;
+		if (length < end || (length > end && charAt(path, end) != '/')) {
+			return false;
+		}
+		for (int i = 1; i < end; i++) {
+			char c = charAt(path, i);
+			// ASCII only, as in org.apache.tomcat.util.buf.Ascii
+			if ((c >= 'a' && c <= 'z' ? (char) (c - ('a' - 'A')) : c) != directory.charAt(i - 1)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static char charAt(MessageBytes mb, int index) {
+		switch (mb.getType()) {
+			case MessageBytes.T_BYTES:
+				ByteChunk bc = mb.getByteChunk();
+				return (char) (bc.getBuffer()[bc.getStart() + index] & 0xFF);
+			case MessageBytes.T_CHARS:
+				CharChunk cc = mb.getCharChunk();
+				return cc.getBuffer()[cc.getStart() + index];
+			default:
+				return mb.toString().charAt(index);
+		}
+	}
+
 }
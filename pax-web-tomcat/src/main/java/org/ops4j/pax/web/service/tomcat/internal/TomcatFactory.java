@@ -176,6 +176,10 @@ public class TomcatFactory {
 		if (sc.getConnectorIdleTimeout() != null) {
 			defaultConnector.setProperty("connectionTimeout", sc.getConnectorIdleTimeout().toString());
 		}
+		if (sc.isServerVirtualThreads() != null && sc.isServerVirtualThreads()) {
+			// virtual thread executor will be created by the endpoint of PaxWebHttp11Nio2Protocol
+			defaultConnector.setProperty("useVirtualThreads", "true");
+		}
 
 		if (http2Available) {
 			LOG.info("HTTP/2 ClearText support available, adding \"h2c\" protocol support to default connector");
@@ -222,6 +226,10 @@ public class TomcatFactory {
 		if (sc.getConnectorIdleTimeout() != null) {
 			secureConnector.setProperty("connectionTimeout", sc.getConnectorIdleTimeout().toString());
 		}
+		if (sc.isServerVirtualThreads() != null && sc.isServerVirtualThreads()) {
+			// virtual thread executor will be created by the endpoint of PaxWebHttp11Nio2Protocol
+			secureConnector.setProperty("useVirtualThreads", "true");
+		}
 
 		// --- server keystore for server's own identity
 
@@ -23,12 +23,19 @@ import java.util.LinkedHashSet;
 import java.util.Set;
 import javax.servlet.Servlet;
 
+import org.ops4j.pax.web.service.spi.ContextStarter;
 import org.ops4j.pax.web.service.spi.ServerController;
 import org.ops4j.pax.web.service.spi.ServerState;
 import org.ops4j.pax.web.service.spi.config.Configuration;
 import org.ops4j.pax.web.service.spi.model.events.ServerEvent;
 import org.ops4j.pax.web.service.spi.model.events.ServerListener;
+import org.ops4j.pax.web.service.spi.model.info.CacheStatisticsInfo;
 import org.ops4j.pax.web.service.spi.task.Batch;
+import org.ops4j.pax.web.service.spi.task.ContextRestartScheduler;
+import org.ops4j.pax.web.service.spi.util.CompressedContentCache;
+import org.ops4j.pax.web.service.spi.util.ContentETagCache;
+import org.ops4j.pax.web.service.spi.util.ImmutableResources;
+import org.ops4j.pax.web.service.spi.util.SharedResourceCache;
 import org.ops4j.pax.web.service.tomcat.internal.web.TomcatResourceServlet;
 import org.osgi.framework.Bundle;
 import org.slf4j.Logger;
@@ -60,6 +67,20 @@ class TomcatServerController implements ServerController {
 	 */
 	private TomcatServerWrapper tomcatServerWrapper;
 
+	private ContextStarter contextStarter = ContextStarter.SYNCHRONOUS;
+
+	/** Optional server-wide cache of static content used by all resource servlets */
+	private final SharedResourceCache sharedResourceCache;
+
+	/** Optional server-wide cache of content compressed on the fly by all resource servlets */
+	private final CompressedContentCache compressedContentCache;
+
+	/** Optional server-wide cache of content based entity tags of bundle resources */
+	private final ContentETagCache contentETagCache;
+
+	/** Optional policy of serving fingerprinted resources with {@code Cache-Control: immutable} */
+	private final ImmutableResources immutableResources;
+
 	TomcatServerController(Bundle paxWebTomcatBundle, ClassLoader classLoader,
 			TomcatFactory tomcatFactory, Configuration configuration) {
 		this.paxWebTomcatBundle = paxWebTomcatBundle;
@@ -69,6 +90,10 @@ class TomcatServerController implements ServerController {
 		this.state = ServerState.UNCONFIGURED;
 
 		this.listeners = Collections.synchronizedSet(new LinkedHashSet<>());
+		this.sharedResourceCache = SharedResourceCache.create(configuration.resources());
+		this.compressedContentCache = CompressedContentCache.create(configuration.resources());
+		this.contentETagCache = ContentETagCache.create(configuration.resources());
+		this.immutableResources = ImmutableResources.create(configuration.resources());
 	}
 
 	// --- lifecycle methods
@@ -88,6 +113,7 @@ class TomcatServerController implements ServerController {
 		}
 
 		tomcatServerWrapper = new TomcatServerWrapper(configuration, tomcatFactory, paxWebTomcatBundle, classLoader);
+		tomcatServerWrapper.setContextStarter(contextStarter);
 		tomcatServerWrapper.configure();
 
 		state = ServerState.STOPPED;
@@ -117,6 +143,15 @@ class TomcatServerController implements ServerController {
 		}
 
 		tomcatServerWrapper.stop();
+		if (sharedResourceCache != null) {
+			sharedResourceCache.clear();
+		}
+		if (compressedContentCache != null) {
+			compressedContentCache.clear();
+		}
+		if (contentETagCache != null) {
+			contentETagCache.clear();
+		}
 
 		state = ServerState.STOPPED;
 		notifyListeners(new ServerEvent(ServerEvent.State.STOPPED, null));
@@ -167,12 +202,37 @@ class TomcatServerController implements ServerController {
 		try {
 			// TCCL is needed so StringManagers in Tomcat code work
 			Thread.currentThread().setContextClassLoader(TomcatServerWrapper.class.getClassLoader());
-			return new TomcatResourceServlet(baseDirectory, chroot, configuration.resources());
+			TomcatResourceServlet servlet = new TomcatResourceServlet(baseDirectory, chroot, configuration.resources(),
+					sharedResourceCache);
+			servlet.setCompressedContentCache(compressedContentCache);
+			servlet.setContentETagCache(contentETagCache);
+			servlet.setImmutableResources(immutableResources);
+			return servlet;
 		} finally {
 			Thread.currentThread().setContextClassLoader(tccl);
 		}
 	}
 
+	@Override
+	public SharedResourceCache getSharedResourceCache() {
+		return sharedResourceCache;
+	}
+
+	@Override
+	public CompressedContentCache getCompressedContentCache() {
+		return compressedContentCache;
+	}
+
+	@Override
+	public ContentETagCache getContentETagCache() {
+		return contentETagCache;
+	}
+
+	@Override
+	public void collectCacheStatistics(Set<CacheStatisticsInfo> statistics) {
+		tomcatServerWrapper.collectCacheStatistics(statistics);
+	}
+
 	@Override
 	public void sendBatch(Batch batch) {
 		LOG.info("Receiving {}", batch);
@@ -181,15 +241,35 @@ class TomcatServerController implements ServerController {
 			throw new IllegalStateException("Can't process batch in Tomcat server controller in state " + state);
 		}
 
+		// operations which are redundant for the runtime (like adding and removing the same element) are skipped
+		Batch compacted = batch.compact();
+		if (compacted != batch) {
+			LOG.debug("Skipping {} redundant operations of {}",
+					batch.getOperations().size() - compacted.getOperations().size(), batch);
+		}
+
 		ClassLoader tccl = Thread.currentThread().getContextClassLoader();
 		try {
 			Thread.currentThread().setContextClassLoader(getClass().getClassLoader());
-			batch.accept(tomcatServerWrapper);
+			compacted.accept(tomcatServerWrapper);
 		} finally {
 			Thread.currentThread().setContextClassLoader(tccl);
 		}
 	}
 
+	@Override
+	public ContextRestartScheduler getContextRestartScheduler() {
+		return tomcatServerWrapper.getContextRestartScheduler();
+	}
+
+	@Override
+	public void setContextStarter(ContextStarter contextStarter) {
+		this.contextStarter = contextStarter;
+		if (tomcatServerWrapper != null) {
+			tomcatServerWrapper.setContextStarter(contextStarter);
+		}
+	}
+
 	@Override
 	public String toString() {
 		return "TomcatServerController{configuration=" + configuration.id() + ",state=" + state + "}";
@@ -35,6 +35,7 @@ import java.util.Map;
 import java.util.Set;
 import java.util.TreeMap;
 import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Supplier;
 import javax.servlet.Servlet;
 import javax.servlet.ServletContext;
@@ -52,6 +53,7 @@ import org.apache.catalina.Executor;
 import org.apache.catalina.Host;
 import org.apache.catalina.LifecycleListener;
 import org.apache.catalina.LifecycleState;
+import org.apache.catalina.Realm;
 import org.apache.catalina.Server;
 import org.apache.catalina.Service;
 import org.apache.catalina.Valve;
@@ -64,6 +66,8 @@ import org.apache.catalina.core.StandardServer;
 import org.apache.catalina.core.StandardService;
 import org.apache.catalina.loader.ParallelWebappClassLoader;
 import org.apache.catalina.loader.WebappLoader;
+import org.apache.catalina.realm.GenericPrincipal;
+import org.apache.catalina.realm.JAASRealm;
 import org.apache.catalina.session.StandardManager;
 import org.apache.catalina.util.ToStringUtil;
 import org.apache.catalina.valves.AccessLogValve;
@@ -78,6 +82,7 @@ import org.apache.tomcat.util.descriptor.web.WebXmlParser;
 import org.apache.tomcat.util.digester.Digester;
 import org.apache.tomcat.util.http.Rfc6265CookieProcessor;
 import org.apache.tomcat.util.http.SameSiteCookies;
+import org.ops4j.pax.web.service.spi.ContextStarter;
 import org.ops4j.pax.web.service.spi.config.Configuration;
 import org.ops4j.pax.web.service.spi.config.LogConfiguration;
 import org.ops4j.pax.web.service.spi.config.SessionConfiguration;
@@ -96,6 +101,7 @@ import org.ops4j.pax.web.service.spi.model.elements.ServletModel;
 import org.ops4j.pax.web.service.spi.model.elements.WebSocketModel;
 import org.ops4j.pax.web.service.spi.model.elements.WelcomeFileModel;
 import org.ops4j.pax.web.service.spi.model.events.ServerEvent;
+import org.ops4j.pax.web.service.spi.model.info.CacheStatisticsInfo;
 import org.ops4j.pax.web.service.spi.servlet.Default404Servlet;
 import org.ops4j.pax.web.service.spi.servlet.DynamicRegistrations;
 import org.ops4j.pax.web.service.spi.servlet.OsgiDynamicServletContext;
@@ -111,6 +117,7 @@ import org.ops4j.pax.web.service.spi.task.ClearDynamicRegistrationsChange;
 import org.ops4j.pax.web.service.spi.task.ContainerInitializerModelChange;
 import org.ops4j.pax.web.service.spi.task.ContextMetadataModelChange;
 import org.ops4j.pax.web.service.spi.task.ContextParamsChange;
+import org.ops4j.pax.web.service.spi.task.ContextRestartScheduler;
 import org.ops4j.pax.web.service.spi.task.ContextStartChange;
 import org.ops4j.pax.web.service.spi.task.ContextStopChange;
 import org.ops4j.pax.web.service.spi.task.ErrorPageModelChange;
@@ -127,6 +134,7 @@ import org.ops4j.pax.web.service.spi.task.ServletModelChange;
 import org.ops4j.pax.web.service.spi.task.TransactionStateChange;
 import org.ops4j.pax.web.service.spi.task.WebSocketModelChange;
 import org.ops4j.pax.web.service.spi.task.WelcomeFileModelChange;
+import org.ops4j.pax.web.service.spi.util.CredentialCache;
 import org.ops4j.pax.web.service.spi.util.Utils;
 import org.ops4j.pax.web.service.tomcat.internal.web.TomcatResourceServlet;
 import org.osgi.framework.Bundle;
@@ -209,6 +217,15 @@ class TomcatServerWrapper implements BatchVisitor {
 	 */
 	private final Map<String, List<ElementModel<?, ?>>> delayedRemovals = new HashMap<>();
 
+	/**
+	 * Debounces restarts of contexts caused by registration of {@link ServletContextListener listeners} and
+	 * {@link javax.servlet.ServletContainerInitializer SCIs}.
+	 */
+	private final ContextRestartScheduler restartScheduler;
+
+	/** Strategy to perform the actual start of configured {@link PaxWebStandardContext} */
+	private ContextStarter contextStarter = ContextStarter.SYNCHRONOUS;
+
 	/**
 	 * Single map of context path to {@link Context} for fast access
 	 */
@@ -220,6 +237,12 @@ class TomcatServerWrapper implements BatchVisitor {
 	 */
 	private final Map<OsgiContextModel, OsgiServletContext> osgiServletContexts = new HashMap<>();
 
+	/**
+	 * {@link OsgiServletContextClassLoader class loaders} of {@link #osgiServletContexts}, kept in a concurrent map,
+	 * because their statistics are read outside of the configuration thread.
+	 */
+	private final Map<OsgiContextModel, OsgiServletContextClassLoader> classLoaders = new ConcurrentHashMap<>();
+
 	/**
 	 * When {@link PaxWebStandardContext} is started, it has to be configured according to current, highest-ranked
 	 * {@link OsgiContextModel} using specific session and security configuration. These listeners are added
@@ -272,6 +295,9 @@ class TomcatServerWrapper implements BatchVisitor {
 		this.tomcatFactory = tomcatFactory;
 		this.paxWebTomcatBundle = paxWebTomcatBundle;
 		this.classLoader = classLoader;
+
+		Integer quietPeriod = config.server().getContextRestartQuietPeriod();
+		this.restartScheduler = new ContextRestartScheduler(quietPeriod == null ? 0L : quietPeriod);
 	}
 
 	// --- lifecycle and configuration methods
@@ -508,6 +534,32 @@ class TomcatServerWrapper implements BatchVisitor {
 			}
 
 			defaultHost = (Host) engine.findChild("localhost");
+
+			// <Server>/<Service>/<Engine>/<Realm> and <Server>/<Service>/<Engine>/<Host>/<Realm>
+			wrapJaasRealm(engine);
+			for (Container child : engine.findChildren()) {
+				wrapJaasRealm(child);
+			}
+		}
+	}
+
+	/**
+	 * {@link JAASRealm} configured directly for given {@link Container} is wrapped in {@link CachingRealm}, if
+	 * credential cache is enabled in {@link Configuration#security()}.
+	 * @param container
+	 */
+	private void wrapJaasRealm(Container container) {
+		Realm realm = container.getRealm();
+		// getRealm() may return parent's realm
+		if (!(realm instanceof JAASRealm) || realm.getContainer() != container) {
+			return;
+		}
+		CredentialCache<GenericPrincipal> cache = CredentialCache.create(configuration.security());
+		if (cache != null) {
+			String appName = ((JAASRealm) realm).getAppName();
+			LOG.info("Caching successful authentications of \"{}\" JAAS realm for {}ms", appName,
+					configuration.security().getCredentialCacheTtl());
+			container.setRealm(new CachingRealm(realm, appName, cache));
 		}
 	}
 
@@ -709,6 +761,27 @@ class TomcatServerWrapper implements BatchVisitor {
 		}
 	}
 
+	/**
+	 * Returns the {@link ContextRestartScheduler} with statistics of debounced context restarts.
+	 * @return
+	 */
+	public ContextRestartScheduler getContextRestartScheduler() {
+		return restartScheduler;
+	}
+
+	/**
+	 * Collects statistics of the lookup caches of {@link OsgiServletContextClassLoader class loaders} of all
+	 * the OSGi contexts. May be called from any thread.
+	 * @param statistics
+	 */
+	public void collectCacheStatistics(Set<CacheStatisticsInfo> statistics) {
+		classLoaders.forEach((model, loader) -> statistics.add(new CacheStatisticsInfo(model, loader)));
+	}
+
+	public void setContextStarter(ContextStarter contextStarter) {
+		this.contextStarter = contextStarter == null ? ContextStarter.SYNCHRONOUS : contextStarter;
+	}
+
 	/**
 	 * If state allows, this methods returns currently configured/started addresses of the listeners.
 	 *
@@ -887,6 +960,7 @@ class TomcatServerWrapper implements BatchVisitor {
 			dynamicRegistrations.remove(contextPath);
 			initializers.remove(contextPath);
 			osgiContextModels.remove(contextPath);
+			restartScheduler.removed(contextPath);
 			PaxWebStandardContext context = contextHandlers.remove(contextPath);
 
 			// Note: for WAB deployments, this is the last operation of the undeployment batch and all web element
@@ -970,6 +1044,9 @@ class TomcatServerWrapper implements BatchVisitor {
 			osgiContext.setAttribute(ServletContext.TEMPDIR, tmpLocation);
 
 			osgiServletContexts.put(osgiModel, osgiContext);
+			if (osgiContext.getClassLoader() instanceof OsgiServletContextClassLoader) {
+				classLoaders.put(osgiModel, (OsgiServletContextClassLoader) osgiContext.getClassLoader());
+			}
 			osgiContextModels.get(contextPath).add(osgiModel);
 
 			configurationListeners.put(osgiModel, new OsgiContextConfiguration(osgiModel, configuration, tomcatFactory, contextSecurityConstraints));
@@ -981,6 +1058,7 @@ class TomcatServerWrapper implements BatchVisitor {
 			LOG.info("Removing {} from {}", osgiModel, realContext);
 
 			OsgiServletContext removedOsgiServletContext = osgiServletContexts.remove(osgiModel);
+			classLoaders.remove(osgiModel);
 			TreeSet<OsgiContextModel> models = osgiContextModels.get(contextPath);
 			if (models != null) {
 				models.remove(osgiModel);
@@ -1434,17 +1512,17 @@ class TomcatServerWrapper implements BatchVisitor {
 				context.removeFilterMap(map);
 			}
 
-			// clear to keep the order of all available preprocessors
-			context.getPreprocessors().clear();
+			// new list to keep the order of all available preprocessors
+			List<PreprocessorFilterConfig> preprocessors = new ArrayList<>();
 
 			for (Iterator<FilterModel> iterator = filters.iterator(); iterator.hasNext(); ) {
 				FilterModel model = iterator.next();
 				if (model.isPreprocessor()) {
-					context.getPreprocessors()
-							.add(new PreprocessorFilterConfig(model, osgiServletContexts.get(defaultHighestRankedModel)));
+					preprocessors.add(new PreprocessorFilterConfig(model, osgiServletContexts.get(defaultHighestRankedModel)));
 					iterator.remove();
 				}
 			}
+			context.setPreprocessors(preprocessors);
 
 			// order -> [ FilterModel, FilterModel.Mapping ]
 			Map<Integer, Object[]> webOrderMapping = new TreeMap<>();
@@ -1517,9 +1595,13 @@ class TomcatServerWrapper implements BatchVisitor {
 					try {
 						standardContext.stop();
 						stopped = true;
+						restartScheduler.markDirty(contextPath);
 					} catch (Exception e) {
 						LOG.warn("Problem stopping {}: {}", standardContext, e.getMessage());
 					}
+				} else if (restartScheduler.isDirty(contextPath) && ServletContextListener.class.isAssignableFrom(eventListener.getClass())) {
+					// the context is already waiting for a restart - just postpone it
+					restartScheduler.markDirty(contextPath);
 				}
 
 				// add the listener to real context - even ServletContextAttributeListener (but only once - even
@@ -1541,7 +1623,7 @@ class TomcatServerWrapper implements BatchVisitor {
 					// register a "callback batch operation", which will be submitted within a new batch
 					// as new task in single paxweb-config thread pool's thread
 					LOG.info("Scheduling start of the {} context after listener registration for already started context", contextPath);
-					change.registerBatchCompletedAction(new ContextStartChange(OpCode.MODIFY, contextPath));
+					change.registerBatchCompletedAction(restartScheduler.restart(contextPath));
 				}
 			});
 		}
@@ -1751,9 +1833,17 @@ class TomcatServerWrapper implements BatchVisitor {
 					LOG.info("Stopping Tomcat context \"{}\" before registering a ServletContextInitializer", path);
 					try {
 						ctx.stop();
+						if (restartScheduler.markDirty(path) && restartScheduler.getQuietPeriod() > 0L) {
+							// the start caused by following registration of active web element is deferred
+							// until the quiet period passes, so we have to schedule it
+							change.registerBatchCompletedAction(restartScheduler.restart(path));
+						}
 					} catch (Exception e) {
 						LOG.warn("Error stopping Tomcat context \"{}\": {}", path, e.getMessage(), e);
 					}
+				} else if (restartScheduler.isDirty(path)) {
+					// the context is already waiting for a restart - just postpone it
+					restartScheduler.markDirty(path);
 				}
 
 				// even if there's org.apache.catalina.core.StandardContext.addServletContainerInitializer(),
@@ -1967,6 +2057,12 @@ class TomcatServerWrapper implements BatchVisitor {
 		String contextPath = change.getContextPath();
 		PaxWebStandardContext standardContext = contextHandlers.get(contextPath);
 		if (standardContext != null) {
+			ContextStartChange postponed = restartScheduler.postpone(change);
+			if (postponed != null) {
+				// there were more listener registrations in the meantime - wait until they stop coming
+				change.registerBatchCompletedAction(postponed);
+				return;
+			}
 			ensureServletContextStarted(standardContext);
 		} else {
 			LOG.debug("Not starting unknown context {}.", contextPath);
@@ -2064,7 +2160,9 @@ class TomcatServerWrapper implements BatchVisitor {
 	 */
 	private void ensureServletContextStarted(PaxWebStandardContext context) {
 		String contextPath = context == null || context.getPath().equals("") ? "/" : context.getPath();
-		if (context == null || context.isStarted() || context.getState() == LifecycleState.DESTROYED || pendingTransaction(contextPath)) {
+		if (context == null || context.isStarted() || context.getState() == LifecycleState.DESTROYED
+				|| pendingTransaction(contextPath) || contextStarter.isStarting(contextPath)
+				|| restartScheduler.isStartDeferred(contextPath)) {
 			return;
 		}
 		try {
@@ -2178,20 +2276,27 @@ class TomcatServerWrapper implements BatchVisitor {
 				}
 			}
 
-			ClassLoader tccl = Thread.currentThread().getContextClassLoader();
-			try {
-				Thread.currentThread().setContextClassLoader(highestRankedContext.getClassLoader());
-				context.start();
-			} finally {
-				Thread.currentThread().setContextClassLoader(tccl);
-			}
-			// swap dynamic to normal context
-			dynamicContext.rememberAttributesFromSCIs();
-			context.setOsgiServletContext(highestRankedContext);
-
-			// only now, according to https://docs.osgi.org/specification/osgi.cmpn/7.0.0/service.war.html#d0e100694
-			// register the servlet context
-			highestRankedContext.register();
+			// the actual start (SCIs, listeners, servlet initialization) may be performed in another thread
+			contextStarter.start(contextPath, () -> {
+				ClassLoader tccl = Thread.currentThread().getContextClassLoader();
+				try {
+					Thread.currentThread().setContextClassLoader(highestRankedContext.getClassLoader());
+					context.start();
+				} catch (Exception e) {
+					// reported by the ContextStarter - logged in synchronous case
+					throw new IllegalStateException("Can't start Tomcat context \"" + contextPath + "\": " + e.getMessage(), e);
+				} finally {
+					Thread.currentThread().setContextClassLoader(tccl);
+				}
+				restartScheduler.started(contextPath);
+				// swap dynamic to normal context
+				dynamicContext.rememberAttributesFromSCIs();
+				context.setOsgiServletContext(highestRankedContext);
+
+				// only now, according to https://docs.osgi.org/specification/osgi.cmpn/7.0.0/service.war.html#d0e100694
+				// register the servlet context
+				highestRankedContext.register();
+			});
 		} catch (Exception e) {
 			LOG.error(e.getMessage(), e);
 		}
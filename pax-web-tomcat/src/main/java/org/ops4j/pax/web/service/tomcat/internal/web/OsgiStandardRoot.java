@@ -15,6 +15,7 @@
  */
 package org.ops4j.pax.web.service.tomcat.internal.web;
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
@@ -23,6 +24,7 @@ import java.net.MalformedURLException;
 import java.net.URISyntaxException;
 import java.net.URL;
 import java.net.URLConnection;
+import java.nio.ByteBuffer;
 import java.security.cert.Certificate;
 import java.util.Collections;
 import java.util.Set;
@@ -40,6 +42,12 @@ import org.apache.catalina.webresources.EmptyResource;
 import org.apache.catalina.webresources.FileResource;
 import org.apache.catalina.webresources.StandardRoot;
 import org.apache.juli.logging.Log;
+import org.ops4j.pax.web.service.spi.servlet.OsgiScopedServletContext;
+import org.ops4j.pax.web.service.spi.util.BundleFileResolver;
+import org.ops4j.pax.web.service.spi.util.CompressedContentCache;
+import org.ops4j.pax.web.service.spi.util.ContentETagCache;
+import org.ops4j.pax.web.service.spi.util.SharedResourceCache;
+import org.osgi.framework.Bundle;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -54,13 +62,97 @@ class OsgiStandardRoot extends StandardRoot {
 	private final WebResourceRoot root;
 	private final int maxEntrySize;
 
+	private final SharedResourceCache sharedResourceCache;
+	private final CompressedContentCache compressedContentCache;
+	private final ContentETagCache contentETagCache;
+	private final Bundle bundle;
+
+	/** Not {@code null} for bundles installed from a directory - their entries are served as files */
+	private final BundleFileResolver bundleFileResolver;
+
 	OsgiStandardRoot(WebResourceRoot root, File baseDirectory, String chroot, ServletContext osgiScopedServletContext, int maxEntrySize) {
+		this(root, baseDirectory, chroot, osgiScopedServletContext, maxEntrySize, null, null, null);
+	}
+
+	/**
+	 * Creates a root which may use server-wide {@link SharedResourceCache} - in such case, the content is
+	 * never kept by the resources themselves and Tomcat's own per-root cache should be disabled.
+	 * @param root
+	 * @param baseDirectory
+	 * @param chroot
+	 * @param osgiScopedServletContext
+	 * @param maxEntrySize
+	 * @param sharedResourceCache
+	 * @param compressedContentCache if not {@code null}, virtual {@code .gz} resources are returned for
+	 *        compressible resources without precompressed variant
+	 * @param contentETagCache if not {@code null}, bundle resources have strong, content based entity tags
+	 */
+	OsgiStandardRoot(WebResourceRoot root, File baseDirectory, String chroot, ServletContext osgiScopedServletContext,
+			int maxEntrySize, SharedResourceCache sharedResourceCache, CompressedContentCache compressedContentCache,
+			ContentETagCache contentETagCache) {
 		super(root.getContext());
 		this.root = root;
 		this.baseDirectory = baseDirectory;
 		this.chroot = chroot;
 		this.osgiScopedServletContext = osgiScopedServletContext;
-		this.maxEntrySize = maxEntrySize;
+		this.maxEntrySize = sharedResourceCache == null ? maxEntrySize : -1;
+		this.sharedResourceCache = sharedResourceCache;
+		this.compressedContentCache = compressedContentCache;
+		this.contentETagCache = contentETagCache;
+		// resources from configured directory are versioned by their own last modification time
+		this.bundle = baseDirectory == null && osgiScopedServletContext instanceof OsgiScopedServletContext
+				? ((OsgiScopedServletContext) osgiScopedServletContext).getBundle() : null;
+		this.bundleFileResolver = BundleFileResolver.create(bundle);
+	}
+
+	@Override
+	public WebResource getResource(String path) {
+		WebResource resource = super.getResource(path);
+		if (compressedContentCache != null && (resource == null || !resource.exists())
+				&& path.endsWith(CompressedContentCache.EXTENSION)) {
+			// no precompressed variant - DefaultServlet will use the content compressed on the fly
+			WebResource compressed = getCompressedResource(path);
+			if (compressed != null) {
+				return compressed;
+			}
+		}
+		if (resource == null || !resource.isFile() || !resource.exists()) {
+			return resource;
+		}
+		if (sharedResourceCache != null) {
+			resource = new SharedCacheResource(this, resource, sharedResourceCache, bundle);
+		}
+		if (contentETagCache != null && bundle != null) {
+			resource = new ContentETagResource(resource, contentETagCache, bundle);
+		}
+		return resource;
+	}
+
+	/**
+	 * Checks whether the resource is a virtual {@code .gz} variant compressed on the fly, which should not be
+	 * served when requested directly.
+	 * @param resource
+	 * @return
+	 */
+	static boolean isCompressedVariant(WebResource resource) {
+		return resource instanceof CompressedResource;
+	}
+
+	private WebResource getCompressedResource(String path) {
+		String originalPath = path.substring(0, path.length() - CompressedContentCache.EXTENSION.length());
+		WebResource original = super.getResource(originalPath);
+		if (original == null || !original.isFile() || !original.exists() || original.getURL() == null
+				|| !compressedContentCache.isCompressible(osgiScopedServletContext.getMimeType(originalPath))) {
+			return null;
+		}
+		try {
+			byte[] compressed = compressedContentCache.getCompressed(bundle, original.getLastModified(),
+					original.getURL().toExternalForm(), original.getContentLength(), original::getInputStream);
+			return compressed == null ? null : new CompressedResource(this, path, original, compressed);
+		} catch (IOException e) {
+			LOG.warn("Problem compressing {}: {}", original.getURL(), e.getMessage(), e);
+			return null;
+		}
 	}
 
 	@Override
@@ -116,6 +208,12 @@ class OsgiStandardRoot extends StandardRoot {
 							return new EmptyResource(root, path);
 						}
 					}
+					File bundleFile = bundleFileResolver == null ? null : bundleFileResolver.resolve(resource);
+					if (bundleFile != null) {
+						// entry of a bundle installed from a directory - DefaultServlet can use sendfile
+						// for FileResource (also for single range requests)
+						return new FileResource(root, fullPath, bundleFile, true, null);
+					}
 					if (resource.getProtocol().equals("file")) {
 						try {
 							File file = new File(resource.toURI());
@@ -135,24 +233,21 @@ class OsgiStandardRoot extends StandardRoot {
 							// unfortunately, due to https://issues.apache.org/jira/browse/FELIX-6294
 							// we have to check ourselves if it's a directory and possibly append a slash
 							// just as org.eclipse.osgi.storage.bundlefile.BundleFile#fixTrailingSlash() does it
-							try {
-								UrlResource potentialDirectory = new UrlResource(OsgiStandardRoot.this, resource, fullPath, maxEntrySize);
-								if (potentialDirectory.exists()) {
-									try (InputStream is = potentialDirectory.getInputStream()) {
-										if ((is == null || is.available() == 0)
-												&& (potentialDirectory.getContent() == null || potentialDirectory.getContent().length == 0)) {
-											URL fixedURL = new URL(resource.toExternalForm() + "/");
-											UrlResource properDirectory = new UrlResource(OsgiStandardRoot.this, fixedURL, fullPath, maxEntrySize);
-											if (properDirectory.exists()) {
-												return properDirectory;
-											}
-										}
+							// (only the metadata is checked - an entry without content may be a directory)
+							UrlResource potentialDirectory = new UrlResource(OsgiStandardRoot.this, resource, fullPath, maxEntrySize);
+							if (potentialDirectory.exists() && potentialDirectory.getContentLength() <= 0) {
+								try {
+									URL fixedURL = new URL(resource.toExternalForm() + "/");
+									UrlResource properDirectory = new UrlResource(OsgiStandardRoot.this, fixedURL, fullPath, maxEntrySize);
+									if (properDirectory.exists()) {
+										return properDirectory;
 									}
+								} catch (MalformedURLException e) {
+									LOG.warn("Problem checking directory bundle resource: {}", e.getMessage(), e);
+									return new EmptyResource(root, path);
 								}
-							} catch (IOException e) {
-								LOG.warn("Problem checking directory bundle resource: {}", e.getMessage(), e);
-								return new EmptyResource(root, path);
 							}
+							return potentialDirectory;
 						}
 					} else if (resource.getProtocol().equals("bundleentry")) {
 						if ("/".equals(resource.getPath())) {
@@ -167,12 +262,7 @@ class OsgiStandardRoot extends StandardRoot {
 						}
 					}
 
-					try {
-						return new UrlResource(OsgiStandardRoot.this, resource, fullPath, maxEntrySize);
-					} catch (IOException e) {
-						LOG.warn(e.getMessage(), e);
-						return new EmptyResource(root, path);
-					}
+					return new UrlResource(OsgiStandardRoot.this, resource, fullPath, maxEntrySize);
 				}
 
 				@Override
@@ -222,66 +312,58 @@ class OsgiStandardRoot extends StandardRoot {
 	}
 
 	/**
-	 * Based on org.eclipse.jetty.util.resource.URLResource
+	 * <p>Based on org.eclipse.jetty.util.resource.URLResource.</p>
+	 *
+	 * <p>Existence, length and last modification time are taken from {@link URLConnection} (which for bundle
+	 * entries is a lookup in bundle's archive) and the content is never read just to answer metadata queries -
+	 * {@code HEAD} and conditional requests don't read the entry at all. The content is read only when
+	 * {@link #getContent()} is called (so Tomcat's {@link org.apache.catalina.webresources.Cache} can keep it)
+	 * for entries not bigger than {@code maxEntrySize}. Otherwise each {@link #getInputStream()} opens new
+	 * stream.</p>
+	 *
+	 * <p>There are no locks - concurrent first access may perform the lookup (or read the content) more than
+	 * once, which is harmless.</p>
 	 */
 	private static class UrlResource extends AbstractResource {
 
 		private final URL url;
 		private final int maxEntrySize;
-
-		private URLConnection urlConnection;
-		private InputStream in;
 		private final File file;
-		private byte[] content;
 
-		UrlResource(WebResourceRoot root, URL url, String fullPath, int maxEntrySize) throws IOException {
+		private volatile UrlMetadata metadata;
+		private volatile byte[] content;
+
+		UrlResource(WebResourceRoot root, URL url, String fullPath, int maxEntrySize) {
 			super(root, fullPath);
 			this.url = url;
 			this.maxEntrySize = maxEntrySize;
-
-			doGetInputStream(false);
-
 			this.file = new File(url.getPath());
 		}
 
-		@Override
-		protected InputStream doGetInputStream() {
-			return doGetInputStream(true);
+		private UrlMetadata metadata() {
+			UrlMetadata m = metadata;
+			if (m == null) {
+				m = UrlMetadata.lookup(url);
+				metadata = m;
+			}
+			return m;
 		}
 
-		private synchronized InputStream doGetInputStream(boolean forceNew) {
-			if (urlConnection == null) {
-				try {
-					this.urlConnection = this.url.openConnection();
-					this.urlConnection.setUseCaches(true);
-					this.in = this.urlConnection.getInputStream();
-
-					if (getContentLength() <= maxEntrySize) {
-						// we can cache the content, as
-						// in org.eclipse.jetty.server.CachedContentFactory.CachedHttpContent.getDirectBuffer
-						byte[] buf = new byte[4096];
-						int read = -1;
-						ByteArrayOutputStream baos = new ByteArrayOutputStream();
-						try {
-							while ((read = this.in.read(buf)) > 0) {
-								baos.write(buf, 0, read);
-							}
-							content = baos.toByteArray();
-						} finally {
-							in.close();
-							in = null;
-						}
-					}
-				} catch (IOException e) {
-					LOG.warn(e.getMessage(), e);
-				}
+		@Override
+		protected InputStream doGetInputStream() {
+			byte[] c = content;
+			if (c != null) {
+				return new ByteArrayInputStream(c);
 			}
-			InputStream result = in;
-			if (forceNew) {
-				in = null;
-				urlConnection = null;
+			if (!exists()) {
+				return null;
+			}
+			try {
+				return url.openStream();
+			} catch (IOException e) {
+				LOG.warn(e.getMessage(), e);
+				return null;
 			}
-			return result;
 		}
 
 		@Override
@@ -291,13 +373,12 @@ class OsgiStandardRoot extends StandardRoot {
 
 		@Override
 		public long getLastModified() {
-			return urlConnection.getLastModified();
+			return metadata().lastModified;
 		}
 
 		@Override
 		public boolean exists() {
-			doGetInputStream(false);
-			return in != null || content != null;
+			return metadata().exists;
 		}
 
 		@Override
@@ -327,7 +408,7 @@ class OsgiStandardRoot extends StandardRoot {
 
 		@Override
 		public long getContentLength() {
-			return urlConnection.getContentLength();
+			return metadata().length;
 		}
 
 		@Override
@@ -341,18 +422,40 @@ class OsgiStandardRoot extends StandardRoot {
 
 		@Override
 		public boolean canRead() {
-			doGetInputStream(false);
-			return in != null || content != null;
+			return exists();
 		}
 
 		@Override
 		public byte[] getContent() {
-			return content;
+			byte[] c = content;
+			if (c != null || maxEntrySize < 0 || !isFile()) {
+				return c;
+			}
+			long length = getContentLength();
+			if (!exists() || length < 0 || length > maxEntrySize) {
+				// too big (or unknown length) - always streamed
+				return null;
+			}
+			// as in org.eclipse.jetty.server.CachedContentFactory.CachedHttpContent.getDirectBuffer
+			try (InputStream in = url.openStream()) {
+				byte[] buf = new byte[4096];
+				int read;
+				ByteArrayOutputStream baos = new ByteArrayOutputStream((int) length);
+				while ((read = in.read(buf)) > 0) {
+					baos.write(buf, 0, read);
+				}
+				c = baos.toByteArray();
+			} catch (IOException e) {
+				LOG.warn(e.getMessage(), e);
+				return null;
+			}
+			content = c;
+			return c;
 		}
 
 		@Override
 		public long getCreation() {
-			return urlConnection.getLastModified();
+			return getLastModified();
 		}
 
 		@Override
@@ -376,6 +479,467 @@ class OsgiStandardRoot extends StandardRoot {
 		}
 	}
 
+	/**
+	 * Immutable metadata of {@link UrlResource}.
+	 */
+	private static final class UrlMetadata {
+
+		private static final UrlMetadata MISSING = new UrlMetadata(false, -1L, 0L);
+
+		private final boolean exists;
+		private final long length;
+		private final long lastModified;
+
+		private UrlMetadata(boolean exists, long length, long lastModified) {
+			this.exists = exists;
+			this.length = length;
+			this.lastModified = lastModified;
+		}
+
+		/**
+		 * Checks the URL without reading its content. Felix and Equinox bundle URL connections locate the entry
+		 * when connecting and fail if there's no such entry.
+		 * @param url
+		 * @return
+		 */
+		static UrlMetadata lookup(URL url) {
+			try {
+				URLConnection connection = url.openConnection();
+				connection.connect();
+				long length = connection.getContentLengthLong();
+				long lastModified = connection.getLastModified();
+				// bundle URL connections open the entry stream when connecting - it's closed without reading
+				connection.getInputStream().close();
+				return new UrlMetadata(true, length, lastModified);
+			} catch (IOException e) {
+				return MISSING;
+			}
+		}
+	}
+
+	/**
+	 * {@link WebResource} which takes its content from {@link SharedResourceCache} - all other information is
+	 * taken from the wrapped resource.
+	 */
+	private static class SharedCacheResource extends AbstractResource {
+
+		private final WebResource resource;
+		private final SharedResourceCache cache;
+		private final Bundle bundle;
+
+		SharedCacheResource(WebResourceRoot root, WebResource resource, SharedResourceCache cache, Bundle bundle) {
+			super(root, resource.getWebappPath());
+			this.resource = resource;
+			this.cache = cache;
+			this.bundle = bundle;
+		}
+
+		@Override
+		protected InputStream doGetInputStream() {
+			URL url = resource.getURL();
+			if (url != null) {
+				try {
+					ByteBuffer buffer = cache.getContent(bundle, resource.getLastModified(), url.toExternalForm(),
+							resource.getContentLength(), resource::getInputStream);
+					if (buffer != null) {
+						return new ByteBufferInputStream(buffer);
+					}
+				} catch (IOException e) {
+					LOG.warn("Problem caching {}: {}", url, e.getMessage(), e);
+				}
+			}
+			return resource.getInputStream();
+		}
+
+		@Override
+		protected Log getLog() {
+			return null;
+		}
+
+		@Override
+		public long getLastModified() {
+			return resource.getLastModified();
+		}
+
+		@Override
+		public boolean exists() {
+			return resource.exists();
+		}
+
+		@Override
+		public boolean isVirtual() {
+			return resource.isVirtual();
+		}
+
+		@Override
+		public boolean isDirectory() {
+			return resource.isDirectory();
+		}
+
+		@Override
+		public boolean isFile() {
+			return resource.isFile();
+		}
+
+		@Override
+		public boolean delete() {
+			return false;
+		}
+
+		@Override
+		public String getName() {
+			return resource.getName();
+		}
+
+		@Override
+		public long getContentLength() {
+			return resource.getContentLength();
+		}
+
+		@Override
+		public String getCanonicalPath() {
+			return resource.getCanonicalPath();
+		}
+
+		@Override
+		public boolean canRead() {
+			return resource.canRead();
+		}
+
+		@Override
+		public byte[] getContent() {
+			// null, so the content is always obtained through getInputStream()
+			return null;
+		}
+
+		@Override
+		public long getCreation() {
+			return resource.getCreation();
+		}
+
+		@Override
+		public URL getURL() {
+			return resource.getURL();
+		}
+
+		@Override
+		public URL getCodeBase() {
+			return resource.getCodeBase();
+		}
+
+		@Override
+		public Certificate[] getCertificates() {
+			return resource.getCertificates();
+		}
+
+		@Override
+		public Manifest getManifest() {
+			return resource.getManifest();
+		}
+	}
+
+	/**
+	 * Virtual {@code .gz} sibling of a {@link WebResource} with the content compressed on the fly and kept in
+	 * {@link CompressedContentCache}.
+	 */
+	private static class CompressedResource extends AbstractResource {
+
+		private final WebResource original;
+		private final byte[] compressed;
+
+		CompressedResource(WebResourceRoot root, String webAppPath, WebResource original, byte[] compressed) {
+			super(root, webAppPath);
+			this.original = original;
+			this.compressed = compressed;
+		}
+
+		@Override
+		protected InputStream doGetInputStream() {
+			return new ByteArrayInputStream(compressed);
+		}
+
+		@Override
+		protected Log getLog() {
+			return null;
+		}
+
+		@Override
+		public long getLastModified() {
+			return original.getLastModified();
+		}
+
+		@Override
+		public boolean exists() {
+			return true;
+		}
+
+		@Override
+		public boolean isVirtual() {
+			return true;
+		}
+
+		@Override
+		public boolean isDirectory() {
+			return false;
+		}
+
+		@Override
+		public boolean isFile() {
+			return true;
+		}
+
+		@Override
+		public boolean delete() {
+			return false;
+		}
+
+		@Override
+		public String getName() {
+			return original.getName() + CompressedContentCache.EXTENSION;
+		}
+
+		@Override
+		public long getContentLength() {
+			return compressed.length;
+		}
+
+		@Override
+		public String getCanonicalPath() {
+			return null;
+		}
+
+		@Override
+		public boolean canRead() {
+			return true;
+		}
+
+		@Override
+		public byte[] getContent() {
+			return compressed;
+		}
+
+		@Override
+		public long getCreation() {
+			return original.getCreation();
+		}
+
+		@Override
+		public URL getURL() {
+			return null;
+		}
+
+		@Override
+		public URL getCodeBase() {
+			return null;
+		}
+
+		@Override
+		public Certificate[] getCertificates() {
+			return new Certificate[0];
+		}
+
+		@Override
+		public Manifest getManifest() {
+			return null;
+		}
+	}
+
+	/**
+	 * {@link WebResource} of a bundle with strong entity tag taken from {@link ContentETagCache}.
+	 * {@link AbstractResource#getETag()} is final, so this class delegates everything to the wrapped resource.
+	 */
+	private static class ContentETagResource implements WebResource {
+
+		private final WebResource resource;
+		private final ContentETagCache cache;
+		private final Bundle bundle;
+
+		private volatile String etag;
+
+		ContentETagResource(WebResource resource, ContentETagCache cache, Bundle bundle) {
+			this.resource = resource;
+			this.cache = cache;
+			this.bundle = bundle;
+		}
+
+		@Override
+		public String getETag() {
+			if (etag == null) {
+				URL url = resource.getURL();
+				String tag = null;
+				if (url != null) {
+					try {
+						tag = cache.getETag(bundle, url.toExternalForm(), resource::getInputStream);
+					} catch (IOException e) {
+						LOG.warn("Problem calculating entity tag of {}: {}", url, e.getMessage(), e);
+					}
+				}
+				etag = tag == null ? resource.getETag() : "\"" + tag + "\"";
+			}
+			return etag;
+		}
+
+		/**
+		 * Used by {@code DefaultServlet} when {@code useStrongETags} is enabled - our tag is strong anyway.
+		 * @return
+		 */
+		public String getStrongETag() {
+			return getETag();
+		}
+
+		@Override
+		public long getLastModified() {
+			return resource.getLastModified();
+		}
+
+		@Override
+		public String getLastModifiedHttp() {
+			return resource.getLastModifiedHttp();
+		}
+
+		@Override
+		public boolean exists() {
+			return resource.exists();
+		}
+
+		@Override
+		public boolean isVirtual() {
+			return resource.isVirtual();
+		}
+
+		@Override
+		public boolean isDirectory() {
+			return resource.isDirectory();
+		}
+
+		@Override
+		public boolean isFile() {
+			return resource.isFile();
+		}
+
+		@Override
+		public boolean delete() {
+			return false;
+		}
+
+		@Override
+		public String getName() {
+			return resource.getName();
+		}
+
+		@Override
+		public long getContentLength() {
+			return resource.getContentLength();
+		}
+
+		@Override
+		public String getCanonicalPath() {
+			return resource.getCanonicalPath();
+		}
+
+		@Override
+		public boolean canRead() {
+			return resource.canRead();
+		}
+
+		@Override
+		public String getWebappPath() {
+			return resource.getWebappPath();
+		}
+
+		@Override
+		public void setMimeType(String mimeType) {
+			resource.setMimeType(mimeType);
+		}
+
+		@Override
+		public String getMimeType() {
+			return resource.getMimeType();
+		}
+
+		@Override
+		public InputStream getInputStream() {
+			return resource.getInputStream();
+		}
+
+		@Override
+		public byte[] getContent() {
+			return resource.getContent();
+		}
+
+		@Override
+		public long getCreation() {
+			return resource.getCreation();
+		}
+
+		@Override
+		public URL getURL() {
+			return resource.getURL();
+		}
+
+		@Override
+		public URL getCodeBase() {
+			return resource.getCodeBase();
+		}
+
+		@Override
+		public WebResourceRoot getWebResourceRoot() {
+			return resource.getWebResourceRoot();
+		}
+
+		@Override
+		public Certificate[] getCertificates() {
+			return resource.getCertificates();
+		}
+
+		@Override
+		public Manifest getManifest() {
+			return resource.getManifest();
+		}
+	}
+
+	/**
+	 * {@link InputStream} reading (a duplicate of) cached {@link ByteBuffer}.
+	 */
+	private static class ByteBufferInputStream extends InputStream {
+
+		private final ByteBuffer buffer;
+
+		ByteBufferInputStream(ByteBuffer buffer) {
+			this.buffer = buffer;
+		}
+
+		@Override
+		public int read() {
+			return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) {
+			if (len == 0) {
+				return 0;
+			}
+			if (!buffer.hasRemaining()) {
+				return -1;
+			}
+			int count = Math.min(len, buffer.remaining());
+			buffer.get(b, off, count);
+			return count;
+		}
+
+		@Override
+		public long skip(long n) {
+			int count = (int) Math.max(0L, Math.min(n, buffer.remaining()));
+			buffer.position(buffer.position() + count);
+			return count;
+		}
+
+		@Override
+		public int available() {
+			return buffer.remaining();
+		}
+	}
+
 	private static class DirectoryURLResource extends AbstractResource {
 
 		private final URL url;
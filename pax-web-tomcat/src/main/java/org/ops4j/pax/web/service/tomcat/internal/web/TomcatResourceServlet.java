@@ -33,7 +33,11 @@ import org.apache.catalina.servlets.DefaultServlet;
 import org.ops4j.pax.web.service.spi.config.ResourceConfiguration;
 import org.ops4j.pax.web.service.spi.servlet.OsgiScopedServletContext;
 import org.ops4j.pax.web.service.spi.servlet.OsgiServletContext;
+import org.ops4j.pax.web.service.spi.util.CompressedContentCache;
+import org.ops4j.pax.web.service.spi.util.ContentETagCache;
+import org.ops4j.pax.web.service.spi.util.ImmutableResources;
 import org.ops4j.pax.web.service.spi.util.Path;
+import org.ops4j.pax.web.service.spi.util.SharedResourceCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -56,6 +60,18 @@ public class TomcatResourceServlet extends DefaultServlet {
 
 	private final ResourceConfiguration resourceConfig;
 
+	/** Server-wide cache used instead of per-servlet {@link org.apache.catalina.webresources.Cache} */
+	private final SharedResourceCache sharedResourceCache;
+
+	/** Server-wide cache of content compressed on the fly, exposed as virtual {@code .gz} resources */
+	private CompressedContentCache compressedContentCache;
+
+	/** Server-wide cache of strong entity tags of bundle resources */
+	private ContentETagCache contentETagCache;
+
+	/** Fingerprinted resources served with {@code Cache-Control: immutable} */
+	private ImmutableResources immutableResources;
+
 	private String[] welcomeFiles;
 
 	private boolean redirectWelcome = false;
@@ -64,9 +80,15 @@ public class TomcatResourceServlet extends DefaultServlet {
 	private OsgiServletContext highestRankedContext;
 
 	public TomcatResourceServlet(File baseDirectory, String chroot, ResourceConfiguration resourceConfig) {
+		this(baseDirectory, chroot, resourceConfig, null);
+	}
+
+	public TomcatResourceServlet(File baseDirectory, String chroot, ResourceConfiguration resourceConfig,
+			SharedResourceCache sharedResourceCache) {
 		this.baseDirectory = baseDirectory;
 		this.chroot = chroot;
 		this.resourceConfig = resourceConfig;
+		this.sharedResourceCache = sharedResourceCache;
 	}
 
 	/**
@@ -76,13 +98,25 @@ public class TomcatResourceServlet extends DefaultServlet {
 	 */
 	public void setWelcomeFiles(String[] welcomeFiles) {
 		this.welcomeFiles = welcomeFiles;
-		if (resources != null) {
+		if (resources != null && sharedResourceCache == null) {
 			// strange, but it works like this...
 			resources.setCachingAllowed(false);
 			resources.setCachingAllowed(true);
 		}
 	}
 
+	public void setCompressedContentCache(CompressedContentCache compressedContentCache) {
+		this.compressedContentCache = compressedContentCache;
+	}
+
+	public void setContentETagCache(ContentETagCache contentETagCache) {
+		this.contentETagCache = contentETagCache;
+	}
+
+	public void setImmutableResources(ImmutableResources immutableResources) {
+		this.immutableResources = immutableResources;
+	}
+
 	public void setWelcomeFilesRedirect(boolean welcomeFilesRedirect) {
 		this.redirectWelcome = welcomeFilesRedirect;
 	}
@@ -111,6 +145,19 @@ public class TomcatResourceServlet extends DefaultServlet {
 		redirectWelcome = "true".equalsIgnoreCase(getInitParameter("redirectWelcome"));
 		pathInfoOnly = !"false".equalsIgnoreCase(getInitParameter("pathInfoOnly"));
 
+		// precompressed variants (br and gzip) and/or gzip variants compressed on the fly by OsgiStandardRoot
+		// are negotiated by super.serveResource()
+		if (resourceConfig != null && resourceConfig.precompressed()) {
+			compressionFormats = new CompressionFormat[] {
+					new CompressionFormat(".br", "br"),
+					new CompressionFormat(CompressedContentCache.EXTENSION, CompressedContentCache.ENCODING)
+			};
+		} else if (compressedContentCache != null) {
+			compressionFormats = new CompressionFormat[] {
+					new CompressionFormat(CompressedContentCache.EXTENSION, CompressedContentCache.ENCODING)
+			};
+		}
+
 		// super.init() created DefaultServlet.resources (fortunately protected, not private) as:
 		//     resources = (WebResourceRoot) getServletContext().getAttribute(Globals.RESOURCES_ATTR);
 		// but we want to be able to create more "resource servlets" for different bases
@@ -119,21 +166,29 @@ public class TomcatResourceServlet extends DefaultServlet {
 				? (int) resources.getCacheMaxSize() / 20 : resourceConfig.maxCacheEntrySize();
 
 		// and tweak org.apache.catalina.servlets.DefaultServlet.resources
-		resources = new OsgiStandardRoot(this.resources, baseDirectory, chroot, osgiScopedServletContext, maxEntrySize * 1024);
-
-		resources.setCachingAllowed(true);
-		// org.apache.catalina.webresources.Cache.maxSize
-		resources.setCacheMaxSize(resourceConfig == null || resourceConfig.maxTotalCacheSize() == null
-				? 10 * 1024 : resourceConfig.maxTotalCacheSize());
-		// org.apache.catalina.webresources.Cache.objectMaxSize
-		resources.setCacheObjectMaxSize(maxEntrySize);
-		// org.apache.catalina.webresources.Cache.ttl
-		resources.setCacheTtl(resourceConfig == null || resourceConfig.maxCacheTTL() == null
-				? 5000 : resourceConfig.maxCacheTTL());
-
-		LOG.info("Initialized Tomcat Resource Servlet for base=\"{}\" with cache maxSize={}kB, maxEntrySize={}kB, TTL={}ms",
-				baseDirectory != null ? baseDirectory : chroot,
-				resources.getCacheMaxSize(), resources.getCacheObjectMaxSize(), resources.getCacheTtl());
+		resources = new OsgiStandardRoot(this.resources, baseDirectory, chroot, osgiScopedServletContext, maxEntrySize * 1024,
+				sharedResourceCache, compressedContentCache, contentETagCache);
+
+		if (sharedResourceCache != null) {
+			// content is cached only in the shared cache
+			resources.setCachingAllowed(false);
+			LOG.info("Initialized Tomcat Resource Servlet for base=\"{}\" with shared cache {}",
+					baseDirectory != null ? baseDirectory : chroot, sharedResourceCache);
+		} else {
+			resources.setCachingAllowed(true);
+			// org.apache.catalina.webresources.Cache.maxSize
+			resources.setCacheMaxSize(resourceConfig == null || resourceConfig.maxTotalCacheSize() == null
+					? 10 * 1024 : resourceConfig.maxTotalCacheSize());
+			// org.apache.catalina.webresources.Cache.objectMaxSize
+			resources.setCacheObjectMaxSize(maxEntrySize);
+			// org.apache.catalina.webresources.Cache.ttl
+			resources.setCacheTtl(resourceConfig == null || resourceConfig.maxCacheTTL() == null
+					? 5000 : resourceConfig.maxCacheTTL());
+
+			LOG.info("Initialized Tomcat Resource Servlet for base=\"{}\" with cache maxSize={}kB, maxEntrySize={}kB, TTL={}ms",
+					baseDirectory != null ? baseDirectory : chroot,
+					resources.getCacheMaxSize(), resources.getCacheObjectMaxSize(), resources.getCacheTtl());
+		}
 
 		if (welcomeFiles == null) {
 			if (osgiScopedServletContext instanceof OsgiScopedServletContext) {
@@ -173,6 +228,25 @@ public class TomcatResourceServlet extends DefaultServlet {
 		}
 
 		if (requestURI == null || !requestURI.endsWith("/")) {
+			if (compressedContentCache != null) {
+				String path = getRelativePath(request, true);
+				if (path != null && path.endsWith(CompressedContentCache.EXTENSION)
+						&& OsgiStandardRoot.isCompressedVariant(resources.getResource(path))) {
+					// virtual .gz resources are only precompressed variants of the original resources
+					response.sendError(HttpServletResponse.SC_NOT_FOUND);
+					return;
+				}
+			}
+			if (immutableResources != null && !included) {
+				String path = getRelativePath(request, true);
+				if (path != null && path.startsWith("/") && immutableResources.isImmutable(path)) {
+					// only for existing files - error responses should never be cached that long
+					WebResource resource = resources.getResource(path);
+					if (resource.exists() && resource.isFile()) {
+						response.setHeader(ImmutableResources.CACHE_CONTROL, immutableResources.getCacheControl());
+					}
+				}
+			}
 			super.serveResource(request, response, content, inputEncoding);
 			return;
 		}
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2026 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.web.service.tomcat.internal;
+
+import java.security.Principal;
+import java.util.Collections;
+import javax.security.auth.login.LoginContext;
+
+import org.apache.catalina.Context;
+import org.apache.catalina.Realm;
+import org.apache.catalina.realm.GenericPrincipal;
+import org.apache.catalina.session.StandardManager;
+import org.apache.catalina.session.StandardSession;
+import org.apache.catalina.startup.Tomcat;
+import org.junit.Test;
+import org.ops4j.pax.web.service.spi.util.CredentialCache;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class CachingRealmTest {
+
+	@Test
+	public void expiredSessionDoesNotLogOutOtherSessions() throws Exception {
+		LoginContext loginContext = mock(LoginContext.class);
+		Principal user = () -> "admin";
+		GenericPrincipal verified = new GenericPrincipal("admin", null, Collections.singletonList("role1"),
+				user, loginContext);
+		Realm jaas = mock(Realm.class);
+		when(jaas.authenticate("admin", "secret")).thenReturn(verified);
+
+		CachingRealm realm = new CachingRealm(jaas, "default", new CredentialCache<>(60_000L, 10));
+		Principal p1 = realm.authenticate("admin", "secret");
+		Principal p2 = realm.authenticate("admin", "secret");
+		verify(jaas, times(1)).authenticate("admin", "secret");
+
+		assertTrue(p1 instanceof GenericPrincipal);
+		assertTrue(p2 instanceof GenericPrincipal);
+		assertNotSame(p1, p2);
+		assertEquals("admin", p2.getName());
+		assertArrayEquals(new String[] { "role1" }, ((GenericPrincipal) p2).getRoles());
+		assertEquals(user, ((GenericPrincipal) p2).getUserPrincipal());
+
+		Context context = new Tomcat().addContext("", null);
+		StandardManager manager = new StandardManager();
+		manager.setContext(context);
+		StandardSession s1 = new StandardSession(manager);
+		s1.setValid(true);
+		s1.setPrincipal(p1);
+		StandardSession s2 = new StandardSession(manager);
+		s2.setValid(true);
+		s2.setPrincipal(p2);
+
+		s1.expire();
+
+		assertFalse(s1.isValid());
+		assertTrue(s2.isValid());
+		assertEquals(p2, s2.getPrincipal());
+		verify(loginContext, never()).logout();
+
+		// the cached verification survives the logout
+		assertEquals("admin", realm.authenticate("admin", "secret").getName());
+		verify(jaas, times(1)).authenticate("admin", "secret");
+	}
+
+	@Test
+	public void failedAuthenticationIsNotCached() {
+		Realm jaas = mock(Realm.class);
+		CachingRealm realm = new CachingRealm(jaas, "default", new CredentialCache<>(60_000L, 10));
+		assertNull(realm.authenticate("admin", "wrong"));
+		assertNull(realm.authenticate("admin", "wrong"));
+		verify(jaas, times(2)).authenticate("admin", "wrong");
+	}
+
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2026 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.web.service.tomcat.internal;
+
+import java.nio.charset.StandardCharsets;
+
+import org.apache.catalina.connector.Connector;
+import org.apache.tomcat.util.buf.MessageBytes;
+import org.junit.Test;
+import org.ops4j.pax.web.service.spi.servlet.Default404Servlet;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class PaxWebStandardContextValveTest {
+
+	@Test
+	public void protectedPaths() {
+		String[] paths = { "", "/", "/META-INF", "/meta-inf/", "/META-INF/x", "/META-INFO", "/WEB-INF", "/web-inf",
+				"/Web-Inf/web.xml", "/WEB-INF.txt", "/WEB-IN", "/OSGI-INF", "/osgi-opt/x", "/OSGI-OUT", "/OSGI-INFx",
+				"/app/WEB-INF", "WEB-INF/x", "/wıb-inf" };
+		for (String path : paths) {
+			for (int type = 0; type < 3; type++) {
+				MessageBytes mb = MessageBytes.newInstance();
+				if (type == 0) {
+					mb.setString(path);
+				} else if (type == 1) {
+					byte[] bytes = ("xx" + path).getBytes(StandardCharsets.ISO_8859_1);
+					mb.setBytes(bytes, 2, bytes.length - 2);
+				} else {
+					char[] chars = ("xx" + path).toCharArray();
+					mb.setChars(chars, 2, chars.length - 2);
+				}
+				// the checks used before
+				boolean expected = (mb.startsWithIgnoreCase("/META-INF/", 0)) || (mb.equalsIgnoreCase("/META-INF"))
+						|| (mb.startsWithIgnoreCase("/WEB-INF/", 0)) || (mb.equalsIgnoreCase("/WEB-INF"))
+						|| (mb.startsWithIgnoreCase("/OSGI-INF/", 0)) || (mb.equalsIgnoreCase("/OSGI-INF"))
+						|| (mb.startsWithIgnoreCase("/OSGI-OPT/", 0)) || (mb.equalsIgnoreCase("/OSGI-OPT"));
+				assertThat(path + " (" + type + ")", PaxWebStandardContextValve.isProtectedPath(mb), equalTo(expected));
+			}
+		}
+	}
+
+	@Test
+	public void virtualHostDecisions() {
+		Connector c1 = new Connector(PaxWebHttp11Nio2Protocol.class.getName());
+		((PaxWebHttp11Nio2Protocol) c1.getProtocolHandler()).setPaxWebConnectorName("c1");
+		Connector c2 = new Connector(PaxWebHttp11Nio2Protocol.class.getName());
+		((PaxWebHttp11Nio2Protocol) c2.getProtocolHandler()).setPaxWebConnectorName("c2");
+
+		PaxWebStandardContext context = new PaxWebStandardContext(new Default404Servlet(), null);
+		assertThat(context.matches(c1, "example.com"), equalTo(true));
+
+		context.setVirtualHosts(new String[] { "*.example.com@c1", "@c2" });
+		for (int i = 0; i < 2; i++) {
+			assertThat(context.matches(c1, "www.example.com"), equalTo(true));
+			assertThat(context.matches(c1, "example.com"), equalTo(false));
+			assertThat(context.matches(c2, "anything"), equalTo(true));
+		}
+
+		context.setVirtualHosts(new String[] { "localhost" });
+		assertThat(context.matches(c1, "www.example.com"), equalTo(false));
+		assertThat(context.matches(c2, "LOCALHOST"), equalTo(true));
+	}
+
+}
@@ -24,20 +24,17 @@ import io.undertow.server.HttpServerExchange;
 import io.undertow.server.handlers.PathHandler;
 import io.undertow.server.handlers.ResponseCodeHandler;
 import io.undertow.server.handlers.cache.LRUCache;
-import org.ops4j.pax.web.annotations.Review;
 import org.osgi.service.http.HttpContext;
 
 /**
- * <p>A {@link PathHandler} that can (try to) resolve conflicts when registering multiple contexts under
- * the same path.</p>
- * <p>The problem is that when using {@code etc/undertow.xml} with {@code <location>} handlers <strong>and</strong>
+ * <p>A {@link PathHandler} used by Pax Web to find a context for a request.</p>
+ * <p>When using {@code etc/undertow.xml} with {@code <location>} handlers <strong>and</strong>
  * when using normal WARs and {@link org.osgi.service.http.HttpService#registerServlet(String, Servlet, Dictionary, HttpContext)} we may
- * end up with multiple {@link io.undertow.server.HttpHandler handlers} handling {@code "/"} path. We should always prefer
- * the path from {@code etc/undertow.xml} configuration - assuming it's configured and user know what (s)he's
- * doing.</p>
- * <p>It's a direct fork of original {@link PathHandler} but with different {@link io.undertow.util.PathMatcher}</p>
+ * end up with multiple {@link io.undertow.server.HttpHandler handlers} handling {@code "/"} path. Such conflict
+ * is logged and (as in original {@link PathHandler}) the last registered handler is used.</p>
+ * <p>It's a direct fork of original {@link PathHandler} but with different {@link io.undertow.util.PathMatcher},
+ * which doesn't check all the registered context paths one by one.</p>
  */
-@Review("Is it needed?")
 public class ContextAwarePathHandler extends PathHandler {
 
 	private final PathMatcher<HttpHandler> pathMatcher = new PathMatcher<>();
@@ -15,40 +15,47 @@
  */
 package org.ops4j.pax.web.service.undertow.internal;
 
-import java.util.Comparator;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.Set;
-import java.util.TreeSet;
-import java.util.concurrent.ConcurrentMap;
+import java.util.TreeMap;
 
 import io.undertow.UndertowLogger;
 import io.undertow.UndertowMessages;
-import io.undertow.server.handlers.resource.ResourceHandler;
-import io.undertow.util.CopyOnWriteMap;
-import io.undertow.util.SubstringMap;
 import io.undertow.util.URLUtils;
-import org.ops4j.pax.web.annotations.Review;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-@Review("Is it needed?")
+/**
+ * <p>Matcher of context paths used by {@link ContextAwarePathHandler} - a replacement of
+ * {@link io.undertow.util.PathMatcher} with the same matching rules.</p>
+ *
+ * <p>Instead of checking every registered prefix length, prefix paths are kept in a trie of path segments, so
+ * matching takes time proportional to the length of the request path and not to the number of contexts.
+ * The trie is immutable and replaced (under a lock) when paths are added or removed, so {@link #match(String)}
+ * doesn't need any locking. {@link PathMatch} for a request path equal to a prefix (or exact path) is created
+ * once and reused.</p>
+ */
 public class PathMatcher<T> {
 
 	public static final Logger LOG = LoggerFactory.getLogger(PathMatcher.class);
 
 	private static final String STRING_PATH_SEPARATOR = "/";
 
-	private volatile T defaultHandler;
-	private final SubstringMap<T> paths = new SubstringMap<>();
-	private final ConcurrentMap<String, T> exactPathMatches = new CopyOnWriteMap<>();
+	/** Normalized prefix paths (except {@code /}) - the source for {@link #snapshot} */
+	private final Map<String, T> prefixPaths = new HashMap<>();
+	/** Normalized exact paths - the source for {@link #snapshot} */
+	private final Map<String, T> exactPaths = new HashMap<>();
+	private T defaultHandler;
 
-	/**
-	 * lengths of all registered paths
-	 */
-	private volatile int[] lengths = {};
+	private volatile Snapshot<T> snapshot = new Snapshot<>(null, Collections.emptyMap(), null);
 
 	public PathMatcher(final T defaultHandler) {
 		this.defaultHandler = defaultHandler;
+		rebuild();
 	}
 
 	public PathMatcher() {
@@ -60,39 +67,55 @@ public class PathMatcher<T> {
 	 * @return The match match. This will never be null, however if none matched its value field will be
 	 */
 	public PathMatcher.PathMatch<T> match(String path) {
-		if (!exactPathMatches.isEmpty()) {
-			T match = getExactPath(path);
+		final Snapshot<T> snapshot = this.snapshot;
+
+		if (!snapshot.exactMatches.isEmpty()) {
+			PathMatch<T> match = snapshot.exactMatches.get(path);
+			if (match == null) {
+				String normalizedPath = URLUtils.normalizeSlashes(path);
+				if (normalizedPath != path) {
+					match = snapshot.exactMatches.get(normalizedPath);
+					if (match != null) {
+						match = new PathMatcher.PathMatch<>(path, "", match.getValue());
+					}
+				}
+			}
 			if (match != null) {
 				UndertowLogger.REQUEST_LOGGER.debugf("Matched exact path %s", path);
-				return new PathMatcher.PathMatch<>(path, "", match);
+				return match;
 			}
 		}
 
+		Node<T> best = null;
+		int bestEnd = 0;
 		int length = path.length();
-		final int[] lengths = this.lengths;
-		for (int i = 0; i < lengths.length; ++i) {
-			int pathLength = lengths[i];
-			if (pathLength == length) {
-				SubstringMap.SubstringMatch<T> next = paths.get(path, length);
-				if (next != null) {
-					UndertowLogger.REQUEST_LOGGER.debugf("Matched prefix path %s for path %s", next.getKey(), path);
-					return new PathMatcher.PathMatch<>(path, "", next.getValue());
+		if (length > 0 && path.charAt(0) == '/') {
+			Node<T> node = snapshot.root;
+			int start = 1;
+			while (node != null) {
+				int end = path.indexOf('/', start);
+				if (end < 0) {
+					end = length;
 				}
-			} else if (pathLength < length) {
-				char c = path.charAt(pathLength);
-				if (c == '/') {
-
-					//String part = path.substring(0, pathLength);
-					SubstringMap.SubstringMatch<T> next = paths.get(path, pathLength);
-					if (next != null) {
-						UndertowLogger.REQUEST_LOGGER.debugf("Matched prefix path %s for path %s", next.getKey(), path);
-						return new PathMatcher.PathMatch<>(next.getKey(), path.substring(pathLength), next.getValue());
-					}
+				node = node.child(path, start, end);
+				if (node != null && node.match != null) {
+					best = node;
+					bestEnd = end;
 				}
+				if (end == length) {
+					break;
+				}
+				start = end + 1;
 			}
 		}
+
+		if (best != null) {
+			UndertowLogger.REQUEST_LOGGER.debugf("Matched prefix path %s for path %s", best.match.getMatched(), path);
+			return bestEnd == length ? best.match
+					: new PathMatcher.PathMatch<>(best.match.getMatched(), path.substring(bestEnd), best.match.getValue());
+		}
 		UndertowLogger.REQUEST_LOGGER.debugf("Matched default handler path %s", path);
-		return new PathMatcher.PathMatch<>("", path, defaultHandler);
+		return new PathMatcher.PathMatch<>("", path, snapshot.defaultHandler);
 	}
 
 	/**
@@ -115,79 +138,44 @@ public class PathMatcher<T> {
 		final String normalizedPath = URLUtils.normalizeSlashes(path);
 
 		if (PathMatcher.STRING_PATH_SEPARATOR.equals(normalizedPath)) {
-			if (this.defaultHandler == null) {
-				// it was null, so just use new one
-				this.defaultHandler = handler;
-			} else {
-				if (handler instanceof ResourceHandler) {
-					// new one is not a org.ops4j.pax.web.service.undertow.internal.Context, so use it
-					this.defaultHandler = handler;
-				} else {
-					// there are two default handlers which come from different (?) Contexts, so we
-					// have a collision, but let's assume user knows what (s)he's doing
-					if (this.defaultHandler != handler && !(this.defaultHandler instanceof ResourceHandler)) {
-						LOG.warn("Overwriting existing default context {} with a new one {}",
-								this.defaultHandler, handler);
-						this.defaultHandler = handler;
-					}
-				}
+			if (this.defaultHandler != null && this.defaultHandler != handler) {
+				// e.g., "/" location from etc/undertow.xml and "/" context - the same as in
+				// io.undertow.util.PathMatcher, the last one wins
+				LOG.warn("Overwriting existing default context {} with a new one {}", this.defaultHandler, handler);
 			}
-			return this;
+			this.defaultHandler = handler;
+		} else {
+			prefixPaths.put(normalizedPath, handler);
 		}
 
-		paths.put(normalizedPath, handler);
-
-		buildLengths();
+		rebuild();
 		return this;
 	}
 
-
 	public synchronized PathMatcher addExactPath(final String path, final T handler) {
 		if (path.isEmpty()) {
 			throw UndertowMessages.MESSAGES.pathMustBeSpecified();
 		}
-		exactPathMatches.put(URLUtils.normalizeSlashes(path), handler);
+		exactPaths.put(URLUtils.normalizeSlashes(path), handler);
+		rebuild();
 		return this;
 	}
 
 	public T getExactPath(final String path) {
-		return exactPathMatches.get(URLUtils.normalizeSlashes(path));
+		PathMatch<T> match = snapshot.exactMatches.get(URLUtils.normalizeSlashes(path));
+		return match == null ? null : match.getValue();
 	}
 
-	public T getPrefixPath(final String path) {
-
+	public synchronized T getPrefixPath(final String path) {
 		final String normalizedPath = URLUtils.normalizeSlashes(path);
 
 		// enable the prefix path mechanism to return the default handler
-		SubstringMap.SubstringMatch<T> match = paths.get(normalizedPath);
-		if (PathMatcher.STRING_PATH_SEPARATOR.equals(normalizedPath) && match == null) {
+		if (PathMatcher.STRING_PATH_SEPARATOR.equals(normalizedPath)) {
 			return this.defaultHandler;
 		}
-		if (match == null) {
-			return null;
-		}
 
 		// return the value for the given path
-		return match.getValue();
-	}
-
-	private void buildLengths() {
-		final Set<Integer> lengths = new TreeSet<>(new Comparator<Integer>() {
-			@Override
-			public int compare(Integer o1, Integer o2) {
-				return -o1.compareTo(o2);
-			}
-		});
-		for (String p : paths.keys()) {
-			lengths.add(p.length());
-		}
-
-		int[] lengthArray = new int[lengths.size()];
-		int pos = 0;
-		for (int i : lengths) {
-			lengthArray[pos++] = i;
-		}
-		this.lengths = lengthArray;
+		return prefixPaths.get(normalizedPath);
 	}
 
 	@Deprecated
@@ -204,12 +192,11 @@ public class PathMatcher<T> {
 
 		if (PathMatcher.STRING_PATH_SEPARATOR.equals(normalizedPath)) {
 			defaultHandler = null;
-			return this;
+		} else {
+			prefixPaths.remove(normalizedPath);
 		}
 
-		paths.remove(normalizedPath);
-
-		buildLengths();
+		rebuild();
 		return this;
 	}
 
@@ -218,25 +205,46 @@ public class PathMatcher<T> {
 			throw UndertowMessages.MESSAGES.pathMustBeSpecified();
 		}
 
-		exactPathMatches.remove(URLUtils.normalizeSlashes(path));
+		exactPaths.remove(URLUtils.normalizeSlashes(path));
 
+		rebuild();
 		return this;
 	}
 
 	public synchronized PathMatcher clearPaths() {
-		paths.clear();
-		exactPathMatches.clear();
-		this.lengths = new int[0];
+		prefixPaths.clear();
+		exactPaths.clear();
 		defaultHandler = null;
+		rebuild();
 		return this;
 	}
 
-	public Map<String, T> getPaths() {
-		return paths.toMap();
+	public synchronized Map<String, T> getPaths() {
+		return new HashMap<>(prefixPaths);
 	}
 
 	public T getDefaultHandler() {
-		return defaultHandler;
+		return snapshot.defaultHandler;
+	}
+
+	/**
+	 * Creates new immutable {@link Snapshot} from current paths. Called with the lock held.
+	 */
+	private void rebuild() {
+		NodeBuilder<T> root = new NodeBuilder<>();
+		prefixPaths.forEach((prefix, handler) -> {
+			NodeBuilder<T> node = root;
+			// prefix is normalized, so it starts with "/" and doesn't end with "/"
+			for (String segment : prefix.substring(1).split("/", -1)) {
+				node = node.children.computeIfAbsent(segment, s -> new NodeBuilder<>());
+			}
+			node.match = new PathMatcher.PathMatch<>(prefix, "", handler);
+		});
+
+		Map<String, PathMatch<T>> exactMatches = new HashMap<>();
+		exactPaths.forEach((p, handler) -> exactMatches.put(p, new PathMatcher.PathMatch<>(p, "", handler)));
+
+		snapshot = new Snapshot<>(root.build(), exactMatches, defaultHandler);
 	}
 
 	public static final class PathMatch<T> {
@@ -263,4 +271,93 @@ public class PathMatcher<T> {
 		}
 	}
 
+	/**
+	 * Immutable state of the matcher used for matching without locks.
+	 */
+	private static final class Snapshot<T> {
+		private final Node<T> root;
+		private final Map<String, PathMatch<T>> exactMatches;
+		private final T defaultHandler;
+
+		Snapshot(Node<T> root, Map<String, PathMatch<T>> exactMatches, T defaultHandler) {
+			this.root = root;
+			this.exactMatches = exactMatches;
+			this.defaultHandler = defaultHandler;
+		}
+	}
+
+	/**
+	 * Immutable node of the trie. Child segments are sorted by {@link String#hashCode()}, so a segment of the
+	 * request path can be found without creating a substring.
+	 */
+	private static final class Node<T> {
+		/** Match for the prefix ending at this node, {@code null} if this node is only an intermediate one */
+		private final PathMatch<T> match;
+		private final int[] hashes;
+		private final String[] segments;
+		private final Node<T>[] children;
+
+		Node(PathMatch<T> match, int[] hashes, String[] segments, Node<T>[] children) {
+			this.match = match;
+			this.hashes = hashes;
+			this.segments = segments;
+			this.children = children;
+		}
+
+		/**
+		 * Finds a child for {@code path.substring(start, end)}
+		 */
+		Node<T> child(String path, int start, int end) {
+			if (hashes.length == 0) {
+				return null;
+			}
+			int hash = 0;
+			for (int i = start; i < end; i++) {
+				hash = 31 * hash + path.charAt(i);
+			}
+			int idx = Arrays.binarySearch(hashes, hash);
+			if (idx < 0) {
+				return null;
+			}
+			// there may be more segments with the same hash
+			while (idx > 0 && hashes[idx - 1] == hash) {
+				idx--;
+			}
+			int length = end - start;
+			for (; idx < hashes.length && hashes[idx] == hash; idx++) {
+				String segment = segments[idx];
+				if (segment.length() == length && path.regionMatches(start, segment, 0, length)) {
+					return children[idx];
+				}
+			}
+			return null;
+		}
+	}
+
+	/**
+	 * Mutable node used while building new {@link Snapshot}.
+	 */
+	private static final class NodeBuilder<T> {
+		private final Map<String, NodeBuilder<T>> children = new HashMap<>();
+		private PathMatch<T> match;
+
+		@SuppressWarnings("unchecked")
+		Node<T> build() {
+			// sorted by hash (and by segment for equal hashes)
+			TreeMap<String, NodeBuilder<T>> sorted = new TreeMap<>((s1, s2) -> s1.hashCode() != s2.hashCode()
+					? Integer.compare(s1.hashCode(), s2.hashCode()) : s1.compareTo(s2));
+			sorted.putAll(children);
+			List<String> keys = new ArrayList<>(sorted.keySet());
+			int[] hashes = new int[keys.size()];
+			String[] segments = new String[keys.size()];
+			Node<T>[] nodes = new Node[keys.size()];
+			for (int i = 0; i < keys.size(); i++) {
+				segments[i] = keys.get(i);
+				hashes[i] = segments[i].hashCode();
+				nodes[i] = sorted.get(segments[i]).build();
+			}
+			return new Node<>(match, hashes, segments, nodes);
+		}
+	}
+
 }
@@ -127,13 +127,15 @@ public class PaxWebOuterHandlerWrapper implements HandlerWrapper {
 					}
 				}
 
-				exchange.addExchangeCompleteListener((exchange1, nextListener) -> {
-					PaxWebSessionIdGenerator.sessionIdPrefix.set(null);
-					PaxWebSessionIdGenerator.cookieSessionId.set(null);
-					nextListener.proceed();
-				});
-				// just proceed
-				handler.handleRequest(exchange);
+				try {
+					// just proceed
+					handler.handleRequest(exchange);
+				} finally {
+					// the values have to be cleared in the thread that set them. Exchange completion may happen
+					// in different (I/O, async or virtual) thread
+					PaxWebSessionIdGenerator.sessionIdPrefix.remove();
+					PaxWebSessionIdGenerator.cookieSessionId.remove();
+				}
 			}
 		};
 	}
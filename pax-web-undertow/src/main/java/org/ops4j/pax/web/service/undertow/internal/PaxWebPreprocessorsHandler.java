@@ -15,13 +15,14 @@
  */
 package org.ops4j.pax.web.service.undertow.internal;
 
+import java.io.IOException;
 import java.util.ArrayList;
-import java.util.LinkedList;
+import java.util.Collections;
 import java.util.List;
 import java.util.function.Consumer;
-import java.util.stream.Collectors;
 import javax.servlet.FilterChain;
 import javax.servlet.ServletContext;
+import javax.servlet.ServletException;
 import javax.servlet.ServletRequest;
 import javax.servlet.ServletResponse;
 import javax.servlet.http.HttpServletRequest;
@@ -30,9 +31,14 @@ import javax.servlet.http.HttpServletResponse;
 import io.undertow.server.HandlerWrapper;
 import io.undertow.server.HttpHandler;
 import io.undertow.server.HttpServerExchange;
+import io.undertow.servlet.api.ServletInfo;
+import io.undertow.servlet.handlers.ServletChain;
 import io.undertow.servlet.handlers.ServletRequestContext;
+import org.ops4j.pax.web.service.spi.model.OsgiContextModel;
+import org.ops4j.pax.web.service.spi.model.elements.ServletModel;
 import org.ops4j.pax.web.service.spi.servlet.OsgiFilterChain;
 import org.ops4j.pax.web.service.spi.servlet.PreprocessorFilterConfig;
+import org.ops4j.pax.web.service.spi.servlet.RequestMetricsRegistry;
 import org.osgi.service.http.whiteboard.Preprocessor;
 
 /**
@@ -45,8 +51,17 @@ public class PaxWebPreprocessorsHandler implements HandlerWrapper {
 	 * {@link Preprocessor} are registered as filters, but without particular target
 	 * {@link org.ops4j.pax.web.service.spi.servlet.OsgiServletContext}, so they're effectively registered in
 	 * all available physical servlet contexts.
+	 * The list is immutable and replaced when preprocessors change, so it can be passed to every
+	 * {@link OsgiFilterChain} without copying.
 	 */
-	private final List<PreprocessorFilterConfig> preprocessors = new LinkedList<>();
+	private volatile List<PreprocessorFilterConfig> preprocessors = Collections.emptyList();
+
+	/** Handler that knows the default OSGi context, to which requests without a target servlet belong */
+	private final PaxWebSecurityHandler securityHandler;
+
+	public PaxWebPreprocessorsHandler(PaxWebSecurityHandler securityHandler) {
+		this.securityHandler = securityHandler;
+	}
 
 	@Override
 	@SuppressWarnings("Convert2Lambda")
@@ -54,29 +69,64 @@ public class PaxWebPreprocessorsHandler implements HandlerWrapper {
 		return new HttpHandler() {
 			@Override
 			public void handleRequest(HttpServerExchange exchange) throws Exception {
+				List<PreprocessorFilterConfig> preprocessors = PaxWebPreprocessorsHandler.this.preprocessors;
+				if (preprocessors.isEmpty() && !RequestMetricsRegistry.isEnabled()) {
+					// the chain would only call the handler (security is handled by PaxWebSecurityHandler)
+					handler.handleRequest(exchange);
+					return;
+				}
+
 				ServletRequestContext context = exchange.getAttachment(ServletRequestContext.ATTACHMENT_KEY);
 				HttpServletRequest incomingRequest = (HttpServletRequest) context.getServletRequest();
 				HttpServletResponse outgoingRequest = (HttpServletResponse) context.getServletResponse();
 
-				List<Preprocessor> preprocessorInstances = preprocessors.stream().map(PreprocessorFilterConfig::getInstance).collect(Collectors.toList());
+				// target servlet is already known, because Undertow sets it before calling the outer handlers
+				ServletChain servletChain = context.getCurrentServlet();
+				ServletInfo info = servletChain == null ? null : servletChain.getManagedServlet().getServletInfo();
+				OsgiContextModel osgiContextModel;
+				ServletModel servletModel;
+				if (info instanceof PaxWebServletInfo && !((PaxWebServletInfo) info).is404()) {
+					osgiContextModel = ((PaxWebServletInfo) info).getOsgiContextModel();
+					servletModel = ((PaxWebServletInfo) info).getServletModel();
+				} else {
+					osgiContextModel = securityHandler.getDefaultOsgiContextModel();
+					servletModel = null;
+				}
 
 				final Exception[] ex = new Exception[] { null };
 				// in Undertow we use authListener in org.ops4j.pax.web.service.undertow.internal.PaxWebSecurityHandler
 				Consumer<HttpServletRequest> authListener = null;
-				FilterChain chain = new OsgiFilterChain(new ArrayList<>(preprocessorInstances), null, null, new FilterChain() {
+				OsgiFilterChain chain = new OsgiFilterChain(preprocessors, null, null, new FilterChain() {
 					@Override
-					public void doFilter(ServletRequest request, ServletResponse response) {
+					public void doFilter(ServletRequest request, ServletResponse response) throws IOException, ServletException {
 						// just proceed
 						try {
 							handler.handleRequest(exchange);
 						} catch (Exception e) {
+							// remembered to be rethrown as is, but passed through the chain, so it's
+							// recorded as failed request
 							ex[0] = e;
+							if (e instanceof IOException) {
+								throw (IOException) e;
+							}
+							if (e instanceof ServletException) {
+								throw (ServletException) e;
+							}
+							if (e instanceof RuntimeException) {
+								throw (RuntimeException) e;
+							}
+							throw new ServletException(e.getMessage(), e);
 						}
 					}
-				}, null, authListener);
+				}, null, authListener, osgiContextModel, servletModel);
 
-				chain.doFilter(incomingRequest, outgoingRequest);
+				try {
+					chain.doFilter(incomingRequest, outgoingRequest);
+				} catch (Exception e) {
+					throw ex[0] != null ? ex[0] : e;
+				}
 				if (ex[0] != null) {
+					// a preprocessor or filter caught the exception of the handler
 					throw ex[0];
 				}
 			}
@@ -87,4 +137,12 @@ public class PaxWebPreprocessorsHandler implements HandlerWrapper {
 		return preprocessors;
 	}
 
+	/**
+	 * Replaces the preprocessors of this handler (and the context).
+	 * @param preprocessors
+	 */
+	public void setPreprocessors(List<PreprocessorFilterConfig> preprocessors) {
+		this.preprocessors = Collections.unmodifiableList(new ArrayList<>(preprocessors));
+	}
+
 }
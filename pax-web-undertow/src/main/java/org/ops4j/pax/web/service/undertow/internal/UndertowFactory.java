@@ -38,6 +38,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
 import javax.net.ssl.CertPathTrustManagerParameters;
 import javax.net.ssl.KeyManager;
 import javax.net.ssl.KeyManagerFactory;
@@ -71,6 +72,7 @@ import io.undertow.util.HttpString;
 import org.ops4j.pax.web.service.spi.config.Configuration;
 import org.ops4j.pax.web.service.spi.config.SecurityConfiguration;
 import org.ops4j.pax.web.service.spi.model.elements.FilterModel;
+import org.ops4j.pax.web.service.spi.util.VirtualThreadSupport;
 import org.ops4j.pax.web.service.undertow.configuration.model.IoSubsystem;
 import org.ops4j.pax.web.service.undertow.configuration.model.SecurityRealm;
 import org.ops4j.pax.web.service.undertow.configuration.model.Server;
@@ -228,6 +230,26 @@ public class UndertowFactory {
 		return defaultWorker;
 	}
 
+	/**
+	 * Create an {@link ExecutorService} to run blocking request handling on virtual threads instead of task
+	 * threads of {@link XnioWorker}.
+	 *
+	 * @param configuration
+	 * @return {@code null} if virtual threads are not configured or not supported
+	 */
+	public ExecutorService createVirtualThreadExecutor(Configuration configuration) {
+		Boolean virtualThreads = configuration.server().isServerVirtualThreads();
+		if (virtualThreads == null || !virtualThreads) {
+			return null;
+		}
+		// similar to names of worker's task threads
+		String prefix = configuration.server().getServerThreadNamePrefix();
+		if (prefix == null) {
+			prefix = "XNIO-default";
+		}
+		return VirtualThreadSupport.createExecutor(prefix + " virtual-task-", UndertowFactory.class.getClassLoader());
+	}
+
 	public void closeDefaultPoolAndBuffer() {
 		if (defaultWorker != null) {
 			defaultWorker.shutdown();
@@ -24,12 +24,19 @@ import java.util.Set;
 import javax.servlet.Servlet;
 
 import io.undertow.security.idm.IdentityManager;
+import org.ops4j.pax.web.service.spi.ContextStarter;
 import org.ops4j.pax.web.service.spi.ServerController;
 import org.ops4j.pax.web.service.spi.ServerState;
 import org.ops4j.pax.web.service.spi.config.Configuration;
 import org.ops4j.pax.web.service.spi.model.events.ServerEvent;
 import org.ops4j.pax.web.service.spi.model.events.ServerListener;
+import org.ops4j.pax.web.service.spi.model.info.CacheStatisticsInfo;
 import org.ops4j.pax.web.service.spi.task.Batch;
+import org.ops4j.pax.web.service.spi.task.ContextRestartScheduler;
+import org.ops4j.pax.web.service.spi.util.CompressedContentCache;
+import org.ops4j.pax.web.service.spi.util.ContentETagCache;
+import org.ops4j.pax.web.service.spi.util.ImmutableResources;
+import org.ops4j.pax.web.service.spi.util.SharedResourceCache;
 import org.ops4j.pax.web.service.undertow.internal.web.UndertowResourceServlet;
 import org.osgi.framework.Bundle;
 import org.slf4j.Logger;
@@ -59,6 +66,20 @@ public class UndertowServerController implements ServerController/*, IdentityMan
 	 */
 	private UndertowServerWrapper undertowServerWrapper;
 
+	private ContextStarter contextStarter = ContextStarter.SYNCHRONOUS;
+
+	/** Optional server-wide cache of static content used by all resource servlets */
+	private final SharedResourceCache sharedResourceCache;
+
+	/** Optional server-wide cache of content compressed on the fly by all resource servlets */
+	private final CompressedContentCache compressedContentCache;
+
+	/** Optional server-wide cache of content based entity tags of bundle resources */
+	private final ContentETagCache contentETagCache;
+
+	/** Optional policy of serving fingerprinted resources with {@code Cache-Control: immutable} */
+	private final ImmutableResources immutableResources;
+
 				private IdentityManager identityManager;
 
 	public UndertowServerController(Bundle paxWebUndertowBundle, ClassLoader classLoader,
@@ -70,6 +91,10 @@ public class UndertowServerController implements ServerController/*, IdentityMan
 		this.state = ServerState.UNCONFIGURED;
 
 		this.listeners = Collections.synchronizedSet(new LinkedHashSet<>());
+		this.sharedResourceCache = SharedResourceCache.create(configuration.resources());
+		this.compressedContentCache = CompressedContentCache.create(configuration.resources());
+		this.contentETagCache = ContentETagCache.create(configuration.resources());
+		this.immutableResources = ImmutableResources.create(configuration.resources());
 	}
 
 	// --- lifecycle methods
@@ -89,6 +114,7 @@ public class UndertowServerController implements ServerController/*, IdentityMan
 		}
 
 		undertowServerWrapper = new UndertowServerWrapper(configuration, undertowFactory, paxWebUndertowBundle, classLoader);
+		undertowServerWrapper.setContextStarter(contextStarter);
 		undertowServerWrapper.configure();
 
 		state = ServerState.STOPPED;
@@ -118,6 +144,15 @@ public class UndertowServerController implements ServerController/*, IdentityMan
 		}
 
 		undertowServerWrapper.stop();
+		if (sharedResourceCache != null) {
+			sharedResourceCache.clear();
+		}
+		if (compressedContentCache != null) {
+			compressedContentCache.clear();
+		}
+		if (contentETagCache != null) {
+			contentETagCache.clear();
+		}
 
 		state = ServerState.STOPPED;
 		notifyListeners(new ServerEvent(ServerEvent.State.STOPPED, null));
@@ -193,10 +228,35 @@ public class UndertowServerController implements ServerController/*, IdentityMan
 		int metadataCacheSize = maxEntries;
 
 		undertowResourceServlet.setCachingConfiguration(metadataCacheSize, maxEntrySize, maxSize, maxAge);
+		undertowResourceServlet.setSharedResourceCache(sharedResourceCache);
+		undertowResourceServlet.setCompressedContentCache(compressedContentCache);
+		undertowResourceServlet.setContentETagCache(contentETagCache);
+		undertowResourceServlet.setImmutableResources(immutableResources);
+		undertowResourceServlet.setPrecompressed(configuration.resources().precompressed());
 
 		return undertowResourceServlet;
 	}
 
+	@Override
+	public SharedResourceCache getSharedResourceCache() {
+		return sharedResourceCache;
+	}
+
+	@Override
+	public CompressedContentCache getCompressedContentCache() {
+		return compressedContentCache;
+	}
+
+	@Override
+	public ContentETagCache getContentETagCache() {
+		return contentETagCache;
+	}
+
+	@Override
+	public void collectCacheStatistics(Set<CacheStatisticsInfo> statistics) {
+		undertowServerWrapper.collectCacheStatistics(statistics);
+	}
+
 	@Override
 	public void sendBatch(Batch batch) {
 		LOG.info("Receiving {}", batch);
@@ -205,7 +265,27 @@ public class UndertowServerController implements ServerController/*, IdentityMan
 			throw new IllegalStateException("Can't process batch in Undertow server controller in state " + state);
 		}
 
-		batch.accept(undertowServerWrapper);
+		// operations which are redundant for the runtime (like adding and removing the same element) are skipped
+		Batch compacted = batch.compact();
+		if (compacted != batch) {
+			LOG.debug("Skipping {} redundant operations of {}",
+					batch.getOperations().size() - compacted.getOperations().size(), batch);
+		}
+
+		compacted.accept(undertowServerWrapper);
+	}
+
+	@Override
+	public ContextRestartScheduler getContextRestartScheduler() {
+		return undertowServerWrapper.getContextRestartScheduler();
+	}
+
+	@Override
+	public void setContextStarter(ContextStarter contextStarter) {
+		this.contextStarter = contextStarter;
+		if (undertowServerWrapper != null) {
+			undertowServerWrapper.setContextStarter(contextStarter);
+		}
 	}
 
 	@Override
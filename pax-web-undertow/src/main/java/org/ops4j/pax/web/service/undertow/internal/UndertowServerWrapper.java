@@ -45,6 +45,8 @@ import java.util.Set;
 import java.util.TreeMap;
 import java.util.TreeSet;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
 import java.util.function.Supplier;
 import javax.servlet.DispatcherType;
 import javax.servlet.Servlet;
@@ -59,11 +61,11 @@ import javax.servlet.http.HttpSessionAttributeListener;
 import javax.xml.XMLConstants;
 import javax.xml.parsers.SAXParserFactory;
 
-import io.undertow.Handlers;
 import io.undertow.Undertow;
 import io.undertow.connector.ByteBufferPool;
 import io.undertow.predicate.Predicate;
 import io.undertow.predicate.Predicates;
+import io.undertow.security.idm.Account;
 import io.undertow.security.idm.IdentityManager;
 import io.undertow.server.HttpHandler;
 import io.undertow.server.HttpServerExchange;
@@ -110,6 +112,7 @@ import io.undertow.servlet.handlers.ServletRequestContext;
 import io.undertow.servlet.util.ImmediateInstanceFactory;
 import io.undertow.servlet.util.InMemorySessionPersistence;
 import org.ops4j.pax.web.service.AuthenticatorService;
+import org.ops4j.pax.web.service.spi.ContextStarter;
 import org.ops4j.pax.web.service.spi.config.Configuration;
 import org.ops4j.pax.web.service.spi.config.LogConfiguration;
 import org.ops4j.pax.web.service.spi.config.SessionConfiguration;
@@ -130,6 +133,7 @@ import org.ops4j.pax.web.service.spi.model.elements.SessionConfigurationModel;
 import org.ops4j.pax.web.service.spi.model.elements.WebSocketModel;
 import org.ops4j.pax.web.service.spi.model.elements.WelcomeFileModel;
 import org.ops4j.pax.web.service.spi.model.events.ServerEvent;
+import org.ops4j.pax.web.service.spi.model.info.CacheStatisticsInfo;
 import org.ops4j.pax.web.service.spi.servlet.Default404Servlet;
 import org.ops4j.pax.web.service.spi.servlet.DefaultSessionCookieConfig;
 import org.ops4j.pax.web.service.spi.servlet.DynamicRegistrations;
@@ -145,6 +149,7 @@ import org.ops4j.pax.web.service.spi.task.ClearDynamicRegistrationsChange;
 import org.ops4j.pax.web.service.spi.task.ContainerInitializerModelChange;
 import org.ops4j.pax.web.service.spi.task.ContextMetadataModelChange;
 import org.ops4j.pax.web.service.spi.task.ContextParamsChange;
+import org.ops4j.pax.web.service.spi.task.ContextRestartScheduler;
 import org.ops4j.pax.web.service.spi.task.ContextStartChange;
 import org.ops4j.pax.web.service.spi.task.ContextStopChange;
 import org.ops4j.pax.web.service.spi.task.ErrorPageModelChange;
@@ -161,6 +166,7 @@ import org.ops4j.pax.web.service.spi.task.ServletModelChange;
 import org.ops4j.pax.web.service.spi.task.TransactionStateChange;
 import org.ops4j.pax.web.service.spi.task.WebSocketModelChange;
 import org.ops4j.pax.web.service.spi.task.WelcomeFileModelChange;
+import org.ops4j.pax.web.service.spi.util.CredentialCache;
 import org.ops4j.pax.web.service.spi.util.Utils;
 import org.ops4j.pax.web.service.undertow.PaxWebUndertowExtension;
 import org.ops4j.pax.web.service.undertow.UndertowSupport;
@@ -173,6 +179,7 @@ import org.ops4j.pax.web.service.undertow.configuration.model.UndertowConfigurat
 import org.ops4j.pax.web.service.undertow.configuration.model.UndertowSubsystem;
 import org.ops4j.pax.web.service.undertow.internal.configuration.ResolvingContentHandler;
 import org.ops4j.pax.web.service.undertow.internal.configuration.UnmarshallingContentHandler;
+import org.ops4j.pax.web.service.undertow.internal.security.CachingIdentityManager;
 import org.ops4j.pax.web.service.undertow.internal.security.JaasIdentityManager;
 import org.ops4j.pax.web.service.undertow.internal.security.PropertiesIdentityManager;
 import org.ops4j.pax.web.service.undertow.internal.web.FlexibleErrorPages;
@@ -225,6 +232,9 @@ class UndertowServerWrapper implements BatchVisitor, UndertowSupport {
 	private final Map<String, UndertowFactory.AcceptingChannelWithAddress> listeners = new HashMap<>();
 
 	private final Map<String, XnioWorker> workers = new HashMap<>();
+
+	/** Executor for blocking request handling using virtual threads - if configured and available */
+	private ExecutorService virtualThreadExecutor;
 	private final Map<String, ByteBufferPool> bufferPools = new HashMap<>();
 
 	/** Mapping from non-secure ports to secure ports - collected when reading XML listener definitions */
@@ -238,7 +248,7 @@ class UndertowServerWrapper implements BatchVisitor, UndertowSupport {
 	private HttpHandler rootHandler;
 
 	/**
-	 * Top-level, or wrapped (inside different {@link #rootHandler}) {@link PathHandler} that contains 1:1
+	 * Top-level, or wrapped (inside different {@link #rootHandler}) {@link ContextAwarePathHandler} that contains 1:1
 	 * mapping to actual <em>contexts</em>.
 	 */
 	private PathHandler pathHandler;
@@ -262,6 +272,15 @@ class UndertowServerWrapper implements BatchVisitor, UndertowSupport {
 	 */
 	private final Map<String, List<ElementModel<?, ?>>> delayedRemovals = new HashMap<>();
 
+	/**
+	 * Debounces restarts of contexts caused by registration of {@link ServletContextListener listeners} and
+	 * {@link javax.servlet.ServletContainerInitializer SCIs}.
+	 */
+	private final ContextRestartScheduler restartScheduler;
+
+	/** Strategy to perform the actual start of configured {@link DeploymentManager} */
+	private ContextStarter contextStarter = ContextStarter.SYNCHRONOUS;
+
 	/**
 	 * Single <em>container</em> for all Undertow contexts. It can directly map context path to
 	 * {@link DeploymentManager} instances.
@@ -323,6 +342,12 @@ class UndertowServerWrapper implements BatchVisitor, UndertowSupport {
 	 */
 	private final Map<OsgiContextModel, OsgiServletContext> osgiServletContexts = new HashMap<>();
 
+	/**
+	 * {@link OsgiServletContextClassLoader class loaders} of {@link #osgiServletContexts}, kept in a concurrent map,
+	 * because their statistics are read outside of the configuration thread.
+	 */
+	private final Map<OsgiContextModel, OsgiServletContextClassLoader> classLoaders = new ConcurrentHashMap<>();
+
 	/**
 	 * 1:N mapping between context path and sorted (by ranking rules) set of {@link OsgiContextModel}. This helps
 	 * finding proper {@link org.osgi.service.http.context.ServletContextHelper} (1:1 with {@link OsgiContextModel})
@@ -392,6 +417,9 @@ class UndertowServerWrapper implements BatchVisitor, UndertowSupport {
 		this.undertowFactory = undertowFactory;
 		this.paxWebUndertowBundle = paxWebUndertowBundle;
 		this.classLoader = classLoader;
+
+		Integer quietPeriod = config.server().getContextRestartQuietPeriod();
+		this.restartScheduler = new ContextRestartScheduler(quietPeriod == null ? 0L : quietPeriod);
 	}
 
 	// --- lifecycle and configuration methods
@@ -404,7 +432,7 @@ class UndertowServerWrapper implements BatchVisitor, UndertowSupport {
 		LOG.info("Creating Undertow server instance using configuration properties.");
 
 		// initially rootHandler == pathHandler without any particular path registered
-		pathHandler = Handlers.path();
+		pathHandler = new ContextAwarePathHandler();
 		rootHandler = pathHandler;
 
 		// apply single (if exists) external undertow.xml file by reading it according to Wildfly XSDs,
@@ -421,6 +449,11 @@ class UndertowServerWrapper implements BatchVisitor, UndertowSupport {
 		// PID config: org.osgi.service.http.enabled and org.osgi.service.http.secure.enabled
 		verifyListenerConfiguration();
 
+		virtualThreadExecutor = undertowFactory.createVirtualThreadExecutor(configuration);
+		if (virtualThreadExecutor != null) {
+			LOG.info("Using virtual threads for request handling");
+		}
+
 		// default session configuration is prepared, but not set in the server instance. It can be set
 		// only after first context is created. Configuration from undertow.xml has higher priority than PID.
 		if (defaultSessionCookieConfig == null) {
@@ -580,6 +613,16 @@ class UndertowServerWrapper implements BatchVisitor, UndertowSupport {
 
 				identityManager = new PropertiesIdentityManager(users);
 			}
+
+			// optional cache of successful verifications - it's created together with the identity manager, so
+			// it's discarded whenever the configuration changes
+			CredentialCache<Account> credentialCache = CredentialCache.create(configuration.security());
+			if (identityManager != null && credentialCache != null) {
+				LOG.info("Caching successful credential verifications for {}ms",
+						configuration.security().getCredentialCacheTtl());
+				identityManager = new CachingIdentityManager(identityManager,
+						jaasAuth != null ? jaasAuth.getName() : defaultRealm.getName(), credentialCache);
+			}
 		}
 
 		// /undertow/subsystem/server/host/location - file handlers for static context paths.
@@ -1059,11 +1102,19 @@ class UndertowServerWrapper implements BatchVisitor, UndertowSupport {
 //		osgiContextModels.clear();
 		preprocessorsHandlers.clear();
 		securityHandlers.clear();
+		if (identityManager instanceof CachingIdentityManager) {
+			((CachingIdentityManager) identityManager).invalidate();
+		}
 		wrappingHandlers.clear();
 		errorPages.clear();
 
 		this.workers.values().forEach(XnioWorker::shutdown);
 		this.workers.clear();
+
+		if (virtualThreadExecutor != null) {
+			virtualThreadExecutor.shutdown();
+			virtualThreadExecutor = null;
+		}
 		this.bufferPools.values().forEach(ByteBufferPool::close);
 		this.bufferPools.clear();
 		undertowFactory.closeDefaultPoolAndBuffer();
@@ -1073,6 +1124,27 @@ class UndertowServerWrapper implements BatchVisitor, UndertowSupport {
 		osgiServletContexts.values().forEach(OsgiServletContext::unregister);
 	}
 
+	/**
+	 * Returns the {@link ContextRestartScheduler} with statistics of debounced context restarts.
+	 * @return
+	 */
+	public ContextRestartScheduler getContextRestartScheduler() {
+		return restartScheduler;
+	}
+
+	/**
+	 * Collects statistics of the lookup caches of {@link OsgiServletContextClassLoader class loaders} of all
+	 * the OSGi contexts. May be called from any thread.
+	 * @param statistics
+	 */
+	public void collectCacheStatistics(Set<CacheStatisticsInfo> statistics) {
+		classLoaders.forEach((model, loader) -> statistics.add(new CacheStatisticsInfo(model, loader)));
+	}
+
+	public void setContextStarter(ContextStarter contextStarter) {
+		this.contextStarter = contextStarter == null ? ContextStarter.SYNCHRONOUS : contextStarter;
+	}
+
 	/**
 	 * If state allows, this methods returns currently configured/started addresses of the listeners.
 	 * @param useLocalPort
@@ -1163,6 +1235,11 @@ class UndertowServerWrapper implements BatchVisitor, UndertowSupport {
 			} else {
 				deploymentInfo.setServletStackTraces(ServletStackTraces.NONE);
 			}
+			if (virtualThreadExecutor != null) {
+				// io.undertow.servlet.handlers.ServletInitialHandler will dispatch to this executor instead
+				// of the worker
+				deploymentInfo.setExecutor(virtualThreadExecutor);
+			}
 
 			deploymentInfo.addServlet(new PaxWebServletInfo("default", default404Servlet, true).addMapping("/"));
 
@@ -1181,7 +1258,9 @@ class UndertowServerWrapper implements BatchVisitor, UndertowSupport {
 			// io.undertow.servlet.core.DeploymentManagerImpl.wrapHandlers() turns the last wrapper
 			// into the "outermost" one
 
-			PaxWebPreprocessorsHandler preprocessorWrapper = new PaxWebPreprocessorsHandler();
+			PaxWebSecurityHandler securityWrapper = new PaxWebSecurityHandler();
+
+			PaxWebPreprocessorsHandler preprocessorWrapper = new PaxWebPreprocessorsHandler(securityWrapper);
 			this.preprocessorsHandlers.put(contextPath, preprocessorWrapper);
 			deploymentInfo.addOuterHandlerChainWrapper(preprocessorWrapper);
 
@@ -1189,7 +1268,6 @@ class UndertowServerWrapper implements BatchVisitor, UndertowSupport {
 			this.wrappingHandlers.put(contextPath, outerWrapper);
 			deploymentInfo.addOuterHandlerChainWrapper(outerWrapper);
 
-			PaxWebSecurityHandler securityWrapper = new PaxWebSecurityHandler();
 			this.securityHandlers.put(contextPath, securityWrapper);
 			deploymentInfo.addSecurityWrapper(securityWrapper);
 
@@ -1236,6 +1314,7 @@ class UndertowServerWrapper implements BatchVisitor, UndertowSupport {
 			dynamicRegistrations.remove(contextPath);
 			initializers.remove(contextPath);
 			osgiContextModels.remove(contextPath);
+			restartScheduler.removed(contextPath);
 			deploymentInfos.remove(contextPath);
 			securityHandlers.remove(contextPath);
 			wrappingHandlers.remove(contextPath);
@@ -1316,6 +1395,9 @@ class UndertowServerWrapper implements BatchVisitor, UndertowSupport {
 			osgiContext.setAttribute(ServletContext.TEMPDIR, tmpLocation);
 
 			osgiServletContexts.put(osgiModel, osgiContext);
+			if (osgiContext.getClassLoader() instanceof OsgiServletContextClassLoader) {
+				classLoaders.put(osgiModel, (OsgiServletContextClassLoader) osgiContext.getClassLoader());
+			}
 			osgiContextModels.add(osgiModel);
 		}
 
@@ -1325,6 +1407,7 @@ class UndertowServerWrapper implements BatchVisitor, UndertowSupport {
 			LOG.info("Removing {} from {}", osgiModel, contextPath);
 
 			OsgiServletContext removedOsgiServletContext = osgiServletContexts.remove(osgiModel);
+			classLoaders.remove(osgiModel);
 			TreeSet<OsgiContextModel> models = osgiContextModels.get(contextPath);
 			if (models != null) {
 				models.remove(osgiModel);
@@ -1837,8 +1920,8 @@ class UndertowServerWrapper implements BatchVisitor, UndertowSupport {
 			// in PaxWebFilterHolders
 			List<PreprocessorFilterConfig> toInit = new LinkedList<>();
 
-			// clear to keep the order of all available preprocessors
-			preprocessorsHandler.getPreprocessors().clear();
+			// new list to keep the order of all available preprocessors
+			List<PreprocessorFilterConfig> preprocessors = new ArrayList<>();
 
 			for (Iterator<FilterModel> iterator = filters.iterator(); iterator.hasNext(); ) {
 				FilterModel model = iterator.next();
@@ -1859,10 +1942,11 @@ class UndertowServerWrapper implements BatchVisitor, UndertowSupport {
 							return match;
 						});
 					}
-					preprocessorsHandler.getPreprocessors().add(filterConfig);
+					preprocessors.add(filterConfig);
 					iterator.remove();
 				}
 			}
+			preprocessorsHandler.setPreprocessors(preprocessors);
 
 			if (manager != null && manager.getState() == DeploymentManager.State.STARTED) {
 				for (PreprocessorFilterConfig fc : toInit) {
@@ -2069,6 +2153,10 @@ class UndertowServerWrapper implements BatchVisitor, UndertowSupport {
 					// the EventListenerModel
 					stopUndertowContext(contextPath, manager, null, false);
 					stopped = true;
+					restartScheduler.markDirty(contextPath);
+				} else if (restartScheduler.isDirty(contextPath) && ServletContextListener.class.isAssignableFrom(eventListener.getClass())) {
+					// the context is already waiting for a restart - just postpone it
+					restartScheduler.markDirty(contextPath);
 				}
 
 				// add the listener to real context - even ServletContextAttributeListener (but only once - even
@@ -2112,7 +2200,7 @@ class UndertowServerWrapper implements BatchVisitor, UndertowSupport {
 					// register a "callback batch operation", which will be submitted within a new batch
 					// as new task in single paxweb-config thread pool's thread
 					LOG.info("Scheduling start of the {} context after listener registration for already started context", contextPath);
-					change.registerBatchCompletedAction(new ContextStartChange(OpCode.MODIFY, contextPath));
+					change.registerBatchCompletedAction(restartScheduler.restart(contextPath));
 				}
 			});
 		}
@@ -2348,6 +2436,14 @@ class UndertowServerWrapper implements BatchVisitor, UndertowSupport {
 				DeploymentManager manager = getDeploymentManager(path);
 				if (manager != null) {
 					stopUndertowContext(path, manager, null, false);
+					if (restartScheduler.markDirty(path) && restartScheduler.getQuietPeriod() > 0L) {
+						// the start caused by following registration of active web element is deferred
+						// until the quiet period passes, so we have to schedule it
+						change.registerBatchCompletedAction(restartScheduler.restart(path));
+					}
+				} else if (restartScheduler.isDirty(path)) {
+					// the context is already waiting for a restart - just postpone it
+					restartScheduler.markDirty(path);
 				}
 
 				// because of the quirks related to Undertow's deploymentInfo vs. deployment (and their
@@ -2533,6 +2629,12 @@ class UndertowServerWrapper implements BatchVisitor, UndertowSupport {
 	@Override
 	public void visitContextStartChange(ContextStartChange change) {
 		String contextPath = change.getContextPath();
+		ContextStartChange postponed = restartScheduler.postpone(change);
+		if (postponed != null) {
+			// there were more listener registrations in the meantime - wait until they stop coming
+			change.registerBatchCompletedAction(postponed);
+			return;
+		}
 		ensureServletContextStarted(contextPath);
 	}
 
@@ -2616,344 +2718,364 @@ class UndertowServerWrapper implements BatchVisitor, UndertowSupport {
 	 * @param contextPath
 	 */
 	private void ensureServletContextStarted(final String contextPath) {
-		DeploymentManager manager = getDeploymentManager(contextPath);
-
-		if (manager != null || pendingTransaction(contextPath) || !deploymentInfos.containsKey(contextPath)
+		if (getDeploymentManager(contextPath) != null || pendingTransaction(contextPath)
+				|| contextStarter.isStarting(contextPath) || restartScheduler.isStartDeferred(contextPath)) {
+			return;
+		}
+		if (!deploymentInfos.containsKey(contextPath)
 				|| securityHandlers.get(contextPath).getDefaultOsgiContextModel() == null) {
 			return;
 		}
-		try {
-			OsgiContextModel highestRanked = securityHandlers.get(contextPath).getDefaultOsgiContextModel();
-			OsgiServletContext highestRankedContext = osgiServletContexts.get(highestRanked);
-			highestRankedContext.allowServletContextListeners();
-
-			// this one will be used for non-programmatic listeners
-			OsgiDynamicServletContext highestRankedDynamicContext = new OsgiDynamicServletContext(highestRankedContext, dynamicRegistrations.get(contextPath));
-
-			LOG.info("Starting Undertow context \"{}\" with default Osgi Context {}",
-					(contextPath.equals("") ? "/" : contextPath), highestRanked);
-
-			DynamicRegistrations registrations = this.dynamicRegistrations.get(contextPath);
-
-			highestRankedContext.clearAttributesFromPreviousCycle();
-			clearDynamicRegistrations(contextPath, highestRanked);
-
-			// take previously created deployment (possibly with listeners and other "passive" configuration)
-			DeploymentInfo deployment = deploymentInfos.get(contextPath);
-
-			// SCIs require working ServletContext inside OsgiServletContext, but Undertow's ServletContext
-			// is created only later
-			deployment.getServletExtensions().removeIf(e -> e instanceof ContextLinkingServletExtension);
-			// I found that for Keycloak extensions, we kept adding them without removing previous ones
-			// so it's simply easier to remove all the extensions
-			deployment.getServletExtensions().clear();
-			deployment.addServletExtension(new ContextLinkingServletExtension(contextPath, highestRankedContext, highestRankedDynamicContext));
-
-			// first thing - only NOW we can set ServletContext's class loader! It affects many things, including
-			// the TCCL used for example by javax.el.ExpressionFactory.newInstance()
-			if (highestRankedContext.getClassLoader() != null) {
-				deployment.setClassLoader(highestRankedContext.getClassLoader());
-			}
-
-			// copy contexts parameters - from all contexts
-			this.osgiContextModels.get(contextPath).forEach(ocm -> ocm.getContextParams().forEach(deployment::addInitParameter));
-
-			// keycloak accesses resources directly inside
-			// org.keycloak.adapters.undertow.KeycloakServletExtension#handleDeployment where we don't have
-			// access to Osgi contexts
-			deployment.setResourceManager(new OsgiResourceManager("", highestRankedContext));
+		// the DeploymentInfo is configured here, so the starting thread doesn't access the maps of this wrapper.
+		// The actual start (SCIs, listeners, servlet initialization) may be performed in another thread
+		contextStarter.start(contextPath, configureUndertowContext(contextPath));
+	}
 
-			// handle Pax Web specific extensions
-			ServiceLoader<PaxWebUndertowExtension> extensions = ServiceLoader.load(PaxWebUndertowExtension.class, highestRankedContext.getClassLoader());
-			for (PaxWebUndertowExtension extension : extensions) {
-				extension.handleDeployment(deployment, undertowConfiguration, this, highestRanked);
-			}
-
-			// when starting (or, which is possible only with Pax Web, not Undertow itself - restarting), we'll
-			// clear all the SCIs in the deploymentInfo and add new ones (because some of them may have been removed)
-			deployment.getServletContainerInitializers().clear();
-
-			// add all configured initializers, but as special wrappers
-			Collection<OsgiServletContainerInitializerInfo> initializers = new TreeSet<>(this.initializers.get(contextPath));
-			// Initially I thought we should take only these SCIs, which are associated with highest ranked OCM,
-			// but it turned out that just as we take servlets registered to different OsgiContextModels, but
-			// the same ServletContextModel, we have to do the same with SCIs.
-			// otherwise, by default (with HttpService scenario), SCIs from the OsgiContextModel related to
-			// pax-web-extender-whiteboard would be taken (probably 0), simply because this bundle is usually
-			// the first that grabs an instance of bundle-scoped HttpService
-			// so please do not uncomment and keep for educational purposes!
+	/**
+	 * Configures Undertow's {@link DeploymentInfo} for given context and returns the action that starts it.
+	 * The action accesses only the deployment and thread-safe Undertow structures, so it may be run
+	 * in parallel with the start of other contexts.
+	 * @param contextPath
+	 * @return
+	 */
+	private Runnable configureUndertowContext(final String contextPath) {
+		OsgiContextModel highestRanked = securityHandlers.get(contextPath).getDefaultOsgiContextModel();
+		OsgiServletContext highestRankedContext = osgiServletContexts.get(highestRanked);
+		highestRankedContext.allowServletContextListeners();
+
+		// this one will be used for non-programmatic listeners
+		OsgiDynamicServletContext highestRankedDynamicContext = new OsgiDynamicServletContext(highestRankedContext, dynamicRegistrations.get(contextPath));
+
+		LOG.info("Starting Undertow context \"{}\" with default Osgi Context {}",
+				(contextPath.equals("") ? "/" : contextPath), highestRanked);
+
+		DynamicRegistrations registrations = this.dynamicRegistrations.get(contextPath);
+
+		highestRankedContext.clearAttributesFromPreviousCycle();
+		clearDynamicRegistrations(contextPath, highestRanked);
+
+		// take previously created deployment (possibly with listeners and other "passive" configuration)
+		DeploymentInfo deployment = deploymentInfos.get(contextPath);
+
+		// SCIs require working ServletContext inside OsgiServletContext, but Undertow's ServletContext
+		// is created only later
+		deployment.getServletExtensions().removeIf(e -> e instanceof ContextLinkingServletExtension);
+		// I found that for Keycloak extensions, we kept adding them without removing previous ones
+		// so it's simply easier to remove all the extensions
+		deployment.getServletExtensions().clear();
+		deployment.addServletExtension(new ContextLinkingServletExtension(contextPath, highestRankedContext, highestRankedDynamicContext));
+
+		// first thing - only NOW we can set ServletContext's class loader! It affects many things, including
+		// the TCCL used for example by javax.el.ExpressionFactory.newInstance()
+		if (highestRankedContext.getClassLoader() != null) {
+			deployment.setClassLoader(highestRankedContext.getClassLoader());
+		}
+
+		// copy contexts parameters - from all contexts
+		this.osgiContextModels.get(contextPath).forEach(ocm -> ocm.getContextParams().forEach(deployment::addInitParameter));
+
+		// keycloak accesses resources directly inside
+		// org.keycloak.adapters.undertow.KeycloakServletExtension#handleDeployment where we don't have
+		// access to Osgi contexts
+		deployment.setResourceManager(new OsgiResourceManager("", highestRankedContext));
+
+		// handle Pax Web specific extensions
+		ServiceLoader<PaxWebUndertowExtension> extensions = ServiceLoader.load(PaxWebUndertowExtension.class, highestRankedContext.getClassLoader());
+		for (PaxWebUndertowExtension extension : extensions) {
+			extension.handleDeployment(deployment, undertowConfiguration, this, highestRanked);
+		}
+
+		// when starting (or, which is possible only with Pax Web, not Undertow itself - restarting), we'll
+		// clear all the SCIs in the deploymentInfo and add new ones (because some of them may have been removed)
+		deployment.getServletContainerInitializers().clear();
+
+		// add all configured initializers, but as special wrappers
+		Collection<OsgiServletContainerInitializerInfo> initializers = new TreeSet<>(this.initializers.get(contextPath));
+		// Initially I thought we should take only these SCIs, which are associated with highest ranked OCM,
+		// but it turned out that just as we take servlets registered to different OsgiContextModels, but
+		// the same ServletContextModel, we have to do the same with SCIs.
+		// otherwise, by default (with HttpService scenario), SCIs from the OsgiContextModel related to
+		// pax-web-extender-whiteboard would be taken (probably 0), simply because this bundle is usually
+		// the first that grabs an instance of bundle-scoped HttpService
+		// so please do not uncomment and keep for educational purposes!
 //			initializers.removeIf(info -> !info.getModel().getContextModels().contains(highestRanked));
 
-			for (OsgiServletContainerInitializerInfo info : initializers) {
-				// with no Whiteboard support, we can have only one OsgiContextModel per ContainerInitializerModel
-				// but we'll still act as if there could be many
-				deployment.addServletContainerInitializers(info);
-			}
-
-			// and finally add the registering initializer which will also mark the OsgiServletContext as no longer
-			// accepting registration of additional ServletContextListeners
-			RegisteringContainerInitializer registeringSCI = new RegisteringContainerInitializer(highestRankedContext, registrations);
-			deployment.addServletContainerInitializers(new OsgiServletContainerInitializerInfo(registeringSCI));
-
-			deployment.setSessionIdGenerator(new PaxWebSessionIdGenerator());
-			deployment.setSessionConfigWrapper(new SessionConfigWrapper() {
-				@Override
-				public SessionConfig wrap(final SessionConfig sessionConfig, Deployment deployment) {
-					return new SessionConfig() {
-						@Override
-						public void setSessionId(HttpServerExchange exchange, String sessionId) {
-							String prefix = PaxWebSessionIdGenerator.sessionIdPrefix.get();
-							if (prefix != null) {
-								// to trim leading "prefix~" from sessionId
-								sessionId = sessionId.substring(prefix.length() + 1);
-							}
-							sessionConfig.setSessionId(exchange, sessionId);
+		for (OsgiServletContainerInitializerInfo info : initializers) {
+			// with no Whiteboard support, we can have only one OsgiContextModel per ContainerInitializerModel
+			// but we'll still act as if there could be many
+			deployment.addServletContainerInitializers(info);
+		}
+
+		// and finally add the registering initializer which will also mark the OsgiServletContext as no longer
+		// accepting registration of additional ServletContextListeners
+		RegisteringContainerInitializer registeringSCI = new RegisteringContainerInitializer(highestRankedContext, registrations);
+		deployment.addServletContainerInitializers(new OsgiServletContainerInitializerInfo(registeringSCI));
+
+		deployment.setSessionIdGenerator(new PaxWebSessionIdGenerator());
+		deployment.setSessionConfigWrapper(new SessionConfigWrapper() {
+			@Override
+			public SessionConfig wrap(final SessionConfig sessionConfig, Deployment deployment) {
+				return new SessionConfig() {
+					@Override
+					public void setSessionId(HttpServerExchange exchange, String sessionId) {
+						String prefix = PaxWebSessionIdGenerator.sessionIdPrefix.get();
+						if (prefix != null) {
+							// to trim leading "prefix~" from sessionId
+							sessionId = sessionId.substring(prefix.length() + 1);
 						}
+						sessionConfig.setSessionId(exchange, sessionId);
+					}
 
-						@Override
-						public void clearSession(HttpServerExchange exchange, String sessionId) {
-							sessionConfig.clearSession(exchange, sessionId);
-						}
+					@Override
+					public void clearSession(HttpServerExchange exchange, String sessionId) {
+						sessionConfig.clearSession(exchange, sessionId);
+					}
 
-						@Override
-						public String findSessionId(HttpServerExchange exchange) {
-							String prefix = PaxWebSessionIdGenerator.sessionIdPrefix.get();
-							String id = sessionConfig.findSessionId(exchange);
-							int idx = id == null ? -1 : id.indexOf('~');
-							if (idx >= 0) {
-								id = id.substring(idx + 1);
-							}
-							if (id != null && prefix == null) {
-								// we may be restoring sessions in ServletInitialHandler...
-								ServletRequestContext ctx = exchange.getAttachment(ServletRequestContext.ATTACHMENT_KEY);
-								if (ctx != null && ctx.getCurrentServlet() != null) {
-									if (ctx.getCurrentServlet().getManagedServlet() != null && ctx.getCurrentServlet().getManagedServlet().getServletInfo() instanceof PaxWebServletInfo) {
-										OsgiContextModel osgiContextModel;
-										PaxWebServletInfo paxWebServletInfo = (PaxWebServletInfo) ctx.getCurrentServlet().getManagedServlet().getServletInfo();
-
-										if (!paxWebServletInfo.is404()) {
-											osgiContextModel = paxWebServletInfo.getServletContext().getOsgiContextModel();
-										} else {
-											osgiContextModel = paxWebServletInfo.getOsgiContextModel();
-										}
-										prefix = osgiContextModel == null ? null : osgiContextModel.getTemporaryLocation().replaceAll("/", "_");
+					@Override
+					public String findSessionId(HttpServerExchange exchange) {
+						String prefix = PaxWebSessionIdGenerator.sessionIdPrefix.get();
+						String id = sessionConfig.findSessionId(exchange);
+						int idx = id == null ? -1 : id.indexOf('~');
+						if (idx >= 0) {
+							id = id.substring(idx + 1);
+						}
+						if (id != null && prefix == null) {
+							// we may be restoring sessions in ServletInitialHandler...
+							ServletRequestContext ctx = exchange.getAttachment(ServletRequestContext.ATTACHMENT_KEY);
+							if (ctx != null && ctx.getCurrentServlet() != null) {
+								if (ctx.getCurrentServlet().getManagedServlet() != null && ctx.getCurrentServlet().getManagedServlet().getServletInfo() instanceof PaxWebServletInfo) {
+									OsgiContextModel osgiContextModel;
+									PaxWebServletInfo paxWebServletInfo = (PaxWebServletInfo) ctx.getCurrentServlet().getManagedServlet().getServletInfo();
+
+									if (!paxWebServletInfo.is404()) {
+										osgiContextModel = paxWebServletInfo.getServletContext().getOsgiContextModel();
+									} else {
+										osgiContextModel = paxWebServletInfo.getOsgiContextModel();
 									}
+									prefix = osgiContextModel == null ? null : osgiContextModel.getTemporaryLocation().replaceAll("/", "_");
 								}
 							}
-							if (prefix != null && id != null) {
-								// to add leading "prefix~" to sessionId
-								return prefix + "~" + id;
-							}
-							return id;
 						}
-
-						@Override
-						public SessionCookieSource sessionCookieSource(HttpServerExchange exchange) {
-							return sessionConfig.sessionCookieSource(exchange);
-						}
-
-						@Override
-						public String rewriteUrl(String originalUrl, String sessionId) {
-							return sessionConfig.rewriteUrl(originalUrl, sessionId);
+						if (prefix != null && id != null) {
+							// to add leading "prefix~" to sessionId
+							return prefix + "~" + id;
 						}
-					};
-				}
-			});
-			deployment.setSessionManagerFactory(new InMemorySessionManagerFactory());
-
-			// alter session configuration
-			SessionConfigurationModel session = highestRanked.getSessionConfiguration();
-			if (session != null) {
-				if (session.getSessionTimeout() != null) {
-					deployment.setDefaultSessionTimeout(session.getSessionTimeout() * 60);
-				}
-				SessionCookieConfig scc = session.getSessionCookieConfig();
-				if (scc == null) {
-					scc = configuration.session().getDefaultSessionCookieConfig();
-				}
-				ServletSessionConfig ssc = deployment.getServletSessionConfig();
-				if (scc != null) {
-					if (ssc == null) {
-						ssc = new ServletSessionConfig();
-						deployment.setServletSessionConfig(ssc);
-					}
-					if (scc.getName() != null) {
-						ssc.setName(scc.getName());
+						return id;
 					}
-					if (scc.getDomain() != null) {
-						ssc.setDomain(scc.getDomain());
-					}
-					if (scc.getPath() != null) {
-						ssc.setPath(scc.getPath());
+
+					@Override
+					public SessionCookieSource sessionCookieSource(HttpServerExchange exchange) {
+						return sessionConfig.sessionCookieSource(exchange);
 					}
-					ssc.setMaxAge(scc.getMaxAge());
-					ssc.setHttpOnly(scc.isHttpOnly());
-					ssc.setSecure(scc.isSecure());
-					ssc.setComment(scc.getComment());
 
-					if (session.getTrackingModes().size() > 0) {
-						ssc.setSessionTrackingModes(session.getTrackingModes());
+					@Override
+					public String rewriteUrl(String originalUrl, String sessionId) {
+						return sessionConfig.rewriteUrl(originalUrl, sessionId);
 					}
-				}
+				};
 			}
+		});
+		deployment.setSessionManagerFactory(new InMemorySessionManagerFactory());
 
-			// security configuration - from all relevant OsgiContextModels
-			Map<OsgiContextModel, SecurityConfigurationModel> allSecConfigs = contextSecurityConstraints.get(contextPath);
-			SecurityConfigurationModel securityConfig = null;
-			if (allSecConfigs != null && allSecConfigs.size() > 0) {
-				securityConfig = allSecConfigs.values().iterator().next();
+		// alter session configuration
+		SessionConfigurationModel session = highestRanked.getSessionConfiguration();
+		if (session != null) {
+			if (session.getSessionTimeout() != null) {
+				deployment.setDefaultSessionTimeout(session.getSessionTimeout() * 60);
 			}
-			if (securityConfig == null) {
-				// no context processing available - just use highest-ranked model
-				securityConfig = highestRanked.getSecurityConfiguration();
-				allSecConfigs = Collections.singletonMap(highestRanked, securityConfig);
+			SessionCookieConfig scc = session.getSessionCookieConfig();
+			if (scc == null) {
+				scc = configuration.session().getDefaultSessionCookieConfig();
 			}
-			LoginConfigModel lc = securityConfig != null ? securityConfig.getLoginConfig() : null;
+			ServletSessionConfig ssc = deployment.getServletSessionConfig();
+			if (scc != null) {
+				if (ssc == null) {
+					ssc = new ServletSessionConfig();
+					deployment.setServletSessionConfig(ssc);
+				}
+				if (scc.getName() != null) {
+					ssc.setName(scc.getName());
+				}
+				if (scc.getDomain() != null) {
+					ssc.setDomain(scc.getDomain());
+				}
+				if (scc.getPath() != null) {
+					ssc.setPath(scc.getPath());
+				}
+				ssc.setMaxAge(scc.getMaxAge());
+				ssc.setHttpOnly(scc.isHttpOnly());
+				ssc.setSecure(scc.isSecure());
+				ssc.setComment(scc.getComment());
 
-			if (lc == null) {
-				deployment.setLoginConfig(null);
-			} else {
-				String authMethod = lc.getAuthMethod();
-				String realmName = lc.getRealmName();
-				if ("BASIC".equals(authMethod) || "DIGEST".equals(authMethod)) {
-					if (realmName == null) {
-						realmName = "default";
-					}
+				if (session.getTrackingModes().size() > 0) {
+					ssc.setSessionTrackingModes(session.getTrackingModes());
 				}
+			}
+		}
 
-				ServletExtension customAuthenticator = getAuthenticator(authMethod.toUpperCase());
-				if (customAuthenticator != null) {
-					LOG.debug("Setting custom Undertow authenticator {}", customAuthenticator);
-					deployment.getServletExtensions().add(customAuthenticator);
+		// security configuration - from all relevant OsgiContextModels
+		Map<OsgiContextModel, SecurityConfigurationModel> allSecConfigs = contextSecurityConstraints.get(contextPath);
+		SecurityConfigurationModel securityConfig = null;
+		if (allSecConfigs != null && allSecConfigs.size() > 0) {
+			securityConfig = allSecConfigs.values().iterator().next();
+		}
+		if (securityConfig == null) {
+			// no context processing available - just use highest-ranked model
+			securityConfig = highestRanked.getSecurityConfiguration();
+			allSecConfigs = Collections.singletonMap(highestRanked, securityConfig);
+		}
+		LoginConfigModel lc = securityConfig != null ? securityConfig.getLoginConfig() : null;
+
+		if (lc == null) {
+			deployment.setLoginConfig(null);
+		} else {
+			String authMethod = lc.getAuthMethod();
+			String realmName = lc.getRealmName();
+			if ("BASIC".equals(authMethod) || "DIGEST".equals(authMethod)) {
+				if (realmName == null) {
+					realmName = "default";
 				}
+			}
 
-				deployment.setLoginConfig(new LoginConfig(authMethod, realmName,
-						lc.getFormLoginPage(), lc.getFormErrorPage()));
+			ServletExtension customAuthenticator = getAuthenticator(authMethod.toUpperCase());
+			if (customAuthenticator != null) {
+				LOG.debug("Setting custom Undertow authenticator {}", customAuthenticator);
+				deployment.getServletExtensions().add(customAuthenticator);
 			}
 
-			deployment.getSecurityRoles().clear();
-			deployment.getSecurityConstraints().clear();
+			deployment.setLoginConfig(new LoginConfig(authMethod, realmName,
+					lc.getFormLoginPage(), lc.getFormErrorPage()));
+		}
 
-			// roles and constraints are not taken only from the highest ranked OsgiContextModel - they're
-			// taken from all the OCMs for given context path - on order of OCM rank
-			// it's up to user to take care of the conflicts, because simple rank-ordering will add higher-ranked
-			// rules first - the container may decide to override or reject the lower ranked later.
+		deployment.getSecurityRoles().clear();
+		deployment.getSecurityConstraints().clear();
 
-			List<SecurityConstraintModel> allConstraints = new ArrayList<>();
-			Set<String> allRoles = new LinkedHashSet<>();
-			allSecConfigs.values().forEach(sc -> {
-				allConstraints.addAll(sc.getSecurityConstraints());
-				allRoles.addAll(sc.getSecurityRoles());
-			});
+		// roles and constraints are not taken only from the highest ranked OsgiContextModel - they're
+		// taken from all the OCMs for given context path - on order of OCM rank
+		// it's up to user to take care of the conflicts, because simple rank-ordering will add higher-ranked
+		// rules first - the container may decide to override or reject the lower ranked later.
 
-			deployment.addSecurityRoles(allRoles);
+		List<SecurityConstraintModel> allConstraints = new ArrayList<>();
+		Set<String> allRoles = new LinkedHashSet<>();
+		allSecConfigs.values().forEach(sc -> {
+			allConstraints.addAll(sc.getSecurityConstraints());
+			allRoles.addAll(sc.getSecurityRoles());
+		});
 
-			for (SecurityConstraintModel constraintModel : allConstraints) {
-				SecurityConstraint constraint = new SecurityConstraint();
-				if (constraintModel.isAuthRolesSet()) {
-					constraint.setEmptyRoleSemantic(SecurityInfo.EmptyRoleSemantic.AUTHENTICATE);
-				}
-				constraint.addRolesAllowed(constraintModel.getAuthRoles());
-				if (constraintModel.getTransportGuarantee() == ServletSecurity.TransportGuarantee.NONE) {
-					constraint.setTransportGuaranteeType(TransportGuaranteeType.NONE);
-				} else if (constraintModel.getTransportGuarantee() == ServletSecurity.TransportGuarantee.CONFIDENTIAL) {
-					constraint.setTransportGuaranteeType(TransportGuaranteeType.CONFIDENTIAL);
-				}
-				for (SecurityConstraintModel.WebResourceCollection col : constraintModel.getWebResourceCollections()) {
-					WebResourceCollection wrc = new WebResourceCollection();
-					boolean methodSet = false;
-					wrc.addHttpMethods(col.getMethods());
-					if (col.getMethods().size() == 0) {
-						wrc.addHttpMethodOmissions(col.getOmittedMethods());
-					}
-					wrc.addUrlPatterns(col.getPatterns());
-					constraint.addWebResourceCollection(wrc);
+		deployment.addSecurityRoles(allRoles);
+
+		for (SecurityConstraintModel constraintModel : allConstraints) {
+			SecurityConstraint constraint = new SecurityConstraint();
+			if (constraintModel.isAuthRolesSet()) {
+				constraint.setEmptyRoleSemantic(SecurityInfo.EmptyRoleSemantic.AUTHENTICATE);
+			}
+			constraint.addRolesAllowed(constraintModel.getAuthRoles());
+			if (constraintModel.getTransportGuarantee() == ServletSecurity.TransportGuarantee.NONE) {
+				constraint.setTransportGuaranteeType(TransportGuaranteeType.NONE);
+			} else if (constraintModel.getTransportGuarantee() == ServletSecurity.TransportGuarantee.CONFIDENTIAL) {
+				constraint.setTransportGuaranteeType(TransportGuaranteeType.CONFIDENTIAL);
+			}
+			for (SecurityConstraintModel.WebResourceCollection col : constraintModel.getWebResourceCollections()) {
+				WebResourceCollection wrc = new WebResourceCollection();
+				boolean methodSet = false;
+				wrc.addHttpMethods(col.getMethods());
+				if (col.getMethods().size() == 0) {
+					wrc.addHttpMethodOmissions(col.getOmittedMethods());
 				}
-				deployment.addSecurityConstraint(constraint);
+				wrc.addUrlPatterns(col.getPatterns());
+				constraint.addWebResourceCollection(wrc);
 			}
+			deployment.addSecurityConstraint(constraint);
+		}
 
-			// only now add the listeners in correct order
+		// only now add the listeners in correct order
 
-			// SCIs may have added some listeners which we've hijacked, to order them according
-			// to Whiteboard/ranking rules. Now it's perfect time to add them in correct order
-			for (int pos = 0; pos < orderedListeners.get(contextPath).size(); pos++) {
-				PaxWebListenerInfo li = orderedListeners.get(contextPath).get(pos);
-				rankedListeners.get(contextPath).put(EventListenerKey.ofPosition(pos), li);
-			}
+		// SCIs may have added some listeners which we've hijacked, to order them according
+		// to Whiteboard/ranking rules. Now it's perfect time to add them in correct order
+		for (int pos = 0; pos < orderedListeners.get(contextPath).size(); pos++) {
+			PaxWebListenerInfo li = orderedListeners.get(contextPath).get(pos);
+			rankedListeners.get(contextPath).put(EventListenerKey.ofPosition(pos), li);
+		}
 
-			for (ListenerInfo li : rankedListeners.get(contextPath).values()) {
-				deployment.addListener(li);
-			}
+		for (ListenerInfo li : rankedListeners.get(contextPath).values()) {
+			deployment.addListener(li);
+		}
 
-			// taking virtual host / connector configuration from OsgiContextModel - see
-			// org.eclipse.jetty.server.handler.ContextHandler.checkVirtualHost() and similar pax-web-jetty code
-			List<String> allVirtualHosts = new ArrayList<>();
-			List<String> vhosts = new ArrayList<>(highestRanked.getVirtualHosts());
-			if (vhosts.isEmpty()) {
-				vhosts.addAll(Arrays.asList(configuration.server().getVirtualHosts()));
+		// taking virtual host / connector configuration from OsgiContextModel - see
+		// org.eclipse.jetty.server.handler.ContextHandler.checkVirtualHost() and similar pax-web-jetty code
+		List<String> allVirtualHosts = new ArrayList<>();
+		List<String> vhosts = new ArrayList<>(highestRanked.getVirtualHosts());
+		if (vhosts.isEmpty()) {
+			vhosts.addAll(Arrays.asList(configuration.server().getVirtualHosts()));
+		}
+		List<String> connectors = new ArrayList<>(highestRanked.getConnectors());
+		if (connectors.isEmpty()) {
+			connectors.addAll(Arrays.asList(configuration.server().getConnectors()));
+		}
+		for (String vhost : vhosts) {
+			if (vhost == null || "".equals(vhost.trim())) {
+				continue;
 			}
-			List<String> connectors = new ArrayList<>(highestRanked.getConnectors());
-			if (connectors.isEmpty()) {
-				connectors.addAll(Arrays.asList(configuration.server().getConnectors()));
+			if (vhost.startsWith("@")) {
+				// it is a connector
+				allVirtualHosts.add(vhost);
+			} else {
+				// it is a normal virtual host (yes - don't process it anyway)
+				allVirtualHosts.add(vhost);
 			}
-			for (String vhost : vhosts) {
-				if (vhost == null || "".equals(vhost.trim())) {
-					continue;
-				}
-				if (vhost.startsWith("@")) {
-					// it is a connector
-					allVirtualHosts.add(vhost);
-				} else {
-					// it is a normal virtual host (yes - don't process it anyway)
-					allVirtualHosts.add(vhost);
-				}
+		}
+		for (String c : connectors) {
+			if (c == null || "".equals(c.trim())) {
+				continue;
 			}
-			for (String c : connectors) {
-				if (c == null || "".equals(c.trim())) {
-					continue;
-				}
-				if (c.startsWith("@")) {
-					// it is a connector, but should be specified as special Jetty's VHost - add without processing
-					allVirtualHosts.add(c);
-				} else {
-					// it is a connector, but should be added as "@" prefixed VHost
-					allVirtualHosts.add("@" + c);
-				}
+			if (c.startsWith("@")) {
+				// it is a connector, but should be specified as special Jetty's VHost - add without processing
+				allVirtualHosts.add(c);
+			} else {
+				// it is a connector, but should be added as "@" prefixed VHost
+				allVirtualHosts.add("@" + c);
 			}
+		}
 
-			PaxWebOuterHandlerWrapper handlerWrapper = wrappingHandlers.get(contextPath);
-			if (handlerWrapper != null) {
-				handlerWrapper.setVirtualHosts(allVirtualHosts.toArray(new String[0]));
-			}
+		PaxWebOuterHandlerWrapper handlerWrapper = wrappingHandlers.get(contextPath);
+		if (handlerWrapper != null) {
+			handlerWrapper.setVirtualHosts(allVirtualHosts.toArray(new String[0]));
+		}
+
+		List<PreprocessorFilterConfig> preprocessors = preprocessorsHandlers.get(contextPath).getPreprocessors();
 
-			manager = servletContainer.addDeployment(deployment);
+		return () -> {
+			try {
+				DeploymentManager manager = servletContainer.addDeployment(deployment);
 
-			// here's where Undertow-specific instance of javax.servlet.ServletContext is created
-			manager.deploy();
+				// here's where Undertow-specific instance of javax.servlet.ServletContext is created
+				manager.deploy();
 
-			HttpHandler handler = manager.start();
+				HttpHandler handler = manager.start();
+				restartScheduler.started(contextPath);
 
-			// the above start() ends with filter initialization and just after that, the state is changed
-			// to State.STARTED. So we can start preprocessors here
-			for (PreprocessorFilterConfig fc : preprocessorsHandlers.get(contextPath).getPreprocessors()) {
-				if (!fc.isInitCalled()) {
-					fc.getInstance().init(fc);
-					fc.setInitCalled(true);
+				// the above start() ends with filter initialization and just after that, the state is changed
+				// to State.STARTED. So we can start preprocessors here
+				for (PreprocessorFilterConfig fc : preprocessors) {
+					if (!fc.isInitCalled()) {
+						fc.getInstance().init(fc);
+						fc.setInitCalled(true);
+					}
 				}
-			}
 
-			highestRankedDynamicContext.rememberAttributesFromSCIs();
+				highestRankedDynamicContext.rememberAttributesFromSCIs();
 
-			// actual registration of "context" in Undertow's path handler.
-			pathHandler.addPrefixPath(contextPath, handler);
+				// actual registration of "context" in Undertow's path handler.
+				pathHandler.addPrefixPath(contextPath, handler);
 
-			// only now, according to https://docs.osgi.org/specification/osgi.cmpn/7.0.0/service.war.html#d0e100694
-			// register the servlet context
-			highestRankedContext.register();
-		} catch (ServletException e) {
-			throw new IllegalStateException("Can't start Undertow context "
-					+ contextPath + ": " + e.getMessage(), e);
-		}
+				// only now, according to https://docs.osgi.org/specification/osgi.cmpn/7.0.0/service.war.html#d0e100694
+				// register the servlet context
+				highestRankedContext.register();
+			} catch (ServletException e) {
+				throw new IllegalStateException("Can't start Undertow context "
+						+ contextPath + ": " + e.getMessage(), e);
+			}
+		};
 	}
 
 	private boolean pendingTransaction(String contextPath) {
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2026 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.web.service.undertow.internal.security;
+
+import io.undertow.security.idm.Account;
+import io.undertow.security.idm.Credential;
+import io.undertow.security.idm.IdentityManager;
+import io.undertow.security.idm.PasswordCredential;
+import org.ops4j.pax.web.service.spi.util.CredentialCache;
+
+/**
+ * {@link IdentityManager} that remembers successful password verifications of {@link JaasIdentityManager} or
+ * {@link PropertiesIdentityManager} in a {@link CredentialCache}, so full (possibly remote) JAAS login isn't
+ * performed for every request with BASIC credentials. Other credentials are always verified by the delegate.
+ */
+public class CachingIdentityManager implements IdentityManager {
+
+	private final IdentityManager delegate;
+	private final String realm;
+	private final CredentialCache<Account> cache;
+
+	public CachingIdentityManager(IdentityManager delegate, String realm, CredentialCache<Account> cache) {
+		this.delegate = delegate;
+		this.realm = realm;
+		this.cache = cache;
+	}
+
+	@Override
+	public Account verify(Account account) {
+		return delegate.verify(account);
+	}
+
+	@Override
+	public Account verify(Credential credential) {
+		return delegate.verify(credential);
+	}
+
+	@Override
+	public Account verify(String id, Credential credential) {
+		if (!(credential instanceof PasswordCredential)) {
+			return delegate.verify(id, credential);
+		}
+		char[] password = ((PasswordCredential) credential).getPassword();
+		Account account = cache.get(realm, id, password);
+		if (account == null) {
+			account = delegate.verify(id, credential);
+			cache.put(realm, id, password, account);
+		}
+		return account;
+	}
+
+	/**
+	 * Clears the cache, for example when the realm configuration changes.
+	 */
+	public void invalidate() {
+		cache.invalidate();
+	}
+
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright 2026 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.web.service.undertow.internal.web;
+
+import java.io.File;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import io.undertow.io.IoCallback;
+import io.undertow.io.Sender;
+import io.undertow.server.HttpServerExchange;
+import io.undertow.server.handlers.resource.Resource;
+import io.undertow.util.ETag;
+import io.undertow.util.MimeMappings;
+import org.ops4j.pax.web.service.spi.util.CompressedContentCache;
+
+/**
+ * Virtual {@code .gz} sibling of a {@link Resource} with the content compressed on the fly and kept in
+ * {@link CompressedContentCache}.
+ */
+class CompressedResource implements Resource {
+
+	private final Resource original;
+	private final byte[] compressed;
+
+	CompressedResource(Resource original, byte[] compressed) {
+		this.original = original;
+		this.compressed = compressed;
+	}
+
+	@Override
+	public void serve(Sender sender, HttpServerExchange exchange, IoCallback completionCallback) {
+		sender.send(ByteBuffer.wrap(compressed).asReadOnlyBuffer(), completionCallback);
+	}
+
+	@Override
+	public Long getContentLength() {
+		return (long) compressed.length;
+	}
+
+	@Override
+	public String getPath() {
+		return original.getPath() + CompressedContentCache.EXTENSION;
+	}
+
+	@Override
+	public Date getLastModified() {
+		return original.getLastModified();
+	}
+
+	@Override
+	public String getLastModifiedString() {
+		return original.getLastModifiedString();
+	}
+
+	@Override
+	public ETag getETag() {
+		ETag etag = original.getETag();
+		return etag == null ? null : new ETag(etag.isWeak(), etag.getTag() + "-" + CompressedContentCache.ENCODING);
+	}
+
+	@Override
+	public String getName() {
+		return original.getName() + CompressedContentCache.EXTENSION;
+	}
+
+	@Override
+	public boolean isDirectory() {
+		return false;
+	}
+
+	@Override
+	public List<Resource> list() {
+		return Collections.emptyList();
+	}
+
+	@Override
+	public String getContentType(MimeMappings mimeMappings) {
+		return original.getContentType(mimeMappings);
+	}
+
+	@Override
+	public String getCacheKey() {
+		String key = original.getCacheKey();
+		return key == null ? null : key + CompressedContentCache.EXTENSION;
+	}
+
+	@Override
+	public File getFile() {
+		return null;
+	}
+
+	@Override
+	public Path getFilePath() {
+		return null;
+	}
+
+	@Override
+	public File getResourceManagerRoot() {
+		return original.getResourceManagerRoot();
+	}
+
+	@Override
+	public Path getResourceManagerRootPath() {
+		return original.getResourceManagerRootPath();
+	}
+
+	@Override
+	public URL getUrl() {
+		return original.getUrl();
+	}
+
+}
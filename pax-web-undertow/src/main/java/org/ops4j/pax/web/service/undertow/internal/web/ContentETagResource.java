@@ -0,0 +1,166 @@
+/*
+ * Copyright 2026 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.web.service.undertow.internal.web;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.file.Path;
+import java.util.Date;
+import java.util.List;
+
+import io.undertow.io.IoCallback;
+import io.undertow.io.Sender;
+import io.undertow.server.HttpServerExchange;
+import io.undertow.server.handlers.resource.RangeAwareResource;
+import io.undertow.server.handlers.resource.Resource;
+import io.undertow.util.ETag;
+import io.undertow.util.MimeMappings;
+import org.ops4j.pax.web.service.spi.util.ContentETagCache;
+import org.osgi.framework.Bundle;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Bundle {@link Resource} with strong entity tag taken from {@link ContentETagCache}. Undertow's
+ * {@link io.undertow.server.handlers.resource.URLResource} has no entity tag at all, so without this
+ * wrapper, conditional requests can be handled only using last modification time.
+ */
+class ContentETagResource implements Resource, RangeAwareResource {
+
+	private static final Logger LOG = LoggerFactory.getLogger(ContentETagResource.class);
+
+	private final Resource resource;
+	private final ContentETagCache cache;
+	private final Bundle bundle;
+
+	private ETag etag;
+	private boolean calculated;
+
+	ContentETagResource(Resource resource, ContentETagCache cache, Bundle bundle) {
+		this.resource = resource;
+		this.cache = cache;
+		this.bundle = bundle;
+	}
+
+	@Override
+	public ETag getETag() {
+		if (!calculated) {
+			calculated = true;
+			URL url = resource.getUrl();
+			if (url != null) {
+				try {
+					String tag = cache.getETag(bundle, url.toExternalForm(), url::openStream);
+					if (tag != null) {
+						etag = new ETag(false, tag);
+					}
+				} catch (IOException e) {
+					LOG.warn("Problem calculating entity tag of {}: {}", url, e.getMessage(), e);
+				}
+			}
+			if (etag == null) {
+				etag = resource.getETag();
+			}
+		}
+		return etag;
+	}
+
+	@Override
+	public void serve(Sender sender, HttpServerExchange exchange, IoCallback completionCallback) {
+		resource.serve(sender, exchange, completionCallback);
+	}
+
+	@Override
+	public void serveRange(Sender sender, HttpServerExchange exchange, long start, long end, IoCallback completionCallback) {
+		((RangeAwareResource) resource).serveRange(sender, exchange, start, end, completionCallback);
+	}
+
+	@Override
+	public boolean isRangeSupported() {
+		return resource instanceof RangeAwareResource && ((RangeAwareResource) resource).isRangeSupported();
+	}
+
+	@Override
+	public Long getContentLength() {
+		return resource.getContentLength();
+	}
+
+	@Override
+	public String getPath() {
+		return resource.getPath();
+	}
+
+	@Override
+	public Date getLastModified() {
+		return resource.getLastModified();
+	}
+
+	@Override
+	public String getLastModifiedString() {
+		return resource.getLastModifiedString();
+	}
+
+	@Override
+	public String getName() {
+		return resource.getName();
+	}
+
+	@Override
+	public boolean isDirectory() {
+		return resource.isDirectory();
+	}
+
+	@Override
+	public List<Resource> list() {
+		return resource.list();
+	}
+
+	@Override
+	public String getContentType(MimeMappings mimeMappings) {
+		return resource.getContentType(mimeMappings);
+	}
+
+	@Override
+	public String getCacheKey() {
+		return resource.getCacheKey();
+	}
+
+	@Override
+	public File getFile() {
+		return resource.getFile();
+	}
+
+	@Override
+	public Path getFilePath() {
+		return resource.getFilePath();
+	}
+
+	@Override
+	public File getResourceManagerRoot() {
+		return resource.getResourceManagerRoot();
+	}
+
+	@Override
+	public Path getResourceManagerRootPath() {
+		return resource.getResourceManagerRootPath();
+	}
+
+	@Override
+	public URL getUrl() {
+		return resource.getUrl();
+	}
+
+}
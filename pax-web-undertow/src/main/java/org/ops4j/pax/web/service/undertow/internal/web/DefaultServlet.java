@@ -234,10 +234,21 @@ public class DefaultServlet extends HttpServlet {
                 resp.sendError(StatusCodes.NOT_FOUND);
                 return;
             }
+            // Pax Web: extension point for additional headers of existing files
+            addFileHeaders(req, resp, path);
             serveFileBlocking(req, resp, resource, exchange);
         }
     }
 
+    /**
+     * Pax Web: called before serving an existing file (including {@code 304} responses).
+     * @param req
+     * @param resp
+     * @param path path of the file, as passed to {@link ResourceSupplier}
+     */
+    protected void addFileHeaders(HttpServletRequest req, HttpServletResponse resp, String path) {
+    }
+
     @Override
     protected void doPost(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
         if(allowPost) {
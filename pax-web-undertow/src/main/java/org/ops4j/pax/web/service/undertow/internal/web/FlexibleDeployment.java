@@ -50,7 +50,20 @@ public class FlexibleDeployment implements Deployment {
 	private final ServletContextImpl servletContext;
 
 	public FlexibleDeployment(final ServletContext servletContext, final ResourceManager resourceManager) {
+		this(servletContext, resourceManager, false);
+	}
+
+	/**
+	 * Creates a deployment which may also declare Brotli precompressed resources.
+	 * @param servletContext
+	 * @param resourceManager
+	 * @param brotli whether {@code .br} resources should be served to clients accepting {@code br} encoding
+	 */
+	public FlexibleDeployment(final ServletContext servletContext, final ResourceManager resourceManager, boolean brotli) {
 		final Map<String, String> preCompressedResources = new HashMap<>();
+		if (brotli) {
+			preCompressedResources.put("br", ".br");
+		}
 		preCompressedResources.put("gzip", ".gz");
 		this.deploymentInfo = new DeploymentInfo() {
 			@Override
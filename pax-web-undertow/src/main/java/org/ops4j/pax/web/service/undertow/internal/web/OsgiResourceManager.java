@@ -31,6 +31,8 @@ import io.undertow.server.handlers.resource.Resource;
 import io.undertow.server.handlers.resource.ResourceChangeListener;
 import io.undertow.server.handlers.resource.ResourceManager;
 import io.undertow.server.handlers.resource.URLResource;
+import org.ops4j.pax.web.service.spi.servlet.OsgiScopedServletContext;
+import org.ops4j.pax.web.service.spi.util.BundleFileResolver;
 import org.osgi.service.http.HttpContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -55,6 +57,9 @@ public class OsgiResourceManager implements ResourceManager {
 	private final FileETagFunction fileETagFunction;
 	private final PathResourceManager pathResourceManager;
 
+	/** Not {@code null} for bundles installed from a directory - their entries are served as files */
+	private final BundleFileResolver bundleFileResolver;
+
 	public OsgiResourceManager(String chroot, ServletContext osgiScopedServletContext) {
 		this.chroot = chroot;
 		this.osgiScopedServletContext = osgiScopedServletContext;
@@ -67,6 +72,8 @@ public class OsgiResourceManager implements ResourceManager {
 				// base won't be used
 				.setBase(location.toPath())
 				.build();
+		this.bundleFileResolver = osgiScopedServletContext instanceof OsgiScopedServletContext
+				? BundleFileResolver.create(((OsgiScopedServletContext) osgiScopedServletContext).getBundle()) : null;
 	}
 
 	@Override
@@ -89,7 +96,13 @@ public class OsgiResourceManager implements ResourceManager {
 		}
 
 		Resource res = null;
-		if (resource.getProtocol().equals("file")) {
+		File bundleFile = bundleFileResolver == null ? null : bundleFileResolver.resolve(resource);
+		if (bundleFile != null) {
+			// entry of a bundle installed from a directory - PathResource is served with FileChannel.transferTo()
+			// and supports ranges without reading skipped content
+			Path file = bundleFile.toPath();
+			res = new PathResource(file, pathResourceManager, resource.getPath(), fileETagFunction.generate(file));
+		} else if (resource.getProtocol().equals("file")) {
 			try {
 				Path file = Paths.get(resource.toURI());
 				if (file.toFile().isFile()) {
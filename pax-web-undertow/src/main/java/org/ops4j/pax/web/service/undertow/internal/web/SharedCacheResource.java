@@ -0,0 +1,198 @@
+/*
+ * Copyright 2026 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.web.service.undertow.internal.web;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.Date;
+import java.util.List;
+
+import io.undertow.io.IoCallback;
+import io.undertow.io.Sender;
+import io.undertow.server.HttpServerExchange;
+import io.undertow.server.handlers.resource.RangeAwareResource;
+import io.undertow.server.handlers.resource.Resource;
+import io.undertow.util.ETag;
+import io.undertow.util.MimeMappings;
+import org.ops4j.pax.web.service.spi.util.SharedResourceCache;
+import org.osgi.framework.Bundle;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * {@link Resource} which serves its content from {@link SharedResourceCache}. The content is loaded (or found
+ * in the cache) only when it's actually needed - all other information is taken from the wrapped resource.
+ */
+class SharedCacheResource implements Resource, RangeAwareResource {
+
+	private static final Logger LOG = LoggerFactory.getLogger(SharedCacheResource.class);
+
+	private final Resource resource;
+	private final SharedResourceCache cache;
+	private final Bundle bundle;
+
+	private ByteBuffer content;
+	private boolean loaded;
+
+	/**
+	 * @param resource
+	 * @param cache
+	 * @param bundle the bundle for which the resource servlet is registered or {@code null} if the resources
+	 *        are served from a directory (so resource last modification time is used as a version)
+	 */
+	SharedCacheResource(Resource resource, SharedResourceCache cache, Bundle bundle) {
+		this.resource = resource;
+		this.cache = cache;
+		this.bundle = bundle;
+	}
+
+	/**
+	 * Returns the content from shared cache or {@code null} if it can't be cached.
+	 * @return
+	 */
+	private ByteBuffer content() {
+		if (!loaded) {
+			loaded = true;
+			URL url = resource.getUrl();
+			if (url != null) {
+				Date lastModified = resource.getLastModified();
+				Long length = resource.getContentLength();
+				try {
+					content = cache.getContent(bundle, lastModified == null ? 0L : lastModified.getTime(),
+							url.toExternalForm(), length == null ? -1L : length, url::openStream);
+				} catch (IOException e) {
+					LOG.warn("Problem caching {}: {}", url, e.getMessage(), e);
+				}
+			}
+		}
+		return content == null ? null : content.duplicate();
+	}
+
+	@Override
+	public void serve(Sender sender, HttpServerExchange exchange, IoCallback completionCallback) {
+		ByteBuffer buffer = content();
+		if (buffer == null) {
+			resource.serve(sender, exchange, completionCallback);
+			return;
+		}
+		sender.send(buffer, completionCallback);
+	}
+
+	@Override
+	public void serveRange(Sender sender, HttpServerExchange exchange, long start, long end, IoCallback completionCallback) {
+		ByteBuffer buffer = content();
+		if (buffer == null) {
+			((RangeAwareResource) resource).serveRange(sender, exchange, start, end, completionCallback);
+			return;
+		}
+		// end is inclusive
+		buffer.limit((int) Math.min(buffer.limit(), end + 1));
+		buffer.position((int) Math.min(buffer.limit(), start));
+		sender.send(buffer, completionCallback);
+	}
+
+	@Override
+	public boolean isRangeSupported() {
+		return content() != null
+				|| (resource instanceof RangeAwareResource && ((RangeAwareResource) resource).isRangeSupported());
+	}
+
+	@Override
+	public Long getContentLength() {
+		Long length = resource.getContentLength();
+		if (length == null) {
+			ByteBuffer buffer = content();
+			if (buffer != null) {
+				length = (long) buffer.remaining();
+			}
+		}
+		return length;
+	}
+
+	@Override
+	public String getPath() {
+		return resource.getPath();
+	}
+
+	@Override
+	public Date getLastModified() {
+		return resource.getLastModified();
+	}
+
+	@Override
+	public String getLastModifiedString() {
+		return resource.getLastModifiedString();
+	}
+
+	@Override
+	public ETag getETag() {
+		return resource.getETag();
+	}
+
+	@Override
+	public String getName() {
+		return resource.getName();
+	}
+
+	@Override
+	public boolean isDirectory() {
+		return resource.isDirectory();
+	}
+
+	@Override
+	public List<Resource> list() {
+		return resource.list();
+	}
+
+	@Override
+	public String getContentType(MimeMappings mimeMappings) {
+		return resource.getContentType(mimeMappings);
+	}
+
+	@Override
+	public String getCacheKey() {
+		return resource.getCacheKey();
+	}
+
+	@Override
+	public File getFile() {
+		return resource.getFile();
+	}
+
+	@Override
+	public Path getFilePath() {
+		return resource.getFilePath();
+	}
+
+	@Override
+	public File getResourceManagerRoot() {
+		return resource.getResourceManagerRoot();
+	}
+
+	@Override
+	public Path getResourceManagerRootPath() {
+		return resource.getResourceManagerRootPath();
+	}
+
+	@Override
+	public URL getUrl() {
+		return resource.getUrl();
+	}
+
+}
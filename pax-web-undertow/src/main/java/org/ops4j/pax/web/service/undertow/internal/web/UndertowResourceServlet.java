@@ -18,6 +18,7 @@ package org.ops4j.pax.web.service.undertow.internal.web;
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Paths;
+import java.util.Date;
 import java.util.Enumeration;
 import javax.servlet.DispatcherType;
 import javax.servlet.RequestDispatcher;
@@ -37,6 +38,11 @@ import io.undertow.server.handlers.resource.ResourceManager;
 import io.undertow.servlet.spec.HttpServletRequestImpl;
 import org.ops4j.pax.web.service.spi.servlet.OsgiScopedServletContext;
 import org.ops4j.pax.web.service.spi.servlet.OsgiServletContext;
+import org.ops4j.pax.web.service.spi.util.CompressedContentCache;
+import org.ops4j.pax.web.service.spi.util.ContentETagCache;
+import org.ops4j.pax.web.service.spi.util.ImmutableResources;
+import org.ops4j.pax.web.service.spi.util.SharedResourceCache;
+import org.osgi.framework.Bundle;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -82,6 +88,23 @@ public class UndertowResourceServlet extends DefaultServlet implements ResourceM
 	private Integer maxSize;
 	private Integer maxAge;
 
+	/** Server-wide cache used instead of per-servlet {@link CachingResourceManager} */
+	private SharedResourceCache sharedResourceCache;
+	private Bundle bundle;
+
+	/** Server-wide cache of content compressed on the fly, exposed as virtual {@code .gz} resources */
+	private CompressedContentCache compressedContentCache;
+	private boolean precompressed;
+
+	/** Server-wide cache of strong entity tags of bundle resources */
+	private ContentETagCache contentETagCache;
+
+	/** Fingerprinted resources served with {@code Cache-Control: immutable} */
+	private ImmutableResources immutableResources;
+
+	/** The context passed to {@link #init(ServletConfig)} - used to determine MIME types of the resources */
+	private ServletContext osgiServletContext;
+
 	public UndertowResourceServlet(File baseDirectory, String chroot) {
 		this.baseDirectory = baseDirectory;
 		this.chroot = chroot;
@@ -111,6 +134,35 @@ public class UndertowResourceServlet extends DefaultServlet implements ResourceM
 		this.cacheConfigurable = true;
 	}
 
+	/**
+	 * Configures server-wide cache, which replaces (along with its global memory budget) the cache configured
+	 * using {@link #setCachingConfiguration}.
+	 * @param sharedResourceCache
+	 */
+	public void setSharedResourceCache(SharedResourceCache sharedResourceCache) {
+		this.sharedResourceCache = sharedResourceCache;
+	}
+
+	public void setCompressedContentCache(CompressedContentCache compressedContentCache) {
+		this.compressedContentCache = compressedContentCache;
+	}
+
+	public void setContentETagCache(ContentETagCache contentETagCache) {
+		this.contentETagCache = contentETagCache;
+	}
+
+	public void setImmutableResources(ImmutableResources immutableResources) {
+		this.immutableResources = immutableResources;
+	}
+
+	/**
+	 * Enables serving of {@code .br} precompressed variants ({@code .gz} variants are always served).
+	 * @param precompressed
+	 */
+	public void setPrecompressed(boolean precompressed) {
+		this.precompressed = precompressed;
+	}
+
 	public void setWelcomeFiles(String[] welcomeFiles) {
 		this.welcomeFiles = welcomeFiles;
 		configureCache();
@@ -122,6 +174,7 @@ public class UndertowResourceServlet extends DefaultServlet implements ResourceM
 
 	@Override
 	public void init(final ServletConfig config) throws ServletException {
+		osgiServletContext = config.getServletContext();
 		configureCache();
 
 		// we need to call super.init() with:
@@ -137,7 +190,7 @@ public class UndertowResourceServlet extends DefaultServlet implements ResourceM
 		// I know it's not very good design, but pax-web-jetty and pax-web-tomcat use server native "resource servlet"
 		// so I tried hard to use Undertow specific "resource servlet" as well
 		// this special context is used to obtain tweaked io.undertow.servlet.api.Deployment object
-		FlexibleDeployment deployment = new FlexibleDeployment(config.getServletContext(), cachingResourceManager);
+		FlexibleDeployment deployment = new FlexibleDeployment(config.getServletContext(), cachingResourceManager, precompressed);
 		ServletContext flexibleServletContext = new FlexibleServletContextImpl(deployment);
 
 		super.init(new ServletConfig() {
@@ -190,11 +243,18 @@ public class UndertowResourceServlet extends DefaultServlet implements ResourceM
 			// assuming that servletContext is Osgi[Scoped]ServletContext that delegate to WebContainerContext
 			// it's important to get ServletContext from the passed config!
 			this.resourceManager = new OsgiResourceManager(chroot, config.getServletContext());
+			// resources from configured directory are versioned by their own last modification time
+			if (osgiScopedServletContext instanceof OsgiScopedServletContext) {
+				bundle = ((OsgiScopedServletContext) osgiScopedServletContext).getBundle();
+			}
 		}
 	}
 
 	private void configureCache() {
-		if (cacheConfigurable) {
+		if (sharedResourceCache != null) {
+			// no per-servlet cache - getResource() returns resources with content from the shared cache
+			cachingResourceManager = this;
+		} else if (cacheConfigurable) {
 			// io.undertow.server.handlers.file.FileHandlerStressTestCase#simpleFileStressTest uses "1024, 10, 10480"
 			// see:
 			// this.pool = new LimitedBufferSlicePool(..., sliceSize, sliceSize * slicesPerPage, maxMemory / (sliceSize * slicesPerPage));
@@ -225,6 +285,15 @@ public class UndertowResourceServlet extends DefaultServlet implements ResourceM
 		}
 
 		if (requestURI == null || !requestURI.endsWith("/")) {
+			if (compressedContentCache != null) {
+				String path = getResourcePath(req, included);
+				if (path != null && path.endsWith(CompressedContentCache.EXTENSION)
+						&& resourceManager.getResource(path) == null) {
+					// virtual .gz resources are only precompressed variants of the original resources
+					resp.sendError(HttpServletResponse.SC_NOT_FOUND);
+					return;
+				}
+			}
 			super.doGet(req, resp);
 			return;
 		}
@@ -334,6 +403,19 @@ public class UndertowResourceServlet extends DefaultServlet implements ResourceM
 		super.doGet(req, resp);
 	}
 
+	/**
+	 * Returns the path of requested resource - the same path as calculated (without canonicalization) in
+	 * private {@code io.undertow.servlet.handlers.DefaultServlet.getPath()}.
+	 * @param req
+	 * @param included
+	 * @return
+	 */
+	private String getResourcePath(HttpServletRequest req, boolean included) {
+		String servletPath = included ? (String) req.getAttribute(RequestDispatcher.INCLUDE_SERVLET_PATH) : req.getServletPath();
+		String pathInfo = included ? (String) req.getAttribute(RequestDispatcher.INCLUDE_PATH_INFO) : req.getPathInfo();
+		return pathInfo == null ? servletPath : pathInfo;
+	}
+
 	@Override
 	protected void doOptions(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
 		// https://github.com/ops4j/org.ops4j.pax.web/issues/1664
@@ -363,7 +445,48 @@ public class UndertowResourceServlet extends DefaultServlet implements ResourceM
 				path = "";
 			}
 		}
-		return resourceManager.getResource(path);
+		Resource resource = resourceManager.getResource(path);
+		if (resource == null && compressedContentCache != null && path.endsWith(CompressedContentCache.EXTENSION)) {
+			// no precompressed variant - PreCompressedResourceSupplier will use the content compressed on the fly
+			return getCompressedResource(path.substring(0, path.length() - CompressedContentCache.EXTENSION.length()));
+		}
+		if (resource == null || resource.isDirectory()) {
+			return resource;
+		}
+		if (sharedResourceCache != null) {
+			resource = new SharedCacheResource(resource, sharedResourceCache, bundle);
+		}
+		return withContentETag(resource);
+	}
+
+	private Resource withContentETag(Resource resource) {
+		if (contentETagCache != null && bundle != null) {
+			return new ContentETagResource(resource, contentETagCache, bundle);
+		}
+		return resource;
+	}
+
+	@Override
+	protected void addFileHeaders(HttpServletRequest req, HttpServletResponse resp, String path) {
+		// super.doGet() already checked that the file exists
+		if (immutableResources != null && req.getDispatcherType() != DispatcherType.INCLUDE
+				&& immutableResources.isImmutable(path)) {
+			resp.setHeader(ImmutableResources.CACHE_CONTROL, immutableResources.getCacheControl());
+		}
+	}
+
+	private Resource getCompressedResource(String path) throws IOException {
+		Resource resource = resourceManager.getResource(path);
+		if (resource == null || resource.isDirectory() || resource.getUrl() == null
+				|| !compressedContentCache.isCompressible(osgiServletContext.getMimeType(resource.getName()))) {
+			return null;
+		}
+		Date lastModified = resource.getLastModified();
+		Long length = resource.getContentLength();
+		byte[] compressed = compressedContentCache.getCompressed(bundle, lastModified == null ? 0L : lastModified.getTime(),
+				resource.getUrl().toExternalForm(), length == null ? -1L : length, resource.getUrl()::openStream);
+		// the entity tag of compressed variant is derived from the tag of the original resource
+		return compressed == null ? null : new CompressedResource(withContentETag(resource), compressed);
 	}
 
 	@Override
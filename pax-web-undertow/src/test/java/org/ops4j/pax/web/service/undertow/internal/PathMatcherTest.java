@@ -0,0 +1,62 @@
+/*
+ * Copyright 2026 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.web.service.undertow.internal;
+
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class PathMatcherTest {
+
+	@Test
+	public void sameResultsAsUndertowPathMatcher() {
+		String[] prefixes = { "/", "/a", "/a/b", "/a/b/c/", "/ab", "b", "/c//d", "/Aa", "/BB", "/x/y" };
+		String[] paths = { "", "/", "/a", "/a/", "/a/b", "/a/bc", "/a/b/c", "/a/b/c/d", "/ab", "/ab/x", "/abc",
+				"/b", "/b/", "/c", "/c/d", "/c//d", "/c//d/e", "//a", "/Aa/x", "/BB", "/x", "/x/y/z", "a/b" };
+
+		PathMatcher<String> matcher = new PathMatcher<>();
+		io.undertow.util.PathMatcher<String> undertowMatcher = new io.undertow.util.PathMatcher<>();
+		for (String prefix : prefixes) {
+			matcher.addPrefixPath(prefix, prefix);
+			undertowMatcher.addPrefixPath(prefix, prefix);
+		}
+		matcher.addExactPath("/exact", "exact");
+		undertowMatcher.addExactPath("/exact", "exact");
+
+		for (int i = 0; i < 2; i++) {
+			for (String path : paths) {
+				PathMatcher.PathMatch<String> m1 = matcher.match(path);
+				io.undertow.util.PathMatcher.PathMatch<String> m2 = undertowMatcher.match(path);
+				assertThat(path, m1.getValue(), equalTo(m2.getValue()));
+				assertThat(path, m1.getMatched(), equalTo(m2.getMatched()));
+				assertThat(path, m1.getRemaining(), equalTo(m2.getRemaining()));
+			}
+			assertThat(matcher.match("/exact").getValue(), equalTo("exact"));
+			assertThat(matcher.match("/exact/").getValue(), equalTo("exact"));
+
+			// the same paths after removal
+			matcher.removePrefixPath("/a/b");
+			undertowMatcher.removePrefixPath("/a/b");
+			matcher.removePrefixPath("/");
+			undertowMatcher.removePrefixPath("/");
+		}
+
+		assertThat(matcher.match("/x/y"), sameInstance(matcher.match("/x/y")));
+	}
+
+}
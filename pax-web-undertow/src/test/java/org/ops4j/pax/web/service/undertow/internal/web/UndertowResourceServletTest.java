@@ -0,0 +1,133 @@
+/*
+ * Copyright 2026 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.web.service.undertow.internal.web;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+import io.undertow.Undertow;
+import io.undertow.servlet.Servlets;
+import io.undertow.servlet.api.DeploymentInfo;
+import io.undertow.servlet.api.DeploymentManager;
+import io.undertow.servlet.util.ImmediateInstanceFactory;
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.ops4j.pax.web.service.spi.util.CompressedContentCache;
+import org.ops4j.pax.web.service.spi.util.SharedResourceCache;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class UndertowResourceServletTest {
+
+	private static final String CONTENT = new String(new char[2048]).replace('\0', 'x');
+
+	private Undertow server;
+	private int port;
+
+	@Before
+	public void start() throws Exception {
+		File base = new File("target/compressed");
+		FileUtils.deleteDirectory(base);
+		base.mkdirs();
+		FileUtils.write(new File(base, "hello.txt"), CONTENT, StandardCharsets.UTF_8);
+
+		UndertowResourceServlet servlet = new UndertowResourceServlet(base, null);
+		servlet.setSharedResourceCache(new SharedResourceCache(1024 * 1024, 64 * 1024));
+		servlet.setCompressedContentCache(new CompressedContentCache(1024 * 1024, 64 * 1024, new String[] { "text/*" }));
+
+		DeploymentInfo deploymentInfo = Servlets.deployment()
+				.setClassLoader(getClass().getClassLoader())
+				.setContextPath("/")
+				.setDeploymentName("compressed")
+				.addServlet(Servlets.servlet("default", UndertowResourceServlet.class,
+						new ImmediateInstanceFactory<>(servlet)).addMapping("/d/*"));
+		DeploymentManager manager = Servlets.defaultContainer().addDeployment(deploymentInfo);
+		manager.deploy();
+
+		server = Undertow.builder()
+				.addHttpListener(0, "127.0.0.1")
+				.setHandler(manager.start())
+				.build();
+		server.start();
+		port = ((InetSocketAddress) server.getListenerInfo().get(0).getAddress()).getPort();
+	}
+
+	@After
+	public void stop() {
+		server.stop();
+	}
+
+	@Test
+	public void compressedVariantFirst() throws Exception {
+		assertCompressed(send("/d/hello.txt", "Accept-Encoding: gzip"));
+		assertTrue(send("/d/hello.txt.gz").startsWith("HTTP/1.1 404"));
+		assertOriginal(send("/d/hello.txt"));
+		assertCompressed(send("/d/hello.txt", "Accept-Encoding: gzip"));
+	}
+
+	@Test
+	public void directRequestFirst() throws Exception {
+		assertTrue(send("/d/hello.txt.gz").startsWith("HTTP/1.1 404"));
+		assertTrue(send("/d/hello.txt.gz", "Accept-Encoding: gzip").startsWith("HTTP/1.1 404"));
+		assertOriginal(send("/d/hello.txt"));
+		assertCompressed(send("/d/hello.txt", "Accept-Encoding: gzip"));
+		assertOriginal(send("/d/hello.txt"));
+	}
+
+	private void assertCompressed(String response) {
+		assertTrue(response.startsWith("HTTP/1.1 200"));
+		assertTrue(response.contains("Content-Encoding: gzip"));
+		assertFalse(response.endsWith(CONTENT));
+	}
+
+	private void assertOriginal(String response) {
+		assertTrue(response.startsWith("HTTP/1.1 200"));
+		assertFalse(response.contains("Content-Encoding: gzip"));
+		assertTrue(response.endsWith("\r\n\r\n" + CONTENT));
+	}
+
+	private String send(String request, String... headers) throws IOException {
+		try (Socket s = new Socket()) {
+			s.connect(new InetSocketAddress("127.0.0.1", port));
+			StringBuilder sb = new StringBuilder();
+			sb.append("GET ").append(request).append(" HTTP/1.1\r\n");
+			sb.append("Host: 127.0.0.1:").append(port).append("\r\n");
+			for (String header : headers) {
+				sb.append(header).append("\r\n");
+			}
+			sb.append("Connection: close\r\n\r\n");
+			s.getOutputStream().write(sb.toString().getBytes(StandardCharsets.ISO_8859_1));
+
+			ByteArrayOutputStream baos = new ByteArrayOutputStream();
+			InputStream is = s.getInputStream();
+			byte[] buf = new byte[4096];
+			int read;
+			while ((read = is.read(buf)) > 0) {
+				baos.write(buf, 0, read);
+			}
+			return new String(baos.toByteArray(), StandardCharsets.ISO_8859_1);
+		}
+	}
+
+}